@@ -0,0 +1,117 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AccelerationTest extends JPAStreamerTest {
+
+    private static JPAStreamer acceleratedStreamer;
+
+    @BeforeAll
+    static void beforeAll() {
+        acceleratedStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withAcceleration(Duration.ofMinutes(1), Film.class)
+                .withIndex(Film$.rating)
+                .build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        acceleratedStreamer.close();
+    }
+
+    @Test
+    void filter() {
+        final List<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.length.between(60, 120))
+                .filter(Film$.rating.equal("PG-13"))
+                .sorted(Film$.filmId)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = acceleratedStreamer.stream(Film.class)
+                .filter(Film$.length.between(60, 120))
+                .filter(Film$.rating.equal("PG-13"))
+                .sorted(Film$.filmId)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void filterString() {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.title.startsWith("A"))
+                .filter(Film$.length.in(46, 47, 48))
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        final Set<Integer> actual = acceleratedStreamer.stream(Film.class)
+                .filter(Film$.title.startsWith("A"))
+                .filter(Film$.length.in(46, 47, 48))
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void count() {
+        assertEquals(
+                jpaStreamer.stream(Film.class).filter(Film$.length.greaterThan(120)).count(),
+                acceleratedStreamer.stream(Film.class).filter(Film$.length.greaterThan(120)).count()
+        );
+        assertEquals(jpaStreamer.stream(Film.class).count(), acceleratedStreamer.stream(Film.class).count());
+    }
+
+    @Test
+    void index() {
+        final List<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(1, 2, 3, 500))
+                .filter(Film$.rating.equal("PG"))
+                .sorted(Film$.filmId)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = acceleratedStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(1, 2, 3, 500))
+                .filter(Film$.rating.equal("PG"))
+                .sorted(Film$.filmId)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void refresh() {
+        final long expected = jpaStreamer.stream(Film.class).count();
+        acceleratedStreamer.resetStreamer(Film.class);
+        assertEquals(expected, acceleratedStreamer.stream(Film.class).count());
+    }
+
+}
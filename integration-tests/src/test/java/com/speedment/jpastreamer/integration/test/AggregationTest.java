@@ -0,0 +1,133 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Payment;
+import com.speedment.jpastreamer.integration.test.model.Payment$;
+import org.junit.jupiter.api.Test;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AggregationTest extends JPAStreamerTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    void countTest() {
+        final List<Payment> payments = payments();
+
+        assertEquals(payments.size(), jpaStreamer.stream(Payment.class).count());
+        assertEquals(count(payments, p -> p.getStaffId() == 1), jpaStreamer.stream(Payment.class)
+                .filter(Payment$.staffId.equal(1))
+                .count());
+        assertEquals(0, jpaStreamer.stream(Payment.class)
+                .filter(Payment$.paymentId.lessThan(0L))
+                .count());
+    }
+
+    @Test
+    void intAggregatesTest() {
+        final List<Payment> payments = payments();
+
+        assertEquals(payments.stream().mapToInt(Payment::getCustomerId).sum(),
+                jpaStreamer.stream(Payment.class).mapToInt(Payment$.customerId).sum());
+        assertEquals(payments.stream().mapToInt(Payment::getCustomerId).min(),
+                jpaStreamer.stream(Payment.class).mapToInt(Payment$.customerId).min());
+        assertEquals(payments.stream().mapToInt(Payment::getCustomerId).max(),
+                jpaStreamer.stream(Payment.class).mapToInt(Payment$.customerId).max());
+        // The average of an integer column must not be truncated by the database
+        assertEquals(payments.stream().mapToInt(Payment::getCustomerId).average(),
+                jpaStreamer.stream(Payment.class).mapToInt(Payment$.customerId).average());
+        assertEquals(payments.stream().filter(p -> p.getCustomerId() <= 3).mapToInt(Payment::getStaffId).average(),
+                jpaStreamer.stream(Payment.class).filter(Payment$.customerId.lessOrEqual(3)).mapToInt(Payment$.staffId).average());
+
+        final IntSummaryStatistics expected = payments.stream().mapToInt(Payment::getCustomerId).summaryStatistics();
+        final IntSummaryStatistics actual = jpaStreamer.stream(Payment.class).mapToInt(Payment$.customerId).summaryStatistics();
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void longAggregatesTest() {
+        final List<Payment> payments = payments();
+
+        assertEquals(payments.stream().mapToLong(Payment::getPaymentId).sum(),
+                jpaStreamer.stream(Payment.class).mapToLong(Payment$.paymentId).sum());
+        assertEquals(payments.stream().mapToLong(Payment::getPaymentId).min(),
+                jpaStreamer.stream(Payment.class).mapToLong(Payment$.paymentId).min());
+        assertEquals(payments.stream().mapToLong(Payment::getPaymentId).max(),
+                jpaStreamer.stream(Payment.class).mapToLong(Payment$.paymentId).max());
+        assertEquals(payments.stream().mapToLong(Payment::getPaymentId).average(),
+                jpaStreamer.stream(Payment.class).mapToLong(Payment$.paymentId).average());
+
+        final LongSummaryStatistics expected = payments.stream().mapToLong(Payment::getPaymentId).summaryStatistics();
+        final LongSummaryStatistics actual = jpaStreamer.stream(Payment.class).mapToLong(Payment$.paymentId).summaryStatistics();
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void doubleAggregatesTest() {
+        final List<Payment> payments = payments();
+
+        assertEquals(payments.stream().mapToDouble(Payment::getAmount).sum(),
+                jpaStreamer.stream(Payment.class).mapToDouble(Payment$.amount).sum(), DELTA);
+        assertEquals(payments.stream().mapToDouble(Payment::getAmount).min().orElseThrow(),
+                jpaStreamer.stream(Payment.class).mapToDouble(Payment$.amount).min().orElseThrow(), DELTA);
+        assertEquals(payments.stream().mapToDouble(Payment::getAmount).max().orElseThrow(),
+                jpaStreamer.stream(Payment.class).mapToDouble(Payment$.amount).max().orElseThrow(), DELTA);
+        assertEquals(payments.stream().mapToDouble(Payment::getAmount).average().orElseThrow(),
+                jpaStreamer.stream(Payment.class).mapToDouble(Payment$.amount).average().orElseThrow(), DELTA);
+
+        final DoubleSummaryStatistics expected = payments.stream().mapToDouble(Payment::getAmount).summaryStatistics();
+        final DoubleSummaryStatistics actual = jpaStreamer.stream(Payment.class).mapToDouble(Payment$.amount).summaryStatistics();
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum(), DELTA);
+        assertEquals(expected.getMin(), actual.getMin(), DELTA);
+        assertEquals(expected.getMax(), actual.getMax(), DELTA);
+    }
+
+    @Test
+    void emptyAggregatesTest() {
+        assertEquals(0, jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToInt(Payment$.customerId).sum());
+        assertEquals(0L, jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToLong(Payment$.paymentId).sum());
+        assertEquals(0d, jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToDouble(Payment$.amount).sum());
+
+        assertFalse(jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToInt(Payment$.customerId).min().isPresent());
+        assertFalse(jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToLong(Payment$.paymentId).max().isPresent());
+        assertFalse(jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToDouble(Payment$.amount).min().isPresent());
+        assertFalse(jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToInt(Payment$.customerId).average().isPresent());
+        assertFalse(jpaStreamer.stream(Payment.class).filter(Payment$.paymentId.lessThan(0L)).mapToDouble(Payment$.amount).average().isPresent());
+
+        assertEquals(new IntSummaryStatistics().toString(), jpaStreamer.stream(Payment.class)
+                .filter(Payment$.paymentId.lessThan(0L))
+                .mapToInt(Payment$.customerId)
+                .summaryStatistics()
+                .toString());
+    }
+
+    private static List<Payment> payments() {
+        return jpaStreamer.stream(Payment.class).collect(Collectors.toList());
+    }
+
+    private static long count(final List<Payment> payments, final Predicate<Payment> predicate) {
+        return payments.stream().filter(predicate).count();
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChunkedTest extends JPAStreamerTest {
+
+    private static final StreamConfiguration<Film> CHUNKED = StreamConfiguration.of(Film.class).chunked(Film$.filmId, 64);
+
+    @Test
+    void chunked() {
+        final List<Film> expected = jpaStreamer.stream(Film.class)
+                .filter(f -> f.getLength() > 120)
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .collect(Collectors.toList());
+
+        final List<Film> actual = jpaStreamer.stream(CHUNKED)
+                .filter(Film$.length.greaterThan(120))
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void chunkedSkipLimit() {
+        final List<Film> expected = jpaStreamer.stream(Film.class)
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .skip(100)
+                .limit(150)
+                .collect(Collectors.toList());
+
+        final List<Film> actual = jpaStreamer.stream(CHUNKED)
+                .skip(100)
+                .limit(150)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void chunkedSorted() {
+        final List<Film> expected = jpaStreamer.stream(Film.class)
+                .filter(f -> "PG".equals(f.getRating()))
+                .sorted(Comparator.comparing(Film::getTitle))
+                .collect(Collectors.toList());
+
+        final List<Film> actual = jpaStreamer.stream(CHUNKED)
+                .filter(Film$.rating.equal("PG"))
+                .sorted(Film$.title)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void chunkedNonUniqueKey() {
+        // Chunks of films of the same length would overlap or leave gaps
+        final StreamConfiguration<Film> chunked = StreamConfiguration.of(Film.class).chunked(Film$.length, 64);
+
+        assertThrows(IllegalStateException.class, () -> jpaStreamer.stream(chunked).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Payment;
+import com.speedment.jpastreamer.integration.test.model.Payment$;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorTest extends JPAStreamerTest {
+
+    private static final int SAMPLES = 100;
+
+    @Test
+    void boundedHeap() {
+        // Projected payments are not managed, so only the cursor could hold on to the streamed elements
+        final StreamConfiguration<Payment> sc = StreamConfiguration.of(Payment.class)
+            .selecting(Projection.select(Payment$.paymentId, Payment$.amount))
+            .withFetchSize(100)
+            .withForwardOnly()
+            .withReadOnly();
+
+        final long expected = jpaStreamer.stream(Payment.class).count();
+        final List<WeakReference<Payment>> samples = new ArrayList<>();
+        final AtomicLong streamed = new AtomicLong();
+
+        try (final Stream<Payment> payments = jpaStreamer.stream(sc)) {
+            payments.forEach(payment -> {
+                final long index = streamed.getAndIncrement();
+                if (index < SAMPLES) {
+                    samples.add(new WeakReference<>(payment));
+                } else if (index == expected / 2) {
+                    // Halfway through the result, the first elements must no longer be reachable
+                    assertTrue(collected(samples), "Streamed elements are retained");
+                }
+            });
+        }
+
+        assertEquals(expected, streamed.get());
+    }
+
+    private static boolean collected(final List<WeakReference<Payment>> references) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            if (references.stream().allMatch(reference -> reference.get() == null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the entity managers created by an EntityManagerFactory of the sakila
+ * persistence unit, and the largest number of them that were open at once.
+ */
+final class EntityManagerCounter implements AutoCloseable {
+
+    private final EntityManagerFactory delegate = Persistence.createEntityManagerFactory("sakila");
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+    private final EntityManagerFactory entityManagerFactory = proxy(EntityManagerFactory.class, (method, args) -> {
+        final Object result = invoke(method, delegate, args);
+        if (result instanceof EntityManager) {
+            created.incrementAndGet();
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            final EntityManager entityManager = (EntityManager) result;
+            return proxy(EntityManager.class, (entityManagerMethod, entityManagerArgs) -> {
+                if (entityManagerMethod.getName().equals("close") && entityManager.isOpen()) {
+                    open.decrementAndGet();
+                }
+                return invoke(entityManagerMethod, entityManager, entityManagerArgs);
+            });
+        }
+        return result;
+    });
+
+    EntityManagerFactory entityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    int created() {
+        return created.get();
+    }
+
+    int maxOpen() {
+        return maxOpen.get();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static <T> T proxy(final Class<T> type, final Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> handler.handle(method, args)));
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+}
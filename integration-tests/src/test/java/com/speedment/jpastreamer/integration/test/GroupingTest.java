@@ -0,0 +1,61 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.field.collector.FieldCollectors;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.integration.test.model.Payment;
+import com.speedment.jpastreamer.integration.test.model.Payment$;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GroupingTest extends JPAStreamerTest {
+
+    @Test
+    void groupingCountingTest() {
+
+        final List<Film> films = jpaStreamer.stream(Film.class).collect(Collectors.toList());
+
+        final Map<String, Long> expected = films.stream()
+                .filter(f -> f.getTitle().startsWith("A"))
+                .collect(Collectors.groupingBy(Film::getRating, Collectors.counting()));
+
+        final Map<String, Long> actual = jpaStreamer.stream(Film.class)
+                .filter(Film$.title.startsWith("A"))
+                .collect(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.counting()));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void groupingAveragingIntTest() {
+
+        final List<Payment> payments = jpaStreamer.stream(Payment.class).collect(Collectors.toList());
+
+        final Map<Integer, Double> expected = payments.stream()
+                .collect(Collectors.groupingBy(Payment::getStaffId, Collectors.averagingInt(Payment::getCustomerId)));
+
+        final Map<Integer, Double> actual = jpaStreamer.stream(Payment.class)
+                .collect(FieldCollectors.groupingBy(Payment$.staffId, FieldCollectors.averagingInt(Payment$.customerId)));
+
+        // The average of an integer column is computed exactly, as in memory
+        assertEquals(expected, actual);
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.integration.test.model.Payment;
+import com.speedment.jpastreamer.integration.test.model.Payment$;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InListTest extends JPAStreamerTest {
+
+    private static final Set<Integer> IDS = IntStream.rangeClosed(-2000, 2000).boxed().collect(Collectors.toSet());
+
+    @Test
+    void count() {
+        final long expected = jpaStreamer.stream(Film.class).count();
+
+        final long actual = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(IDS))
+                .count();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void combined() {
+        final List<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.length.greaterThan(120))
+                .map(Film::getFilmId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(IDS))
+                .filter(Film$.length.greaterThan(120))
+                .map(Film::getFilmId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void countChunks() {
+        // Every other id, so that each chunk of the IN-list matches some but not all films
+        final Set<Integer> evenIds = IntStream.rangeClosed(0, 2000).filter(id -> id % 2 == 0).boxed().collect(Collectors.toSet());
+
+        final long expected = jpaStreamer.stream(Film.class)
+                .filter(f -> f.getFilmId() % 2 == 0)
+                .collect(Collectors.toList())
+                .size();
+
+        assertEquals(expected, jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(evenIds))
+                .count());
+
+        final long expectedLong = jpaStreamer.stream(Film.class)
+                .filter(f -> f.getFilmId() % 2 == 0 && f.getLength() > 120)
+                .collect(Collectors.toList())
+                .size();
+
+        assertEquals(expectedLong, jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(evenIds))
+                .filter(Film$.length.greaterThan(120))
+                .count());
+    }
+
+    @Test
+    void sum() {
+        final Set<Long> paymentIds = LongStream.rangeClosed(1, 5000).boxed().collect(Collectors.toSet());
+
+        final int expected = jpaStreamer.stream(Payment.class)
+                .collect(Collectors.toList())
+                .stream()
+                .filter(p -> p.getPaymentId() <= 5000)
+                .mapToInt(Payment::getCustomerId)
+                .sum();
+
+        final int actual = jpaStreamer.stream(Payment.class)
+                .filter(Payment$.paymentId.in(paymentIds))
+                .mapToInt(Payment$.customerId)
+                .sum();
+
+        assertEquals(expected, actual);
+    }
+
+}
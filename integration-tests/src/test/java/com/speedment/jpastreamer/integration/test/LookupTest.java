@@ -0,0 +1,92 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LookupTest extends JPAStreamerTest {
+
+    @Test
+    void findFirst() {
+        final Optional<Film> film = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.equal(42))
+                .findFirst();
+
+        assertTrue(film.isPresent());
+        assertEquals(42, (int) film.get().getFilmId());
+    }
+
+    @Test
+    void findAnyMissing() {
+        final Optional<Film> film = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.equal(-1))
+                .findAny();
+
+        assertFalse(film.isPresent());
+    }
+
+    @Test
+    void collectIn() {
+        final Set<Integer> ids = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(1, 2, 3, -1))
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(1, 2, 3), ids);
+
+        final List<Film> films = jpaStreamer.stream(Film.class)
+                .filter(Film$.filmId.in(1, 2, 3, -1))
+                .collect(Collectors.toList());
+
+        assertEquals(3, films.size());
+    }
+
+    @Test
+    void readOnly() {
+        final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory("sakila");
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final JPAStreamer streamer = JPAStreamer.of(() -> entityManager);
+
+            // A lookup would return the entity managed by the persistence context rather than as read-only
+            final Film film = streamer.stream(StreamConfiguration.of(Film.class).withReadOnly())
+                    .filter(Film$.filmId.equal(42))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals(42, (int) film.getFilmId());
+            assertTrue(entityManager.unwrap(Session.class).isReadOnly(film));
+        } finally {
+            entityManager.close();
+            entityManagerFactory.close();
+        }
+    }
+
+}
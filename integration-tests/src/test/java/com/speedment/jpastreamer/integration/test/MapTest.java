@@ -0,0 +1,69 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MapTest extends JPAStreamerTest {
+
+    @Test
+    void mapFieldTest() {
+
+        final List<Film> films = jpaStreamer.stream(Film.class).collect(Collectors.toList());
+
+        final List<String> expected = films.stream()
+                .filter(f -> f.getTitle().startsWith("A"))
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .map(Film::getTitle)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        final List<String> actual = jpaStreamer.stream(Film.class)
+                .filter(Film$.title.startsWith("A"))
+                .sorted(Film$.filmId)
+                .map(Film$.title)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void mapFieldMapperTest() {
+
+        final List<Film> films = jpaStreamer.stream(Film.class).collect(Collectors.toList());
+
+        final List<Integer> expected = films.stream()
+                .filter(f -> f.getTitle().startsWith("A"))
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .map(Film::getLength)
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = jpaStreamer.stream(Film.class)
+                .filter(Film$.title.startsWith("A"))
+                .sorted(Film$.filmId)
+                .map(Film$.length.asInt())
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+}
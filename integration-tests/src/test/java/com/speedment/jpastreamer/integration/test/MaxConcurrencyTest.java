@@ -0,0 +1,134 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.application.StreamSupplier;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MaxConcurrencyTest extends JPAStreamerTest {
+
+    @Test
+    void maxOpen() throws Exception {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (final EntityManagerCounter counter = new EntityManagerCounter()) {
+            // The limit is shared by the JPAStreamers of the same EntityManagerFactory
+            final JPAStreamer streamer = JPAStreamer.createJPAStreamerBuilder(counter.entityManagerFactory()).withMaxConcurrency(2).build();
+            final JPAStreamer otherStreamer = JPAStreamer.createJPAStreamerBuilder(counter.entityManagerFactory()).withMaxConcurrency(2).build();
+            try {
+                final List<Callable<Set<Integer>>> tasks = IntStream.range(0, 4)
+                        .mapToObj(i -> List.<Callable<Set<Integer>>>of(
+                                () -> filmIds(streamer.stream(Film.class)),
+                                () -> filmIds(otherStreamer.stream(StreamConfiguration.of(Film.class).withPartitions(4)).parallel()),
+                                () -> {
+                                    try (final StreamSupplier<Film> supplier = otherStreamer.createStreamSupplier(StreamConfiguration.of(Film.class))) {
+                                        final Set<Integer> filmIds = filmIds(supplier.stream());
+                                        assertEquals(filmIds, filmIds(supplier.stream()));
+                                        return filmIds;
+                                    }
+                                },
+                                () -> publishedFilmIds(streamer.publisher(StreamConfiguration.of(Film.class), films -> films.map(Film::getFilmId)))
+                        ))
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList());
+
+                for (final Future<Set<Integer>> result : executor.invokeAll(tasks)) {
+                    assertEquals(expected, result.get(30, TimeUnit.SECONDS));
+                }
+            } finally {
+                streamer.close();
+                otherStreamer.close();
+            }
+
+            assertTrue(counter.maxOpen() <= 2, "Open entity managers: " + counter.maxOpen());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void differentLimit() {
+        try (final EntityManagerCounter counter = new EntityManagerCounter()) {
+            final JPAStreamer streamer = JPAStreamer.createJPAStreamerBuilder(counter.entityManagerFactory()).withMaxConcurrency(2).build();
+            try {
+                assertThrows(IllegalStateException.class, () -> JPAStreamer.createJPAStreamerBuilder(counter.entityManagerFactory()).withMaxConcurrency(3).build());
+            } finally {
+                streamer.close();
+            }
+        }
+    }
+
+    @Test
+    void supplier() {
+        assertThrows(IllegalStateException.class, () -> JPAStreamer.createJPAStreamerBuilder(() -> null).withMaxConcurrency(2));
+    }
+
+    private static Set<Integer> filmIds(final Stream<Film> films) {
+        try (films) {
+            return films.map(Film::getFilmId).collect(Collectors.toSet());
+        }
+    }
+
+    private static Set<Integer> publishedFilmIds(final Flow.Publisher<Integer> publisher) throws Exception {
+        final CompletableFuture<Set<Integer>> result = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final Set<Integer> filmIds = new HashSet<>();
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final Integer filmId) {
+                filmIds.add(filmId);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(filmIds);
+            }
+        });
+        return result.get(30, TimeUnit.SECONDS);
+    }
+
+}
@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.integration.test;
 import com.speedment.jpastreamer.application.StreamSupplier;
 import com.speedment.jpastreamer.integration.test.model.Film;
 import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import org.junit.jupiter.api.Test;
 
 import java.util.Comparator;
@@ -22,6 +23,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PaginationTest extends JPAStreamerTest {
     
@@ -46,4 +48,54 @@ public class PaginationTest extends JPAStreamerTest {
         }
         
     }
+
+    @Test
+    void keysetPagination() {
+
+        final List<Film> films = jpaStreamer.stream(Film.class).collect(Collectors.toList());
+        final List<Film> expectedPage = films.stream()
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .skip(20)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        final List<Film> previousPage = jpaStreamer.stream(StreamConfiguration.of(Film.class).pagedBy(Film$.filmId))
+                .limit(20)
+                .collect(Collectors.toList());
+
+        final List<Film> actualPage = jpaStreamer.stream(StreamConfiguration.of(Film.class).pagedBy(Film$.filmId, previousPage.get(previousPage.size() - 1)))
+                .limit(10)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedPage, actualPage);
+    }
+
+    @Test
+    void keysetPaginationSorted() {
+
+        final List<Film> films = jpaStreamer.stream(Film.class).collect(Collectors.toList());
+        final List<Film> expectedPage = films.stream()
+                .sorted(Comparator.comparing(Film::getFilmId))
+                .skip(20)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        final Film last = expectedPage.get(0);
+        final List<Film> actualPage = jpaStreamer.stream(StreamConfiguration.of(Film.class).pagedBy(Film$.filmId, films.stream()
+                        .filter(f -> f.getFilmId() < last.getFilmId())
+                        .max(Comparator.comparing(Film::getFilmId))
+                        .orElseThrow()))
+                .sorted(Film$.filmId)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        // Sorting by the keys is redundant
+        assertEquals(expectedPage, actualPage);
+
+        // Sorting by anything else would break the seek condition of the next page
+        assertThrows(IllegalStateException.class, () -> jpaStreamer.stream(StreamConfiguration.of(Film.class).pagedBy(Film$.filmId, last))
+                .sorted(Film$.title)
+                .limit(10)
+                .collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelTest extends JPAStreamerTest {
+
+    @Test
+    void parallel() {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.length.greaterThan(120))
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        try (final Stream<Film> films = jpaStreamer.stream(Film.class).parallel()) {
+            final Set<Integer> actual = films
+                    .filter(Film$.length.greaterThan(120))
+                    .map(Film::getFilmId)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void parallelCount() {
+        final long expected = jpaStreamer.stream(Film.class)
+                .filter(f -> f.getRating().equals("G"))
+                .count();
+
+        try (final Stream<Film> films = jpaStreamer.stream(Film.class).parallel()) {
+            assertEquals(expected, films.filter(f -> f.getRating().equals("G")).count());
+        }
+    }
+
+    @Test
+    void partitioned() {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.length.greaterThan(120))
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        try (final EntityManagerCounter counter = new EntityManagerCounter()) {
+            final JPAStreamer countingStreamer = JPAStreamer.of(counter.entityManagerFactory());
+            try (final Stream<Film> films = countingStreamer.stream(StreamConfiguration.of(Film.class).withPartitions(4)).parallel()) {
+                final Set<Integer> actual = films
+                        .filter(Film$.length.greaterThan(120))
+                        .map(Film::getFilmId)
+                        .collect(Collectors.toSet());
+
+                assertEquals(expected, actual);
+            } finally {
+                countingStreamer.close();
+            }
+
+            // The entity manager of the stream reads the key bounds, each partition is read using another
+            assertEquals(1 + 4, counter.created());
+        }
+    }
+
+    @Test
+    void notPartitioned() {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        try (final EntityManagerCounter counter = new EntityManagerCounter()) {
+            final JPAStreamer countingStreamer = JPAStreamer.of(counter.entityManagerFactory());
+            try (final Stream<Film> films = countingStreamer.stream(Film.class).parallel()) {
+                assertEquals(expected, films.map(Film::getFilmId).collect(Collectors.toSet()));
+            } finally {
+                countingStreamer.close();
+            }
+
+            // Partitioning is opt-in, so the stream is read using a single query
+            assertEquals(1, counter.created());
+        }
+    }
+
+    @Test
+    void parallelExecutor() {
+        final Set<Integer> expected = jpaStreamer.stream(Film.class)
+                .map(Film::getFilmId)
+                .collect(Collectors.toSet());
+
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final JPAStreamer limitedStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withExecutor(executor)
+                .withMaxConcurrency(2)
+                .build();
+
+        try (final Stream<Film> films = limitedStreamer.stream(StreamConfiguration.of(Film.class).withPartitions(4)).parallel()) {
+            assertEquals(expected, films.map(Film::getFilmId).collect(Collectors.toSet()));
+        } finally {
+            limitedStreamer.close();
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.PreparedStream;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.speedment.jpastreamer.field.predicate.Parameter.param;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PreparedStreamTest extends JPAStreamerTest {
+
+    @Test
+    void preparedTest() {
+        final PreparedStream<Film, List<Film>> longerThan = jpaStreamer.prepare(Film.class,
+                films -> films
+                        .filter(Film$.length.greaterThan(param("min")))
+                        .sorted(Film$.length)
+                        .collect(Collectors.toList())
+        );
+
+        assertEquals(Set.of("min"), longerThan.parameterNames());
+
+        for (int minLength : new int[]{60, 120, 180, 60}) {
+            final List<Film> expected = jpaStreamer.stream(Film.class)
+                    .filter(f -> f.getLength() > minLength)
+                    .sorted(Film$.length)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, longerThan.execute("min", minLength));
+        }
+    }
+
+    @Test
+    void preparedBetweenTest() {
+        final PreparedStream<Film, Long> between = jpaStreamer.prepare(Film.class,
+                films -> films
+                        .filter(Film$.length.between(param("min"), param("max")).and(Film$.rating.equal("PG")))
+                        .count()
+        );
+
+        final long expected = jpaStreamer.stream(Film.class)
+                .filter(f -> f.getLength() >= 60 && f.getLength() < 120 && "PG".equals(f.getRating()))
+                .count();
+
+        assertEquals(expected, between.execute(Map.of("min", 60, "max", 120)));
+    }
+
+    @Test
+    void preparedFindFirstTest() {
+        final PreparedStream<Film, Optional<Film>> byTitle = jpaStreamer.prepare(Film.class,
+                films -> films.filter(Film$.title.equal(param("title"))).findFirst()
+        );
+
+        final Optional<Film> expected = jpaStreamer.stream(Film.class)
+                .filter(f -> "ACADEMY DINOSAUR".equals(f.getTitle()))
+                .findFirst();
+
+        assertEquals(expected, byTitle.execute("title", "ACADEMY DINOSAUR"));
+        assertEquals(Optional.empty(), byTitle.execute("title", "NO SUCH TITLE"));
+    }
+
+    @Test
+    void preparedConcurrentTest() {
+        final PreparedStream<Film, Long> countLongerThan = jpaStreamer.prepare(Film.class,
+                films -> films.filter(Film$.length.greaterThan(param("min"))).count()
+        );
+
+        final List<CompletableFuture<Long>> counts = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> countLongerThan.execute("min", 50 + i * 10)))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < counts.size(); i++) {
+            final int minLength = 50 + i * 10;
+            final long expected = jpaStreamer.stream(Film.class).filter(f -> f.getLength() > minLength).count();
+            assertEquals(expected, counts.get(i).join());
+        }
+    }
+
+    @Test
+    void preparedMissingValueTest() {
+        final PreparedStream<Film, Long> countLongerThan = jpaStreamer.prepare(Film.class,
+                films -> films.filter(Film$.length.greaterThan(param("min"))).count()
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> countLongerThan.execute("max", 60));
+    }
+
+    @Test
+    void unpreparableTest() {
+        // A filter following a limit is applied to the results of the query, where the parameter has no value
+        assertThrows(IllegalArgumentException.class, () -> jpaStreamer.prepare(Film.class,
+                films -> films.limit(10).filter(Film$.length.greaterThan(param("min"))).count()
+        ));
+        assertThrows(IllegalArgumentException.class, () -> jpaStreamer.prepare(Film.class, films -> films));
+    }
+
+    @Test
+    void unpreparedParameterTest() {
+        assertThrows(IllegalStateException.class, () -> jpaStreamer.stream(Film.class)
+                .filter(Film$.length.greaterThan(param("min")))
+                .count());
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PublisherTest extends JPAStreamerTest {
+
+    @Test
+    void publisher() throws Exception {
+        final List<String> expected = jpaStreamer.stream(Film.class)
+                .filter(Film$.length.greaterThan(120))
+                .map(Film::getTitle)
+                .collect(Collectors.toList());
+
+        final Flow.Publisher<String> publisher = jpaStreamer.publisher(
+                StreamConfiguration.of(Film.class),
+                films -> films.filter(Film$.length.greaterThan(120)).map(Film::getTitle)
+        );
+
+        final BatchSubscriber<String> subscriber = new BatchSubscriber<>(7, Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        assertEquals(expected, subscriber.result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publisherCancel() throws Exception {
+        final List<Film> expected = jpaStreamer.stream(Film.class)
+                .limit(10)
+                .collect(Collectors.toList());
+
+        final CountDownLatch closed = new CountDownLatch(1);
+        final BatchSubscriber<Film> subscriber = new BatchSubscriber<>(3, 10);
+        jpaStreamer.publisher(StreamConfiguration.of(Film.class), films -> films.onClose(closed::countDown)).subscribe(subscriber);
+
+        assertEquals(expected, subscriber.result.get(10, TimeUnit.SECONDS));
+        // The stream, and thereby its EntityManager, is closed as the subscription is cancelled before the films are exhausted
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publisherMaxConcurrency() throws Exception {
+        final List<String> expected = jpaStreamer.stream(Film.class)
+                .map(Film::getTitle)
+                .collect(Collectors.toList());
+
+        try (final EntityManagerCounter counter = new EntityManagerCounter()) {
+            // A single publisher thread, which a subscription waiting for the entity manager must not occupy
+            final JPAStreamer limitedStreamer = JPAStreamer.createJPAStreamerBuilder(counter.entityManagerFactory())
+                    .withMaxConcurrency(1)
+                    .build();
+            try {
+                final Flow.Publisher<String> publisher = limitedStreamer.publisher(StreamConfiguration.of(Film.class), films -> films.map(Film::getTitle));
+                final List<BatchSubscriber<String>> subscribers = List.of(
+                        new BatchSubscriber<>(7, Long.MAX_VALUE),
+                        new BatchSubscriber<>(7, Long.MAX_VALUE),
+                        new BatchSubscriber<>(7, Long.MAX_VALUE)
+                );
+                subscribers.forEach(publisher::subscribe);
+
+                for (final BatchSubscriber<String> subscriber : subscribers) {
+                    assertEquals(expected, subscriber.result.get(30, TimeUnit.SECONDS));
+                }
+            } finally {
+                limitedStreamer.close();
+            }
+
+            assertEquals(1, counter.maxOpen());
+        }
+    }
+
+    private static final class BatchSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final int batchSize;
+        private final long maxElements;
+        private final List<T> elements = new ArrayList<>();
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private int received;
+
+        private BatchSubscriber(final int batchSize, final long maxElements) {
+            this.batchSize = batchSize;
+            this.maxElements = maxElements;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            elements.add(item);
+            if (elements.size() == maxElements) {
+                subscription.cancel();
+                result.complete(elements);
+            } else if (++received == batchSize) {
+                received = 0;
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(elements);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.application.QueryPlanCacheStatistics;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryPlanCacheTest extends JPAStreamerTest {
+
+    @Test
+    void queryPlanCache() {
+        final JPAStreamer cachingStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withQueryPlanCache(16)
+                .build();
+
+        try {
+            final QueryPlanCacheStatistics statistics = cachingStreamer.queryPlanCacheStatistics();
+            for (int length : new int[]{60, 90, 120}) {
+                final List<Integer> expected = jpaStreamer.stream(Film.class)
+                        .filter(f -> f.getLength() > length)
+                        .sorted((a, b) -> Integer.compare(a.getFilmId(), b.getFilmId()))
+                        .map(Film::getFilmId)
+                        .collect(Collectors.toList());
+
+                // Streams of the same shape share a plan, only the values bound to it differ
+                final List<Integer> actual = cachingStreamer.stream(Film.class)
+                        .filter(Film$.length.greaterThan(length))
+                        .sorted(Film$.filmId)
+                        .collect(Collectors.toList())
+                        .stream()
+                        .map(Film::getFilmId)
+                        .collect(Collectors.toList());
+                assertEquals(expected, actual);
+            }
+            assertEquals(1, statistics.misses());
+            assertEquals(2, statistics.hits());
+            assertEquals(1, statistics.size());
+
+            // Another shape is rendered
+            cachingStreamer.stream(Film.class).filter(Film$.length.lessThan(60)).count();
+            assertEquals(2, statistics.misses());
+            assertEquals(2, statistics.size());
+        } finally {
+            cachingStreamer.close();
+        }
+    }
+
+    @Test
+    void disabled() {
+        final JPAStreamer renderingStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withQueryPlanCache(0)
+                .build();
+
+        try {
+            final QueryPlanCacheStatistics statistics = renderingStreamer.queryPlanCacheStatistics();
+            for (int length : new int[]{60, 90}) {
+                renderingStreamer.stream(Film.class).filter(Film$.length.greaterThan(length)).count();
+            }
+            assertEquals(0, statistics.hits());
+            assertEquals(0, statistics.misses());
+            assertEquals(0, statistics.size());
+        } finally {
+            renderingStreamer.close();
+        }
+    }
+
+}
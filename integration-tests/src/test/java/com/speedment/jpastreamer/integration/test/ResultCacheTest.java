@@ -0,0 +1,92 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.application.ResultCacheInvalidator;
+import com.speedment.jpastreamer.application.ResultCacheStatistics;
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ResultCacheTest extends JPAStreamerTest {
+
+    @Test
+    void resultCache() {
+        final JPAStreamer cachingStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withResultCache(16, Duration.ofMinutes(1), Film.class)
+                .build();
+
+        try {
+            final List<Integer> expected = jpaStreamer.stream(Film.class)
+                    .filter(Film$.length.greaterThan(120))
+                    .map(Film::getFilmId)
+                    .collect(Collectors.toList());
+
+            final ResultCacheStatistics statistics = cachingStreamer.resultCacheStatistics();
+            for (int i = 0; i < 3; i++) {
+                final List<Integer> actual = cachingStreamer.stream(Film.class)
+                        .filter(Film$.length.greaterThan(120))
+                        .map(Film::getFilmId)
+                        .collect(Collectors.toList());
+                assertEquals(expected, actual);
+            }
+            assertEquals(1, statistics.misses());
+            assertEquals(2, statistics.hits());
+
+            // Other parameter values yield another result
+            final long count = cachingStreamer.stream(Film.class)
+                    .filter(Film$.length.greaterThan(60))
+                    .count();
+            assertEquals(jpaStreamer.stream(Film.class).filter(Film$.length.greaterThan(60)).count(), count);
+            assertEquals(2, statistics.size());
+
+            cachingStreamer.resetStreamer(Film.class);
+            assertEquals(0, statistics.size());
+        } finally {
+            cachingStreamer.close();
+        }
+    }
+
+    @Test
+    void invalidation() {
+        final JPAStreamer cachingStreamer = JPAStreamer.createJPAStreamerBuilder("sakila")
+                .withResultCache(16, Duration.ofMinutes(1))
+                .build();
+
+        try {
+            final ResultCacheStatistics statistics = cachingStreamer.resultCacheStatistics();
+            final long expected = cachingStreamer.stream(Film.class).count();
+            assertEquals(expected, cachingStreamer.stream(Film.class).count());
+            assertEquals(1, statistics.hits());
+
+            // A change of a film invalidates the results of all films
+            ResultCacheInvalidator.invalidate(Film.class);
+            assertEquals(expected, cachingStreamer.stream(Film.class).count());
+            assertEquals(1, statistics.hits());
+            assertEquals(2, statistics.misses());
+
+            assertEquals(expected, cachingStreamer.stream(Film.class).count());
+            assertEquals(2, statistics.hits());
+        } finally {
+            cachingStreamer.close();
+        }
+    }
+
+}
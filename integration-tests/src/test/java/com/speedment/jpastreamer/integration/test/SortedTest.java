@@ -0,0 +1,67 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test;
+
+import com.speedment.jpastreamer.integration.test.model.Film;
+import com.speedment.jpastreamer.integration.test.model.Film$;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SortedTest extends JPAStreamerTest {
+
+    private static final Comparator<Film> TITLE_LENGTH = Comparator.comparingInt(f -> f.getTitle().length());
+
+    @Test
+    void residualTest() {
+        final List<Film> films = jpaStreamer.stream(Film.class)
+                .collect(Collectors.toList());
+
+        final List<Integer> expected = films.stream()
+                .sorted(Film$.rating.comparator().thenComparing(TITLE_LENGTH).thenComparing(Film$.filmId.comparator()))
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = jpaStreamer.stream(Film.class)
+                .sorted(Film$.rating.comparator().thenComparing(TITLE_LENGTH).thenComparing(Film$.filmId.comparator()))
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void residualLimitTest() {
+        final List<Film> films = jpaStreamer.stream(Film.class)
+                .collect(Collectors.toList());
+
+        final List<Integer> expected = films.stream()
+                .sorted(Film$.length.comparator().reversed().thenComparing(TITLE_LENGTH).thenComparing(Film$.filmId.comparator()))
+                .limit(10)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        final List<Integer> actual = jpaStreamer.stream(Film.class)
+                .sorted(Film$.length.comparator().reversed().thenComparing(TITLE_LENGTH).thenComparing(Film$.filmId.comparator()))
+                .limit(10)
+                .map(Film::getFilmId)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+}
@@ -78,4 +78,29 @@ public class SquashTest extends JPAStreamerTest {
 
         }
     }
+
+    @Test
+    void combinedLambdaTest() {
+
+        try(final StreamSupplier<Film> supplier = jpaStreamer.createStreamSupplier(Film.class)) {
+
+            final List<String> actual = supplier.stream()
+                    .filter(Film$.rating.equal("PG").and(f -> f.getLength() > 120))
+                    .filter(Film$.title.startsWith("A").or(f -> f.getTitle().endsWith("S")))
+                    .map(Film$.title)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            final List<String> expected = supplier.stream()
+                    .filter(f -> "PG".equals(f.getRating()) && f.getLength() > 120)
+                    .filter(f -> f.getTitle().startsWith("A") || f.getTitle().endsWith("S"))
+                    .map(Film$.title)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, actual);
+
+        }
+    }
+
 }
@@ -0,0 +1,84 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.integration.test.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "payment", schema = "sakila")
+public class Payment implements Serializable {
+
+    public Payment() {}
+
+    public Payment(long paymentId, double amount) {
+        this.paymentId = paymentId;
+        this.amount = amount;
+    }
+
+    @Id
+    @Column(name = "payment_id", nullable = false, updatable = false, columnDefinition = "smallint(5)")
+    private long paymentId;
+
+    @Column(name = "customer_id", nullable = false, columnDefinition = "smallint(5)")
+    private int customerId;
+
+    @Column(name = "staff_id", nullable = false, columnDefinition = "tinyint(3)")
+    private int staffId;
+
+    @Column(name = "amount", nullable = false, columnDefinition = "decimal(5,2)")
+    private double amount;
+
+    public long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(int customerId) {
+        this.customerId = customerId;
+    }
+
+    public int getStaffId() {
+        return staffId;
+    }
+
+    public void setStaffId(int staffId) {
+        this.staffId = staffId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return "Payment{" +
+                "paymentId=" + paymentId +
+                ", customerId=" + customerId +
+                ", staffId=" + staffId +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -21,6 +21,8 @@ import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import java.util.ServiceLoader;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -299,21 +301,181 @@ public interface JPAStreamer {
     }
     
     /**
-     * Resets the Streamer associated with the provided Entity classes.
-     * <p> 
-     * This will create a new instance of the underlying {@code jakarta.persistence.EntityManager}, removing all entries of the 
-     * associated Entity class from the first-level cache. The old {@code jakarta.persistence.EntityManager} is closed upon removal from the cache. 
-     * 
-     * In case JPAStreamer was configured with a {@code Supplier<EntityManager>} the lifecycle of the Entity Managers is 
-     * not managed by JPAStreamer, thus use of the method is not permitted and will result in an {@code UnsupportedOperationException}. 
-     * 
-     * @deprecated since 3.0.2, JPAStreamer no longer caches Streamers thus there is no need for a method that resets the cache.
-     * If you wish to manage the Streamer lifecycle manually, see {@link JPAStreamer#createStreamSupplier(StreamConfiguration)}
-     * @param entityClasses of the streamer  
-     * @throws UnsupportedOperationException if JPAStreamer is configured with a Supplier, see {@code com.speedment.jpastreamer.application.JPAStreamer#of(java.util.function.Supplier)}
+     * Creates and returns a new {@link PreparedStream} whose pipeline is declared by
+     * the provided {@code template} applied to a {@link Stream} described by the
+     * provided {@code streamConfiguration}.
+     * <p>
+     * Here is an example of using a {@link PreparedStream}:
+     * <pre>{@code
+     *    final PreparedStream<Film, Optional<Film>> byTitle = jpaStreamer.prepare(
+     *        StreamConfiguration.of(Film.class),
+     *        films -> films.filter(Film$.title.equal(param("title"))).findFirst()
+     *    );
+     *
+     *    Optional<Film> film = byTitle.execute("title", "ACADEMY DINOSAUR");
+     * }</pre>
+     * The template is applied once by this method to render and optimize its
+     * pipeline, up to and excluding the execution of its Terminal Operation.
+     * Each execution applies the template again and only binds the values of the
+     * {@link com.speedment.jpastreamer.field.predicate.Parameter Parameters} its
+     * predicates compare to. The template must therefore yield pipelines of the
+     * same shape each time it is applied.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the result of an execution
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param template applying a Terminal Operation to the provided {@link Stream}
+     * @return a new {@link PreparedStream}
+     * @throws IllegalArgumentException if the pipeline of the template can not be
+     *         rendered into a single query that only needs the values of its
+     *         parameters to be bound, for example if it is parallel or if a
+     *         predicate comparing to a parameter can not be rendered into the query
+     * @since 3.0.3
+     */
+    <T, R> PreparedStream<T, R> prepare(StreamConfiguration<T> streamConfiguration, Function<? super Stream<T>, ? extends R> template);
+
+    /**
+     * Creates and returns a new {@link PreparedStream} whose pipeline is declared by
+     * the provided {@code template} applied to a {@link Stream} over all entities
+     * of the provided type {@code entityClass}.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code prepare(StreamConfiguration.of(entityClass), template)}</pre>
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the result of an execution
+     * @param entityClass to use
+     * @param template applying a Terminal Operation to the provided {@link Stream}
+     * @return a new {@link PreparedStream}
+     * @since 3.0.3
+     *
+     * @see JPAStreamer#prepare(StreamConfiguration, Function) for further details
+     */
+    default <T, R> PreparedStream<T, R> prepare(final Class<T> entityClass, final Function<? super Stream<T>, ? extends R> template) {
+        requireNonNull(entityClass);
+        return prepare(StreamConfiguration.of(entityClass), template);
+    }
+
+    /**
+     * Creates and returns a new {@link Flow.Publisher} that, for each subscriber,
+     * publishes the elements of the {@link Stream} obtained by applying the
+     * provided {@code operations} to a new {@link Stream} described by the
+     * provided {@code streamConfiguration}.
+     * <p>
+     * The operations are optimized and rendered into the query in the same way
+     * as for {@link #stream(StreamConfiguration)}:
+     * <pre>{@code
+     *    final Flow.Publisher<String> titles = jpaStreamer.publisher(
+     *        StreamConfiguration.of(Film.class).withFetchSize(100),
+     *        films -> films.filter(Film$.length.greaterThan(120)).map(Film$.title)
+     *    );
+     * }</pre>
+     * Rows are read from the database as they are requested by the subscriber
+     * and the query is only executed upon the first request. The underlying
+     * stream, and thereby its {@code EntityManager}, is closed when the
+     * publisher completes, fails or the subscription is cancelled.
+     * <p>
+     * Signals are delivered, and rows thereby read, using the executor
+     * configured by {@link JPAStreamerBuilder#withExecutor(java.util.concurrent.Executor)}
+     * or, if no executor is configured, using a fixed thread pool of this
+     * JPAStreamer that is shut down when the JPAStreamer is closed. The pool
+     * has as many threads as configured by
+     * {@link JPAStreamerBuilder#withMaxConcurrency(int)} or, if no limit is
+     * configured, as there are available processors. Blocking reads never
+     * occupy the threads of the common {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * A subscription only occupies a thread while elements are read. If the
+     * number of entity managers is limited, at most that many subscriptions
+     * of the JPAStreamer have an open stream and other subscriptions wait,
+     * without occupying a thread, until one of them is closed.
+     *
+     * @param <T> the type of the stream elements
+     * @param <R> the type of the published elements
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @param operations applied to a new {@link Stream} for each subscriber
+     * @return a new {@link Flow.Publisher}
+     * @since 3.0.3
+     */
+    <T, R> Flow.Publisher<R> publisher(StreamConfiguration<T> streamConfiguration, Function<? super Stream<T>, ? extends Stream<R>> operations);
+
+    /**
+     * Creates and returns a new {@link Flow.Publisher} that, for each subscriber,
+     * publishes the entities described by the provided {@code streamConfiguration}.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code publisher(streamConfiguration, Function.identity())}</pre>
+     *
+     * @param <T> the type of the published elements
+     * @param streamConfiguration a configuration including an entity class (annotated with {@code @Entity})
+     * @return a new {@link Flow.Publisher}
+     * @since 3.0.3
+     *
+     * @see JPAStreamer#publisher(StreamConfiguration, Function) for further details
+     */
+    default <T> Flow.Publisher<T> publisher(final StreamConfiguration<T> streamConfiguration) {
+        return publisher(streamConfiguration, Function.identity());
+    }
+
+    /**
+     * Creates and returns a new {@link Flow.Publisher} that, for each subscriber,
+     * publishes all entities of the provided type {@code entityClass}.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code publisher(StreamConfiguration.of(entityClass))}</pre>
+     *
+     * @param <T> the type of the published elements
+     * @param entityClass to use
+     * @return a new {@link Flow.Publisher}
+     * @since 3.0.3
+     *
+     * @see JPAStreamer#publisher(StreamConfiguration, Function) for further details
+     */
+    default <T> Flow.Publisher<T> publisher(final Class<T> entityClass) {
+        requireNonNull(entityClass);
+        return publisher(StreamConfiguration.of(entityClass));
+    }
+
+    /**
+     * Invalidates all cached query results of the provided entity classes and
+     * reloads their entities if they are accelerated.
+     * <p>
+     * Query results are only cached if a result cache was configured using
+     * {@link JPAStreamerBuilder#withResultCache(int, java.time.Duration, Class[])}
+     * and entities are only held in memory if they were accelerated using
+     * {@link JPAStreamerBuilder#withAcceleration(java.time.Duration, Class[])},
+     * otherwise this method has no effect. Invoke this method whenever entities
+     * of a cached or accelerated entity class are modified, unless
+     * {@link ResultCacheInvalidator} is registered as an entity listener of the class.
+     * <p>
+     * Prior to version 3.0.3, this method had no effect as JPAStreamer no longer
+     * caches Streamers. If you wish to manage the lifecycle of the underlying
+     * {@code EntityManager} manually, see {@link JPAStreamer#createStreamSupplier(StreamConfiguration)}.
+     *
+     * @param entityClasses whose cached query results shall be invalidated and whose entities shall be reloaded
      */
-    @Deprecated(since = "3.0.2", forRemoval = true)
     void resetStreamer(Class<?>... entityClasses);
+
+    /**
+     * Returns the statistics of the result cache of this JPAStreamer.
+     * <p>
+     * If no result cache was configured, all statistics are zero.
+     *
+     * @return the statistics of the result cache of this JPAStreamer
+     * @since 3.0.3
+     * @see JPAStreamerBuilder#withResultCache(int, java.time.Duration, Class[])
+     */
+    ResultCacheStatistics resultCacheStatistics();
+
+    /**
+     * Returns the statistics of the query plan cache of this JPAStreamer.
+     * <p>
+     * If the query plan cache was disabled, all statistics are zero.
+     *
+     * @return the statistics of the query plan cache of this JPAStreamer
+     * @since 3.0.3
+     * @see JPAStreamerBuilder#withQueryPlanCache(int)
+     */
+    QueryPlanCacheStatistics queryPlanCacheStatistics();
     
     /**
      * Closes this JPAStreamer and releases any resources potentially held.
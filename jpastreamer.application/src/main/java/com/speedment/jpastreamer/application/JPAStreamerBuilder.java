@@ -12,8 +12,169 @@
  */
 package com.speedment.jpastreamer.application;
 
+import com.speedment.jpastreamer.field.Field;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 public interface JPAStreamerBuilder {
 
+    /**
+     * Configures the provided {@code executor} to be used to execute queries
+     * ahead of time, for example to execute the query of the next partition of
+     * a parallel stream while the current partition is being consumed.
+     * <p>
+     * The threads of the executor block while queries are executed rather than
+     * the threads of the common {@link java.util.concurrent.ForkJoinPool}. An
+     * executor using virtual threads is well suited when running on a JVM that
+     * supports them.
+     * <p>
+     * If this method is never called, queries are executed by the thread
+     * consuming the stream.
+     *
+     * @param executor to execute queries
+     * @return this builder
+     * @since 3.0.3
+     */
+    JPAStreamerBuilder withExecutor(Executor executor);
+
+    /**
+     * Limits the number of entity managers, and thereby database connections,
+     * that are open concurrently to the provided {@code maxConcurrency}. The
+     * limit is shared by all JPAStreamers built for the same
+     * {@code EntityManagerFactory}. Building a JPAStreamer with a different
+     * limit for the same {@code EntityManagerFactory} throws an
+     * {@code IllegalStateException}.
+     * <p>
+     * The limit covers the entity managers of streams, stream suppliers,
+     * prepared streams, publishers and the partitions of parallel streams. A
+     * stream obtains its entity manager once its terminal operation is
+     * invoked, waiting until fewer than {@code maxConcurrency} entity managers
+     * are open, and holds it until the stream is closed. Consequently, a
+     * thread holding {@code maxConcurrency} open streams must close one of
+     * them before consuming another one. Parallel streams only read as many
+     * partitions concurrently as there are entity managers available and are
+     * read using a single query if there are none.
+     * <p>
+     * If this method is never called, the number of entity managers is not
+     * limited.
+     *
+     * @param maxConcurrency the maximum number of entity managers open concurrently
+     * @return this builder
+     * @throws IllegalArgumentException if the provided {@code maxConcurrency} is not positive
+     * @throws IllegalStateException if this builder obtains entity managers
+     *         from a {@code Supplier<EntityManager>}, as these are never
+     *         closed by the JPAStreamer
+     * @since 3.0.3
+     */
+    JPAStreamerBuilder withMaxConcurrency(int maxConcurrency);
+
+    /**
+     * Enables caching of query results of the provided {@code entityClasses}
+     * (or of all entity classes if none is provided), holding at most
+     * {@code maximumSize} results for at most the provided {@code timeToLive}.
+     * <p>
+     * Results are keyed by the query, as rendered from the stream, and the
+     * values bound to it. The least recently used result is evicted when the
+     * cache is full. Cached entities are shared by all streams obtaining the
+     * same result and remain attached to the {@code EntityManager} that first
+     * read them. Hence, caching should only be used for read-mostly entities
+     * that are not modified through the streamed instances.
+     * <p>
+     * Results of an entity class are invalidated whenever its entities change
+     * if {@link ResultCacheInvalidator} is registered as an entity listener, or
+     * explicitly using {@link JPAStreamer#resetStreamer(Class[])}. Results are
+     * invalidated by changes to the root entity class of the stream only, not by
+     * changes to joined entities.
+     * <p>
+     * The listener observes changes as they are flushed rather than when they
+     * are committed. A result read by another transaction in between reflects
+     * the state before the change and may be served until it expires after
+     * {@code timeToLive}, unless the entity class is invalidated once more
+     * after the commit. Results are hence not guaranteed to be fresh; choose
+     * {@code timeToLive} as the staleness that can be tolerated.
+     *
+     * @param maximumSize the maximum number of results to cache
+     * @param timeToLive the duration after which a cached result expires
+     * @param entityClasses the entity classes whose results shall be cached
+     * @return this builder
+     * @throws IllegalArgumentException if the provided {@code maximumSize} or {@code timeToLive}
+     *         is not positive
+     * @since 3.0.3
+     * @see JPAStreamer#resultCacheStatistics()
+     */
+    JPAStreamerBuilder withResultCache(int maximumSize, Duration timeToLive, Class<?>... entityClasses);
+
+    /**
+     * Sets the maximum number of query plans to cache, or disables the cache
+     * if the provided {@code maximumSize} is zero. By default, at most
+     * 256 query plans are cached.
+     * <p>
+     * A query plan is the query rendered from a stream together with what is
+     * needed to bind the values of another stream of the same shape to it.
+     * Streams of the same shape only differ in the values they compare fields
+     * to, such as the streams of a method that is invoked with different
+     * arguments. A stream whose query plan is cached is neither optimized nor
+     * rendered; only its values are bound to the cached query. Streams that
+     * compare fields to sets of values, or whose operations can not be told
+     * apart by their shape, are always rendered. The least recently used plan
+     * is evicted when the cache is full.
+     *
+     * @param maximumSize the maximum number of query plans to cache, or zero
+     * @return this builder
+     * @throws IllegalArgumentException if the provided {@code maximumSize} is negative
+     * @since 3.0.3
+     * @see JPAStreamer#queryPlanCacheStatistics()
+     */
+    JPAStreamerBuilder withQueryPlanCache(int maximumSize);
+
+    /**
+     * Serves streams over the provided {@code entityClasses} from memory rather
+     * than by querying the database.
+     * <p>
+     * All entities of an accelerated class are loaded once, upon the first
+     * stream over the class, and are reloaded once the provided
+     * {@code refreshInterval} has passed or an entity of the class has changed,
+     * as observed by {@link ResultCacheInvalidator}. Each field a stream filters
+     * on is held in a column of primitive values or dictionary codes, so that
+     * the leading {@code filter} operations of a stream are evaluated column-wise
+     * and only the matching entities are streamed. Predicates are evaluated like
+     * in the database, i.e. a {@code null} value only satisfies
+     * {@code isNull()}.
+     * <p>
+     * Acceleration is intended for small, frequently read entities that fit in
+     * memory. Loaded entities are detached and shared by all streams. Streams
+     * with joins, projections, keysets or chunks are not accelerated.
+     * <p>
+     * Unique fields, and fields declared using {@link #withIndex(Field[])}, are
+     * hash indexed so that {@code equal} and {@code in} predicates over them are
+     * answered by lookup. The loaded entities are explicitly reloaded using
+     * {@link JPAStreamer#resetStreamer(Class[])}.
+     *
+     * @param refreshInterval the duration after which loaded entities are reloaded
+     * @param entityClasses the entity classes to serve from memory
+     * @return this builder
+     * @throws IllegalArgumentException if the provided {@code refreshInterval} is not
+     *         positive or no entity class is provided
+     * @since 3.0.3
+     */
+    JPAStreamerBuilder withAcceleration(Duration refreshInterval, Class<?>... entityClasses);
+
+    /**
+     * Indexes the provided {@code fields} of accelerated entity classes, in
+     * addition to their unique fields, so that {@code equal} and {@code in}
+     * predicates over the fields are answered by a hash lookup rather than by
+     * scanning all entities.
+     * <p>
+     * Fields of entity classes that are not accelerated are ignored.
+     *
+     * @param fields to index
+     * @return this builder
+     * @since 3.0.3
+     * @see #withAcceleration(Duration, Class[])
+     */
+    JPAStreamerBuilder withIndex(Field<?>... fields);
+
     /**
      * Creates and returns a new JPAStreamer instance.
      *
@@ -0,0 +1,101 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A Prepared Stream is a Stream pipeline that is declared once and can then
+ * be executed over and over again with different parameter values.
+ * <p>
+ * The pipeline is declared as a template that receives a {@link Stream} and
+ * compares fields to named {@link com.speedment.jpastreamer.field.predicate.Parameter Parameters}
+ * rather than to values:
+ * <pre>{@code
+ * final PreparedStream<Film, List<Film>> longerThan = jpaStreamer.prepare(Film.class,
+ *     films -> films
+ *         .filter(Film$.length.greaterThan(param("min")))
+ *         .sorted(Film$.length)
+ *         .collect(toList())
+ * );
+ *
+ * List<Film> films = longerThan.execute("min", 120);
+ * }</pre>
+ * The pipeline is rendered and optimized once when the stream is prepared.
+ * Each execution applies the template to a new {@link Stream} to obtain its
+ * result, but only binds the values of the parameters to the prepared query.
+ * Each execution reads its elements using an {@code EntityManager} of its own.
+ * <p>
+ * A {@code PreparedStream} is thread safe if its template is.
+ *
+ * @param <T> the type of the stream elements
+ * @param <R> the type of the result of an execution
+ * @since 3.0.3
+ */
+public interface PreparedStream<T, R> {
+
+    /**
+     * Executes the template of this {@code PreparedStream}, binding the
+     * provided {@code values} to the parameters of its pipeline by name, and
+     * returns the result.
+     * <p>
+     * If the template returns a {@link Stream} rather than the result of a
+     * Terminal Operation, the caller is responsible for consuming or closing it.
+     *
+     * @param values of the parameters of the pipeline, by name
+     * @return the result of the template
+     * @throws IllegalArgumentException if no value is given for a parameter
+     *         of the pipeline or if the template yields a pipeline of another
+     *         shape than the prepared pipeline
+     */
+    R execute(Map<String, ?> values);
+
+    /**
+     * Executes the template of this {@code PreparedStream}, binding the
+     * provided {@code value} to the parameter with the provided {@code name},
+     * and returns the result.
+     * <p>
+     * This method is a convenience method equivalent to:
+     * <pre>{@code execute(Collections.singletonMap(name, value))}</pre>
+     *
+     * @param name of the single parameter of the pipeline
+     * @param value of the parameter
+     * @return the result of the template
+     * @see #execute(Map)
+     */
+    default R execute(String name, Object value) {
+        return execute(Collections.singletonMap(name, value));
+    }
+
+    /**
+     * Returns the names of the parameters of the pipeline of this
+     * {@code PreparedStream}, which must be given values upon execution.
+     *
+     * @return the names of the parameters of the pipeline
+     */
+    Set<String> parameterNames();
+
+    /**
+     * Returns the {@link StreamConfiguration} that describes the stream source of the Streams
+     * passed to the template of this {@code PreparedStream}.
+     *
+     * @return the configuration of the Streams passed to the template
+     */
+    StreamConfiguration<T> configuration();
+
+}
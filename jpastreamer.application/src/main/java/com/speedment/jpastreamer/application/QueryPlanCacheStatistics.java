@@ -0,0 +1,53 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+/**
+ * Statistics of the query plan cache of a {@link JPAStreamer}.
+ *
+ * @see JPAStreamerBuilder#withQueryPlanCache(int)
+ * @since 3.0.3
+ */
+public interface QueryPlanCacheStatistics {
+
+    /**
+     * Returns the number of streams whose query was obtained from the cache.
+     *
+     * @return the number of streams whose query was obtained from the cache
+     */
+    long hits();
+
+    /**
+     * Returns the number of streams whose query was not cached and hence was
+     * rendered.
+     *
+     * @return the number of streams whose query was not cached
+     */
+    long misses();
+
+    /**
+     * Returns the number of query plans that were evicted from the cache
+     * because the cache was full.
+     *
+     * @return the number of query plans that were evicted from the cache
+     */
+    long evictions();
+
+    /**
+     * Returns the number of query plans currently held by the cache.
+     *
+     * @return the number of query plans currently held by the cache
+     */
+    int size();
+
+}
@@ -0,0 +1,102 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+import static java.util.Objects.requireNonNull;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An entity listener that invalidates the cached query results of an entity
+ * class whenever an entity of that class is persisted, updated or removed.
+ * <p>
+ * Every entity class has a version that is incremented upon each change of
+ * one of its entities (or of an entity of one of its subclasses). A cached
+ * result is only served as long as the version of its root entity class is
+ * the same as when the result was read. The listener is registered either for
+ * individual entities using {@code @EntityListeners(ResultCacheInvalidator.class)}
+ * or for all entities of a persistence unit in {@code META-INF/orm.xml}:
+ * <pre>{@code
+ * <persistence-unit-metadata>
+ *     <persistence-unit-defaults>
+ *         <entity-listeners>
+ *             <entity-listener class="com.speedment.jpastreamer.application.ResultCacheInvalidator"/>
+ *         </entity-listeners>
+ *     </persistence-unit-defaults>
+ * </persistence-unit-metadata>
+ * }</pre>
+ * Changes are observed when they are flushed to the database, which is before
+ * the transaction making them commits. A stream of another transaction that
+ * reads the entity class between the flush and the commit still sees the
+ * previous state and may cache it under the new version, so that it is served
+ * until it expires. Where this window matters, call {@link #invalidate(Class[])}
+ * once more after the transaction has committed. Likewise, changes that are
+ * made without an {@code EntityManager}, such as bulk updates or updates by
+ * other applications, are not observed and shall be followed by a call to
+ * {@link #invalidate(Class[])}.
+ *
+ * @see JPAStreamerBuilder#withResultCache(int, java.time.Duration, Class[])
+ * @since 3.0.3
+ */
+public final class ResultCacheInvalidator {
+
+    private static final ClassValue<AtomicLong> VERSIONS = new ClassValue<>() {
+        @Override
+        protected AtomicLong computeValue(final Class<?> type) {
+            return new AtomicLong();
+        }
+    };
+
+    /**
+     * Invoked by the persistence provider after the provided {@code entity}
+     * was persisted, updated or removed.
+     *
+     * @param entity that was changed
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(final Object entity) {
+        invalidate(entity.getClass());
+    }
+
+    /**
+     * Invalidates the cached query results of the provided {@code entityClasses}
+     * and of their superclasses in all JPAStreamer instances.
+     *
+     * @param entityClasses whose cached query results shall be invalidated
+     */
+    public static void invalidate(final Class<?>... entityClasses) {
+        requireNonNull(entityClasses);
+        for (Class<?> entityClass : entityClasses) {
+            for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                VERSIONS.get(c).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the current version of the provided {@code entityClass}.
+     *
+     * @param entityClass whose version shall be returned
+     * @return the current version of the provided {@code entityClass}
+     */
+    public static long version(final Class<?> entityClass) {
+        return VERSIONS.get(requireNonNull(entityClass)).get();
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application;
+
+/**
+ * Statistics of the result cache of a {@link JPAStreamer}.
+ *
+ * @see JPAStreamerBuilder#withResultCache(int, java.time.Duration, Class[])
+ * @since 3.0.3
+ */
+public interface ResultCacheStatistics {
+
+    /**
+     * Returns the number of queries whose result was obtained from the cache.
+     *
+     * @return the number of queries whose result was obtained from the cache
+     */
+    long hits();
+
+    /**
+     * Returns the number of cacheable queries whose result was not cached.
+     *
+     * @return the number of cacheable queries whose result was not cached
+     */
+    long misses();
+
+    /**
+     * Returns the number of results that were evicted from the cache because
+     * the cache was full or the results had expired. Results that were
+     * invalidated are not included.
+     *
+     * @return the number of results that were evicted from the cache
+     */
+    long evictions();
+
+    /**
+     * Returns the number of results currently held by the cache.
+     *
+     * @return the number of results currently held by the cache
+     */
+    int size();
+
+}
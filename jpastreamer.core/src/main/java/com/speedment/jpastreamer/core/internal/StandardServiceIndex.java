@@ -0,0 +1,124 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.core.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.analytics.AnalyticsReporterFactory;
+import com.speedment.jpastreamer.analytics.standard.StandardAnalyticsReporterFactory;
+import com.speedment.jpastreamer.appinfo.ApplicationInformation;
+import com.speedment.jpastreamer.appinfo.standard.StandardApplicationInformation;
+import com.speedment.jpastreamer.application.JPAStreamerBuilderFactory;
+import com.speedment.jpastreamer.application.standard.StandardJPAStreamerBuilderFactory;
+import com.speedment.jpastreamer.autoclose.AutoCloseFactory;
+import com.speedment.jpastreamer.autoclose.standard.StandardAutoCloseFactory;
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.builder.standard.StandardBuilderFactory;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.OrderFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.standard.StandardCriteriaFactory;
+import com.speedment.jpastreamer.criteria.standard.StandardOrderFactory;
+import com.speedment.jpastreamer.criteria.standard.StandardPredicateFactory;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
+import com.speedment.jpastreamer.interopoptimizer.standard.StandardIntermediateOperationOptimizerFactory;
+import com.speedment.jpastreamer.merger.MergerFactory;
+import com.speedment.jpastreamer.merger.standard.StandardMergerFactory;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.DoubleIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.LongIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.standard.StandardDoubleIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.standard.StandardIntIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.standard.StandardIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.standard.StandardLongIntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.standard.StandardPipelineFactory;
+import com.speedment.jpastreamer.pipeline.terminal.DoubleTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.IntTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.LongTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.standard.StandardDoubleTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.standard.StandardIntTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.standard.StandardLongTerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.standard.StandardTerminalOperationFactory;
+import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.renderer.standard.StandardRendererFactory;
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfigurationFactory;
+import com.speedment.jpastreamer.streamconfiguration.standard.StandardStreamConfigurationFactory;
+import com.speedment.jpastreamer.termopmodifier.TerminalOperationModifierFactory;
+import com.speedment.jpastreamer.termopmodifier.standard.StandardTerminalOperatorModifierFactory;
+import com.speedment.jpastreamer.termopoptimizer.TerminalOperationOptimizerFactory;
+import com.speedment.jpastreamer.termopoptimizer.standard.StandardTerminalOperationOptimizerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Index of the standard implementation of every service used by JPAstreamer.
+ * <p>
+ * The index must be kept in sync with the service declarations of the
+ * provider modules (i.e. their {@code module-info.java} and
+ * {@code META-INF/services} files).
+ */
+public final class StandardServiceIndex implements ServiceIndex {
+
+    private static final Map<Class<?>, Supplier<?>> INDEX;
+
+    static {
+        final Map<Class<?>, Supplier<?>> index = new HashMap<>();
+        index.put(AnalyticsReporterFactory.class, StandardAnalyticsReporterFactory::new);
+        index.put(ApplicationInformation.class, StandardApplicationInformation::new);
+        index.put(JPAStreamerBuilderFactory.class, StandardJPAStreamerBuilderFactory::new);
+        index.put(AutoCloseFactory.class, StandardAutoCloseFactory::new);
+        index.put(BuilderFactory.class, StandardBuilderFactory::new);
+        index.put(CriteriaFactory.class, StandardCriteriaFactory::new);
+        index.put(OrderFactory.class, StandardOrderFactory::new);
+        index.put(PredicateFactory.class, StandardPredicateFactory::new);
+        index.put(IntermediateOperationOptimizerFactory.class, StandardIntermediateOperationOptimizerFactory::new);
+        index.put(MergerFactory.class, StandardMergerFactory::new);
+        index.put(PipelineFactory.class, StandardPipelineFactory::new);
+        index.put(IntermediateOperationFactory.class, StandardIntermediateOperationFactory::new);
+        index.put(IntIntermediateOperationFactory.class, StandardIntIntermediateOperationFactory::new);
+        index.put(LongIntermediateOperationFactory.class, StandardLongIntermediateOperationFactory::new);
+        index.put(DoubleIntermediateOperationFactory.class, StandardDoubleIntermediateOperationFactory::new);
+        index.put(TerminalOperationFactory.class, StandardTerminalOperationFactory::new);
+        index.put(IntTerminalOperationFactory.class, StandardIntTerminalOperationFactory::new);
+        index.put(LongTerminalOperationFactory.class, StandardLongTerminalOperationFactory::new);
+        index.put(DoubleTerminalOperationFactory.class, StandardDoubleTerminalOperationFactory::new);
+        index.put(RendererFactory.class, StandardRendererFactory::new);
+        index.put(StreamConfigurationFactory.class, StandardStreamConfigurationFactory::new);
+        index.put(TerminalOperationModifierFactory.class, StandardTerminalOperatorModifierFactory::new);
+        index.put(TerminalOperationOptimizerFactory.class, StandardTerminalOperationOptimizerFactory::new);
+        INDEX = Collections.unmodifiableMap(index);
+    }
+
+    @Override
+    public <S> Optional<S> get(final Class<S> service) {
+        requireNonNull(service);
+        return Optional.ofNullable(INDEX.get(service))
+            .map(Supplier::get)
+            .map(service::cast);
+    }
+
+    @Override
+    public Set<Class<?>> services() {
+        return INDEX.keySet();
+    }
+
+}
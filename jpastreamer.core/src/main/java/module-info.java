@@ -10,6 +10,9 @@
  *
  * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
  */
+import com.speedment.jpastreamer.core.internal.StandardServiceIndex;
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+
 module jpastreamer.core {
     exports com.speedment.jpastreamer.core;
 
@@ -31,4 +34,8 @@ module jpastreamer.core {
     requires jpastreamer.appinfo.standard;
     requires jpastreamer.fieldgenerator.standard;
     requires jpastreamer.streamconfiguration.standard;
+    requires jpastreamer.termopmodifier.standard;
+    requires jpastreamer.rootfactory;
+
+    provides ServiceIndex with StandardServiceIndex;
 }
@@ -0,0 +1,72 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.core.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+final class StandardServiceIndexTest {
+
+    private final ServiceIndex serviceIndex = new StandardServiceIndex();
+
+    @Test
+    void indexMatchesServiceDeclarations() throws IOException {
+        for (Class<?> service : serviceIndex.services()) {
+            final List<String> declared = declaredProviders(service);
+            assertEquals(1, declared.size(), "Expected exactly one provider of " + service.getName() + " but found " + declared);
+            assertEquals(declared.get(0), serviceIndex.get(service).orElseThrow().getClass().getName());
+        }
+    }
+
+    @Test
+    void getCreatesNewInstances() {
+        serviceIndex.services().forEach(service ->
+            assertNotSame(serviceIndex.get(service).orElseThrow(), serviceIndex.get(service).orElseThrow())
+        );
+    }
+
+    @Test
+    void getUnknownService() {
+        assertFalse(serviceIndex.get(Runnable.class).isPresent());
+        assertTrue(serviceIndex.services().size() > 0);
+    }
+
+    private List<String> declaredProviders(final Class<?> service) throws IOException {
+        final List<String> providers = new ArrayList<>();
+        for (URL url : Collections.list(getClass().getClassLoader().getResources("META-INF/services/" + service.getName()))) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                providers.addAll(reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .collect(Collectors.toList()));
+            }
+        }
+        return providers;
+    }
+
+}
@@ -12,8 +12,13 @@
  */
 package com.speedment.jpastreamer.criteria;
 
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+
 import jakarta.persistence.criteria.ParameterExpression;
 
+import java.util.Optional;
+
 /**
  * Stores a query parameter and the value associated with the parameter
  *
@@ -24,6 +29,73 @@ public interface QueryParameter<T> {
 
     ParameterExpression<T> getParameterExpression();
 
+    /**
+     * Returns the value of this parameter.
+     *
+     * @return the value of this parameter
+     * @throws IllegalStateException if this parameter holds the value of a
+     *         {@link #getPlaceholder() placeholder}
+     */
     T getValue();
 
+    /**
+     * Returns the predicate whose operand the value of this parameter was
+     * obtained from, or {@link Optional#empty()} if the value was not
+     * obtained from a predicate.
+     *
+     * @return the predicate whose operand the value of this parameter was
+     *         obtained from
+     * @since 3.0.3
+     */
+    default Optional<FieldPredicate<?>> getPredicate() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the value this parameter would hold had it been created for the
+     * provided {@code predicate} rather than for {@link #getPredicate()}.
+     * <p>
+     * The provided {@code predicate} must be of the same predicate type and
+     * field as {@link #getPredicate()}, and its operands must be of the same
+     * classes.
+     *
+     * @param predicate to obtain the value from
+     * @return the value this parameter would hold for the provided {@code predicate}
+     * @throws UnsupportedOperationException if the value of this parameter was
+     *         not obtained from a predicate
+     * @since 3.0.3
+     */
+    default T getValue(FieldPredicate<?> predicate) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the {@link Parameter} whose value this parameter holds, or
+     * {@link Optional#empty()} if the operand of {@link #getPredicate()} is
+     * a value rather than a {@link Parameter}.
+     * <p>
+     * A parameter holding the value of a {@link Parameter} has no value
+     * until a value is bound to the {@link Parameter} using {@link #bind(Object)}.
+     *
+     * @return the {@link Parameter} whose value this parameter holds
+     * @since 3.0.3
+     */
+    default Optional<Parameter<?>> getPlaceholder() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the value this parameter holds if the provided {@code value}
+     * is bound to {@link #getPlaceholder()}.
+     *
+     * @param value bound to the placeholder of this parameter
+     * @return the value this parameter holds for the provided {@code value}
+     * @throws UnsupportedOperationException if this parameter holds no
+     *         placeholder
+     * @since 3.0.3
+     */
+    default T bind(Object value) {
+        throw new UnsupportedOperationException();
+    }
+
 }
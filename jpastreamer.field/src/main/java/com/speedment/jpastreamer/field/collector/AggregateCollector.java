@@ -0,0 +1,62 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import com.speedment.jpastreamer.field.Field;
+
+import java.util.Optional;
+import java.util.stream.Collector;
+
+/**
+ * A {@link Collector} that reduces the collected entities to a single
+ * aggregate, optionally of a field. Since the aggregate is known, it can
+ * be computed by the database when used as the downstream collector of
+ * {@link FieldCollectors#groupingBy(com.speedment.jpastreamer.field.IntField, Collector)}.
+ *
+ * @param <T>  the entity type to be collected
+ * @param <A>  the intermediate accumulation type of the collector
+ * @param <R>  the collected result
+ *
+ * @see FieldCollectors#counting()
+ * @see FieldCollectors#summingInt(com.speedment.jpastreamer.field.IntField)
+ * @see FieldCollectors#averagingInt(com.speedment.jpastreamer.field.IntField)
+ * @since 3.0.3
+ */
+public interface AggregateCollector<T, A, R> extends Collector<T, A, R> {
+
+    enum Aggregate {
+        /** The number of entities, collected as a {@code Long}. */
+        COUNT,
+        /** The sum of the field values, collected as the boxed type of the field. */
+        SUM,
+        /** The arithmetic mean of the field values, collected as a {@code Double}. */
+        AVERAGE
+    }
+
+    /**
+     * Returns the aggregate computed by this collector.
+     *
+     * @return the aggregate computed by this collector
+     */
+    Aggregate getAggregate();
+
+    /**
+     * Returns the field that is aggregated by this collector, or
+     * {@link Optional#empty()} if the aggregate does not depend on a field
+     * (e.g. {@link Aggregate#COUNT}).
+     *
+     * @return the field that is aggregated by this collector
+     */
+    Optional<Field<T>> getField();
+
+}
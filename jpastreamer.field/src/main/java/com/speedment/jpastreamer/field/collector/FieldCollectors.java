@@ -13,11 +13,15 @@
 package com.speedment.jpastreamer.field.collector;
 
 import com.speedment.jpastreamer.field.*;
+import com.speedment.jpastreamer.field.collector.AggregateCollector.Aggregate;
+import com.speedment.jpastreamer.field.internal.collector.AggregateCollectorImpl;
 import com.speedment.jpastreamer.field.internal.collector.FieldCollectorImpl;
+import com.speedment.jpastreamer.field.internal.collector.GroupingCollectorImpl;
 
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
@@ -35,102 +39,102 @@ public final class FieldCollectors {
 
     public static <ENTITY> Collector<ENTITY, ?, Map<Long, List<ENTITY>>>
     groupingBy(LongField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Integer, List<ENTITY>>>
     groupingBy(IntField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Short, List<ENTITY>>>
     groupingBy(ShortField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Byte, List<ENTITY>>>
     groupingBy(ByteField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Double, List<ENTITY>>>
     groupingBy(DoubleField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Float, List<ENTITY>>>
     groupingBy(FloatField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<Boolean, List<ENTITY>>>
     groupingBy(BooleanField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
 
     public static <ENTITY> Collector<ENTITY, ?, Map<Character, List<ENTITY>>>
     groupingBy(CharField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY> Collector<ENTITY, ?, Map<String, List<ENTITY>>>
     groupingBy(StringField<ENTITY> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY, T> Collector<ENTITY, ?, Map<T, List<ENTITY>>>
     groupingBy(ReferenceField<ENTITY, T> field) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, toList());
+        return groupingByField(field, field.getter()::apply, toList());
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Long, R>>
     groupingBy(LongField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Integer, R>>
     groupingBy(IntField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Short, R>>
     groupingBy(ShortField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Byte, R>>
     groupingBy(ByteField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Double, R>>
     groupingBy(DoubleField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Float, R>>
     groupingBy(FloatField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Boolean, R>>
     groupingBy(BooleanField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<Character, R>>
     groupingBy(CharField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, A, R> Collector<ENTITY, ?, Map<String, R>>
     groupingBy(StringField<ENTITY> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <ENTITY, T, A, R> Collector<ENTITY, ?, Map<T, R>>
     groupingBy(ReferenceField<ENTITY, T> field, Collector<ENTITY, A, R> downstream) {
-        return groupingBy(field, field.getter()::apply, HashMap::new, downstream);
+        return groupingByField(field, field.getter()::apply, downstream);
     }
     
     public static <T, K, D, A, M extends Map<K, D>>
@@ -156,7 +160,7 @@ public final class FieldCollectors {
         }
         else {
             @SuppressWarnings("unchecked")
-            UnaryOperator<A> downstreamFinisher = (UnaryOperator<A>) downstream.finisher();
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
             Function<Map<K, A>, M> finisher = intermediate -> {
                 intermediate.replaceAll((k, v) -> downstreamFinisher.apply(v));
                 @SuppressWarnings("unchecked")
@@ -167,6 +171,125 @@ public final class FieldCollectors {
         }
     }
 
+    /**
+     * Returns a {@link Collector} counting the number of input elements. The
+     * collector behaves like {@link Collectors#counting()}, but can be computed
+     * by the database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that counts the input elements
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Long> counting() {
+        return new AggregateCollectorImpl<>(Aggregate.COUNT, null, Collectors.counting());
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the values of the
+     * provided {@code field}. The collector behaves like
+     * {@link Collectors#summingInt(ToIntFunction)}, but can be computed by the
+     * database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to sum
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the sum of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Integer> summingInt(IntField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.SUM, field, Collectors.summingInt(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the values of the
+     * provided {@code field}. The collector behaves like
+     * {@link Collectors#summingLong(ToLongFunction)}, but can be computed by the
+     * database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to sum
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the sum of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Long> summingLong(LongField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.SUM, field, Collectors.summingLong(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the sum of the values of the
+     * provided {@code field}. The collector behaves like
+     * {@link Collectors#summingDouble(ToDoubleFunction)}, but can be computed by
+     * the database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to sum
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the sum of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> summingDouble(DoubleField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.SUM, field, Collectors.summingDouble(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * values of the provided {@code field}. The collector behaves like
+     * {@link Collectors#averagingInt(ToIntFunction)}, but can be computed by
+     * the database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to average
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the average of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingInt(IntField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.AVERAGE, field, Collectors.averagingInt(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * values of the provided {@code field}. The collector behaves like
+     * {@link Collectors#averagingLong(ToLongFunction)}, but can be computed by
+     * the database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to average
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the average of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingLong(LongField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.AVERAGE, field, Collectors.averagingLong(field));
+    }
+
+    /**
+     * Returns a {@link Collector} that produces the arithmetic mean of the
+     * values of the provided {@code field}. The collector behaves like
+     * {@link Collectors#averagingDouble(ToDoubleFunction)}, but can be computed
+     * by the database when used as the downstream collector of
+     * {@link #groupingBy(IntField, Collector)}.
+     *
+     * @param field     the field to average
+     * @param <ENTITY>  the entity type
+     * @return a {@code Collector} that produces the average of the field
+     * @since 3.0.3
+     */
+    public static <ENTITY> AggregateCollector<ENTITY, ?, Double> averagingDouble(DoubleField<ENTITY> field) {
+        return new AggregateCollectorImpl<>(Aggregate.AVERAGE, field, Collectors.averagingDouble(field));
+    }
+
+    private static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingByField(
+            Field<T> field,
+            Function<T, K> classifier,
+            Collector<? super T, A, D> downstream) {
+
+        final Supplier<Map<K, D>> mapFactory = HashMap::new;
+        return new GroupingCollectorImpl<>(groupingBy(field, classifier, mapFactory, downstream), downstream, mapFactory);
+    }
+
     private static <K, V, M extends Map<K,V>>
     BinaryOperator<M> mapMerger(BinaryOperator<V> mergeFunction) {
         return (m1, m2) -> {
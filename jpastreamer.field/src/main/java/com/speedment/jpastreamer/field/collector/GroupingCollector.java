@@ -0,0 +1,45 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * A {@link FieldCollector} that groups the collected entities by the value
+ * of its field and reduces each group using a downstream collector.
+ *
+ * @param <T>  the entity type to be collected
+ * @param <A>  the intermediate accumulation type of the collector
+ * @param <R>  the collected result
+ *
+ * @since 3.0.3
+ */
+public interface GroupingCollector<T, A, R> extends FieldCollector<T, A, R> {
+
+    /**
+     * Returns the collector that is used to reduce the entities of each group.
+     *
+     * @return the downstream collector
+     */
+    Collector<? super T, ?, ?> getDownstream();
+
+    /**
+     * Returns the supplier of the map that holds the result.
+     *
+     * @return the supplier of the map that holds the result
+     */
+    Supplier<? extends Map<?, ?>> getMapFactory();
+
+}
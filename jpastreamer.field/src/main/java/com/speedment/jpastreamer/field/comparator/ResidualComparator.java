@@ -0,0 +1,57 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.comparator;
+
+import java.util.Comparator;
+
+/**
+ * A {@link Comparator} that compares entities using a
+ * {@link CombinedComparator} and, if that evaluates to {@code 0}, continues
+ * with a residual comparator that is not composed of
+ * {@link FieldComparator FieldComparators}, e.g. a lambda.
+ * <p>
+ * Such comparators are returned by the {@code thenComparing} methods of
+ * {@link FieldComparator FieldComparators} and
+ * {@link CombinedComparator CombinedComparators} when given a comparator or
+ * key extractor that is not backed by a field. The leading comparator can
+ * then still be expressed as an ordering of the query, leaving only the
+ * entities that are equal according to it to be ordered in memory.
+ *
+ * @param <ENTITY>  the entity type
+ *
+ * @since 3.0.3
+ */
+public interface ResidualComparator<ENTITY> extends Comparator<ENTITY> {
+
+    @Override
+    ResidualComparator<ENTITY> reversed();
+
+    @Override
+    ResidualComparator<ENTITY> thenComparing(Comparator<? super ENTITY> other);
+
+    /**
+     * Returns the most significant part of this comparator, consisting of
+     * {@link FieldComparator FieldComparators}.
+     *
+     * @return the leading comparator
+     */
+    CombinedComparator<ENTITY> leading();
+
+    /**
+     * Returns the comparator that is used to compare entities that are equal
+     * according to the {@link #leading()} comparator.
+     *
+     * @return the residual comparator
+     */
+    Comparator<ENTITY> residual();
+}
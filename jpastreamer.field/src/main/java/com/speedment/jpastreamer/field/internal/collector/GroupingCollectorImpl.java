@@ -0,0 +1,93 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.collector;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.FieldCollector;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GroupingCollector} that delegates the collection to a
+ * {@link FieldCollector} grouping by the value of the field.
+ *
+ * @param <T>  the entity type to be collected
+ * @param <A>  the intermediate accumulation type of the collector
+ * @param <R>  the collected result
+ */
+public final class GroupingCollectorImpl<T, A, R>
+implements GroupingCollector<T, A, R> {
+
+    private final FieldCollector<T, A, R> delegate;
+    private final Collector<? super T, ?, ?> downstream;
+    private final Supplier<? extends Map<?, ?>> mapFactory;
+
+    public GroupingCollectorImpl(
+            FieldCollector<T, A, R> delegate,
+            Collector<? super T, ?, ?> downstream,
+            Supplier<? extends Map<?, ?>> mapFactory) {
+
+        this.delegate   = requireNonNull(delegate);
+        this.downstream = requireNonNull(downstream);
+        this.mapFactory = requireNonNull(mapFactory);
+    }
+
+    @Override
+    public Field<T> getField() {
+        return delegate.getField();
+    }
+
+    @Override
+    public Collector<? super T, ?, ?> getDownstream() {
+        return downstream;
+    }
+
+    @Override
+    public Supplier<? extends Map<?, ?>> getMapFactory() {
+        return mapFactory;
+    }
+
+    @Override
+    public Supplier<A> supplier() {
+        return delegate.supplier();
+    }
+
+    @Override
+    public BiConsumer<A, T> accumulator() {
+        return delegate.accumulator();
+    }
+
+    @Override
+    public BinaryOperator<A> combiner() {
+        return delegate.combiner();
+    }
+
+    @Override
+    public Function<A, R> finisher() {
+        return delegate.finisher();
+    }
+
+    @Override
+    public Set<Collector.Characteristics> characteristics() {
+        return delegate.characteristics();
+    }
+}
@@ -18,6 +18,7 @@ import com.speedment.jpastreamer.field.method.*;
 import com.speedment.jpastreamer.field.ComparableField;
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
 
 import java.util.*;
 import java.util.function.Function;
@@ -93,15 +94,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                return keyComparator.compare(
-                    keyExtractor.apply(a),
-                    keyExtractor.apply(b)
-                );
-            } else return c;
-        };
+        return then((a, b) -> keyComparator.compare(
+            keyExtractor.apply(a),
+            keyExtractor.apply(b)
+        ));
     }
 
     @Override
@@ -116,22 +112,19 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final U oa = keyExtractor.apply(a);
-                final U ob = keyExtractor.apply(b);
-                if (oa == null && ob == null) {
-                    return 0;
-                } else if (oa == null) {
-                    return 1;
-                } else if (ob == null) {
-                    return -1;
-                } else {
-                    return oa.compareTo(ob);
-                }
-            } else return c;
-        };
+        return then((a, b) -> {
+            final U oa = keyExtractor.apply(a);
+            final U ob = keyExtractor.apply(b);
+            if (oa == null && ob == null) {
+                return 0;
+            } else if (oa == null) {
+                return 1;
+            } else if (ob == null) {
+                return -1;
+            } else {
+                return oa.compareTo(ob);
+            }
+        });
     }
 
     @Override
@@ -146,14 +139,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final int oa = keyExtractor.applyAsInt(a);
-                final int ob = keyExtractor.applyAsInt(b);
-                return Integer.compare(oa, ob);
-            } else return c;
-        };
+        return then((a, b) -> Integer.compare(
+            keyExtractor.applyAsInt(a),
+            keyExtractor.applyAsInt(b)
+        ));
     }
 
     @Override
@@ -168,14 +157,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final long oa = keyExtractor.applyAsLong(a);
-                final long ob = keyExtractor.applyAsLong(b);
-                return Long.compare(oa, ob);
-            } else return c;
-        };
+        return then((a, b) -> Long.compare(
+            keyExtractor.applyAsLong(a),
+            keyExtractor.applyAsLong(b)
+        ));
     }
 
     @Override
@@ -190,14 +175,10 @@ implements CombinedComparator<ENTITY> {
             }
         }
 
-        return (a, b) -> {
-            final int c = compare(a, b);
-            if (c == 0) {
-                final double oa = keyExtractor.applyAsDouble(a);
-                final double ob = keyExtractor.applyAsDouble(b);
-                return Double.compare(oa, ob);
-            } else return c;
-        };
+        return then((a, b) -> Double.compare(
+            keyExtractor.applyAsDouble(a),
+            keyExtractor.applyAsDouble(b)
+        ));
     }
 
     @Override
@@ -247,11 +228,20 @@ implements CombinedComparator<ENTITY> {
             cc.stream().forEachOrdered(copy::add);
 
             return new CombinedComparatorImpl<>(copy);
+        } else if (other instanceof ResidualComparator) {
+            @SuppressWarnings("unchecked")
+            final ResidualComparator<ENTITY> rc =
+                (ResidualComparator<ENTITY>) other;
+
+            return new ResidualComparatorImpl<>(
+                (CombinedComparator<ENTITY>) then(rc.leading()),
+                rc.residual()
+            );
         } else {
-            return (a, b) -> {
-                final int c = compare(a, b);
-                return c == 0 ? other.compare(a, b) : c;
-            };
+            @SuppressWarnings("unchecked")
+            final Comparator<ENTITY> residual = (Comparator<ENTITY>) other;
+
+            return new ResidualComparatorImpl<>(this, residual);
         }
     }
 
@@ -0,0 +1,75 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.comparator;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
+
+import java.util.Comparator;
+
+/**
+ * Default implementation of the {@link ResidualComparator}-interface.
+ *
+ * @since 3.0.3
+ */
+public final class ResidualComparatorImpl<ENTITY>
+implements ResidualComparator<ENTITY> {
+
+    private final CombinedComparator<ENTITY> leading;
+    private final Comparator<ENTITY> residual;
+
+    public ResidualComparatorImpl(
+            final CombinedComparator<ENTITY> leading,
+            final Comparator<ENTITY> residual) {
+
+        this.leading = requireNonNull(leading);
+        this.residual = requireNonNull(residual);
+    }
+
+    @Override
+    public CombinedComparator<ENTITY> leading() {
+        return leading;
+    }
+
+    @Override
+    public Comparator<ENTITY> residual() {
+        return residual;
+    }
+
+    @Override
+    public int compare(ENTITY o1, ENTITY o2) {
+        final int c = leading.compare(o1, o2);
+        return c == 0 ? residual.compare(o1, o2) : c;
+    }
+
+    @Override
+    public ResidualComparator<ENTITY> reversed() {
+        return new ResidualComparatorImpl<>(leading.reversed(), residual.reversed());
+    }
+
+    @Override
+    public ResidualComparator<ENTITY> thenComparing(Comparator<? super ENTITY> other) {
+        requireNonNull(other);
+        return new ResidualComparatorImpl<>(leading, (a, b) -> {
+            final int c = residual.compare(a, b);
+            return c == 0 ? other.compare(a, b) : c;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ResidualComparatorImpl{leading=" + leading + ", residual=" + residual + "}";
+    }
+}
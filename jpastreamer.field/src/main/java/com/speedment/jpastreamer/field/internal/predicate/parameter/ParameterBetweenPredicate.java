@@ -0,0 +1,72 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate.parameter;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.internal.predicate.AbstractFieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A predicate that evaluates if a field is (or is not) between two
+ * {@link Parameter Parameters} whose values are bound when the query the
+ * predicate is rendered into is executed.
+ *
+ * @param <ENTITY> the entity type
+ * @param <V>      the value type
+ *
+ * @since 3.0.3
+ */
+public final class ParameterBetweenPredicate<ENTITY, V>
+extends AbstractFieldPredicate<ENTITY, Field<ENTITY>>
+implements HasInclusion,
+    HasArg0<Parameter<V>>,
+    HasArg1<Parameter<V>> {
+
+    private final Parameter<V> start;
+    private final Parameter<V> end;
+    private final Inclusion inclusion;
+
+    public ParameterBetweenPredicate(PredicateType predicateType, Field<ENTITY> field, Parameter<V> start, Parameter<V> end, Inclusion inclusion) {
+        super(predicateType, field, ParameterPredicate.unbound(start));
+        this.start     = start;
+        this.end       = requireNonNull(end);
+        this.inclusion = requireNonNull(inclusion);
+    }
+
+    @Override
+    public Parameter<V> get0() {
+        return start;
+    }
+
+    @Override
+    public Parameter<V> get1() {
+        return end;
+    }
+
+    @Override
+    public Inclusion getInclusion() {
+        return inclusion;
+    }
+
+    @Override
+    public ParameterBetweenPredicate<ENTITY, V> negate() {
+        return new ParameterBetweenPredicate<>(getPredicateType().negate(), getField(), start, end, inclusion);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate.parameter;
+
+import com.speedment.jpastreamer.field.predicate.Parameter;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of a {@link Parameter}.
+ *
+ * @param <V> the type of the value of the parameter
+ *
+ * @since 3.0.3
+ */
+public final class ParameterImpl<V> implements Parameter<V> {
+
+    private final String name;
+
+    public ParameterImpl(String name) {
+        this.name = requireNonNull(name);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Parameter)) return false;
+        return name.equals(((Parameter<?>) o).name());
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+}
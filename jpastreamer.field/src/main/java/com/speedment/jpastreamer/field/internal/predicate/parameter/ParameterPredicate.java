@@ -0,0 +1,63 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.internal.predicate.parameter;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.internal.predicate.AbstractFieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A predicate that compares a field to a {@link Parameter} whose value is
+ * bound when the query the predicate is rendered into is executed.
+ *
+ * @param <ENTITY> the entity type
+ * @param <V>      the value type
+ *
+ * @since 3.0.3
+ */
+public final class ParameterPredicate<ENTITY, V>
+extends AbstractFieldPredicate<ENTITY, Field<ENTITY>>
+implements HasArg0<Parameter<V>> {
+
+    private final Parameter<V> parameter;
+
+    public ParameterPredicate(PredicateType predicateType, Field<ENTITY> field, Parameter<V> parameter) {
+        super(predicateType, field, unbound(parameter));
+        this.parameter = parameter;
+    }
+
+    @Override
+    public Parameter<V> get0() {
+        return parameter;
+    }
+
+    @Override
+    public ParameterPredicate<ENTITY, V> negate() {
+        return new ParameterPredicate<>(getPredicateType().negate(), getField(), parameter);
+    }
+
+    static <ENTITY> Predicate<ENTITY> unbound(Parameter<?> parameter) {
+        requireNonNull(parameter);
+        return entity -> {
+            throw new IllegalStateException(
+                "The parameter " + parameter + " has no value as it is only bound by prepared streams"
+            );
+        };
+    }
+}
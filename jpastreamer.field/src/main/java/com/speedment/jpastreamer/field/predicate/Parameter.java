@@ -0,0 +1,56 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.predicate;
+
+import com.speedment.jpastreamer.field.internal.predicate.parameter.ParameterImpl;
+
+/**
+ * A named placeholder for a value that a field is compared to. The value of a
+ * parameter is not known when the predicate comparing to it is created, but is
+ * bound by name each time the prepared stream holding the predicate is
+ * executed:
+ * <pre>{@code
+ * jpaStreamer.prepare(Film.class, films -> films
+ *     .filter(Film$.length.greaterThan(param("min")))
+ *     .collect(toList())
+ * ).execute("min", 120);
+ * }</pre>
+ * A predicate comparing to a parameter can only be rendered into a query.
+ * Testing it throws an {@code IllegalStateException}.
+ *
+ * @param <V> the type of the value of the parameter
+ *
+ * @since 3.0.3
+ */
+public interface Parameter<V> {
+
+    /**
+     * Returns the name the value of this parameter is bound by.
+     *
+     * @return the name of this parameter
+     */
+    String name();
+
+    /**
+     * Creates and returns a new parameter that is bound by the provided
+     * {@code name}. Parameters having the same name are equal.
+     *
+     * @param name of the parameter
+     * @param <V> the type of the value of the parameter
+     * @return a new parameter that is bound by the provided {@code name}
+     */
+    static <V> Parameter<V> param(String name) {
+        return new ParameterImpl<>(name);
+    }
+
+}
@@ -15,7 +15,11 @@ package com.speedment.jpastreamer.field.trait;
 import com.speedment.runtime.compute.trait.HasCompare;
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.internal.predicate.parameter.ParameterBetweenPredicate;
+import com.speedment.jpastreamer.field.internal.predicate.parameter.ParameterPredicate;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 
 import java.util.Collection;
@@ -214,6 +218,137 @@ extends Field<ENTITY>, HasCompare<ENTITY> {
      */
     SpeedmentPredicate<ENTITY> notBetween(V start, V end, Inclusion inclusion);
 
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>equal</em> to the value
+     * bound to the given parameter.
+     * <p>
+     * The returned predicate can only be rendered into the query of a prepared
+     * stream and has no value to compare to until the stream is executed.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>equal</em> to the value bound to the given parameter
+     * @since 3.0.3
+     */
+    default SpeedmentPredicate<ENTITY> equal(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.EQUAL, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>not equal</em> to the
+     * value bound to the given parameter.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>not equal</em> to the value bound to the given parameter
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> notEqual(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.NOT_EQUAL, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>less than</em> the value
+     * bound to the given parameter.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>less than</em> the value bound to the given parameter
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> lessThan(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.LESS_THAN, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>less than or equal</em>
+     * to the value bound to the given parameter.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>less than or equal</em> to the value bound to the
+     * given parameter
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> lessOrEqual(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.LESS_OR_EQUAL, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>greater than</em> the
+     * value bound to the given parameter.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>greater than</em> the value bound to the given parameter
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> greaterThan(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.GREATER_THAN, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>greater than or equal</em>
+     * to the value bound to the given parameter.
+     *
+     * @param parameter to compare
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>greater than or equal</em> to the value bound to the
+     * given parameter
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> greaterOrEqual(Parameter<V> parameter) {
+        return new ParameterPredicate<>(PredicateType.GREATER_OR_EQUAL, this, parameter);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>between</em> the values
+     * bound to the given parameters (inclusive the start value but exclusive
+     * the end value).
+     *
+     * @param start to compare as a start value
+     * @param end to compare as an end value
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>between</em> the values bound to the given parameters
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> between(Parameter<V> start, Parameter<V> end) {
+        return between(start, end, Inclusion.START_INCLUSIVE_END_EXCLUSIVE);
+    }
+
+    /**
+     * Returns a {@link java.util.function.Predicate} that will evaluate to
+     * {@code true}, if and only if this Field is <em>between</em> the values
+     * bound to the given parameters and taking the Inclusion parameter into
+     * account when determining if either of the end points shall be included
+     * in the Field range or not.
+     *
+     * @param start to compare as a start value
+     * @param end to compare as an end value
+     * @param inclusion determines if the end points is included in the Field
+     * range.
+     * @return a Predicate that will evaluate to {@code true}, if and only if
+     * this Field is <em>between</em> the values bound to the given parameters
+     * @since 3.0.3
+     * @see #equal(Parameter)
+     */
+    default SpeedmentPredicate<ENTITY> between(Parameter<V> start, Parameter<V> end, Inclusion inclusion) {
+        return new ParameterBetweenPredicate<>(PredicateType.BETWEEN, this, start, end, inclusion);
+    }
+
     /**
      * Returns a {@link java.util.function.Predicate} that will evaluate to
      * {@code true}, if and only if this Field is <em>in</em> the set of given
@@ -0,0 +1,160 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.field.collector;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.StringField;
+import com.speedment.jpastreamer.field.collector.AggregateCollector.Aggregate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class FieldCollectorsTest {
+
+    private static final IntField<Film> LENGTH = IntField.create(Film.class, "length", Film::getLength, false);
+    private static final LongField<Film> VIEWS = LongField.create(Film.class, "views", Film::getViews, false);
+    private static final DoubleField<Film> RATE = DoubleField.create(Film.class, "rate", Film::getRate, false);
+    private static final StringField<Film> RATING = StringField.create(Film.class, "rating", Film::getRating, false);
+
+    private static final List<Film> FILMS = List.of(
+        new Film("G", 86, 3L, 0.99),
+        new Film("G", 48, 5L, 4.99),
+        new Film("PG", 51, 7L, 2.99),
+        new Film("R", 117, 2L, 0.99),
+        new Film("R", 130, 1L, 4.99),
+        new Film("R", 73, 8L, 2.99)
+    );
+
+    @Test
+    void counting() {
+        final AggregateCollector<Film, ?, Long> collector = FieldCollectors.counting();
+
+        assertEquals(Aggregate.COUNT, collector.getAggregate());
+        assertEquals(Optional.empty(), collector.getField());
+        assertCollects(Collectors.counting(), collector);
+    }
+
+    @Test
+    void summingInt() {
+        final AggregateCollector<Film, ?, Integer> collector = FieldCollectors.summingInt(LENGTH);
+
+        assertAggregate(Aggregate.SUM, LENGTH, collector);
+        assertCollects(Collectors.summingInt(Film::getLength), collector);
+    }
+
+    @Test
+    void summingLong() {
+        final AggregateCollector<Film, ?, Long> collector = FieldCollectors.summingLong(VIEWS);
+
+        assertAggregate(Aggregate.SUM, VIEWS, collector);
+        assertCollects(Collectors.summingLong(Film::getViews), collector);
+    }
+
+    @Test
+    void summingDouble() {
+        final AggregateCollector<Film, ?, Double> collector = FieldCollectors.summingDouble(RATE);
+
+        assertAggregate(Aggregate.SUM, RATE, collector);
+        assertCollects(Collectors.summingDouble(Film::getRate), collector);
+    }
+
+    @Test
+    void averagingInt() {
+        final AggregateCollector<Film, ?, Double> collector = FieldCollectors.averagingInt(LENGTH);
+
+        assertAggregate(Aggregate.AVERAGE, LENGTH, collector);
+        assertCollects(Collectors.averagingInt(Film::getLength), collector);
+    }
+
+    @Test
+    void averagingLong() {
+        final AggregateCollector<Film, ?, Double> collector = FieldCollectors.averagingLong(VIEWS);
+
+        assertAggregate(Aggregate.AVERAGE, VIEWS, collector);
+        assertCollects(Collectors.averagingLong(Film::getViews), collector);
+    }
+
+    @Test
+    void averagingDouble() {
+        final AggregateCollector<Film, ?, Double> collector = FieldCollectors.averagingDouble(RATE);
+
+        assertAggregate(Aggregate.AVERAGE, RATE, collector);
+        assertCollects(Collectors.averagingDouble(Film::getRate), collector);
+    }
+
+    @Test
+    void groupingBy() {
+        final Collector<Film, ?, Map<String, Double>> collector = FieldCollectors.groupingBy(RATING, FieldCollectors.averagingInt(LENGTH));
+
+        assertEquals(
+            FILMS.stream().collect(Collectors.groupingBy(Film::getRating, Collectors.averagingInt(Film::getLength))),
+            FILMS.stream().collect(collector)
+        );
+
+        final GroupingCollector<?, ?, ?> groupingCollector = (GroupingCollector<?, ?, ?>) collector;
+        assertSame(RATING, groupingCollector.getField());
+        assertEquals(Aggregate.AVERAGE, ((AggregateCollector<?, ?, ?>) groupingCollector.getDownstream()).getAggregate());
+    }
+
+    private static void assertAggregate(final Aggregate aggregate, final Object field, final AggregateCollector<Film, ?, ?> collector) {
+        assertEquals(aggregate, collector.getAggregate());
+        assertSame(field, collector.getField().orElseThrow());
+    }
+
+    private static <R> void assertCollects(final Collector<Film, ?, R> expected, final Collector<Film, ?, R> actual) {
+        assertEquals(FILMS.stream().collect(expected), FILMS.stream().collect(actual));
+        assertEquals(FILMS.parallelStream().collect(expected), FILMS.parallelStream().collect(actual));
+        assertEquals(Stream.<Film>empty().collect(expected), Stream.<Film>empty().collect(actual));
+    }
+
+    private static final class Film {
+
+        private final String rating;
+        private final int length;
+        private final long views;
+        private final double rate;
+
+        private Film(String rating, int length, long views, double rate) {
+            this.rating = rating;
+            this.length = length;
+            this.views = views;
+            this.rate = rate;
+        }
+
+        String getRating() {
+            return rating;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        long getViews() {
+            return views;
+        }
+
+        double getRate() {
+            return rate;
+        }
+    }
+}
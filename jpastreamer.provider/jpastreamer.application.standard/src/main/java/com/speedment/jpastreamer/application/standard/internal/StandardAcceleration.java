@@ -0,0 +1,80 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.ResultCacheInvalidator;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.renderer.Acceleration;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class StandardAcceleration implements Acceleration {
+
+    private final Duration refreshInterval;
+    private final Set<Class<?>> entityClasses;
+    private final Set<Field<?>> indexedFields;
+    private final Map<Class<?>, Long> refreshes = new ConcurrentHashMap<>();
+
+    StandardAcceleration(final Duration refreshInterval, final Set<Class<?>> entityClasses, final Set<Field<?>> indexedFields) {
+        this.refreshInterval = requireNonNull(refreshInterval);
+        this.entityClasses = Set.copyOf(entityClasses);
+        this.indexedFields = Set.copyOf(indexedFields);
+    }
+
+    @Override
+    public boolean isAccelerating(final Class<?> entityClass) {
+        return entityClasses.contains(entityClass);
+    }
+
+    @Override
+    public long version(final Class<?> entityClass) {
+        return ResultCacheInvalidator.version(entityClass) + refreshes.getOrDefault(entityClass, 0L);
+    }
+
+    @Override
+    public boolean isIndexed(final Field<?> field) {
+        return field.isUnique() || indexedFields.contains(field);
+    }
+
+    @Override
+    public Duration refreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Causes the entities of the provided {@code entityClasses} to be reloaded
+     * upon the next stream over them.
+     *
+     * @param entityClasses to reload
+     */
+    void refresh(final Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            refreshes.merge(entityClass, 1L, Long::sum);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StandardAcceleration{" +
+            "refreshInterval=" + refreshInterval +
+            ", entityClasses=" + entityClasses +
+            ", indexedFields=" + indexedFields.size() +
+            '}';
+    }
+
+}
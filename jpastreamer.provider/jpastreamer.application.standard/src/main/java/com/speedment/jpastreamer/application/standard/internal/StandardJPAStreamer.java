@@ -19,13 +19,27 @@ import com.speedment.jpastreamer.analytics.AnalyticsReporterFactory;
 import com.speedment.jpastreamer.announcer.Announcer;
 import com.speedment.jpastreamer.appinfo.ApplicationInformation;
 import com.speedment.jpastreamer.application.JPAStreamer;
+import com.speedment.jpastreamer.application.PreparedStream;
+import com.speedment.jpastreamer.application.QueryPlanCacheStatistics;
+import com.speedment.jpastreamer.application.ResultCacheStatistics;
 import com.speedment.jpastreamer.application.StreamSupplier;
+import com.speedment.jpastreamer.autoclose.AutoCloseFactory;
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.renderer.RendererOptions;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
 import jakarta.persistence.EntityManager;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -36,22 +50,43 @@ final class StandardJPAStreamer implements JPAStreamer {
     private final AnalyticsReporter analyticsReporter;
     
     private final boolean closeEntityManagers; 
+
+    private final Executor executor;
+    private final StandardResultCache resultCache;
+    private final StandardQueryPlanCache queryPlanCache;
+    private final StandardAcceleration acceleration;
+    private final RendererOptions rendererOptions;
+
+    // Limits the streams of publishers to those that may obtain an entity manager, so that waiting subscriptions do not occupy threads
+    private final StreamPublisher.Admission publisherAdmission;
+    private final int publisherThreads;
+
+    // Executes the blocking reads of publishers if no executor is configured, created upon the first publisher
+    private ExecutorService publisherExecutor;
     
-    StandardJPAStreamer(final Supplier<EntityManager> entityManagerSupplier, Runnable closeHandler, boolean demoMode, boolean closeEntityManagers) {
+    StandardJPAStreamer(final Supplier<EntityManager> entityManagerSupplier, Runnable closeHandler, boolean demoMode, boolean closeEntityManagers, final Executor executor, final int maxConcurrency, final Semaphore concurrencyLimit, final StandardResultCache resultCache, final StandardQueryPlanCache queryPlanCache, final StandardAcceleration acceleration) {
         this.closeHandler = requireNonNull(closeHandler);
         this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
         this.closeEntityManagers = closeEntityManagers; 
+        this.executor = executor;
+        this.resultCache = requireNonNull(resultCache);
+        this.queryPlanCache = requireNonNull(queryPlanCache);
+        this.acceleration = acceleration;
+        this.rendererOptions = rendererOptions(executor, concurrencyLimit, resultCache, queryPlanCache, acceleration);
+        this.publisherAdmission = concurrencyLimit == null ? null : new StreamPublisher.Admission(maxConcurrency);
+        this.publisherThreads = concurrencyLimit == null ? Runtime.getRuntime().availableProcessors() : maxConcurrency;
         final ApplicationInformation applicationInformation = RootFactory.getOrThrow(ApplicationInformation.class, ServiceLoader::load);
         final AnalyticsReporterFactory analyticsReporterFactory = RootFactory.getOrThrow(AnalyticsReporterFactory.class, ServiceLoader::load);
         analyticsReporter = analyticsReporterFactory.createAnalyticsReporter(applicationInformation.implementationVersion(), demoMode);
         analyticsReporter.start();
+        preloadServices();
         printGreeting(applicationInformation);
     }
 
     @Override
     public <T> Stream<T> stream(final StreamConfiguration<T> streamConfiguration) {
         requireNonNull(streamConfiguration);
-        final StreamSupplier<T> streamer = new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers);
+        final StreamSupplier<T> streamer = new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers, rendererOptions);
         return closeEntityManagers ? 
                     streamer.stream().onClose(streamer::close) : 
                     streamer.stream();
@@ -60,20 +95,101 @@ final class StandardJPAStreamer implements JPAStreamer {
     @Override
     public <T> StreamSupplier<T> createStreamSupplier(StreamConfiguration<T> streamConfiguration) { 
         requireNonNull(streamConfiguration); 
-        return new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers); 
+        return new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers, rendererOptions); 
+    }
+
+    @Override
+    public <T, R> PreparedStream<T, R> prepare(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends R> template) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(template);
+        final RendererFactory rendererFactory = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+        return new StandardPreparedStream<>(streamConfiguration, template, () -> rendererFactory.createRenderer(entityManagerSupplier, rendererOptions), closeEntityManagers);
+    }
+
+    @Override
+    public <T, R> Flow.Publisher<R> publisher(final StreamConfiguration<T> streamConfiguration, final Function<? super Stream<T>, ? extends Stream<R>> operations) {
+        requireNonNull(streamConfiguration);
+        requireNonNull(operations);
+        return new StreamPublisher<>(() -> {
+            final StandardStreamSupplier<T> streamer = new StandardStreamSupplier<>(streamConfiguration, entityManagerSupplier, this.closeEntityManagers, rendererOptions);
+            final Stream<R> stream = operations.apply(streamer.iterableStream());
+            return closeEntityManagers ?
+                    stream.onClose(streamer::close) :
+                    stream;
+        }, publisherExecutor(), publisherAdmission);
     }
 
     @Override
     public void resetStreamer(Class<?>... entityClasses) {
-        // As there no longer exists a Streamer cache, this method has no effect
+        requireNonNull(entityClasses);
+        resultCache.invalidate(entityClasses);
+        if (acceleration != null) {
+            acceleration.refresh(entityClasses);
+        }
+    }
+
+    @Override
+    public ResultCacheStatistics resultCacheStatistics() {
+        return resultCache;
+    }
+
+    @Override
+    public QueryPlanCacheStatistics queryPlanCacheStatistics() {
+        return queryPlanCache;
     }
 
     @Override
     public void close() {
         analyticsReporter.stop();
+        synchronized (this) {
+            if (publisherExecutor != null) {
+                publisherExecutor.shutdown();
+            }
+        }
         closeHandler.run(); 
     }
 
+    private synchronized Executor publisherExecutor() {
+        if (executor != null) {
+            return executor;
+        }
+        if (publisherExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            // Subscriptions only occupy a thread while elements are read, so the pool is bounded by the number of streams that may be read concurrently
+            publisherExecutor = Executors.newFixedThreadPool(publisherThreads, runnable -> {
+                final Thread thread = new Thread(runnable, "jpastreamer-publisher-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return publisherExecutor;
+    }
+
+    private static RendererOptions rendererOptions(final Executor executor, final Semaphore concurrencyLimit, final StandardResultCache resultCache, final StandardQueryPlanCache queryPlanCache, final StandardAcceleration acceleration) {
+        RendererOptions options = RendererOptions.defaults().withResultCache(resultCache);
+        // Renderers only describe the shape of their pipelines if plans are cached
+        if (queryPlanCache.isEnabled()) {
+            options = options.withQueryPlanCache(queryPlanCache);
+        }
+        if (executor != null) {
+            options = options.withExecutor(executor);
+        }
+        if (concurrencyLimit != null) {
+            options = options.withConcurrencyLimit(concurrencyLimit);
+        }
+        if (acceleration != null) {
+            options = options.withAcceleration(acceleration);
+        }
+        return options;
+    }
+
+    // Resolves the services used by every stream up front rather than upon the first stream
+    private void preloadServices() {
+        RootFactory.preload(BuilderFactory.class, ServiceLoader::load);
+        RootFactory.preload(AutoCloseFactory.class, ServiceLoader::load);
+        RootFactory.preload(RendererFactory.class, ServiceLoader::load);
+    }
+
     private void printGreeting(final ApplicationInformation info) {
         final String greeting = String.format("%s%n" +
                         ":: %s %s :: %s%n" +
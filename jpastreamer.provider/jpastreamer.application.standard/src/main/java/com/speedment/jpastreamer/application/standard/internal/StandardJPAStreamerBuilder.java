@@ -14,17 +14,31 @@ package com.speedment.jpastreamer.application.standard.internal;
 
 import com.speedment.jpastreamer.application.JPAStreamer;
 import com.speedment.jpastreamer.application.JPAStreamerBuilder;
+import com.speedment.jpastreamer.field.Field;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
 public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
 
+    // The limits shared by all JPAStreamers of an EntityManagerFactory, as they share its connections
+    private static final Map<EntityManagerFactory, ConcurrencyLimit> CONCURRENCY_LIMITS = new WeakHashMap<>();
+
+    private final EntityManagerFactory entityManagerFactory;
+
     private final Supplier<EntityManager> entityManagerSupplier;
     
     private final Runnable closeHandler;
@@ -33,9 +47,21 @@ public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
 
     private final boolean closeEntityManagers;
 
+    private Executor executor;
+
+    private int maxConcurrency;
+
+    private StandardResultCache resultCache = StandardResultCache.disabled();
+
+    private int queryPlanCacheSize = StandardQueryPlanCache.DEFAULT_MAXIMUM_SIZE;
+
+    private Duration refreshInterval;
+    private final Set<Class<?>> acceleratedClasses = new HashSet<>();
+    private final Set<Field<?>> indexedFields = new HashSet<>();
+
     public StandardJPAStreamerBuilder(final String persistenceUnitName) {
         requireNonNull(persistenceUnitName);
-        EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName);
+        this.entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName);
         this.entityManagerSupplier = entityManagerFactory::createEntityManager;
         this.closeHandler = entityManagerFactory::close; 
         this.demoMode = "sakila".equals(persistenceUnitName); 
@@ -43,7 +69,7 @@ public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
     }
 
     public StandardJPAStreamerBuilder(final EntityManagerFactory entityManagerFactory) {
-        requireNonNull(entityManagerFactory);
+        this.entityManagerFactory = requireNonNull(entityManagerFactory);
         this.entityManagerSupplier = entityManagerFactory::createEntityManager;
         this.closeHandler = () -> {}; 
         this.demoMode = "sakila".equals(entityManagerFactory.getProperties().getOrDefault("hibernate.ejb.persistenceUnitName", ""));
@@ -51,15 +77,98 @@ public final class StandardJPAStreamerBuilder implements JPAStreamerBuilder {
     }
 
     public StandardJPAStreamerBuilder(final Supplier<EntityManager> entityManagerSupplier) {
+        this.entityManagerFactory = null;
         this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
         this.closeHandler = () -> {};
         this.demoMode = false; 
         this.closeEntityManagers = false; 
     }
 
+    @Override
+    public JPAStreamerBuilder withExecutor(final Executor executor) {
+        this.executor = requireNonNull(executor);
+        return this;
+    }
+
+    @Override
+    public JPAStreamerBuilder withMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The max concurrency must be positive");
+        }
+        if (!closeEntityManagers) {
+            throw new IllegalStateException("The max concurrency cannot be limited for entity managers obtained from a Supplier as they are never closed");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    @Override
+    public JPAStreamerBuilder withResultCache(final int maximumSize, final Duration timeToLive, final Class<?>... entityClasses) {
+        requireNonNull(timeToLive);
+        requireNonNull(entityClasses);
+        this.resultCache = StandardResultCache.of(maximumSize, timeToLive, entityClasses);
+        return this;
+    }
+
+    @Override
+    public JPAStreamerBuilder withQueryPlanCache(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum size must not be negative");
+        }
+        this.queryPlanCacheSize = maximumSize;
+        return this;
+    }
+
+    @Override
+    public JPAStreamerBuilder withAcceleration(final Duration refreshInterval, final Class<?>... entityClasses) {
+        requireNonNull(refreshInterval);
+        requireNonNull(entityClasses);
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("The refresh interval must be positive");
+        }
+        if (entityClasses.length == 0) {
+            throw new IllegalArgumentException("At least one entity class must be accelerated");
+        }
+        this.refreshInterval = refreshInterval;
+        this.acceleratedClasses.addAll(Arrays.asList(entityClasses));
+        return this;
+    }
+
+    @Override
+    public JPAStreamerBuilder withIndex(final Field<?>... fields) {
+        requireNonNull(fields);
+        this.indexedFields.addAll(Arrays.asList(fields));
+        return this;
+    }
+
     @Override
     public JPAStreamer build() {
-        return new StandardJPAStreamer(entityManagerSupplier, closeHandler, demoMode, closeEntityManagers);
+        final Semaphore concurrencyLimit = maxConcurrency == 0 ? null : concurrencyLimit(entityManagerFactory, maxConcurrency);
+        // Each JPAStreamer has a cache of its own as cached plans reference the EntityManagerFactory they were rendered by
+        final StandardQueryPlanCache queryPlanCache = queryPlanCacheSize == 0 ? StandardQueryPlanCache.disabled() : StandardQueryPlanCache.of(queryPlanCacheSize);
+        final StandardAcceleration acceleration = acceleratedClasses.isEmpty() ? null : new StandardAcceleration(refreshInterval, acceleratedClasses, indexedFields);
+        return new StandardJPAStreamer(entityManagerSupplier, closeHandler, demoMode, closeEntityManagers, executor, maxConcurrency, concurrencyLimit, resultCache, queryPlanCache, acceleration);
+    }
+
+    private static Semaphore concurrencyLimit(final EntityManagerFactory entityManagerFactory, final int maxConcurrency) {
+        synchronized (CONCURRENCY_LIMITS) {
+            final ConcurrencyLimit concurrencyLimit = CONCURRENCY_LIMITS.computeIfAbsent(entityManagerFactory, emf -> new ConcurrencyLimit(maxConcurrency));
+            if (concurrencyLimit.maxConcurrency != maxConcurrency) {
+                throw new IllegalStateException("The max concurrency of the EntityManagerFactory is already limited to " + concurrencyLimit.maxConcurrency);
+            }
+            return concurrencyLimit.permits;
+        }
+    }
+
+    private static final class ConcurrencyLimit {
+
+        private final int maxConcurrency;
+        private final Semaphore permits;
+
+        private ConcurrencyLimit(final int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            this.permits = new Semaphore(maxConcurrency);
+        }
     }
 
 }
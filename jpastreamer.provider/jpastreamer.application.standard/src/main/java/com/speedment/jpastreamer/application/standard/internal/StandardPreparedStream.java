@@ -0,0 +1,153 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.PreparedStream;
+import com.speedment.jpastreamer.builder.BuilderFactory;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.renderer.PreparedPipeline;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+final class StandardPreparedStream<T, R> implements PreparedStream<T, R> {
+
+    private final StreamConfiguration<T> streamConfiguration;
+    private final Function<? super Stream<T>, ? extends R> template;
+    private final Supplier<Renderer> rendererSupplier;
+    private final boolean closeEntityManagers;
+    private final PreparedPipeline preparedPipeline;
+
+    StandardPreparedStream(
+        final StreamConfiguration<T> streamConfiguration,
+        final Function<? super Stream<T>, ? extends R> template,
+        final Supplier<Renderer> rendererSupplier,
+        final boolean closeEntityManagers
+    ) {
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        this.template = requireNonNull(template);
+        this.rendererSupplier = requireNonNull(rendererSupplier);
+        this.closeEntityManagers = closeEntityManagers;
+        this.preparedPipeline = prepare();
+    }
+
+    @Override
+    public R execute(final Map<String, ?> values) {
+        requireNonNull(values);
+        final StandardStreamSupplier<T> streamer = new StandardStreamSupplier<>(
+            streamConfiguration,
+            new BindingRenderer(rendererSupplier.get(), preparedPipeline, values),
+            closeEntityManagers
+        );
+        return template.apply(closeEntityManagers ?
+                streamer.stream().onClose(streamer::close) :
+                streamer.stream());
+    }
+
+    @Override
+    public Set<String> parameterNames() {
+        return preparedPipeline.parameterNames();
+    }
+
+    @Override
+    public StreamConfiguration<T> configuration() {
+        return streamConfiguration;
+    }
+
+    /*
+     * Applies the template to a stream whose terminal operation prepares its pipeline rather than executing it.
+     */
+    private PreparedPipeline prepare() {
+        final Renderer renderer = rendererSupplier.get();
+        final PreparingRenderer preparingRenderer = new PreparingRenderer(renderer);
+        try {
+            template.apply(RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load).createBuilder(streamConfiguration, preparingRenderer));
+        } catch (Prepared prepared) {
+            // The terminal operation of the template is not executed
+        } finally {
+            if (closeEntityManagers) {
+                renderer.close();
+            }
+        }
+        if (preparingRenderer.preparedPipeline == null) {
+            throw new IllegalArgumentException("The template of a prepared stream must apply a terminal operation to its stream");
+        }
+        return preparingRenderer.preparedPipeline;
+    }
+
+    // Thrown by the terminal operation of the stream passed to the template upon preparation
+    private static final class Prepared extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private Prepared() {
+            super("The pipeline was prepared", null, false, false);
+        }
+    }
+
+    private static final class PreparingRenderer implements Renderer {
+
+        private final Renderer renderer;
+        private PreparedPipeline preparedPipeline;
+
+        private PreparingRenderer(final Renderer renderer) {
+            this.renderer = renderer;
+        }
+
+        @Override
+        public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+            preparedPipeline = renderer.prepare(pipeline, streamConfiguration);
+            throw new Prepared();
+        }
+
+        @Override
+        public void close() {
+            renderer.close();
+        }
+    }
+
+    private static final class BindingRenderer implements Renderer {
+
+        private final Renderer renderer;
+        private final PreparedPipeline preparedPipeline;
+        private final Map<String, ?> values;
+
+        private BindingRenderer(final Renderer renderer, final PreparedPipeline preparedPipeline, final Map<String, ?> values) {
+            this.renderer = renderer;
+            this.preparedPipeline = preparedPipeline;
+            this.values = values;
+        }
+
+        @Override
+        public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+            return renderer.render(pipeline, streamConfiguration, preparedPipeline, values);
+        }
+
+        @Override
+        public void close() {
+            renderer.close();
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.QueryPlanCacheStatistics;
+import com.speedment.jpastreamer.renderer.QueryPlanCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used {@link QueryPlanCache}.
+ */
+final class StandardQueryPlanCache implements QueryPlanCache, QueryPlanCacheStatistics {
+
+    static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final StandardQueryPlanCache DISABLED = new StandardQueryPlanCache(0);
+
+    private final int maximumSize;
+    private final Map<Object, Object> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private StandardQueryPlanCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+                if (size() > StandardQueryPlanCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static StandardQueryPlanCache of(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        return new StandardQueryPlanCache(maximumSize);
+    }
+
+    static StandardQueryPlanCache disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return maximumSize > 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        requireNonNull(key);
+        synchronized (entries) {
+            final Object plan = entries.get(key);
+            if (plan == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return plan;
+        }
+    }
+
+    @Override
+    public void put(final Object key, final Object plan) {
+        requireNonNull(key);
+        requireNonNull(plan);
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, plan);
+        }
+    }
+
+    @Override
+    public long hits() {
+        return hits.get();
+    }
+
+    @Override
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StandardQueryPlanCache{" +
+            "maximumSize=" + maximumSize +
+            ", size=" + size() +
+            ", hits=" + hits() +
+            ", misses=" + misses() +
+            ", evictions=" + evictions() +
+            '}';
+    }
+
+}
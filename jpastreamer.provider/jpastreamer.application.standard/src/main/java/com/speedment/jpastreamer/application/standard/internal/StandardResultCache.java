@@ -0,0 +1,189 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.application.ResultCacheInvalidator;
+import com.speedment.jpastreamer.application.ResultCacheStatistics;
+import com.speedment.jpastreamer.renderer.ResultCache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used {@link ResultCache} whose results expire
+ * after a fixed time to live.
+ */
+final class StandardResultCache implements ResultCache, ResultCacheStatistics {
+
+    private static final StandardResultCache DISABLED = new StandardResultCache(0, Duration.ZERO, Collections.emptySet());
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final Set<Class<?>> entityClasses;
+    private final Map<Object, CachedResult> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private StandardResultCache(final int maximumSize, final Duration timeToLive, final Set<Class<?>> entityClasses) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entityClasses = entityClasses;
+        this.entries = new LinkedHashMap<Object, CachedResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, CachedResult> eldest) {
+                if (size() > StandardResultCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static StandardResultCache of(final int maximumSize, final Duration timeToLive, final Class<?>... entityClasses) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive");
+        }
+        return new StandardResultCache(maximumSize, timeToLive, new HashSet<>(Arrays.asList(entityClasses)));
+    }
+
+    static StandardResultCache disabled() {
+        return DISABLED;
+    }
+
+    @Override
+    public boolean isCaching(final Class<?> entityClass) {
+        return maximumSize > 0 && (entityClasses.isEmpty() || entityClasses.contains(entityClass));
+    }
+
+    @Override
+    public List<?> get(final Object key) {
+        requireNonNull(key);
+        synchronized (entries) {
+            final CachedResult cachedResult = entries.get(key);
+            if (cachedResult == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (cachedResult.version != version(cachedResult.entityClass)) {
+                entries.remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            if (System.nanoTime() - cachedResult.created > timeToLiveNanos) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return cachedResult.result;
+        }
+    }
+
+    @Override
+    public long version(final Class<?> entityClass) {
+        return ResultCacheInvalidator.version(entityClass);
+    }
+
+    @Override
+    public void put(final Class<?> entityClass, final long version, final Object key, final List<?> result) {
+        requireNonNull(entityClass);
+        requireNonNull(key);
+        requireNonNull(result);
+        // The entities were changed while the query executed, the result may already be stale
+        if (!isCaching(entityClass) || version != version(entityClass)) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedResult(entityClass, version, result, System.nanoTime()));
+        }
+    }
+
+    void invalidate(final Class<?>... entityClasses) {
+        final Set<Class<?>> invalidated = new HashSet<>(Arrays.asList(entityClasses));
+        synchronized (entries) {
+            final Iterator<CachedResult> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (invalidated.contains(iterator.next().entityClass)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public long hits() {
+        return hits.get();
+    }
+
+    @Override
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StandardResultCache{" +
+            "maximumSize=" + maximumSize +
+            ", size=" + size() +
+            ", hits=" + hits() +
+            ", misses=" + misses() +
+            ", evictions=" + evictions() +
+            '}';
+    }
+
+    private static final class CachedResult {
+
+        private final Class<?> entityClass;
+        private final long version;
+        private final List<?> result;
+        private final long created;
+
+        private CachedResult(final Class<?> entityClass, final long version, final List<?> result, final long created) {
+            this.entityClass = entityClass;
+            this.version = version;
+            this.result = result;
+            this.created = created;
+        }
+    }
+
+}
@@ -19,6 +19,7 @@ import com.speedment.jpastreamer.autoclose.AutoCloseFactory;
 import com.speedment.jpastreamer.builder.BuilderFactory;
 import com.speedment.jpastreamer.renderer.Renderer;
 import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.renderer.RendererOptions;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
@@ -40,16 +41,24 @@ final class StandardStreamSupplier<T> implements StreamSupplier<T> {
     private static final AtomicBoolean closed = new AtomicBoolean(false);
 
     StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final EntityManagerFactory entityManagerFactory, boolean closeEntityManager) {
-        this(streamConfiguration, entityManagerFactory::createEntityManager, closeEntityManager); 
+        this(streamConfiguration, entityManagerFactory::createEntityManager, closeEntityManager, RendererOptions.defaults());
     }
     
-    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final Supplier<EntityManager> entityManagerSupplier, boolean closeEntityManager) {
+    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final Supplier<EntityManager> entityManagerSupplier, boolean closeEntityManager, final RendererOptions rendererOptions) {
         this.streamConfiguration = requireNonNull(streamConfiguration);
         requireNonNull(entityManagerSupplier);
         this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
         this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
-        this.renderer = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load)
-                .createRenderer(entityManagerSupplier);
+        final RendererFactory rendererFactory = RootFactory.getOrThrow(RendererFactory.class, ServiceLoader::load);
+        this.renderer = rendererFactory.createRenderer(entityManagerSupplier, rendererOptions);
+        this.closeEntityManager = closeEntityManager;
+    }
+
+    StandardStreamSupplier(final StreamConfiguration<T> streamConfiguration, final Renderer renderer, boolean closeEntityManager) {
+        this.streamConfiguration = requireNonNull(streamConfiguration);
+        this.renderer = requireNonNull(renderer);
+        this.builderFactory = RootFactory.getOrThrow(BuilderFactory.class, ServiceLoader::load);
+        this.autoCloseFactory = RootFactory.getOrThrow(AutoCloseFactory.class, ServiceLoader::load);
         this.closeEntityManager = closeEntityManager;
     }
 
@@ -68,6 +77,14 @@ final class StandardStreamSupplier<T> implements StreamSupplier<T> {
         return autoCloseFactory.createAutoCloseStream(builderFactory.createBuilder(streamConfiguration, renderer));
     }
 
+    /*
+     * Returns a stream that is not closed automatically by its terminal operation,
+     * allowing it to be consumed using its iterator.
+     */
+    Stream<T> iterableStream() {
+        return builderFactory.createBuilder(streamConfiguration, renderer);
+    }
+
     @Override
     public void close() {
         if (this.closeEntityManager) {
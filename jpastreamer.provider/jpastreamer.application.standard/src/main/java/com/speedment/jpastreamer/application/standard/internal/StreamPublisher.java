@@ -0,0 +1,244 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.application.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Flow.Publisher} that publishes the elements of a new Stream for
+ * each subscriber, reading elements from the Stream only as they are
+ * requested.
+ * <p>
+ * If an {@link Admission} is provided, subscriptions wait for their Stream to
+ * be admitted before opening it without occupying a thread of the executor.
+ *
+ * @param <T> the type of the published elements
+ */
+final class StreamPublisher<T> implements Flow.Publisher<T> {
+
+    private final Supplier<? extends Stream<T>> streamSupplier;
+    private final Executor executor;
+    private final Admission admission;
+
+    StreamPublisher(final Supplier<? extends Stream<T>> streamSupplier, final Executor executor, final Admission admission) {
+        this.streamSupplier = requireNonNull(streamSupplier);
+        this.executor = requireNonNull(executor);
+        this.admission = admission;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        requireNonNull(subscriber);
+        subscriber.onSubscribe(new StreamSubscription<>(subscriber, streamSupplier, executor, admission));
+    }
+
+    /**
+     * Limits the number of Streams that are open concurrently, shared by
+     * several publishers. Subscriptions that are not admitted are queued and
+     * admitted as other Streams are closed.
+     */
+    static final class Admission {
+
+        private final int maxOpen;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int open;
+
+        Admission(final int maxOpen) {
+            this.maxOpen = maxOpen;
+        }
+
+        // Returns if admitted right away, otherwise onAdmitted is run once admitted
+        private synchronized boolean admit(final Runnable onAdmitted) {
+            if (open < maxOpen) {
+                open++;
+                return true;
+            }
+            waiting.add(onAdmitted);
+            return false;
+        }
+
+        // Returns if onAdmitted was removed before it was admitted
+        private synchronized boolean withdraw(final Runnable onAdmitted) {
+            return waiting.remove(onAdmitted);
+        }
+
+        private void release() {
+            final Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    open--;
+                    return;
+                }
+            }
+            // The admission is handed over to the next waiting subscription
+            next.run();
+        }
+    }
+
+    /*
+     * Signals are delivered by a single drain task at a time, scheduled on the executor
+     * whenever the demand changes or the subscription is cancelled.
+     */
+    private static final class StreamSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Supplier<? extends Stream<T>> streamSupplier;
+        private final Executor executor;
+        private final Admission admission;
+        private final Runnable onAdmitted = () -> {
+            admitted = true;
+            schedule();
+        };
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable illegalRequest;
+        private volatile boolean admitted;
+
+        // Only accessed by the drain task
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+        private boolean done;
+        private boolean waiting;
+
+        private StreamSubscription(
+            final Flow.Subscriber<? super T> subscriber,
+            final Supplier<? extends Stream<T>> streamSupplier,
+            final Executor executor,
+            final Admission admission
+        ) {
+            this.subscriber = subscriber;
+            this.streamSupplier = streamSupplier;
+            this.executor = executor;
+            this.admission = admission;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                illegalRequest = new IllegalArgumentException("The number of requested elements must be positive but was " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    try {
+                        emit();
+                    } catch (Throwable t) {
+                        terminate();
+                        subscriber.onError(t);
+                    }
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (illegalRequest != null) {
+                terminate();
+                subscriber.onError(illegalRequest);
+                return;
+            }
+
+            if (iterator == null) {
+                if (!admitted) {
+                    if (admission != null && (waiting || !admission.admit(onAdmitted))) {
+                        // Drained again by onAdmitted
+                        waiting = true;
+                        return;
+                    }
+                    admitted = true;
+                }
+                stream = streamSupplier.get();
+                iterator = stream.iterator();
+            }
+
+            final long requested = demand.get();
+            long emitted = 0;
+            while (emitted != requested && !cancelled) {
+                if (!iterator.hasNext()) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                subscriber.onNext(iterator.next());
+                emitted++;
+            }
+
+            if (cancelled) {
+                terminate();
+                return;
+            }
+
+            // Completes without awaiting further demand if the last element was emitted
+            if (!iterator.hasNext()) {
+                terminate();
+                subscriber.onComplete();
+            } else if (requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            try {
+                if (stream != null) {
+                    stream.close();
+                    stream = null;
+                    iterator = null;
+                }
+            } finally {
+                // A subscription withdrawn while waiting was never admitted
+                if (admission != null && (admitted || waiting) && !(waiting && admission.withdraw(onAdmitted))) {
+                    admission.release();
+                }
+                admitted = false;
+                waiting = false;
+            }
+        }
+    }
+
+}
@@ -51,7 +51,7 @@ abstract class BaseStreamBuilder<E, T, S extends BaseStream<T, S>> implements Ba
 
     @Override
     public S sequential() {
-        baseState.pipeline().parallel();
+        baseState.pipeline().sequential();
         return self();
     }
 
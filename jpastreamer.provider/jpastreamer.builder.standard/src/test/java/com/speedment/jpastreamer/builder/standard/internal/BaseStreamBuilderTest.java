@@ -13,6 +13,7 @@
 package com.speedment.jpastreamer.builder.standard.internal;
 
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
 import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
@@ -239,6 +240,71 @@ abstract class BaseStreamBuilderTest<T, S extends BaseStream<T, S>> {
         public StreamConfiguration<T> withHint(String hintName, Object value) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public Optional<ChunkConfiguration<T>> chunking() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> chunked(HasComparableOperators<T, ?> key, int chunkSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt fetchSize() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withFetchSize(int fetchSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isForwardOnly() {
+            return false;
+        }
+
+        @Override
+        public StreamConfiguration<T> withForwardOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return false;
+        }
+
+        @Override
+        public StreamConfiguration<T> withReadOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OptionalInt partitions() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> withPartitions(int partitions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<KeysetConfiguration<T>> keyset() {
+            return Optional.empty();
+        }
+
+        @Override
+        public StreamConfiguration<T> pagedBy(Comparator<T> keyOrder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StreamConfiguration<T> pagedBy(Comparator<T> keyOrder, T last) {
+            throw new UnsupportedOperationException();
+        }
     }
 
 }
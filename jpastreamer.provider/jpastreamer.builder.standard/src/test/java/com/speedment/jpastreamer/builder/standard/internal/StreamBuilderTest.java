@@ -22,7 +22,9 @@ import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 final class StreamBuilderTest extends BaseStreamBuilderTest<String, Stream<String>> {
 
@@ -117,6 +119,16 @@ final class StreamBuilderTest extends BaseStreamBuilderTest<String, Stream<Strin
         testIntermediate(s -> s.skip(2));
     }
 
+    @Test
+    void parallel() {
+        assertTrue(builder.parallel().isParallel());
+    }
+
+    @Test
+    void sequential() {
+        assertFalse(builder.parallel().sequential().isParallel());
+    }
+
     // Todo: TakeWhile, DropWhile
 
 
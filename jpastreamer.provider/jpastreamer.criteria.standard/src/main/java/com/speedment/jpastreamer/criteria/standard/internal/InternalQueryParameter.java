@@ -12,17 +12,55 @@
  */
 package com.speedment.jpastreamer.criteria.standard.internal;
 
+import static java.util.Objects.requireNonNull;
+
 import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
 import jakarta.persistence.criteria.ParameterExpression;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 public class InternalQueryParameter<T> implements QueryParameter<T> {
 
     private final ParameterExpression<T> parameterExpression;
     private final T value;
+    private final FieldPredicate<?> predicate;
+    private final int operand;
+    private final Function<Object, ? extends T> valueMapper;
+    private final Parameter<?> placeholder;
 
     public InternalQueryParameter(ParameterExpression<T> parameterExpression, T value) {
         this.parameterExpression = parameterExpression;
         this.value = value;
+        this.predicate = null;
+        this.operand = 0;
+        this.valueMapper = null;
+        this.placeholder = null;
+    }
+
+    /**
+     * Creates a parameter whose value is obtained by applying the provided
+     * {@code valueMapper} to the operand of the provided {@code predicate}
+     * at the provided index. If the operand is a {@link Parameter}, the
+     * parameter holds no value until a value is bound to it.
+     *
+     * @param parameterExpression of the parameter
+     * @param predicate to obtain the operand from
+     * @param operand index of the operand, i.e. 0 for the first and 1 for the second operand
+     * @param valueMapper mapping the operand to the value of the parameter
+     */
+    public InternalQueryParameter(ParameterExpression<T> parameterExpression, FieldPredicate<?> predicate, int operand, Function<Object, ? extends T> valueMapper) {
+        this.parameterExpression = parameterExpression;
+        this.predicate = requireNonNull(predicate);
+        this.operand = operand;
+        this.valueMapper = requireNonNull(valueMapper);
+        final Object operandValue = operand(predicate, operand);
+        this.placeholder = operandValue instanceof Parameter ? (Parameter<?>) operandValue : null;
+        this.value = placeholder == null ? valueMapper.apply(operandValue) : null;
     }
     
     @Override
@@ -32,6 +70,45 @@ public class InternalQueryParameter<T> implements QueryParameter<T> {
 
     @Override
     public T getValue() {
+        if (placeholder != null) {
+            throw new IllegalStateException("The parameter " + placeholder + " has no value as it is only bound by prepared streams");
+        }
         return value;
     }
+
+    @Override
+    public Optional<FieldPredicate<?>> getPredicate() {
+        return Optional.ofNullable(predicate);
+    }
+
+    @Override
+    public T getValue(FieldPredicate<?> predicate) {
+        if (valueMapper == null) {
+            throw new UnsupportedOperationException();
+        }
+        final Object operandValue = operand(predicate, operand);
+        if (operandValue instanceof Parameter) {
+            throw new IllegalStateException("The parameter " + operandValue + " has no value as it is only bound by prepared streams");
+        }
+        return valueMapper.apply(operandValue);
+    }
+
+    @Override
+    public Optional<Parameter<?>> getPlaceholder() {
+        return Optional.ofNullable(placeholder);
+    }
+
+    @Override
+    public T bind(Object value) {
+        if (placeholder == null) {
+            throw new UnsupportedOperationException();
+        }
+        return valueMapper.apply(value);
+    }
+
+    private static Object operand(final FieldPredicate<?> predicate, final int operand) {
+        return operand == 0
+            ? ((HasArg0<?>) predicate).get0()
+            : ((HasArg1<?>) predicate).get1();
+    }
 }
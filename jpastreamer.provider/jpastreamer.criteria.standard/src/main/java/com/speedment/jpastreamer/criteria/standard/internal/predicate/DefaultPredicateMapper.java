@@ -24,6 +24,7 @@ import com.speedment.jpastreamer.exception.JPAStreamerException;
 import com.speedment.jpastreamer.field.Field;
 import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.Parameter;
 import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
 import com.speedment.jpastreamer.field.trait.HasArg0;
 import com.speedment.jpastreamer.field.trait.HasArg1;
@@ -33,6 +34,9 @@ import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -299,7 +303,24 @@ public final class DefaultPredicateMapper implements PredicateMapper {
 
         final Set<?> set = (Set<?>) value;
 
-        return new PredicateMapping(criteria.getRoot().get(column).in(set));
+        return new PredicateMapping(criteria.getRoot().get(column).in(pad(set)));
+    }
+
+    /*
+     * Pads the provided values to the next power of two by repeating one of them so that IN-lists of
+     * similar sizes render the same SQL text and thereby share statement and plan caches.
+     */
+    static List<Object> pad(final Collection<?> values) {
+        final List<Object> padded = new ArrayList<>(values);
+        if (padded.isEmpty()) {
+            return padded;
+        }
+        final int size = Integer.highestOneBit(padded.size() - 1) << 1;
+        final Object repeated = padded.get(0);
+        while (padded.size() < size) {
+            padded.add(repeated);
+        }
+        return padded;
     }
 
     private <ENTITY> PredicateMapping notIn(
@@ -598,11 +619,11 @@ public final class DefaultPredicateMapper implements PredicateMapper {
         final String column = fieldPredicate.getField().columnName();
         final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
 
-        if (clazz.isInstance(value)) {
-            final S val = parameterizedPredicate.getValueMapper().apply((S) value);
+        if (clazz.isInstance(value) || value instanceof Parameter) {
+            final Function<S, S> valueMapper = parameterizedPredicate.getValueMapper();
 
             final ParameterExpression<S> parameter = criteria.getBuilder().parameter(clazz);
-            final QueryParameter<S> queryParameter = new InternalQueryParameter<>(parameter, val);
+            final QueryParameter<S> queryParameter = new InternalQueryParameter<>(parameter, fieldPredicate, 0, operand -> valueMapper.apply((S) operand));
 
             return new PredicateMapping(parameterizedPredicate.getParameterMapper()
                 .apply(column, parameter), queryParameter);
@@ -622,30 +643,31 @@ public final class DefaultPredicateMapper implements PredicateMapper {
         final Object value = Cast.castOrFail(fieldPredicate, HasArg0.class).get0();
 
         if (value instanceof Number) {
-            final Number val = parameterizedNumberPredicate.getValueMapper().apply((Number) value);
+            final Function<Number, Number> valueMapper = parameterizedNumberPredicate.getValueMapper();
 
             final ParameterExpression<Number> numberParameter = criteria.getBuilder().parameter(Number.class);
-            final QueryParameter<Number> queryParameter = new InternalQueryParameter<>(numberParameter, val);
+            final QueryParameter<Number> queryParameter = new InternalQueryParameter<>(numberParameter, fieldPredicate, 0, operand -> valueMapper.apply((Number) operand));
 
             return new PredicateMapping(parameterizedNumberPredicate.getParameterMapper()
                 .apply(column, numberParameter), queryParameter);
         }
 
         if (value instanceof Character) {
-            final Number val = parameterizedNumberPredicate.getValueMapper().apply((int) (char) value);
+            final Function<Number, Number> valueMapper = parameterizedNumberPredicate.getValueMapper();
 
             final ParameterExpression<Number> numberParameter = criteria.getBuilder().parameter(Number.class);
-            final QueryParameter<Number> queryParameter = new InternalQueryParameter<>(numberParameter, val);
+            final QueryParameter<Number> queryParameter = new InternalQueryParameter<>(numberParameter, fieldPredicate, 0, operand -> valueMapper.apply((int) (char) operand));
 
             return new PredicateMapping(parameterizedNumberPredicate.getParameterMapper()
                 .apply(column, numberParameter), queryParameter);
         }
 
-        if (value instanceof Comparable) {
-            final Comparable val = parameterizedComparablePredicate.getValueMapper().apply((Comparable) value);
+        // The value bound to a parameter is only known to be comparable
+        if (value instanceof Comparable || value instanceof Parameter) {
+            final Function<Comparable, Comparable> valueMapper = parameterizedComparablePredicate.getValueMapper();
 
             final ParameterExpression<Comparable> comparableParameter = criteria.getBuilder().parameter(Comparable.class);
-            final QueryParameter<Comparable> queryParameter = new InternalQueryParameter<>(comparableParameter, val);
+            final QueryParameter<Comparable> queryParameter = new InternalQueryParameter<>(comparableParameter, fieldPredicate, 0, operand -> valueMapper.apply((Comparable) operand));
 
             return new PredicateMapping(parameterizedComparablePredicate.getParameterMapper()
                 .apply(column, comparableParameter), queryParameter);
@@ -668,12 +690,12 @@ public final class DefaultPredicateMapper implements PredicateMapper {
             .map(HasInclusion::getInclusion)
             .orElse(Inclusion.START_INCLUSIVE_END_INCLUSIVE);
 
-        if (arg0 instanceof Comparable && arg1 instanceof Comparable) {
+        if ((arg0 instanceof Comparable || arg0 instanceof Parameter) && (arg1 instanceof Comparable || arg1 instanceof Parameter)) {
             final ParameterExpression<Comparable> lowerBoundParameter = criteria.getBuilder().parameter(Comparable.class);
             final ParameterExpression<Comparable> upperBoundParameter = criteria.getBuilder().parameter(Comparable.class);
 
-            final QueryParameter<Comparable> lowerBoundQueryParameter = new InternalQueryParameter<>(lowerBoundParameter, (Comparable) arg0);
-            final QueryParameter<Comparable> upperBoundQueryParameter = new InternalQueryParameter<>(upperBoundParameter, (Comparable) arg1);
+            final QueryParameter<Comparable> lowerBoundQueryParameter = new InternalQueryParameter<>(lowerBoundParameter, fieldPredicate, 0, operand -> (Comparable) operand);
+            final QueryParameter<Comparable> upperBoundQueryParameter = new InternalQueryParameter<>(upperBoundParameter, fieldPredicate, 1, operand -> (Comparable) operand);
 
             return new PredicateMapping(callback.apply(column, new Pair<>(lowerBoundParameter, upperBoundParameter), inclusion), lowerBoundQueryParameter, upperBoundQueryParameter);
         }
@@ -0,0 +1,67 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+
+import jakarta.persistence.criteria.ParameterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+final class InternalQueryParameterTest {
+
+    @Test
+    void value() {
+        final QueryParameter<Object> queryParameter = queryParameter(predicate("value"));
+
+        assertEquals("%value%", queryParameter.getValue());
+        assertEquals("%other%", queryParameter.getValue(predicate("other")));
+        assertFalse(queryParameter.getPlaceholder().isPresent());
+        assertThrows(UnsupportedOperationException.class, () -> queryParameter.bind("other"));
+    }
+
+    @Test
+    void placeholder() {
+        final Parameter<String> parameter = Parameter.param("title");
+        final QueryParameter<Object> queryParameter = queryParameter(predicate(parameter));
+
+        assertEquals(Optional.of(parameter), queryParameter.getPlaceholder());
+        assertEquals("%value%", queryParameter.bind("value"));
+        assertThrows(IllegalStateException.class, queryParameter::getValue);
+        assertThrows(IllegalStateException.class, () -> queryParameter.getValue(predicate(parameter)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QueryParameter<Object> queryParameter(final FieldPredicate<?> predicate) {
+        return new InternalQueryParameter<>(mock(ParameterExpression.class), predicate, 0, operand -> "%" + operand + "%");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldPredicate<?> predicate(final Object operand) {
+        final FieldPredicate<?> predicate = mock(FieldPredicate.class, withSettings().extraInterfaces(HasArg0.class));
+        when(((HasArg0<Object>) predicate).get0()).thenReturn(operand);
+        return predicate;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.criteria.standard.internal.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+final class DefaultPredicateMapperTest {
+
+    @Test
+    void pad() {
+        assertEquals(Collections.emptyList(), DefaultPredicateMapper.pad(Collections.emptySet()));
+        assertEquals(List.of(1), DefaultPredicateMapper.pad(Set.of(1)));
+
+        for (int size = 2; size <= 1025; size++) {
+            final Set<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toSet());
+            final List<Object> padded = DefaultPredicateMapper.pad(values);
+
+            assertEquals(1, Integer.bitCount(padded.size()), "size " + size);
+            assertTrue(padded.size() >= size && padded.size() < 2 * size, "size " + size);
+            assertEquals(values, new HashSet<>(padded), "size " + size);
+        }
+    }
+
+}
@@ -43,12 +43,16 @@ public final class InternalIntermediateOperationOptimizerFactory implements Inte
         intermediateOperationOptimizers.put(Priority.LOWEST, new ArrayList<>());
 
         registerOptimizer(new RemoveOrderAffectingOperations(), Priority.HIGHEST);
+        registerOptimizer(new TranslateLambdaFilter(intermediateOperationFactory), Priority.HIGHEST);
+        registerOptimizer(new TranslateMethodReferences(intermediateOperationFactory), Priority.HIGHEST);
+        registerOptimizer(new SplitFilter(intermediateOperationFactory), Priority.HIGHEST);
         registerOptimizer(new MoveAnonymousLambdaOperations(), Priority.HIGH);
         registerOptimizer(new SquashSkip(intermediateOperationFactory));
         registerOptimizer(new SquashLimit(intermediateOperationFactory));
         registerOptimizer(new SquashFilter<>(intermediateOperationFactory));
         registerOptimizer(new SquashSorted<>(intermediateOperationFactory));
         registerOptimizer(new SquashDistinct(intermediateOperationFactory));
+        registerOptimizer(new FuseSortedLimit(), Priority.LOW);
     }
 
     @Override
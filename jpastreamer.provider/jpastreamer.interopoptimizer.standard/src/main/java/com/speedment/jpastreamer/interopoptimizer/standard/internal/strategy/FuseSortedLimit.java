@@ -0,0 +1,108 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.LIMIT;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SKIP;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SORTED;
+
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.Statement;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.stream.Stream;
+
+/**
+ * Fuses sorted operations that are followed by a limit operation, and
+ * optionally a skip operation in between, into a {@link TopKSort} that only
+ * holds the retained elements in memory, e.g.
+ * {@code sorted(comparator).skip(s).limit(n)} becomes
+ * {@code topK(comparator, s + n).skip(s)}.
+ * <p>
+ * Sorted operations that may be merged into the query, i.e. those ordering
+ * the entities by fields, are left as is.
+ */
+public final class FuseSortedLimit implements IntermediateOperationOptimizer {
+
+    @Override
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        final LinkedList<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+
+        boolean entities = true;
+        for (int i = 0; i < intermediateOperations.size(); i++) {
+            final IntermediateOperation<?, ?> intermediateOperation = intermediateOperations.get(i);
+
+            if (intermediateOperation.type() == SORTED && intermediateOperation.streamType() == Stream.class
+                && !(entities && isMergeable(intermediateOperation))) {
+                fuse(intermediateOperations, i);
+            }
+
+            entities &= intermediateOperation.type().statements().contains(Statement.PRESERVES_TYPE);
+        }
+
+        return pipeline;
+    }
+
+    private void fuse(final LinkedList<IntermediateOperation<?, ?>> intermediateOperations, final int index) {
+        final IntermediateOperation<?, ?> sorted = intermediateOperations.get(index);
+        if (sorted.arguments().length > 1) {
+            // Already fused
+            return;
+        }
+
+        final IntermediateOperation<?, ?> next = index + 1 < intermediateOperations.size() ? intermediateOperations.get(index + 1) : null;
+        final IntermediateOperation<?, ?> afterNext = index + 2 < intermediateOperations.size() ? intermediateOperations.get(index + 2) : null;
+
+        final int limitIndex;
+        final long skip;
+        if (next != null && next.type() == LIMIT) {
+            limitIndex = index + 1;
+            skip = 0;
+        } else if (next != null && next.type() == SKIP && afterNext != null && afterNext.type() == LIMIT) {
+            limitIndex = index + 2;
+            skip = (Long) next.arguments()[0];
+        } else {
+            return;
+        }
+
+        final long limit = (Long) intermediateOperations.get(limitIndex).arguments()[0];
+        if (limit > Integer.MAX_VALUE - 1 - skip) {
+            // Too many elements are retained for a bounded heap to be of any use
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        final Comparator<Object> comparator = sorted.arguments().length == 0
+            ? (Comparator<Object>) (Comparator<?>) Comparator.naturalOrder()
+            : (Comparator<Object>) sorted.arguments()[0];
+
+        intermediateOperations.remove(limitIndex);
+        intermediateOperations.set(index, new TopKSort<>(comparator, skip + limit));
+    }
+
+    private boolean isMergeable(final IntermediateOperation<?, ?> sorted) {
+        final Object[] arguments = sorted.arguments();
+        // Entities are sorted by their identifier by default
+        return arguments.length == 0
+            || arguments[0] instanceof FieldComparator
+            || arguments[0] instanceof CombinedComparator
+            || arguments[0] instanceof ResidualComparator;
+    }
+
+}
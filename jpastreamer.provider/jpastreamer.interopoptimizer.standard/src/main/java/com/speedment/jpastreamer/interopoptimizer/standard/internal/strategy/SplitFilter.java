@@ -0,0 +1,133 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Splits filters with a combined predicate that can not be fully expressed
+ * as a query restriction, i.e. one that contains anonymous lambdas, so that
+ * the rest of the predicate can still be merged into the query.
+ * <p>
+ * The terms of a conjunction are partitioned into a filter holding the terms
+ * that can be expressed as a query restriction, followed by a filter holding
+ * the residual terms that are evaluated in memory. Any other predicate that
+ * can not be fully expressed, e.g. a disjunction with an anonymous lambda, is
+ * wrapped so that the whole predicate is evaluated in memory.
+ */
+public final class SplitFilter implements IntermediateOperationOptimizer {
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+
+    public SplitFilter(final IntermediateOperationFactory intermediateOperationFactory) {
+        this.intermediateOperationFactory = intermediateOperationFactory;
+    }
+
+    @Override
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        final LinkedList<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+
+        for (int i = intermediateOperations.size() - 1; i >= 0; i--) {
+            final IntermediateOperation<?, ?> intermediateOperation = intermediateOperations.get(i);
+            if (intermediateOperation.type() != FILTER
+                || intermediateOperation.arguments().length != 1
+                || !(intermediateOperation.arguments()[0] instanceof CombinedPredicate)) {
+                continue;
+            }
+
+            final CombinedPredicate<T> predicate = (CombinedPredicate<T>) intermediateOperation.arguments()[0];
+            if (pushable(predicate)) {
+                continue;
+            }
+
+            intermediateOperations.remove(i);
+
+            if (predicate.getType() != CombinedPredicate.Type.AND) {
+                intermediateOperations.add(i, intermediateOperationFactory.createFilter(residual(List.of(predicate))));
+                continue;
+            }
+
+            final List<Predicate<? super T>> pushableTerms = new ArrayList<>();
+            final List<Predicate<? super T>> residualTerms = new ArrayList<>();
+            for (Predicate<? super T> term : conjuncts(predicate)) {
+                (pushable(term) ? pushableTerms : residualTerms).add(term);
+            }
+
+            intermediateOperations.add(i, intermediateOperationFactory.createFilter(residual(residualTerms)));
+            if (!pushableTerms.isEmpty()) {
+                intermediateOperations.add(i, intermediateOperationFactory.createFilter(
+                    pushableTerms.size() == 1 ? pushableTerms.get(0) : CombinedPredicate.and(pushableTerms))
+                );
+            }
+        }
+
+        return pipeline;
+    }
+
+    /*
+     * Returns if the provided predicate can be fully expressed as a query restriction.
+     */
+    private static boolean pushable(final Predicate<?> predicate) {
+        if (predicate instanceof FieldPredicate) {
+            return true;
+        }
+        if (predicate instanceof CombinedPredicate) {
+            return ((CombinedPredicate<?>) predicate).stream().allMatch(SplitFilter::pushable);
+        }
+        return false;
+    }
+
+    /*
+     * Returns the terms of the provided conjunction, including the terms of nested conjunctions.
+     */
+    private static <T> List<Predicate<? super T>> conjuncts(final CombinedPredicate<T> predicate) {
+        final List<Predicate<? super T>> conjuncts = new ArrayList<>();
+        predicate.stream().forEach(term -> {
+            if (term instanceof CombinedPredicate && ((CombinedPredicate<?>) term).getType() == CombinedPredicate.Type.AND) {
+                @SuppressWarnings("unchecked")
+                final CombinedPredicate<T> conjunction = (CombinedPredicate<T>) term;
+                conjuncts.addAll(conjuncts(conjunction));
+            } else {
+                conjuncts.add(term);
+            }
+        });
+        return conjuncts;
+    }
+
+    /*
+     * Returns an anonymous predicate that is not merged into the query.
+     */
+    private static <T> Predicate<T> residual(final List<Predicate<? super T>> terms) {
+        return entity -> {
+            for (Predicate<? super T> term : terms) {
+                if (!term.test(entity)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+}
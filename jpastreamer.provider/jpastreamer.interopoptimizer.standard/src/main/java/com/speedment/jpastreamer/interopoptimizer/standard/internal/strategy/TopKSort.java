@@ -0,0 +1,123 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sorted operation fused with a following limit operation, i.e. one that
+ * retains the first {@code k} elements according to a comparator. The
+ * elements are selected using a bounded heap so that only {@code k} elements
+ * are held in memory rather than the whole stream. Like
+ * {@link Stream#sorted(Comparator)}, the selection is stable.
+ *
+ * @param <T> the element type
+ */
+final class TopKSort<T> implements IntermediateOperation<Stream<T>, Stream<T>> {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final Comparator<? super T> comparator;
+    private final long k;
+
+    TopKSort(final Comparator<? super T> comparator, final long k) {
+        this.comparator = requireNonNull(comparator);
+        if (k < 0 || k >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+        this.k = k;
+    }
+
+    @Override
+    public IntermediateOperationType type() {
+        return IntermediateOperationType.SORTED;
+    }
+
+    @Override
+    public Class<? super Stream<T>> streamType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Class<? super Stream<T>> returnType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Function<Stream<T>, Stream<T>> function() {
+        // The elements are selected when the terminal operation starts
+        return stream -> StreamSupport.stream(
+                () -> select(stream).spliterator(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED,
+                stream.isParallel()
+            ).onClose(stream::close);
+    }
+
+    @Override
+    public Object[] arguments() {
+        return new Object[]{comparator, k};
+    }
+
+    @Override
+    public String toString() {
+        return "SORTED(" + comparator + ", " + k + ")";
+    }
+
+    private List<T> select(final Stream<T> stream) {
+        // Ties are broken by the encounter order, the greatest element is at the head of the heap
+        final Comparator<Ranked<T>> ranking = Comparator.<Ranked<T>, T>comparing(ranked -> ranked.element, comparator)
+            .thenComparingLong(ranked -> ranked.rank);
+        final PriorityQueue<Ranked<T>> heap = new PriorityQueue<>((int) Math.min(k + 1, MAX_INITIAL_CAPACITY), ranking.reversed());
+
+        final long[] rank = {0};
+        stream.sequential().forEachOrdered(element -> {
+            if (heap.size() < k) {
+                heap.add(new Ranked<>(element, rank[0]++));
+            } else if (k > 0 && comparator.compare(element, heap.peek().element) < 0) {
+                // An element that is equal to the greatest element ranks after it
+                heap.poll();
+                heap.add(new Ranked<>(element, rank[0]++));
+            }
+        });
+
+        final List<Ranked<T>> selected = new ArrayList<>(heap);
+        selected.sort(ranking);
+        final List<T> elements = new ArrayList<>(selected.size());
+        selected.forEach(ranked -> elements.add(ranked.element));
+        return elements;
+    }
+
+    private static final class Ranked<T> {
+
+        private final T element;
+        private final long rank;
+
+        private Ranked(final T element, final long rank) {
+            this.element = element;
+            this.rank = rank;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda.LambdaTranslator;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces filter lambdas with equivalent {@link SpeedmentPredicate}s so that
+ * they can be merged into the query, see {@link LambdaTranslator}. Lambdas that
+ * can not be translated are left as is.
+ * <p>
+ * The analysis is opt-in and enabled by setting the system property
+ * {@value #ENABLED_PROPERTY} to {@code true}.
+ */
+public final class TranslateLambdaFilter implements IntermediateOperationOptimizer {
+
+    static final String ENABLED_PROPERTY = "jpastreamer.interopoptimizer.lambdaanalysis";
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+    private final boolean enabled;
+
+    public TranslateLambdaFilter(final IntermediateOperationFactory intermediateOperationFactory) {
+        this(intermediateOperationFactory, Boolean.getBoolean(ENABLED_PROPERTY));
+    }
+
+    TranslateLambdaFilter(final IntermediateOperationFactory intermediateOperationFactory, final boolean enabled) {
+        this.intermediateOperationFactory = intermediateOperationFactory;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        if (!enabled) {
+            return pipeline;
+        }
+
+        final LinkedList<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        for (int i = 0; i < intermediateOperations.size(); i++) {
+            final IntermediateOperation<?, ?> intermediateOperation = intermediateOperations.get(i);
+            if (intermediateOperation.type() != FILTER
+                || intermediateOperation.arguments().length != 1
+                || !(intermediateOperation.arguments()[0] instanceof Predicate)) {
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            final Predicate<? super T> predicate = (Predicate<? super T>) intermediateOperation.arguments()[0];
+            final Predicate<? super T> translated = translate(pipeline.root(), predicate);
+            if (translated != predicate) {
+                intermediateOperations.set(i, intermediateOperationFactory.createFilter(translated));
+            }
+        }
+
+        return pipeline;
+    }
+
+    /*
+     * Returns the translated predicate, or the provided predicate if it can not be translated.
+     */
+    private static <T> Predicate<? super T> translate(final Class<T> entityClass, final Predicate<? super T> predicate) {
+        if (predicate instanceof CombinedPredicate) {
+            final CombinedPredicate<? super T> combinedPredicate = (CombinedPredicate<? super T>) predicate;
+            final List<Predicate<? super T>> terms = new ArrayList<>();
+            boolean translated = false;
+            for (Predicate<?> term : combinedPredicate.stream().collect(Collectors.toList())) {
+                @SuppressWarnings("unchecked")
+                final Predicate<? super T> typedTerm = (Predicate<? super T>) term;
+                final Predicate<? super T> translatedTerm = translate(entityClass, typedTerm);
+                translated |= translatedTerm != typedTerm;
+                terms.add(translatedTerm);
+            }
+            if (!translated) {
+                return predicate;
+            }
+            return combinedPredicate.getType() == CombinedPredicate.Type.AND
+                ? CombinedPredicate.and(terms)
+                : CombinedPredicate.or(terms);
+        }
+        if (predicate instanceof SpeedmentPredicate) {
+            return predicate;
+        }
+        final Optional<SpeedmentPredicate<T>> translated = LambdaTranslator.translate(entityClass, predicate);
+        return translated.isPresent() ? translated.get() : predicate;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP_TO;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.SORTED;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizer;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda.Comparators;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda.KeyExtractors;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.Statement;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Replaces comparators and mappers built from getter method references with
+ * the equivalent fields of the metamodel so that they can be merged into the
+ * query, e.g. {@code sorted(Comparator.comparing(Film::getTitle))} with
+ * {@code sorted(Film$.title.comparator())} and {@code map(Film::getTitle)} with
+ * {@code map(Film$.title)}, see {@link Comparators} and {@link KeyExtractors}.
+ * A mapper is only replaced if the field implements the same functional
+ * interface. Operations that can not be translated are left as is.
+ * <p>
+ * The analysis is opt-in and enabled by setting the system property
+ * {@value TranslateLambdaFilter#ENABLED_PROPERTY} to {@code true}.
+ */
+public final class TranslateMethodReferences implements IntermediateOperationOptimizer {
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+    private final boolean enabled;
+
+    public TranslateMethodReferences(final IntermediateOperationFactory intermediateOperationFactory) {
+        this(intermediateOperationFactory, Boolean.getBoolean(TranslateLambdaFilter.ENABLED_PROPERTY));
+    }
+
+    TranslateMethodReferences(final IntermediateOperationFactory intermediateOperationFactory, final boolean enabled) {
+        this.intermediateOperationFactory = intermediateOperationFactory;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public <T> Pipeline<T> optimize(final Pipeline<T> pipeline) {
+        if (!enabled) {
+            return pipeline;
+        }
+
+        final LinkedList<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        for (int i = 0; i < intermediateOperations.size(); i++) {
+            final IntermediateOperation<?, ?> intermediateOperation = intermediateOperations.get(i);
+            final Object[] arguments = intermediateOperation.arguments();
+
+            if (intermediateOperation.type() == SORTED && arguments.length == 1 && arguments[0] instanceof Comparator) {
+                final Optional<Comparator<T>> comparator = Comparators.resolve(pipeline.root(), (Comparator<?>) arguments[0]);
+                if (comparator.isPresent() && comparator.get() != arguments[0]) {
+                    intermediateOperations.set(i, intermediateOperationFactory.createSorted(comparator.get()));
+                }
+            }
+
+            if (intermediateOperation.type() == MAP || intermediateOperation.type() == MAP_TO) {
+                if (arguments.length == 1) {
+                    final IntermediateOperation<?, ?> mapping = mapping(pipeline.root(), arguments[0]);
+                    if (mapping != null) {
+                        intermediateOperations.set(i, mapping);
+                    }
+                }
+                // The following operations are applied to the mapped values rather than the entities
+                break;
+            }
+
+            if (!intermediateOperation.type().statements().contains(Statement.PRESERVES_TYPE)) {
+                break;
+            }
+        }
+
+        return pipeline;
+    }
+
+    /*
+     * Returns a mapping operation using the field that corresponds to the mapper, or null if there is no such field.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> IntermediateOperation<?, ?> mapping(final Class<T> entityClass, final Object mapper) {
+        if (mapper instanceof Field) {
+            return null;
+        }
+        final Optional<Field<T>> resolved = KeyExtractors.resolve(entityClass, mapper);
+        if (!resolved.isPresent()) {
+            return null;
+        }
+        final Field<T> field = resolved.get();
+        if (mapper instanceof Function && field instanceof Function) {
+            return intermediateOperationFactory.createMap((Function<? super T, ?>) field);
+        } else if (mapper instanceof ToIntFunction && field instanceof ToIntFunction) {
+            return intermediateOperationFactory.createMapToInt((ToIntFunction<? super T>) field);
+        } else if (mapper instanceof ToLongFunction && field instanceof ToLongFunction) {
+            return intermediateOperationFactory.createMapToLong((ToLongFunction<? super T>) field);
+        } else if (mapper instanceof ToDoubleFunction && field instanceof ToDoubleFunction) {
+            return intermediateOperationFactory.createMapToDouble((ToDoubleFunction<? super T>) field);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A minimal class file reader that provides the constant pool, the code of
+ * the methods and the bootstrap methods of a class, as specified in chapter 4
+ * of The Java Virtual Machine Specification.
+ */
+final class ClassFile {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int INVOKE_DYNAMIC = 18;
+
+    private final int[] tags;
+    private final Object[] values;
+    private final int[][] references;
+    private final Map<String, byte[]> code;
+    private final int[][] bootstrapMethods;
+
+    private ClassFile(
+        final int[] tags,
+        final Object[] values,
+        final int[][] references,
+        final Map<String, byte[]> code,
+        final int[][] bootstrapMethods
+    ) {
+        this.tags = tags;
+        this.values = values;
+        this.references = references;
+        this.code = code;
+        this.bootstrapMethods = bootstrapMethods;
+    }
+
+    /**
+     * Returns the code of the method with the given name and descriptor, or
+     * {@link Optional#empty()} if there is no such method or it has no code.
+     *
+     * @param methodName name of the method
+     * @param methodDescriptor descriptor of the method
+     * @return the code of the method
+     */
+    Optional<byte[]> code(final String methodName, final String methodDescriptor) {
+        return Optional.ofNullable(code.get(methodName + methodDescriptor));
+    }
+
+    /**
+     * Returns the value of the loadable constant at the given index, i.e. an
+     * Integer, Float, Long, Double or String.
+     *
+     * @param index of the constant
+     * @return the value of the constant
+     * @throws IllegalArgumentException if the constant is not loadable as a value
+     */
+    Object constant(final int index) {
+        if (values[index] instanceof Number) {
+            return values[index];
+        }
+        if (tags[index] == STRING) {
+            return utf8(references[index][0]);
+        }
+        throw new IllegalArgumentException("Constant " + index + " is not a value");
+    }
+
+    /**
+     * Returns the internal name of the class that declares the field or method
+     * referenced by the constant at the given index.
+     *
+     * @param index of the field or method reference
+     * @return the internal name of the declaring class
+     */
+    String owner(final int index) {
+        return utf8(references[references[index][0]][0]);
+    }
+
+    /**
+     * Returns the name of the field or method referenced by the constant at
+     * the given index, or the name of an invokedynamic call site.
+     *
+     * @param index of the field or method reference or invokedynamic call site
+     * @return the name of the member
+     */
+    String name(final int index) {
+        return utf8(references[references[index][1]][0]);
+    }
+
+    /**
+     * Returns the descriptor of the field or method referenced by the constant
+     * at the given index, or the descriptor of an invokedynamic call site.
+     *
+     * @param index of the field or method reference or invokedynamic call site
+     * @return the descriptor of the member
+     */
+    String descriptor(final int index) {
+        return utf8(references[references[index][1]][1]);
+    }
+
+    /**
+     * Returns the indexes of the invokedynamic call sites of the class.
+     *
+     * @return the indexes of the invokedynamic call sites
+     */
+    List<Integer> invokeDynamics() {
+        final List<Integer> invokeDynamics = new ArrayList<>();
+        for (int i = 1; i < tags.length; i++) {
+            if (tags[i] == INVOKE_DYNAMIC) {
+                invokeDynamics.add(i);
+            }
+        }
+        return invokeDynamics;
+    }
+
+    /**
+     * Returns the index of the method handle of the bootstrap method of the
+     * invokedynamic call site at the given index.
+     *
+     * @param index of the invokedynamic call site
+     * @return the index of the method handle of the bootstrap method
+     */
+    int bootstrapMethod(final int index) {
+        return bootstrapMethods[references[index][0]][0];
+    }
+
+    /**
+     * Returns the indexes of the static arguments of the bootstrap method of
+     * the invokedynamic call site at the given index.
+     *
+     * @param index of the invokedynamic call site
+     * @return the indexes of the static arguments
+     */
+    int[] bootstrapArguments(final int index) {
+        final int[] bootstrapMethod = bootstrapMethods[references[index][0]];
+        final int[] arguments = new int[bootstrapMethod.length - 1];
+        System.arraycopy(bootstrapMethod, 1, arguments, 0, arguments.length);
+        return arguments;
+    }
+
+    /**
+     * Returns if the constant at the given index is a method handle.
+     *
+     * @param index of the constant
+     * @return if the constant is a method handle
+     */
+    boolean isMethodHandle(final int index) {
+        return tags[index] == METHOD_HANDLE;
+    }
+
+    /**
+     * Returns the kind of the method handle at the given index, e.g.
+     * {@link java.lang.invoke.MethodHandleInfo#REF_invokeStatic}.
+     *
+     * @param index of the method handle
+     * @return the kind of the method handle
+     */
+    int referenceKind(final int index) {
+        return references[index][0];
+    }
+
+    /**
+     * Returns the index of the field or method reference of the method handle
+     * at the given index.
+     *
+     * @param index of the method handle
+     * @return the index of the referenced member
+     */
+    int reference(final int index) {
+        return references[index][1];
+    }
+
+    /**
+     * Returns the descriptor of the method type at the given index.
+     *
+     * @param index of the method type
+     * @return the descriptor of the method type
+     */
+    String methodType(final int index) {
+        return utf8(references[index][0]);
+    }
+
+    private String utf8(final int index) {
+        return (String) values[index];
+    }
+
+    /**
+     * Reads the provided class file.
+     *
+     * @param in class file to read
+     * @return the read class file
+     * @throws IOException if the class file can not be read
+     */
+    static ClassFile read(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        data.readUnsignedShort(); // minor version
+        data.readUnsignedShort(); // major version
+
+        final int constantCount = data.readUnsignedShort();
+        final int[] tags = new int[constantCount];
+        final Object[] values = new Object[constantCount];
+        final int[][] references = new int[constantCount][];
+        for (int i = 1; i < constantCount; i++) {
+            final int tag = data.readUnsignedByte();
+            tags[i] = tag;
+            switch (tag) {
+                case UTF8:
+                    values[i] = data.readUTF();
+                    break;
+                case INTEGER:
+                    values[i] = data.readInt();
+                    break;
+                case FLOAT:
+                    values[i] = data.readFloat();
+                    break;
+                case LONG:
+                    values[i++] = data.readLong();
+                    break;
+                case DOUBLE:
+                    values[i++] = data.readDouble();
+                    break;
+                case CLASS:
+                case STRING:
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    references[i] = new int[]{data.readUnsignedShort()};
+                    break;
+                case 9:  // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case NAME_AND_TYPE:
+                case 17: // Dynamic
+                case INVOKE_DYNAMIC:
+                    references[i] = new int[]{data.readUnsignedShort(), data.readUnsignedShort()};
+                    break;
+                case METHOD_HANDLE:
+                    references[i] = new int[]{data.readUnsignedByte(), data.readUnsignedShort()};
+                    break;
+                default:
+                    throw new IOException("Unknown constant tag " + tag);
+            }
+        }
+
+        data.readUnsignedShort(); // access flags
+        data.readUnsignedShort(); // this class
+        data.readUnsignedShort(); // super class
+        skip(data, 2 * data.readUnsignedShort()); // interfaces
+
+        final int fieldCount = data.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            skip(data, 6);
+            skipAttributes(data);
+        }
+
+        final Map<String, byte[]> code = new HashMap<>();
+        final int methodCount = data.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            data.readUnsignedShort(); // access flags
+            final String name = (String) values[data.readUnsignedShort()];
+            final String descriptor = (String) values[data.readUnsignedShort()];
+            final int attributeCount = data.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                final String attributeName = (String) values[data.readUnsignedShort()];
+                final int length = data.readInt();
+                if (!"Code".equals(attributeName)) {
+                    skip(data, length);
+                    continue;
+                }
+                data.readUnsignedShort(); // max stack
+                data.readUnsignedShort(); // max locals
+                final byte[] methodCode = new byte[data.readInt()];
+                data.readFully(methodCode);
+                code.put(name + descriptor, methodCode);
+                skip(data, 8 * data.readUnsignedShort()); // exception table
+                skipAttributes(data);
+            }
+        }
+
+        int[][] bootstrapMethods = new int[0][];
+        final int attributeCount = data.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            final String attributeName = (String) values[data.readUnsignedShort()];
+            final int length = data.readInt();
+            if (!"BootstrapMethods".equals(attributeName)) {
+                skip(data, length);
+                continue;
+            }
+            bootstrapMethods = new int[data.readUnsignedShort()][];
+            for (int j = 0; j < bootstrapMethods.length; j++) {
+                final int methodHandle = data.readUnsignedShort();
+                final int[] bootstrapMethod = new int[data.readUnsignedShort() + 1];
+                bootstrapMethod[0] = methodHandle;
+                for (int k = 1; k < bootstrapMethod.length; k++) {
+                    bootstrapMethod[k] = data.readUnsignedShort();
+                }
+                bootstrapMethods[j] = bootstrapMethod;
+            }
+        }
+
+        return new ClassFile(tags, values, references, code, bootstrapMethods);
+    }
+
+    private static void skipAttributes(final DataInputStream data) throws IOException {
+        final int attributeCount = data.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            data.readUnsignedShort();
+            skip(data, data.readInt());
+        }
+    }
+
+    private static void skip(final DataInputStream data, final int length) throws IOException {
+        data.readFully(new byte[length]);
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+
+import java.lang.invoke.SerializedLambda;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves comparators composed by the combinators of {@link Comparator}, e.g.
+ * {@code Comparator.comparing(Film::getTitle).thenComparing(Film::getLength)},
+ * to the equivalent {@link FieldComparator} or {@link CombinedComparator}.
+ * <p>
+ * Supported combinators are {@code comparing}, {@code comparingInt},
+ * {@code comparingLong}, {@code comparingDouble}, {@code thenComparing} and
+ * {@code reversed}, where {@code comparing} may be given either
+ * {@link Comparator#naturalOrder()} or {@link Comparator#reverseOrder()}. The
+ * key extractors are resolved by {@link KeyExtractors}. If only the leading
+ * comparators of a {@code thenComparing} chain can be resolved, the result is
+ * a {@link ResidualComparator}.
+ */
+public final class Comparators {
+
+    private static final String JDK_COMPARATOR = "java/util/Comparator";
+    private static final String REVERSE_COMPARATOR = "java.util.Collections$ReverseComparator2";
+
+    private Comparators() {}
+
+    /**
+     * Returns a {@link FieldComparator}, {@link CombinedComparator} or
+     * {@link ResidualComparator} that is equivalent to the provided
+     * {@code comparator} for entities of the given class, or
+     * {@link Optional#empty()} if the comparator can not be resolved.
+     *
+     * @param entityClass the class of the sorted entities
+     * @param comparator to resolve
+     * @param <T> the entity type
+     * @return the equivalent {@link FieldComparator}, {@link CombinedComparator} or {@link ResidualComparator}
+     */
+    public static <T> Optional<Comparator<T>> resolve(final Class<T> entityClass, final Comparator<?> comparator) {
+        try {
+            return comparator(entityClass, comparator);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<Comparator<T>> comparator(final Class<T> entityClass, final Object comparator) {
+        if (comparator instanceof FieldComparator || comparator instanceof CombinedComparator || comparator instanceof ResidualComparator) {
+            return Optional.of((Comparator<T>) comparator);
+        }
+        if (comparator instanceof SerializedLambda) {
+            return comparator(entityClass, (SerializedLambda) comparator);
+        }
+        // The combinators of Comparator return serializable lambdas, and reversed() a serializable Collections.ReverseComparator2
+        final List<Object> replacements = Replacements.of(comparator, 2);
+        if (replacements.isEmpty()) {
+            return Optional.empty();
+        }
+        final Object replacement = replacements.get(0);
+        if (replacement instanceof SerializedLambda) {
+            return comparator(entityClass, (SerializedLambda) replacement);
+        }
+        if (REVERSE_COMPARATOR.equals(replacement.getClass().getName()) && replacements.size() == 2) {
+            // The second object is the reversed comparator
+            return comparator(entityClass, replacements.get(1)).map(Comparator::reversed);
+        }
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<Comparator<T>> comparator(final Class<T> entityClass, final SerializedLambda serializedLambda) {
+        if (!JDK_COMPARATOR.equals(serializedLambda.getImplClass())) {
+            return Optional.empty();
+        }
+        final String name = serializedLambda.getImplMethodName();
+        final int capturedArgCount = serializedLambda.getCapturedArgCount();
+        if (name.startsWith("lambda$thenComparing$") && capturedArgCount == 2) {
+            final Optional<Comparator<T>> first = comparator(entityClass, serializedLambda.getCapturedArg(0));
+            if (!first.isPresent() || !(serializedLambda.getCapturedArg(1) instanceof Comparator)) {
+                return Optional.empty();
+            }
+            // An unresolvable second comparator yields a ResidualComparator
+            final Comparator<T> second = comparator(entityClass, serializedLambda.getCapturedArg(1))
+                .orElse((Comparator<T>) serializedLambda.getCapturedArg(1));
+            final Comparator<T> combined = first.get().thenComparing(second);
+            return combined instanceof CombinedComparator || combined instanceof ResidualComparator
+                ? Optional.of(combined)
+                : Optional.empty();
+        }
+        if (name.startsWith("lambda$comparing$") && capturedArgCount == 2) {
+            // Comparator.comparing(keyExtractor, keyComparator) captures the key comparator first
+            final Object keyComparator = serializedLambda.getCapturedArg(0);
+            final Optional<Comparator<T>> comparator = fieldComparator(entityClass, serializedLambda.getCapturedArg(1));
+            if (keyComparator == Comparator.naturalOrder()) {
+                return comparator;
+            }
+            if (keyComparator == Comparator.reverseOrder()) {
+                return comparator.map(Comparator::reversed);
+            }
+            return Optional.empty();
+        }
+        if ((name.startsWith("lambda$comparing$") || name.startsWith("lambda$comparingInt$")
+            || name.startsWith("lambda$comparingLong$") || name.startsWith("lambda$comparingDouble$"))
+            && capturedArgCount == 1) {
+            return fieldComparator(entityClass, serializedLambda.getCapturedArg(0));
+        }
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<Comparator<T>> fieldComparator(final Class<T> entityClass, final Object keyExtractor) {
+        final Optional<Field<T>> field = KeyExtractors.resolve(entityClass, keyExtractor);
+        if (!field.isPresent() || !(field.get() instanceof HasComparableOperators)) {
+            return Optional.empty();
+        }
+        return Optional.of(((HasComparableOperators<T, ?>) field.get()).comparator());
+    }
+
+}
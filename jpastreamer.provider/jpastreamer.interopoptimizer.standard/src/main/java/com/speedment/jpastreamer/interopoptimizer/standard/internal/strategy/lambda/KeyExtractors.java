@@ -0,0 +1,294 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import com.speedment.jpastreamer.field.Field;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Resolves key extractors, i.e. getter method references such as
+ * {@code Film::getTitle} and lambdas that only invoke a getter such as
+ * {@code f -> f.getTitle()}, to the corresponding field of the generated
+ * metamodel (e.g. {@code Film$.title}).
+ * <p>
+ * The getter of a serializable key extractor is read from its
+ * {@link SerializedLambda}. Other key extractors must not capture any values.
+ * The getter of such a key extractor is determined by analyzing the
+ * invokedynamic call sites of the class that created it. If several getters
+ * are referenced by call sites of the same functional interface, the key
+ * extractor is ambiguous and is not resolved. It is never applied to an
+ * entity, as that would run code of the entity and of the key extractor.
+ */
+public final class KeyExtractors {
+
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+    private static final int MAX_CODE_LENGTH = 16;
+
+    // Resolutions of the analyzed lambda classes
+    private static final Map<Class<?>, Resolution> RESOLUTIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private KeyExtractors() {}
+
+    /**
+     * Returns the field of the metamodel of the given entity class that
+     * extracts the same value as the provided {@code keyExtractor}, or
+     * {@link Optional#empty()} if no such field can be determined.
+     *
+     * @param entityClass the class of the entities
+     * @param keyExtractor to resolve, e.g. {@code Film::getTitle}
+     * @param <T> the entity type
+     * @return the field that extracts the same value as the key extractor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<Field<T>> resolve(final Class<T> entityClass, final Object keyExtractor) {
+        if (keyExtractor instanceof Field) {
+            return Optional.of((Field<T>) keyExtractor);
+        }
+        if (keyExtractor == null || !keyExtractor.getClass().isSynthetic()) {
+            return Optional.empty();
+        }
+        final Class<?> lambdaClass = keyExtractor.getClass();
+        final Resolution cached = RESOLUTIONS.get(lambdaClass);
+        if (cached != null && cached.entityClass == entityClass) {
+            return Optional.ofNullable((Field<T>) cached.field);
+        }
+        Optional<Field<?>> field;
+        try {
+            field = getter(entityClass, keyExtractor)
+                .flatMap(getter -> Metamodels.field(entityClass, getter.getName()));
+        } catch (IOException | ReflectiveOperationException | RuntimeException | LinkageError e) {
+            field = Optional.empty();
+        }
+        RESOLUTIONS.put(lambdaClass, new Resolution(entityClass, field.orElse(null)));
+        return field.map(f -> (Field<T>) f);
+    }
+
+    private static Optional<Method> getter(final Class<?> entityClass, final Object keyExtractor) throws IOException, ReflectiveOperationException {
+        final List<Object> replacements = Replacements.of(keyExtractor, 1);
+        if (!replacements.isEmpty() && replacements.get(0) instanceof SerializedLambda) {
+            final SerializedLambda serializedLambda = (SerializedLambda) replacements.get(0);
+            if (serializedLambda.getCapturedArgCount() != 0) {
+                return Optional.empty();
+            }
+            return getter(
+                entityClass,
+                keyExtractor.getClass().getClassLoader(),
+                serializedLambda.getImplMethodKind(),
+                serializedLambda.getImplClass(),
+                serializedLambda.getImplMethodName(),
+                serializedLambda.getImplMethodSignature()
+            );
+        }
+        return inferredGetter(entityClass, keyExtractor);
+    }
+
+    /*
+     * Returns the getter invoked by the implementation method of a lambda or method reference.
+     */
+    private static Optional<Method> getter(
+        final Class<?> entityClass,
+        final ClassLoader classLoader,
+        final int implementationKind,
+        final String implementationClass,
+        final String implementationName,
+        final String implementationDescriptor
+    ) throws IOException, ReflectiveOperationException {
+        switch (implementationKind) {
+            case MethodHandleInfo.REF_invokeVirtual:
+            case MethodHandleInfo.REF_invokeInterface:
+                // A method reference, e.g. Film::getTitle
+                if (!implementationDescriptor.startsWith("()") || !Metamodels.isEntityClass(entityClass, implementationClass)) {
+                    return Optional.empty();
+                }
+                return Optional.of(entityClass.getMethod(implementationName));
+            case MethodHandleInfo.REF_invokeStatic:
+                // A lambda, e.g. f -> f.getTitle()
+                if (!implementationName.startsWith("lambda$") || !isEntityParameter(entityClass, implementationDescriptor)) {
+                    return Optional.empty();
+                }
+                final Optional<ClassFile> classFile = read(classLoader, implementationClass);
+                if (!classFile.isPresent()) {
+                    return Optional.empty();
+                }
+                final Optional<byte[]> code = classFile.get().code(implementationName, implementationDescriptor);
+                if (!code.isPresent()) {
+                    return Optional.empty();
+                }
+                return delegate(entityClass, classFile.get(), code.get());
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /*
+     * Returns the getter invoked by a lambda whose code only invokes a getter on its parameter and
+     * possibly boxes or unboxes the result.
+     */
+    private static Optional<Method> delegate(final Class<?> entityClass, final ClassFile classFile, final byte[] code) throws ReflectiveOperationException {
+        if (code.length > MAX_CODE_LENGTH || code.length < 5 || (code[0] & 0xff) != 0x2a) { // aload_0
+            return Optional.empty();
+        }
+        int pc = 1;
+        if ((code[pc] & 0xff) == 0xc0) { // checkcast
+            pc += 3;
+        }
+        final int opcode = code[pc] & 0xff;
+        if (opcode != 0xb6 && opcode != 0xb9) { // invokevirtual, invokeinterface
+            return Optional.empty();
+        }
+        final int index = u2(code, pc + 1);
+        pc += opcode == 0xb9 ? 5 : 3;
+        final String descriptor = classFile.descriptor(index);
+        if (!descriptor.startsWith("()") || !Metamodels.isEntityClass(entityClass, classFile.owner(index))) {
+            return Optional.empty();
+        }
+        if (pc < code.length - 1) {
+            // Boxing, e.g. Short::valueOf, or unboxing, e.g. Short::shortValue
+            final int conversion = code[pc] & 0xff;
+            final int conversionIndex = u2(code, pc + 1);
+            final String conversionName = classFile.name(conversionIndex);
+            final boolean boxing = conversion == 0xb8 && "valueOf".equals(conversionName)
+                && classFile.descriptor(conversionIndex).startsWith("(" + descriptor.substring(2) + ")");
+            final boolean unboxing = conversion == 0xb6 && conversionName.endsWith("Value")
+                && classFile.owner(conversionIndex).equals(descriptor.substring(3, descriptor.length() - 1));
+            if (!classFile.owner(conversionIndex).startsWith("java/lang/") || !(boxing || unboxing)) {
+                return Optional.empty();
+            }
+            pc += 3;
+        }
+        final int returnOpcode = code[pc] & 0xff;
+        if (pc != code.length - 1 || returnOpcode < 0xac || returnOpcode > 0xb0) { // <t>return
+            return Optional.empty();
+        }
+        return Optional.of(entityClass.getMethod(classFile.name(index)));
+    }
+
+    /*
+     * Returns the getter invoked by a non-serializable lambda or method reference by examining the
+     * invokedynamic call sites of the class that created it.
+     */
+    private static Optional<Method> inferredGetter(final Class<?> entityClass, final Object keyExtractor) throws IOException, ReflectiveOperationException {
+        final Class<?> lambdaClass = keyExtractor.getClass();
+        final int lambdaIndex = lambdaClass.getName().indexOf("$$Lambda");
+        if (lambdaIndex < 0 || lambdaClass.getDeclaredFields().length != 0 || lambdaClass.getInterfaces().length != 1) {
+            return Optional.empty();
+        }
+        final Class<?> functionalInterface = lambdaClass.getInterfaces()[0];
+        if (!(keyExtractor instanceof Function || keyExtractor instanceof ToIntFunction
+            || keyExtractor instanceof ToLongFunction || keyExtractor instanceof ToDoubleFunction)) {
+            return Optional.empty();
+        }
+        final ClassLoader classLoader = lambdaClass.getClassLoader();
+        final String capturingClass = lambdaClass.getName().substring(0, lambdaIndex).replace('.', '/');
+        final Optional<ClassFile> read = read(classLoader, capturingClass);
+        if (!read.isPresent()) {
+            return Optional.empty();
+        }
+        final ClassFile classFile = read.get();
+
+        final String factoryDescriptor = "()L" + functionalInterface.getName().replace('.', '/') + ";";
+        final Set<Method> getters = new LinkedHashSet<>();
+        for (int invokeDynamic : classFile.invokeDynamics()) {
+            if (!factoryDescriptor.equals(classFile.descriptor(invokeDynamic))
+                || !LAMBDA_METAFACTORY.equals(classFile.owner(classFile.reference(classFile.bootstrapMethod(invokeDynamic))))) {
+                continue;
+            }
+            final int[] arguments = classFile.bootstrapArguments(invokeDynamic);
+            if (arguments.length < 3 || !classFile.isMethodHandle(arguments[1])) {
+                return Optional.empty();
+            }
+            if (!acceptsEntity(entityClass, classLoader, classFile.methodType(arguments[2]))) {
+                // A call site of a key extractor for other types
+                continue;
+            }
+            final int implementation = classFile.reference(arguments[1]);
+            final Optional<Method> getter = getter(
+                entityClass,
+                classLoader,
+                classFile.referenceKind(arguments[1]),
+                classFile.owner(implementation),
+                classFile.name(implementation),
+                classFile.descriptor(implementation)
+            );
+            if (!getter.isPresent()) {
+                // The key extractor may not invoke a getter
+                return Optional.empty();
+            }
+            getters.add(getter.get());
+            if (getters.size() > 1) {
+                // The key extractor may invoke either getter
+                return Optional.empty();
+            }
+        }
+        return getters.stream().findFirst();
+    }
+
+    // Helpers
+
+    private static Optional<ClassFile> read(final ClassLoader classLoader, final String internalName) throws IOException, ClassNotFoundException {
+        final Class<?> declaringClass = Class.forName(internalName.replace('/', '.'), false, classLoader);
+        try (InputStream in = declaringClass.getResourceAsStream("/" + internalName + ".class")) {
+            return in == null ? Optional.empty() : Optional.of(ClassFile.read(in));
+        }
+    }
+
+    // The only parameter of the descriptor is the entity class or one of its superclasses
+    private static boolean isEntityParameter(final Class<?> entityClass, final String descriptor) {
+        final int end = descriptor.indexOf(')');
+        return descriptor.startsWith("(L") && descriptor.indexOf(';') == end - 1
+            && Metamodels.isEntityClass(entityClass, descriptor.substring(2, end - 1));
+    }
+
+    // The only parameter of the descriptor is a type that entities can be assigned to
+    private static boolean acceptsEntity(final Class<?> entityClass, final ClassLoader classLoader, final String descriptor) throws ClassNotFoundException {
+        final int end = descriptor.indexOf(')');
+        if (!descriptor.startsWith("(L") || descriptor.indexOf(';') != end - 1) {
+            return false;
+        }
+        final String parameter = descriptor.substring(2, end - 1).replace('/', '.');
+        return Class.forName(parameter, false, classLoader).isAssignableFrom(entityClass);
+    }
+
+    private static int u2(final byte[] code, final int index) {
+        return ((code[index] & 0xff) << 8) | (code[index + 1] & 0xff);
+    }
+
+    private static final class Resolution {
+
+        private final Class<?> entityClass;
+        // null if the key extractor can not be resolved
+        private final Field<?> field;
+
+        private Resolution(final Class<?> entityClass, final Field<?> field) {
+            this.entityClass = entityClass;
+            this.field = field;
+        }
+    }
+
+}
@@ -0,0 +1,887 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.field.trait.HasReferenceOperators;
+import com.speedment.jpastreamer.field.trait.HasStringOperators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Translates serializable filter lambdas and method references into the
+ * equivalent {@link SpeedmentPredicate} by analyzing the bytecode of their
+ * implementation methods.
+ * <p>
+ * The analysis follows every path through the implementation method and
+ * translates the conditions along the paths that return {@code true} into
+ * predicates on the fields of the generated metamodel (e.g. {@code Film$}),
+ * i.e. the result is a disjunction of the conjunctions of the conditions of
+ * each such path. Supported conditions are comparisons between a getter and
+ * a constant or captured value, equality, {@code String} matching methods and
+ * null checks. Any other instruction makes the lambda untranslatable.
+ * <p>
+ * Only serializable lambdas can be analyzed, since the implementation method
+ * of other lambdas can not be determined reliably. Declare such lambdas with
+ * an intersection cast, e.g.
+ * {@code (Predicate<Film> & Serializable) f -> f.getLength() > 120}.
+ */
+public final class LambdaTranslator {
+
+    private static final int MAX_CODE_LENGTH = 1024;
+    private static final int MAX_STATES = 256;
+    private static final int MAX_PATHS = 32;
+
+    // Implementation methods of the analyzed lambda classes, empty if not analyzable
+    private static final Map<Class<?>, Optional<Implementation>> IMPLEMENTATIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private LambdaTranslator() {}
+
+    /**
+     * Returns a {@link SpeedmentPredicate} that is equivalent to the provided
+     * {@code predicate} for entities of the given class, or
+     * {@link Optional#empty()} if the predicate can not be translated.
+     *
+     * @param entityClass the class of the filtered entities
+     * @param predicate to translate
+     * @param <T> the entity type
+     * @return the equivalent {@link SpeedmentPredicate}
+     */
+    public static <T> Optional<SpeedmentPredicate<T>> translate(final Class<T> entityClass, final Predicate<?> predicate) {
+        if (!(predicate instanceof Serializable)) {
+            return Optional.empty();
+        }
+        try {
+            final Optional<SerializedLambda> serializedLambda = serializedLambda(predicate);
+            if (!serializedLambda.isPresent()) {
+                return Optional.empty();
+            }
+            final Optional<Implementation> implementation = IMPLEMENTATIONS.computeIfAbsent(
+                predicate.getClass(),
+                lambdaClass -> implementation(lambdaClass, serializedLambda.get())
+            );
+            if (!implementation.isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Analysis<>(entityClass, implementation.get(), serializedLambda.get()).translate());
+        } catch (Untranslatable | ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<SerializedLambda> serializedLambda(final Object lambda) {
+        try {
+            final Method writeReplace = lambda.getClass().getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            final Object replacement = writeReplace.invoke(lambda);
+            return replacement instanceof SerializedLambda
+                ? Optional.of((SerializedLambda) replacement)
+                : Optional.empty();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Implementation> implementation(final Class<?> lambdaClass, final SerializedLambda serializedLambda) {
+        if (!"java/util/function/Predicate".equals(serializedLambda.getFunctionalInterfaceClass())) {
+            return Optional.empty();
+        }
+        final String implementationClass = serializedLambda.getImplClass();
+        final String descriptor = serializedLambda.getImplMethodSignature();
+        switch (serializedLambda.getImplMethodKind()) {
+            case MethodHandleInfo.REF_invokeVirtual:
+            case MethodHandleInfo.REF_invokeInterface:
+                // An unbound method reference, e.g. Film::isAvailable
+                if (serializedLambda.getCapturedArgCount() == 0 && descriptor.startsWith("()")) {
+                    return Optional.of(new Implementation(null, null, false));
+                }
+                // A lambda referring to this
+                return read(lambdaClass, implementationClass, serializedLambda.getImplMethodName(), descriptor, false);
+            case MethodHandleInfo.REF_invokeSpecial:
+                return read(lambdaClass, implementationClass, serializedLambda.getImplMethodName(), descriptor, false);
+            case MethodHandleInfo.REF_invokeStatic:
+                return read(lambdaClass, implementationClass, serializedLambda.getImplMethodName(), descriptor, true);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Implementation> read(
+        final Class<?> lambdaClass,
+        final String implementationClass,
+        final String methodName,
+        final String descriptor,
+        final boolean isStatic
+    ) {
+        try {
+            final Class<?> declaringClass = Class.forName(implementationClass.replace('/', '.'), false, lambdaClass.getClassLoader());
+            try (InputStream in = declaringClass.getResourceAsStream("/" + implementationClass + ".class")) {
+                if (in == null) {
+                    return Optional.empty();
+                }
+                final ClassFile classFile = ClassFile.read(in);
+                return classFile.code(methodName, descriptor)
+                    .filter(code -> code.length <= MAX_CODE_LENGTH)
+                    .map(code -> new Implementation(classFile, code, isStatic));
+            }
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class Implementation {
+
+        // null for method references to a getter
+        private final ClassFile classFile;
+        private final byte[] code;
+        private final boolean isStatic;
+
+        private Implementation(final ClassFile classFile, final byte[] code, final boolean isStatic) {
+            this.classFile = classFile;
+            this.code = code;
+            this.isStatic = isStatic;
+        }
+    }
+
+    private static final class Untranslatable extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Untranslatable INSTANCE = new Untranslatable();
+
+        private Untranslatable() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Symbolic values
+
+    private static final Object ENTITY = new Object();
+
+    private static final class Constant {
+        private final Object value;
+
+        private Constant(final Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Property {
+        private final Field<?> field;
+        private final Class<?> type;
+
+        private Property(final Field<?> field, final Class<?> type) {
+            this.field = field;
+            this.type = type;
+        }
+    }
+
+    // The result of lcmp, fcmpl, fcmpg, dcmpl and dcmpg
+    private static final class Comparison {
+        private final Object left;
+        private final Object right;
+
+        private Comparison(final Object left, final Object right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static final class Condition {
+        private final SpeedmentPredicate<?> holds;
+        private final SpeedmentPredicate<?> fails;
+
+        private Condition(final SpeedmentPredicate<?> holds, final SpeedmentPredicate<?> fails) {
+            this.holds = holds;
+            this.fails = fails;
+        }
+
+        private Condition negate() {
+            return new Condition(fails, holds);
+        }
+    }
+
+    private enum Operator {
+        EQ, NE, LT, GE, GT, LE;
+
+        private Operator mirror() {
+            switch (this) {
+                case LT: return GT;
+                case GE: return LE;
+                case GT: return LT;
+                case LE: return GE;
+                default: return this;
+            }
+        }
+
+        private boolean test(final int comparison) {
+            switch (this) {
+                case EQ: return comparison == 0;
+                case NE: return comparison != 0;
+                case LT: return comparison < 0;
+                case GE: return comparison >= 0;
+                case GT: return comparison > 0;
+                default: return comparison <= 0;
+            }
+        }
+
+        private static Operator of(final int opcode) {
+            return values()[(opcode - IFEQ) % 6];
+        }
+    }
+
+    private static final class State {
+        private final Object[] locals;
+        private final Deque<Object> stack;
+        private final List<SpeedmentPredicate<?>> path;
+        private int pc;
+
+        private State(final Object[] locals, final Deque<Object> stack, final List<SpeedmentPredicate<?>> path, final int pc) {
+            this.locals = locals;
+            this.stack = stack;
+            this.path = path;
+            this.pc = pc;
+        }
+
+        private State fork(final int target, final SpeedmentPredicate<?> condition) {
+            final List<SpeedmentPredicate<?>> forkedPath = new ArrayList<>(path);
+            forkedPath.add(condition);
+            return new State(locals.clone(), new ArrayDeque<>(stack), forkedPath, target);
+        }
+    }
+
+    private static final int IFEQ = 0x99;
+
+    private static final class Analysis<T> {
+
+        private final Class<T> entityClass;
+        private final Implementation implementation;
+        private final SerializedLambda serializedLambda;
+        private final List<List<SpeedmentPredicate<?>>> paths = new ArrayList<>();
+
+        private Analysis(final Class<T> entityClass, final Implementation implementation, final SerializedLambda serializedLambda) {
+            this.entityClass = entityClass;
+            this.implementation = implementation;
+            this.serializedLambda = serializedLambda;
+        }
+
+        @SuppressWarnings("unchecked")
+        private SpeedmentPredicate<T> translate() throws Untranslatable, ReflectiveOperationException {
+            if (implementation.classFile == null) {
+                if (!isEntityClass(serializedLambda.getImplClass())) {
+                    throw Untranslatable.INSTANCE;
+                }
+                final String descriptor = serializedLambda.getImplMethodSignature();
+                final Object property = property(serializedLambda.getImplMethodName(), descriptor.substring(2));
+                return (SpeedmentPredicate<T>) truth(property).holds;
+            }
+
+            execute(initialState());
+
+            if (paths.isEmpty()) {
+                throw Untranslatable.INSTANCE;
+            }
+            final List<Predicate<? super T>> alternatives = new ArrayList<>();
+            for (List<SpeedmentPredicate<?>> path : paths) {
+                if (path.isEmpty()) {
+                    // Holds regardless of the entity
+                    throw Untranslatable.INSTANCE;
+                }
+                final List<Predicate<? super T>> conjunction = new ArrayList<>();
+                path.forEach(condition -> conjunction.add((Predicate<? super T>) condition));
+                alternatives.add(conjunction.size() == 1 ? conjunction.get(0) : CombinedPredicate.<T>and(conjunction));
+            }
+            return alternatives.size() == 1
+                ? (SpeedmentPredicate<T>) alternatives.get(0)
+                : CombinedPredicate.<T>or(alternatives);
+        }
+
+        private State initialState() throws Untranslatable {
+            final List<String> parameters = parameters(serializedLambda.getImplMethodSignature());
+            final int receivers = implementation.isStatic ? 0 : 1;
+            if (serializedLambda.getCapturedArgCount() + 1 != parameters.size() + receivers) {
+                throw Untranslatable.INSTANCE;
+            }
+            if (!implementation.isStatic && serializedLambda.getImplMethodKind() != MethodHandleInfo.REF_invokeSpecial
+                && !serializedLambda.getCapturedArg(0).getClass().getName().replace('.', '/').equals(serializedLambda.getImplClass())) {
+                // The method may be overridden by the class of the receiver
+                throw Untranslatable.INSTANCE;
+            }
+
+            final List<Object> arguments = new ArrayList<>();
+            for (int i = 0; i < serializedLambda.getCapturedArgCount(); i++) {
+                final Object argument = serializedLambda.getCapturedArg(i);
+                // Booleans and chars are ints on the operand stack
+                final String type = i < receivers ? "" : parameters.get(i - receivers);
+                if (argument instanceof Boolean && type.equals("Z")) {
+                    arguments.add(new Constant((Boolean) argument ? 1 : 0));
+                } else if (argument instanceof Character && type.equals("C")) {
+                    arguments.add(new Constant((int) (Character) argument));
+                } else {
+                    arguments.add(new Constant(argument));
+                }
+            }
+            arguments.add(ENTITY);
+
+            final Object[] locals = new Object[2 * arguments.size()];
+            int slot = 0;
+            for (int i = 0; i < arguments.size(); i++) {
+                locals[slot++] = arguments.get(i);
+                final int parameter = i - (implementation.isStatic ? 0 : 1);
+                if (parameter >= 0 && (parameters.get(parameter).equals("J") || parameters.get(parameter).equals("D"))) {
+                    slot++;
+                }
+            }
+            return new State(Arrays.copyOf(locals, 256), new ArrayDeque<>(), new ArrayList<>(), 0);
+        }
+
+        private void execute(final State initial) throws Untranslatable, ReflectiveOperationException {
+            final ClassFile classFile = implementation.classFile;
+            final byte[] code = implementation.code;
+            final Deque<State> states = new ArrayDeque<>();
+            states.push(initial);
+            int executed = 0;
+
+            while (!states.isEmpty()) {
+                if (++executed > MAX_STATES) {
+                    throw Untranslatable.INSTANCE;
+                }
+                final State state = states.pop();
+                final Deque<Object> stack = state.stack;
+
+                boolean running = true;
+                while (running) {
+                    final int pc = state.pc;
+                    final int opcode = code[pc] & 0xff;
+                    switch (opcode) {
+                        case 0x00: // nop
+                            state.pc += 1;
+                            break;
+                        case 0x01: // aconst_null
+                            stack.push(new Constant(null));
+                            state.pc += 1;
+                            break;
+                        case 0x02: case 0x03: case 0x04: case 0x05: case 0x06: case 0x07: case 0x08: // iconst_<i>
+                            stack.push(new Constant(opcode - 0x03));
+                            state.pc += 1;
+                            break;
+                        case 0x09: case 0x0a: // lconst_<l>
+                            stack.push(new Constant((long) (opcode - 0x09)));
+                            state.pc += 1;
+                            break;
+                        case 0x0b: case 0x0c: case 0x0d: // fconst_<f>
+                            stack.push(new Constant((float) (opcode - 0x0b)));
+                            state.pc += 1;
+                            break;
+                        case 0x0e: case 0x0f: // dconst_<d>
+                            stack.push(new Constant((double) (opcode - 0x0e)));
+                            state.pc += 1;
+                            break;
+                        case 0x10: // bipush
+                            stack.push(new Constant((int) code[pc + 1]));
+                            state.pc += 2;
+                            break;
+                        case 0x11: // sipush
+                            stack.push(new Constant((int) (short) u2(code, pc + 1)));
+                            state.pc += 3;
+                            break;
+                        case 0x12: // ldc
+                            stack.push(new Constant(classFile.constant(code[pc + 1] & 0xff)));
+                            state.pc += 2;
+                            break;
+                        case 0x13: case 0x14: // ldc_w, ldc2_w
+                            stack.push(new Constant(classFile.constant(u2(code, pc + 1))));
+                            state.pc += 3;
+                            break;
+                        case 0x15: case 0x16: case 0x17: case 0x18: case 0x19: // <t>load
+                            stack.push(load(state, code[pc + 1] & 0xff));
+                            state.pc += 2;
+                            break;
+                        case 0x1a: case 0x1b: case 0x1c: case 0x1d: case 0x1e: case 0x1f: case 0x20: case 0x21:
+                        case 0x22: case 0x23: case 0x24: case 0x25: case 0x26: case 0x27: case 0x28: case 0x29:
+                        case 0x2a: case 0x2b: case 0x2c: case 0x2d: // <t>load_<n>
+                            stack.push(load(state, (opcode - 0x1a) % 4));
+                            state.pc += 1;
+                            break;
+                        case 0x36: case 0x37: case 0x38: case 0x39: case 0x3a: // <t>store
+                            state.locals[code[pc + 1] & 0xff] = stack.pop();
+                            state.pc += 2;
+                            break;
+                        case 0x3b: case 0x3c: case 0x3d: case 0x3e: case 0x3f: case 0x40: case 0x41: case 0x42:
+                        case 0x43: case 0x44: case 0x45: case 0x46: case 0x47: case 0x48: case 0x49: case 0x4a:
+                        case 0x4b: case 0x4c: case 0x4d: case 0x4e: // <t>store_<n>
+                            state.locals[(opcode - 0x3b) % 4] = stack.pop();
+                            state.pc += 1;
+                            break;
+                        case 0x59: // dup
+                            stack.push(stack.peek());
+                            state.pc += 1;
+                            break;
+                        case 0x85: case 0x87: case 0x8d: // i2l, i2d, f2d
+                            stack.push(widen(stack.pop(), opcode));
+                            state.pc += 1;
+                            break;
+                        case 0x94: case 0x95: case 0x96: case 0x97: case 0x98: { // lcmp, fcmp<op>, dcmp<op>
+                            final Object right = stack.pop();
+                            final Object left = stack.pop();
+                            stack.push(new Comparison(left, right));
+                            state.pc += 1;
+                            break;
+                        }
+                        case 0x99: case 0x9a: case 0x9b: case 0x9c: case 0x9d: case 0x9e: // if<cond>
+                            branch(states, state, pc + (short) u2(code, pc + 1), condition(stack.pop(), Operator.of(opcode)));
+                            break;
+                        case 0x9f: case 0xa0: case 0xa1: case 0xa2: case 0xa3: case 0xa4: { // if_icmp<cond>
+                            final Object right = stack.pop();
+                            final Object left = stack.pop();
+                            branch(states, state, pc + (short) u2(code, pc + 1), compare(left, right, Operator.of(opcode - 6)));
+                            break;
+                        }
+                        case 0xc6: case 0xc7: // ifnull, ifnonnull
+                            branch(states, state, pc + (short) u2(code, pc + 1), nullCheck(stack.pop(), opcode == 0xc6));
+                            break;
+                        case 0xa7: // goto
+                            state.pc = forward(pc, pc + (short) u2(code, pc + 1));
+                            break;
+                        case 0xc8: // goto_w
+                            state.pc = forward(pc, pc + ((u2(code, pc + 1) << 16) | u2(code, pc + 3)));
+                            break;
+                        case 0xac: // ireturn
+                            result(state, stack.pop());
+                            running = false;
+                            break;
+                        case 0xb2: // getstatic
+                            stack.push(getStatic(classFile, u2(code, pc + 1)));
+                            state.pc += 3;
+                            break;
+                        case 0xb4: // getfield
+                            stack.push(getField(classFile, u2(code, pc + 1), stack.pop()));
+                            state.pc += 3;
+                            break;
+                        case 0xb6: // invokevirtual
+                        case 0xb9: // invokeinterface
+                            stack.push(invokeVirtual(classFile, u2(code, pc + 1), stack));
+                            state.pc += opcode == 0xb9 ? 5 : 3;
+                            break;
+                        case 0xb8: // invokestatic
+                            stack.push(invokeStatic(classFile, u2(code, pc + 1), stack));
+                            state.pc += 3;
+                            break;
+                        case 0xc0: // checkcast
+                            state.pc += 3;
+                            break;
+                        default:
+                            throw Untranslatable.INSTANCE;
+                    }
+                }
+            }
+        }
+
+        private Object load(final State state, final int slot) throws Untranslatable {
+            final Object value = state.locals[slot];
+            if (value == null) {
+                throw Untranslatable.INSTANCE;
+            }
+            return value;
+        }
+
+        private void branch(final Deque<State> states, final State state, final int target, final Object condition) throws Untranslatable {
+            forward(state.pc, target);
+            final int next = state.pc + 3;
+            if (condition instanceof Boolean) {
+                state.pc = (Boolean) condition ? target : next;
+                return;
+            }
+            final Condition jump = (Condition) condition;
+            states.push(state.fork(target, jump.holds));
+            state.path.add(jump.fails);
+            state.pc = next;
+        }
+
+        private void result(final State state, final Object value) throws Untranslatable {
+            if (value instanceof Constant && ((Constant) value).value instanceof Integer) {
+                if ((Integer) ((Constant) value).value != 0) {
+                    paths.add(state.path);
+                }
+            } else if (value instanceof Condition || value instanceof Property) {
+                final Condition condition = value instanceof Condition ? (Condition) value : truth(value);
+                state.path.add(condition.holds);
+                paths.add(state.path);
+            } else {
+                throw Untranslatable.INSTANCE;
+            }
+            if (paths.size() > MAX_PATHS) {
+                throw Untranslatable.INSTANCE;
+            }
+        }
+
+        // Conditions
+
+        private Object condition(final Object value, final Operator operator) throws Untranslatable {
+            if (value instanceof Comparison) {
+                return compare(((Comparison) value).left, ((Comparison) value).right, operator);
+            }
+            if (value instanceof Condition || (value instanceof Property && ((Property) value).type == Boolean.class)) {
+                final Condition condition = value instanceof Condition ? (Condition) value : truth(value);
+                switch (operator) {
+                    case EQ: return condition.negate();
+                    case NE: return condition;
+                    default: throw Untranslatable.INSTANCE;
+                }
+            }
+            return compare(value, new Constant(0), operator);
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private Object compare(final Object left, final Object right, final Operator operator) throws Untranslatable {
+            if (left instanceof Constant && right instanceof Constant) {
+                final Object leftValue = ((Constant) left).value;
+                final Object rightValue = ((Constant) right).value;
+                if (!(leftValue instanceof Number) || !(rightValue instanceof Number)) {
+                    throw Untranslatable.INSTANCE;
+                }
+                return operator.test(decimal((Number) leftValue).compareTo(decimal((Number) rightValue)));
+            }
+            if (left instanceof Constant && right instanceof Property) {
+                return compare(right, left, operator.mirror());
+            }
+            if (!(left instanceof Property) || !(right instanceof Constant) || ((Constant) right).value == null) {
+                throw Untranslatable.INSTANCE;
+            }
+            final HasComparableOperators field = comparable((Property) left);
+            final Comparable value = (Comparable) convert(((Constant) right).value, ((Property) left).type);
+            switch (operator) {
+                case EQ: return new Condition(field.equal(value), field.notEqual(value));
+                case NE: return new Condition(field.notEqual(value), field.equal(value));
+                case LT: return new Condition(field.lessThan(value), field.greaterOrEqual(value));
+                case GE: return new Condition(field.greaterOrEqual(value), field.lessThan(value));
+                case GT: return new Condition(field.greaterThan(value), field.lessOrEqual(value));
+                default: return new Condition(field.lessOrEqual(value), field.greaterThan(value));
+            }
+        }
+
+        private Condition nullCheck(final Object value, final boolean isNull) throws Untranslatable {
+            if (!(value instanceof Property)) {
+                throw Untranslatable.INSTANCE;
+            }
+            final HasReferenceOperators<?> field = nullable((Property) value);
+            final Condition condition = new Condition(field.isNull(), field.isNotNull());
+            return isNull ? condition : condition.negate();
+        }
+
+        // Equality that holds for null values, i.e. Objects.equals(a, b) and "constant".equals(a)
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private Object nullSafeEquals(final Object left, final Object right) throws Untranslatable {
+            if (left instanceof Constant && right instanceof Constant) {
+                return new Constant(Objects.equals(((Constant) left).value, ((Constant) right).value) ? 1 : 0);
+            }
+            if (left instanceof Constant) {
+                return nullSafeEquals(right, left);
+            }
+            if (!(left instanceof Property) || !(right instanceof Constant)) {
+                throw Untranslatable.INSTANCE;
+            }
+            if (((Constant) right).value == null) {
+                return nullCheck(left, true);
+            }
+            final HasComparableOperators field = comparable((Property) left);
+            final Comparable value = (Comparable) convert(((Constant) right).value, ((Property) left).type);
+            return new Condition(field.equal(value), nullable((Property) left).isNull().or(field.notEqual(value)));
+        }
+
+        private Condition truth(final Object value) throws Untranslatable {
+            if (!(value instanceof Property) || ((Property) value).type != Boolean.class) {
+                throw Untranslatable.INSTANCE;
+            }
+            final Condition condition = (Condition) compare(value, new Constant(Boolean.TRUE), Operator.EQ);
+            return new Condition(condition.holds, (SpeedmentPredicate<?>) comparable((Property) value).equal(Boolean.FALSE));
+        }
+
+        // Instructions
+
+        private Object widen(final Object value, final int opcode) throws Untranslatable {
+            if (value instanceof Property) {
+                return value;
+            }
+            if (!(value instanceof Constant) || !(((Constant) value).value instanceof Number)) {
+                throw Untranslatable.INSTANCE;
+            }
+            final Number number = (Number) ((Constant) value).value;
+            return new Constant(opcode == 0x85 ? (Object) number.longValue() : (Object) number.doubleValue());
+        }
+
+        private Object getStatic(final ClassFile classFile, final int index) throws Untranslatable, ReflectiveOperationException {
+            final java.lang.reflect.Field field = reflectedField(classFile, index);
+            if (!Modifier.isStatic(field.getModifiers()) || !Modifier.isFinal(field.getModifiers())) {
+                throw Untranslatable.INSTANCE;
+            }
+            return new Constant(field.get(null));
+        }
+
+        private Object getField(final ClassFile classFile, final int index, final Object target) throws Untranslatable, ReflectiveOperationException {
+            if (!(target instanceof Constant) || ((Constant) target).value == null) {
+                throw Untranslatable.INSTANCE;
+            }
+            final java.lang.reflect.Field field = reflectedField(classFile, index);
+            if (Modifier.isStatic(field.getModifiers())) {
+                throw Untranslatable.INSTANCE;
+            }
+            return new Constant(field.get(((Constant) target).value));
+        }
+
+        private java.lang.reflect.Field reflectedField(final ClassFile classFile, final int index) throws ReflectiveOperationException {
+            final Class<?> owner = Class.forName(classFile.owner(index).replace('/', '.'), false, entityClass.getClassLoader());
+            final java.lang.reflect.Field field = owner.getDeclaredField(classFile.name(index));
+            field.setAccessible(true);
+            return field;
+        }
+
+        private Object invokeVirtual(final ClassFile classFile, final int index, final Deque<Object> stack) throws Untranslatable {
+            final String name = classFile.name(index);
+            final String descriptor = classFile.descriptor(index);
+            final List<String> parameters = parameters(descriptor);
+            final Object argument = parameters.size() == 1 ? stack.pop() : null;
+            if (parameters.size() > 1) {
+                throw Untranslatable.INSTANCE;
+            }
+            final Object receiver = stack.pop();
+
+            if (receiver == ENTITY && parameters.isEmpty() && isEntityClass(classFile.owner(index))) {
+                return property(name, descriptor.substring(2));
+            }
+
+            if (receiver instanceof Constant && "equals".equals(name) && parameters.size() == 1) {
+                if (((Constant) receiver).value == null) {
+                    throw Untranslatable.INSTANCE;
+                }
+                return nullSafeEquals(receiver, argument);
+            }
+
+            if (!(receiver instanceof Property)) {
+                throw Untranslatable.INSTANCE;
+            }
+            final Property property = (Property) receiver;
+
+            if (parameters.isEmpty() && name.endsWith("Value") && !"booleanValue".equals(name)) {
+                // Unboxing, e.g. Integer::intValue
+                final String primitive = name.substring(0, name.length() - "Value".length());
+                if (!property.type.getSimpleName().toLowerCase().startsWith(primitive.substring(0, 3))) {
+                    throw Untranslatable.INSTANCE;
+                }
+                return property;
+            }
+            if ("booleanValue".equals(name) && property.type == Boolean.class) {
+                return property;
+            }
+
+            if ("equals".equals(name) && argument instanceof Constant) {
+                if (((Constant) argument).value == null) {
+                    return new Constant(0);
+                }
+                return compare(property, argument, Operator.EQ);
+            }
+
+            if (property.type != String.class || !(property.field instanceof HasStringOperators)) {
+                throw Untranslatable.INSTANCE;
+            }
+            @SuppressWarnings("unchecked")
+            final HasStringOperators<T> field = (HasStringOperators<T>) property.field;
+            if ("isEmpty".equals(name) && parameters.isEmpty()) {
+                return new Condition(field.isEmpty(), field.isNotEmpty());
+            }
+            if (!(argument instanceof Constant) || !(((Constant) argument).value instanceof String)) {
+                throw Untranslatable.INSTANCE;
+            }
+            final String value = (String) ((Constant) argument).value;
+            switch (name) {
+                case "startsWith":
+                    return new Condition(field.startsWith(value), field.notStartsWith(value));
+                case "endsWith":
+                    return new Condition(field.endsWith(value), field.notEndsWith(value));
+                case "contains":
+                    return new Condition(field.contains(value), field.notContains(value));
+                case "equalsIgnoreCase":
+                    return new Condition(field.equalIgnoreCase(value), field.notEqualIgnoreCase(value));
+                default:
+                    throw Untranslatable.INSTANCE;
+            }
+        }
+
+        private Object invokeStatic(final ClassFile classFile, final int index, final Deque<Object> stack) throws Untranslatable {
+            final String owner = classFile.owner(index);
+            final String name = classFile.name(index);
+            final List<String> parameters = parameters(classFile.descriptor(index));
+
+            if ("java/util/Objects".equals(owner) && "equals".equals(name) && parameters.size() == 2) {
+                final Object right = stack.pop();
+                final Object left = stack.pop();
+                return nullSafeEquals(left, right);
+            }
+            if (owner.startsWith("java/lang/") && "valueOf".equals(name) && parameters.size() == 1 && parameters.get(0).length() == 1) {
+                // Boxing, e.g. Integer::valueOf
+                final Object value = stack.pop();
+                if (value instanceof Property) {
+                    return value;
+                }
+                if (value instanceof Constant) {
+                    return new Constant(convert(((Constant) value).value, box(parameters.get(0))));
+                }
+            }
+            throw Untranslatable.INSTANCE;
+        }
+
+        // Fields
+
+        private Property property(final String getterName, final String returnType) throws Untranslatable {
+            final Optional<Field<?>> field = Metamodels.field(entityClass, getterName);
+            if (!field.isPresent()) {
+                throw Untranslatable.INSTANCE;
+            }
+            return new Property(field.get(), box(returnType));
+        }
+
+        private HasReferenceOperators<?> nullable(final Property property) throws Untranslatable {
+            if (!(property.field instanceof HasReferenceOperators)) {
+                throw Untranslatable.INSTANCE;
+            }
+            return (HasReferenceOperators<?>) property.field;
+        }
+
+        @SuppressWarnings("rawtypes")
+        private HasComparableOperators comparable(final Property property) throws Untranslatable {
+            if (!(property.field instanceof HasComparableOperators)) {
+                throw Untranslatable.INSTANCE;
+            }
+            return (HasComparableOperators) property.field;
+        }
+
+        private boolean isEntityClass(final String internalName) {
+            return Metamodels.isEntityClass(entityClass, internalName);
+        }
+    }
+
+    // Helpers
+
+    private static int u2(final byte[] code, final int index) {
+        return ((code[index] & 0xff) << 8) | (code[index + 1] & 0xff);
+    }
+
+    // Loops are not supported
+    private static int forward(final int pc, final int target) throws Untranslatable {
+        if (target <= pc) {
+            throw Untranslatable.INSTANCE;
+        }
+        return target;
+    }
+
+    private static List<String> parameters(final String descriptor) throws Untranslatable {
+        final List<String> parameters = new ArrayList<>();
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            final int start = i;
+            while (descriptor.charAt(i) == '[') {
+                i++;
+            }
+            if (descriptor.charAt(i) == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            parameters.add(descriptor.substring(start, ++i));
+        }
+        return parameters;
+    }
+
+    private static Class<?> box(final String type) throws Untranslatable {
+        switch (type) {
+            case "Z": case "Ljava/lang/Boolean;": return Boolean.class;
+            case "B": case "Ljava/lang/Byte;": return Byte.class;
+            case "S": case "Ljava/lang/Short;": return Short.class;
+            case "I": case "Ljava/lang/Integer;": return Integer.class;
+            case "J": case "Ljava/lang/Long;": return Long.class;
+            case "F": case "Ljava/lang/Float;": return Float.class;
+            case "D": case "Ljava/lang/Double;": return Double.class;
+            case "Ljava/lang/String;": return String.class;
+            default:
+                if (type.startsWith("L")) {
+                    return Object.class;
+                }
+                throw Untranslatable.INSTANCE;
+        }
+    }
+
+    // Converts the value to the given type if no information is lost
+    private static Object convert(final Object value, final Class<?> type) throws Untranslatable {
+        if (type.isInstance(value) && type != Object.class) {
+            return value;
+        }
+        if (type == Boolean.class && value instanceof Integer && ((Integer) value == 0 || (Integer) value == 1)) {
+            return (Integer) value == 1;
+        }
+        if (!(value instanceof Number)) {
+            throw Untranslatable.INSTANCE;
+        }
+        final Number number = (Number) value;
+        final Object converted;
+        if (type == Byte.class) {
+            converted = number.byteValue();
+        } else if (type == Short.class) {
+            converted = number.shortValue();
+        } else if (type == Integer.class) {
+            converted = number.intValue();
+        } else if (type == Long.class) {
+            converted = number.longValue();
+        } else if (type == Float.class) {
+            converted = number.floatValue();
+        } else if (type == Double.class) {
+            converted = number.doubleValue();
+        } else {
+            throw Untranslatable.INSTANCE;
+        }
+        if (decimal(number).compareTo(decimal((Number) converted)) != 0) {
+            throw Untranslatable.INSTANCE;
+        }
+        return converted;
+    }
+
+    private static BigDecimal decimal(final Number number) throws Untranslatable {
+        if (number instanceof Double || number instanceof Float) {
+            final double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw Untranslatable.INSTANCE;
+            }
+            return new BigDecimal(value);
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import com.speedment.jpastreamer.field.Field;
+
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+/**
+ * Looks up the fields of the generated metamodels, e.g. {@code Film$}.
+ */
+final class Metamodels {
+
+    private Metamodels() {}
+
+    /**
+     * Returns the field of the metamodel of the given entity class that
+     * corresponds to the property of the given getter, or
+     * {@link Optional#empty()} if there is no such field.
+     *
+     * @param entityClass the class of the entity
+     * @param getterName name of the getter, e.g. {@code getTitle}
+     * @return the field of the property
+     */
+    static Optional<Field<?>> field(final Class<?> entityClass, final String getterName) {
+        final String propertyName;
+        if (getterName.startsWith("get") && getterName.length() > 3) {
+            propertyName = decapitalize(getterName.substring(3));
+        } else if (getterName.startsWith("is") && getterName.length() > 2) {
+            propertyName = decapitalize(getterName.substring(2));
+        } else {
+            return Optional.empty();
+        }
+        try {
+            final Class<?> metamodel = Class.forName(entityClass.getName() + "$", true, entityClass.getClassLoader());
+            final java.lang.reflect.Field metamodelField = metamodel.getField(propertyName);
+            final Object field = metamodelField.get(null);
+            if (!Modifier.isStatic(metamodelField.getModifiers()) || !(field instanceof Field)) {
+                return Optional.empty();
+            }
+            return Optional.of((Field<?>) field);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns if the class with the given internal name is the given entity
+     * class or one of its superclasses.
+     *
+     * @param entityClass the class of the entity
+     * @param internalName internal name of the class, e.g. {@code com/example/Film}
+     * @return if the class is the entity class or one of its superclasses
+     */
+    static boolean isEntityClass(final Class<?> entityClass, final String internalName) {
+        for (Class<?> c = entityClass; c != null; c = c.getSuperclass()) {
+            if (c.getName().replace('.', '/').equals(internalName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String decapitalize(final String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+}
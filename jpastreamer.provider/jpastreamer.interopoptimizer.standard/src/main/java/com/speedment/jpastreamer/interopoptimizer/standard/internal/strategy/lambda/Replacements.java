@@ -0,0 +1,86 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.lambda;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the objects that are written when an object is serialized, after
+ * they have been replaced by their {@code writeReplace} method. Serializable
+ * lambdas are thereby revealed as {@link java.lang.invoke.SerializedLambda}s
+ * and the state of serializable JDK classes becomes accessible without deep
+ * reflection.
+ */
+final class Replacements {
+
+    private Replacements() {}
+
+    /**
+     * Returns the first objects written when serializing the provided object,
+     * starting with the (replaced) object itself. Serialization stops at the
+     * given limit or at the first object that is not serializable.
+     *
+     * @param object to serialize
+     * @param limit maximum number of objects to return
+     * @return the first objects written
+     */
+    static List<Object> of(final Object object, final int limit) {
+        final List<Object> replacements = new ArrayList<>();
+        try (ObjectOutputStream out = new Collector(replacements, limit)) {
+            out.writeObject(object);
+        } catch (IOException | RuntimeException e) {
+            // The limit is reached or an object is not serializable
+        }
+        return replacements;
+    }
+
+    private static final class Collector extends ObjectOutputStream {
+
+        private final List<Object> replacements;
+        private final int limit;
+
+        private Collector(final List<Object> replacements, final int limit) throws IOException {
+            super(OutputStream.nullOutputStream());
+            this.replacements = replacements;
+            this.limit = limit;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) throws IOException {
+            // The stream also attempts to write the exception that aborted it
+            if (replacements.size() >= limit) {
+                throw new LimitReached();
+            }
+            replacements.add(obj);
+            if (replacements.size() >= limit) {
+                throw new LimitReached();
+            }
+            return obj;
+        }
+    }
+
+    private static final class LimitReached extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private LimitReached() {
+            super(null, null);
+        }
+    }
+
+}
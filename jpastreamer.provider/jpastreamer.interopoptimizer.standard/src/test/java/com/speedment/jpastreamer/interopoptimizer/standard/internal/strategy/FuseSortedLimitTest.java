@@ -0,0 +1,135 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film$;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class FuseSortedLimitTest {
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final FuseSortedLimit fuseSortedLimit = new FuseSortedLimit();
+
+    private final List<Film> films = IntStream.range(0, 200)
+        .mapToObj(i -> film(i, "FILM " + (i * 7919 % 200), 40 + i * 31 % 17))
+        .collect(Collectors.toList());
+
+    // Has many ties
+    private final Comparator<Film> byLength = (a, b) -> Short.compare(a.getLength(), b.getLength());
+
+    @Test
+    void sortedLimit() {
+        assertFused(operationFactory.createSorted(byLength), operationFactory.createLimit(10));
+        assertFused(operationFactory.createSorted(byLength.reversed()), operationFactory.createLimit(1));
+        assertFused(operationFactory.createSorted(byLength), operationFactory.createLimit(0));
+        assertFused(operationFactory.createSorted(byLength), operationFactory.createLimit(1000));
+    }
+
+    @Test
+    void sortedSkipLimit() {
+        final List<IntermediateOperation<?, ?>> operations = assertFused(
+            operationFactory.createSorted(byLength), operationFactory.createSkip(15), operationFactory.createLimit(10)
+        );
+
+        assertEquals(IntermediateOperationType.SKIP, operations.get(1).type());
+    }
+
+    @Test
+    void mapped() {
+        assertFused(operationFactory.createMap(Film::getTitle), operationFactory.acquireSorted(), operationFactory.createLimit(5));
+        assertFused(
+            operationFactory.createMap(Film::getTitle),
+            operationFactory.createSorted(Comparator.reverseOrder()),
+            operationFactory.createLimit(5)
+        );
+    }
+
+    @Test
+    void mergeable() {
+        assertUnchanged(operationFactory.acquireSorted(), operationFactory.createLimit(10));
+        assertUnchanged(operationFactory.createSorted(Film$.title.comparator()), operationFactory.createLimit(10));
+        assertUnchanged(operationFactory.createSorted(Film$.length.comparator().thenComparing(Film$.title.comparator())), operationFactory.createLimit(10));
+    }
+
+    @Test
+    void notLimited() {
+        assertUnchanged(operationFactory.createSorted(byLength));
+        assertUnchanged(operationFactory.createSorted(byLength), operationFactory.createFilter(f -> true), operationFactory.createLimit(10));
+        assertUnchanged(operationFactory.createSorted(byLength), operationFactory.createLimit(Long.MAX_VALUE));
+    }
+
+    private List<IntermediateOperation<?, ?>> assertFused(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipeline(operations);
+
+        fuseSortedLimit.optimize(pipeline);
+
+        assertEquals(operations.length - 1, pipeline.intermediateOperations().size());
+        assertTrue(pipeline.intermediateOperations().stream().anyMatch(TopKSort.class::isInstance));
+        assertEquals(replay(List.of(operations)), replay(pipeline.intermediateOperations()));
+        return pipeline.intermediateOperations();
+    }
+
+    private void assertUnchanged(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipeline(operations);
+
+        fuseSortedLimit.optimize(pipeline);
+
+        assertEquals(operations.length, pipeline.intermediateOperations().size());
+        for (int i = 0; i < operations.length; i++) {
+            assertSame(operations[i], pipeline.intermediateOperations().get(i));
+        }
+    }
+
+    private Pipeline<Film> pipeline(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().addAll(List.of(operations));
+        return pipeline;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Object> replay(final List<IntermediateOperation<?, ?>> operations) {
+        Stream<?> stream = films.stream();
+        for (IntermediateOperation operation : operations) {
+            stream = (Stream<?>) ((Function) operation.function()).apply(stream);
+        }
+        return new ArrayList<>(stream.collect(Collectors.toList()));
+    }
+
+    private static Film film(final int filmId, final String title, final int length) {
+        final Film film = new Film((short) filmId, title, "");
+        film.setLength((short) length);
+        return film;
+    }
+
+}
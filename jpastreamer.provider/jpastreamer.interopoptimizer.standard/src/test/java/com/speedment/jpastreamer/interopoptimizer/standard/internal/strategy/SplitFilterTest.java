@@ -0,0 +1,127 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.LIMIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film$;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Predicate;
+
+final class SplitFilterTest {
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final SplitFilter splitFilter = new SplitFilter(operationFactory);
+
+    private final Film titanic = new Film((short) 1234, "TITANIC", "About a ship that sank.");
+    private final Film avatar = new Film((short) 4321, "AVATAR", "About a planet.");
+
+    @Test
+    void pushable() {
+        final SpeedmentPredicate<Film> predicate = Film$.title.startsWith("T").and(Film$.title.endsWith("C"));
+        final Pipeline<Film> pipeline = optimize(operationFactory.createFilter(predicate));
+
+        assertEquals(1, pipeline.intermediateOperations().size());
+        assertSame(predicate, pipeline.intermediateOperations().getFirst().arguments()[0]);
+    }
+
+    @Test
+    void conjunction() {
+        final Pipeline<Film> pipeline = optimize(
+            operationFactory.createFilter(Film$.title.startsWith("T").and(f -> f.getDescription().contains("ship"))),
+            operationFactory.createLimit(1)
+        );
+
+        final List<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+        assertEquals(3, operations.size());
+        assertEquals(FILTER, operations.get(0).type());
+        assertTrue(operations.get(0).arguments()[0] instanceof FieldPredicate);
+        assertEquals(FILTER, operations.get(1).type());
+        assertFalse(operations.get(1).arguments()[0] instanceof SpeedmentPredicate);
+        assertEquals(LIMIT, operations.get(2).type());
+
+        assertFilters(operations, true, false);
+    }
+
+    @Test
+    void nestedConjunction() {
+        final Pipeline<Film> pipeline = optimize(
+            operationFactory.createFilter(CombinedPredicate.and(
+                Film$.title.startsWith("T").and(f -> f.getDescription().contains("ship")),
+                Film$.title.endsWith("C").and(Film$.filmId.greaterThan((short) 1000))
+            ))
+        );
+
+        final List<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+        assertEquals(2, operations.size());
+        final CombinedPredicate<?> pushed = (CombinedPredicate<?>) operations.get(0).arguments()[0];
+        assertEquals(CombinedPredicate.Type.AND, pushed.getType());
+        assertEquals(3, pushed.size());
+        assertTrue(pushed.stream().allMatch(FieldPredicate.class::isInstance));
+        assertFalse(operations.get(1).arguments()[0] instanceof SpeedmentPredicate);
+
+        assertFilters(operations, true, false);
+    }
+
+    @Test
+    void disjunction() {
+        final Pipeline<Film> pipeline = optimize(
+            operationFactory.createFilter(Film$.title.startsWith("A").or(f -> f.getDescription().contains("ship")))
+        );
+
+        final List<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations();
+        assertEquals(1, operations.size());
+        assertFalse(operations.get(0).arguments()[0] instanceof SpeedmentPredicate);
+
+        assertFilters(operations, true, true);
+    }
+
+    private Pipeline<Film> optimize(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        for (IntermediateOperation<?, ?> operation : operations) {
+            pipeline.intermediateOperations().add(operation);
+        }
+        return splitFilter.optimize(pipeline);
+    }
+
+    private void assertFilters(final List<IntermediateOperation<?, ?>> operations, final boolean expectedTitanic, final boolean expectedAvatar) {
+        assertEquals(expectedTitanic, test(operations, titanic));
+        assertEquals(expectedAvatar, test(operations, avatar));
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean test(final List<IntermediateOperation<?, ?>> operations, final Film film) {
+        return operations.stream()
+            .filter(operation -> operation.type() == FILTER)
+            .allMatch(operation -> ((Predicate<Film>) operation.arguments()[0]).test(film));
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film$;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.function.Predicate;
+
+final class TranslateLambdaFilterTest {
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final TranslateLambdaFilter translateLambdaFilter = new TranslateLambdaFilter(operationFactory, true);
+
+    private final List<Film> films = List.of(
+        film(1, "ACADEMY DINOSAUR", "PG", 86),
+        film(2, "ACE GOLDFINGER", "G", 48),
+        film(3, "ADAPTATION HOLES", "NC-17", 120),
+        film(4, "BUCKET BROTHERHOOD", "PG", 133),
+        film(5, "TITANIC", null, 194),
+        film(6, "XANADU", "PG-13", 121)
+    );
+
+    private int minimumLength = 100;
+
+    @Test
+    void disabled() {
+        final Predicate<Film> predicate = (Predicate<Film> & Serializable) f -> f.getLength() > 120;
+        final Pipeline<Film> pipeline = pipeline(predicate);
+
+        new TranslateLambdaFilter(operationFactory, false).optimize(pipeline);
+
+        assertSame(predicate, filter(pipeline));
+    }
+
+    @Test
+    void comparison() {
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getLength() > 120);
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getLength() <= 120);
+        assertTranslated((Predicate<Film> & Serializable) f -> 120 == f.getLength());
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getFilmId() != 3);
+    }
+
+    @Test
+    void conjunction() {
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getLength() > 100 && f.getRating().equals("PG"));
+    }
+
+    @Test
+    void disjunction() {
+        assertTranslated((Predicate<Film> & Serializable) f -> "PG".equals(f.getRating()) || f.getTitle().startsWith("X"));
+        assertTranslated((Predicate<Film> & Serializable) f -> !Objects.equals(f.getRating(), "PG") && f.getLength() < 130);
+    }
+
+    @Test
+    void strings() {
+        assertTranslated((Predicate<Film> & Serializable) f -> !f.getTitle().contains("ACE"));
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getTitle().endsWith("S") || f.getTitle().isEmpty());
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getRating() == null);
+    }
+
+    @Test
+    void captured() {
+        final int length = 120;
+        final String rating = "PG";
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getLength() > length && rating.equals(f.getRating()));
+        assertTranslated((Predicate<Film> & Serializable) f -> f.getLength() >= minimumLength);
+    }
+
+    @Test
+    void combined() {
+        final Predicate<Film> predicate = Film$.title.startsWith("A").and((Predicate<Film> & Serializable) f -> f.getLength() < 100);
+
+        assertTranslated(predicate);
+    }
+
+    @Test
+    void untranslatable() {
+        assertUnchanged(f -> f.getLength() > 120);
+        assertUnchanged((Predicate<Film> & Serializable) f -> f.getTitle().toLowerCase().startsWith("a"));
+        assertUnchanged((Predicate<Film> & Serializable) f -> f.getLength() > f.getFilmId());
+        assertUnchanged((Predicate<Film> & Serializable) f -> f.hashCode() > 0);
+    }
+
+    private void assertTranslated(final Predicate<Film> predicate) {
+        final Pipeline<Film> pipeline = pipeline(predicate);
+
+        translateLambdaFilter.optimize(pipeline);
+
+        final Predicate<Film> translated = filter(pipeline);
+        assertTrue(pushable(translated), "Not translated: " + translated);
+        for (Film film : films) {
+            final boolean expected;
+            try {
+                expected = predicate.test(film);
+            } catch (NullPointerException e) {
+                // Entities that make the lambda fail may be excluded by the query
+                continue;
+            }
+            assertEquals(expected, translated.test(film), film.getTitle());
+        }
+    }
+
+    private void assertUnchanged(final Predicate<Film> predicate) {
+        final Pipeline<Film> pipeline = pipeline(predicate);
+
+        translateLambdaFilter.optimize(pipeline);
+
+        assertSame(predicate, filter(pipeline));
+    }
+
+    private boolean pushable(final Predicate<?> predicate) {
+        if (predicate instanceof CombinedPredicate) {
+            return ((CombinedPredicate<?>) predicate).stream().allMatch(this::pushable);
+        }
+        return predicate instanceof FieldPredicate;
+    }
+
+    private Pipeline<Film> pipeline(final Predicate<Film> predicate) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createFilter(predicate));
+        return pipeline;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<Film> filter(final Pipeline<Film> pipeline) {
+        return (Predicate<Film>) pipeline.intermediateOperations().getFirst().arguments()[0];
+    }
+
+    private static Film film(final int filmId, final String title, final String rating, final int length) {
+        final Film film = new Film((short) filmId, title, "");
+        film.setRating(rating);
+        film.setLength((short) length);
+        return film;
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film;
+import com.speedment.jpastreamer.interopoptimizer.standard.internal.strategy.model.Film$;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+final class TranslateMethodReferencesTest {
+
+    private final PipelineFactory pipelineFactory = RootFactory.getOrThrow(PipelineFactory.class, ServiceLoader::load);
+    private final IntermediateOperationFactory operationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    private final TranslateMethodReferences translateMethodReferences = new TranslateMethodReferences(operationFactory, true);
+
+    private final List<Film> films = List.of(
+        film(1, "ACADEMY DINOSAUR", "PG", 86),
+        film(2, "ACE GOLDFINGER", "G", 48),
+        film(3, "ADAPTATION HOLES", "NC-17", 120),
+        film(4, "BUCKET BROTHERHOOD", "PG", 86),
+        film(5, "TITANIC", "R", 194),
+        film(6, "XANADU", "PG-13", 120)
+    );
+
+    @Test
+    void disabled() {
+        final Comparator<Film> comparator = Comparator.comparing(Film::getTitle);
+        final Pipeline<Film> pipeline = sortedPipeline(comparator);
+
+        new TranslateMethodReferences(operationFactory, false).optimize(pipeline);
+
+        assertSame(comparator, argument(pipeline));
+    }
+
+    @Test
+    void comparing() {
+        assertTranslated(Comparator.comparing(Title.KEY));
+        assertTranslated(Comparator.comparing(Length.KEY));
+        assertTranslated(Comparator.comparingInt(FilmId.KEY));
+        assertTranslated(Comparator.comparing(Rating.KEY));
+        assertTranslated(Comparator.comparing((Function<Film, String> & Serializable) Film::getDescription));
+    }
+
+    @Test
+    void keyComparator() {
+        assertTranslated(Comparator.comparing(Title.KEY, Comparator.naturalOrder()));
+        assertTranslated(Comparator.comparing(Title.KEY, Comparator.reverseOrder()));
+    }
+
+    @Test
+    void reversed() {
+        assertTranslated(Comparator.comparing(Title.KEY).reversed());
+        assertTranslated(Comparator.comparing(Length.KEY).thenComparing(Title.KEY).reversed());
+    }
+
+    @Test
+    void thenComparing() {
+        final Comparator<Film> comparator = Comparator.comparing(Length.KEY).thenComparing(Title.KEY);
+
+        assertTranslated(comparator);
+        assertTrue(argument(translated(comparator)) instanceof CombinedComparator);
+        assertTranslated(Comparator.comparing(Length.KEY).thenComparing(Film$.rating.comparator().reversed()));
+        assertTranslated(Comparator.comparing(Length.KEY).reversed().thenComparingInt(FilmId.KEY));
+    }
+
+    @Test
+    void map() {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createSorted(Comparator.comparing(Title.KEY)));
+        pipeline.intermediateOperations().add(operationFactory.createMap(Title.KEY));
+
+        translateMethodReferences.optimize(pipeline);
+
+        assertTrue(pipeline.intermediateOperations().getFirst().arguments()[0] instanceof FieldComparator);
+        assertSame(Film$.title, pipeline.intermediateOperations().getLast().arguments()[0]);
+    }
+
+    @Test
+    void untranslatable() {
+        assertUnchanged(Untranslatable.LOWER_CASE_TITLE);
+        assertUnchanged(Untranslatable.TITLE_LENGTH);
+        assertUnchanged(Comparator.comparing(Film::getTitle, String.CASE_INSENSITIVE_ORDER));
+        assertUnchanged(Comparator.comparing(Film::getTitle, String.CASE_INSENSITIVE_ORDER).thenComparing(Film::getLength));
+    }
+
+    @Test
+    void ambiguous() {
+        assertUnchanged(Comparator.comparing(Ambiguous.TITLE));
+        assertUnchanged(Comparator.comparing(Ambiguous.RATING));
+    }
+
+    @Test
+    void residual() {
+        final Comparator<Film> comparator = Comparator.comparing(Length.KEY).thenComparing(Untranslatable.TITLE_LENGTH);
+        final Object translated = argument(translated(comparator));
+
+        assertTrue(translated instanceof ResidualComparator, "Not translated: " + translated);
+        @SuppressWarnings("unchecked")
+        final ResidualComparator<Film> residualComparator = (ResidualComparator<Film>) translated;
+        assertEquals(sort(comparator), sort(residualComparator));
+        assertEquals(sort(comparator.reversed()), sort(residualComparator.reversed()));
+        assertEquals(1, residualComparator.leading().size());
+        assertSame(Untranslatable.TITLE_LENGTH, residualComparator.residual());
+    }
+
+    private void assertTranslated(final Comparator<Film> comparator) {
+        final Object translated = argument(translated(comparator));
+
+        assertTrue(translated instanceof FieldComparator || translated instanceof CombinedComparator, "Not translated: " + translated);
+        @SuppressWarnings("unchecked")
+        final Comparator<Film> translatedComparator = (Comparator<Film>) translated;
+        assertEquals(sort(comparator), sort(translatedComparator));
+    }
+
+    private void assertUnchanged(final Comparator<Film> comparator) {
+        assertSame(comparator, argument(translated(comparator)));
+    }
+
+    private Pipeline<Film> translated(final Comparator<Film> comparator) {
+        final Pipeline<Film> pipeline = sortedPipeline(comparator);
+        translateMethodReferences.optimize(pipeline);
+        return pipeline;
+    }
+
+    private Pipeline<Film> sortedPipeline(final Comparator<Film> comparator) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createSorted(comparator));
+        return pipeline;
+    }
+
+    private Object argument(final Pipeline<Film> pipeline) {
+        return pipeline.intermediateOperations().getFirst().arguments()[0];
+    }
+
+    private List<Short> sort(final Comparator<Film> comparator) {
+        return films.stream()
+            .sorted(comparator)
+            .map(Film::getFilmId)
+            .collect(Collectors.toList());
+    }
+
+    private static Film film(final int filmId, final String title, final String rating, final int length) {
+        final Film film = new Film((short) filmId, title, title.toLowerCase());
+        film.setRating(rating);
+        film.setLength((short) length);
+        return film;
+    }
+
+    // Key extractors that do not only invoke a getter, declared in a separate class
+    private static final class Untranslatable {
+
+        private static final Comparator<Film> LOWER_CASE_TITLE = Comparator.comparing(f -> f.getTitle().toLowerCase());
+        private static final Comparator<Film> TITLE_LENGTH = Comparator.comparingInt(f -> f.getTitle().length());
+    }
+
+    // Non-serializable key extractors are resolved from the call sites of the class declaring them,
+    // so each getter is declared in a class of its own
+    private static final class Title {
+
+        private static final Function<Film, String> KEY = Film::getTitle;
+    }
+
+    private static final class Length {
+
+        private static final Function<Film, Short> KEY = Film::getLength;
+    }
+
+    private static final class FilmId {
+
+        private static final ToIntFunction<Film> KEY = Film::getFilmId;
+    }
+
+    private static final class Rating {
+
+        private static final Function<Film, String> KEY = f -> f.getRating();
+    }
+
+    // Key extractors of the same functional interface invoking different getters
+    private static final class Ambiguous {
+
+        private static final Function<Film, String> TITLE = Film::getTitle;
+        private static final Function<Film, String> RATING = Film::getRating;
+    }
+
+}
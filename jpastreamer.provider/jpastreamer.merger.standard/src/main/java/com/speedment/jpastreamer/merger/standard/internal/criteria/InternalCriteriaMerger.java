@@ -21,6 +21,7 @@ import com.speedment.jpastreamer.merger.CriteriaMerger;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.result.InternalCriteriaMergeResult;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.DistinctCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.FilterCriteriaModifier;
+import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.MapCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.CriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.criteria.strategy.SortedCriteriaModifier;
 import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
@@ -39,6 +40,7 @@ public final class InternalCriteriaMerger implements CriteriaMerger {
         registerMergingStrategy(FILTER, FilterCriteriaModifier.INSTANCE);
         registerMergingStrategy(DISTINCT, DistinctCriteriaModifier.INSTANCE);
         registerMergingStrategy(SORTED, SortedCriteriaModifier.INSTANCE);
+        registerMergingStrategy(MAP, MapCriteriaModifier.INSTANCE);
     }
 
     @Override
@@ -77,9 +79,17 @@ public final class InternalCriteriaMerger implements CriteriaMerger {
                 // as that risks changing the order in which the operations are applied
                 break;
             }
+
+            if (operationType == MAP) {
+                // The operations following a merged map operation are applied to the selected column values
+                break;
+            }
             
         }
 
+        mergingTracker.forReplacement()
+            .forEach((idx, replacement) -> intermediateOperations.set(idx, replacement));
+
         mergingTracker.forRemoval()
             .stream()
             .sorted(Comparator.reverseOrder())
@@ -0,0 +1,159 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.criteria.strategy;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.*;
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.common.function.ToBooleanFunction;
+import com.speedment.common.function.ToByteFunction;
+import com.speedment.common.function.ToCharFunction;
+import com.speedment.common.function.ToFloatFunction;
+import com.speedment.common.function.ToShortFunction;
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.expression.FieldMapper;
+import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
+import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+public enum MapCriteriaModifier implements CriteriaModifier {
+
+    INSTANCE;
+
+    private final IntermediateOperationFactory intermediateOperationFactory;
+
+    MapCriteriaModifier() {
+        this.intermediateOperationFactory = RootFactory.getOrThrow(IntermediateOperationFactory.class, ServiceLoader::load);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ENTITY> void modifyCriteria(
+        final IntermediateOperationReference operationReference,
+        final Criteria<ENTITY, ?> criteria,
+        final MergingTracker mergingTracker
+    ) {
+        requireNonNull(operationReference);
+        requireNonNull(criteria);
+        requireNonNull(mergingTracker);
+
+        final IntermediateOperation<?, ?> operation = operationReference.get();
+
+        final IntermediateOperationType operationType = operation.type();
+
+        if (operationType != MAP || operation.arguments().length != 1) {
+            return;
+        }
+
+        // The selection can only be replaced if all preceding operations were merged
+        for (int i = 0; i < operationReference.index(); i++) {
+            if (!mergingTracker.forRemoval().contains(i)) {
+                return;
+            }
+        }
+
+        // Distinct entities may have equal column values and fetched associations require the entity to be selected
+        if (criteria.getQuery().isDistinct() || !criteria.getRoot().getFetches().isEmpty()) {
+            return;
+        }
+
+        final Object mapper = operation.arguments()[0];
+
+        final Field<ENTITY> field;
+        final Optional<Function<Object, Object>> valueFunction;
+        if (mapper instanceof Field) {
+            field = (Field<ENTITY>) mapper;
+            valueFunction = Optional.empty();
+        } else if (mapper instanceof FieldMapper) {
+            field = ((FieldMapper<ENTITY, ?, ?, ?, ?>) mapper).getField();
+            valueFunction = valueFunction(((FieldMapper<?, ?, ?, ?, ?>) mapper).getMapper());
+            if (!valueFunction.isPresent()) {
+                return;
+            }
+        } else {
+            return;
+        }
+
+        if (!isSingularAttribute(criteria, field.columnName())) {
+            return;
+        }
+
+        ((CriteriaQuery<Object>) criteria.getQuery()).select(criteria.getRoot().get(field.columnName()));
+
+        if (valueFunction.isPresent()) {
+            // The selected column values still need to be mapped, null values are retained as by FieldMapper
+            final Function<Object, Object> function = valueFunction.get();
+            final Function<Object, Object> nullableFunction = value -> value == null ? null : function.apply(value);
+            mergingTracker.markForReplacement(operationReference.index(), intermediateOperationFactory.createMap(nullableFunction));
+        } else {
+            mergingTracker.markForRemoval(operationReference.index());
+        }
+
+        mergingTracker.markAsMerged(operationType);
+    }
+
+    private static boolean isSingularAttribute(final Criteria<?, ?> criteria, final String attributeName) {
+        try {
+            final Attribute<?, ?> attribute = criteria.getRoot().getModel().getAttribute(attributeName);
+            return !attribute.isCollection();
+        } catch (IllegalArgumentException e) {
+            // The attribute is not known by the metamodel
+            return false;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Optional<Function<Object, Object>> valueFunction(final Object mapper) {
+        if (mapper instanceof ToIntFunction) {
+            return Optional.of(((ToIntFunction) mapper)::applyAsInt);
+        }
+        if (mapper instanceof ToLongFunction) {
+            return Optional.of(((ToLongFunction) mapper)::applyAsLong);
+        }
+        if (mapper instanceof ToDoubleFunction) {
+            return Optional.of(((ToDoubleFunction) mapper)::applyAsDouble);
+        }
+        if (mapper instanceof ToFloatFunction) {
+            return Optional.of(((ToFloatFunction) mapper)::applyAsFloat);
+        }
+        if (mapper instanceof ToShortFunction) {
+            return Optional.of(((ToShortFunction) mapper)::applyAsShort);
+        }
+        if (mapper instanceof ToByteFunction) {
+            return Optional.of(((ToByteFunction) mapper)::applyAsByte);
+        }
+        if (mapper instanceof ToCharFunction) {
+            return Optional.of(((ToCharFunction) mapper)::applyAsChar);
+        }
+        if (mapper instanceof ToBooleanFunction) {
+            return Optional.of(((ToBooleanFunction) mapper)::applyAsBoolean);
+        }
+        if (mapper instanceof Function) {
+            return Optional.of((Function<Object, Object>) mapper);
+        }
+        return Optional.empty();
+    }
+}
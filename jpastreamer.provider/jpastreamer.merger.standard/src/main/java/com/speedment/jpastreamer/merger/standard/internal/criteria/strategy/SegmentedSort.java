@@ -0,0 +1,143 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.merger.standard.internal.criteria.strategy;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sorted operation applied to a stream that is already ordered by the
+ * leading comparator of a {@link ResidualComparator}, i.e. by the ordering of
+ * the query. Only the runs of entities that are equal according to the
+ * leading comparator are sorted, one at a time, using the residual
+ * comparator. Hence, at most one run is held in memory rather than the whole
+ * stream.
+ *
+ * @param <T> the entity type
+ */
+final class SegmentedSort<T> implements IntermediateOperation<Stream<T>, Stream<T>> {
+
+    private final ResidualComparator<T> comparator;
+
+    SegmentedSort(final ResidualComparator<T> comparator) {
+        this.comparator = requireNonNull(comparator);
+    }
+
+    @Override
+    public IntermediateOperationType type() {
+        return IntermediateOperationType.SORTED;
+    }
+
+    @Override
+    public Class<? super Stream<T>> streamType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Class<? super Stream<T>> returnType() {
+        return Stream.class;
+    }
+
+    @Override
+    public Function<Stream<T>, Stream<T>> function() {
+        return stream -> StreamSupport.stream(
+                new SegmentedSpliterator<>(stream.spliterator(), comparator.leading(), comparator.residual()),
+                stream.isParallel()
+            ).onClose(stream::close);
+    }
+
+    @Override
+    public Object[] arguments() {
+        return new Object[]{comparator};
+    }
+
+    @Override
+    public String toString() {
+        return "SORTED(" + comparator + ")";
+    }
+
+    private static final class SegmentedSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> source;
+        private final Comparator<? super T> leading;
+        private final Comparator<? super T> residual;
+
+        private final List<T> run = new ArrayList<>();
+        private int position;
+        // The first element of the next run, if already read
+        private T next;
+        private boolean hasNext;
+
+        private SegmentedSpliterator(
+            final Spliterator<T> source,
+            final Comparator<? super T> leading,
+            final Comparator<? super T> residual
+        ) {
+            super(source.estimateSize(), ORDERED | (source.characteristics() & SIZED));
+            this.source = source;
+            this.leading = leading;
+            this.residual = residual;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (position == run.size() && !nextRun()) {
+                return false;
+            }
+            action.accept(run.get(position++));
+            return true;
+        }
+
+        private boolean nextRun() {
+            run.clear();
+            position = 0;
+            if (hasNext) {
+                run.add(next);
+                hasNext = false;
+            } else if (!source.tryAdvance(run::add)) {
+                return false;
+            }
+            // Reads until the first element of the next run
+            while (!hasNext) {
+                if (!source.tryAdvance(this::accept)) {
+                    break;
+                }
+            }
+            run.sort(residual);
+            return true;
+        }
+
+        private void accept(final T element) {
+            if (leading.compare(run.get(0), element) == 0) {
+                run.add(element);
+            } else {
+                next = element;
+                hasNext = true;
+            }
+        }
+    }
+
+}
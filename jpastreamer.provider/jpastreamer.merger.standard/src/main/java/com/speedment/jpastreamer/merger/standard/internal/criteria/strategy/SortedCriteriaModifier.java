@@ -18,6 +18,7 @@ import static java.util.Objects.requireNonNull;
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.OrderFactory;
 import com.speedment.jpastreamer.exception.JPAStreamerException;
+import com.speedment.jpastreamer.field.comparator.ResidualComparator;
 import com.speedment.jpastreamer.merger.standard.internal.reference.IntermediateOperationReference;
 import com.speedment.jpastreamer.merger.standard.internal.tracker.MergingTracker;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
@@ -59,13 +60,34 @@ public enum SortedCriteriaModifier implements CriteriaModifier {
 
         final IntermediateOperationType operationType = operation.type();
 
-        if (operationType != SORTED) {
+        if (operationType != SORTED || operation instanceof SegmentedSort) {
             return;
         }
 
         final Optional<Comparator<ENTITY>> optionalComparator = getComparator(operation);
 
-        if (optionalComparator.isPresent()) {
+        if (optionalComparator.isPresent() && optionalComparator.get() instanceof ResidualComparator) {
+            final ResidualComparator<ENTITY> comparator = (ResidualComparator<ENTITY>) optionalComparator.get();
+            final List<Order> orders;
+
+            try {
+                orders = orderFactory.createOrder(criteria, comparator.leading());
+            } catch (JPAStreamerException e) {
+                return;
+            }
+
+            final List<Order> previousOrders = new ArrayList<>(criteria.getQuery().getOrderList());
+            previousOrders.addAll(orders);
+
+            criteria.getQuery().orderBy(previousOrders);
+
+            /*
+             * Only the leading comparator is merged. The entities that are equal according to it
+             * are sorted in memory, so the operation is replaced rather than marked as merged and
+             * the following operations cannot be merged.
+             * */
+            mergingTracker.markForReplacement(operationReference.index(), new SegmentedSort<>(comparator));
+        } else if (optionalComparator.isPresent()) {
             final List<Order> orders;
 
             try {
@@ -92,7 +114,8 @@ public enum SortedCriteriaModifier implements CriteriaModifier {
             });
 
             mergingTracker.markForRemoval(operationReference.index());
-        } else {
+        } else if (operation.arguments().length == 0) {
+            // Stream::sorted without a comparator, as opposed to e.g. a sorted operation fused with a limit
             final EntityType<ENTITY> entityType = criteria.getRoot().getModel();
 
             entityType.getDeclaredSingularAttributes().stream()
@@ -12,8 +12,10 @@
  */
 package com.speedment.jpastreamer.merger.standard.internal.tracker;
 
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,6 +58,24 @@ public interface MergingTracker {
      */
     void markForRemoval(int idx);
 
+    /**
+     * Returns a {@code Map} from indices of operations that should be replaced
+     * after the merge cycle is finished to the operations replacing them.
+     *
+     * @return {@code Map} from indices of operations to their replacements
+     */
+    Map<Integer, IntermediateOperation<?, ?>> forReplacement();
+
+    /**
+     * Marks a specific operation for replacement by the provided {@code operation}.
+     * This is used when a merge changes the type of the elements that the
+     * operation is applied to.
+     *
+     * @param idx to be marked for replacement
+     * @param operation to replace the operation with
+     */
+    void markForReplacement(int idx, IntermediateOperation<?, ?> operation);
+
     /**
      * Creates and returns a new {@code MergingTracker} instance.
      *
@@ -2,6 +2,7 @@ import com.speedment.jpastreamer.criteria.OrderFactory;
 import com.speedment.jpastreamer.criteria.PredicateFactory;
 import com.speedment.jpastreamer.merger.MergerFactory;
 import com.speedment.jpastreamer.merger.standard.StandardMergerFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
 
 /*
  * JPAstreamer - Express JPA queries with Java Streams
@@ -23,6 +24,7 @@ module jpastreamer.merger.standard {
     
     uses PredicateFactory;
     uses OrderFactory;
+    uses IntermediateOperationFactory;
     
     provides MergerFactory with StandardMergerFactory;
 
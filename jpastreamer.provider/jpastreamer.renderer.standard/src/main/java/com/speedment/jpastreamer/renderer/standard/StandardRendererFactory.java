@@ -14,6 +14,7 @@ package com.speedment.jpastreamer.renderer.standard;
 
 import com.speedment.jpastreamer.renderer.Renderer;
 import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.renderer.RendererOptions;
 import com.speedment.jpastreamer.renderer.standard.internal.InternalRendererFactory;
 
 import jakarta.persistence.EntityManager;
@@ -35,6 +36,11 @@ public final class StandardRendererFactory implements RendererFactory {
         return delegate.createRenderer(entityManagerSupplier);
     }
 
+    @Override
+    public Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererOptions options) {
+        return delegate.createRenderer(entityManagerSupplier, options);
+    }
+
     public Renderer createRenderer(final EntityManager entityManager) {
         return delegate.createRenderer(entityManager);
     }
@@ -0,0 +1,91 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.renderer.Acceleration;
+import com.speedment.jpastreamer.renderer.RenderResult;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Serves a pipeline from the in-memory store of its entity class (see
+ * {@link ColumnStore}). The leading field predicates are evaluated
+ * column-wise by the store, all other operations are applied to the stream
+ * of matching entities.
+ */
+final class AcceleratedExecution {
+
+    private AcceleratedExecution() {}
+
+    /**
+     * Streams the entities of the provided {@code pipeline} from memory.
+     *
+     * @param acceleration of the entity class of the {@code pipeline}
+     * @param entityManagerSupplier to obtain an entity manager to load the entities with
+     * @param concurrencyLimit of which a permit is held while loading the entities or {@code null}
+     * @param pipeline to render
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    @SuppressWarnings("unchecked")
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final Acceleration acceleration,
+        final Supplier<EntityManager> entityManagerSupplier,
+        final Semaphore concurrencyLimit,
+        final Pipeline<E> pipeline
+    ) {
+        final ColumnStore.Snapshot<E> snapshot = ColumnStore.of(acceleration, pipeline.root())
+                .snapshot(entityManagerSupplier, concurrencyLimit, acceleration);
+
+        final List<FieldPredicate<E>> predicates = new ArrayList<>();
+        final Iterator<IntermediateOperation<?, ?>> operations = pipeline.intermediateOperations().iterator();
+        while (operations.hasNext()) {
+            final IntermediateOperation<?, ?> operation = operations.next();
+            final Optional<SpeedmentPredicate<E>> predicate = Pipelines.predicate(operation);
+            if (operation.type() != FILTER || !predicate.isPresent()) {
+                break;
+            }
+            // A conjunction left by the filter merge is evaluated term by term, terms that are not
+            // field predicates leave the filter to be applied to the matching entities
+            final List<Object> terms = Pipelines.conjuncts(predicate.get());
+            terms.stream()
+                    .filter(FieldPredicate.class::isInstance)
+                    .forEach(term -> predicates.add((FieldPredicate<E>) term));
+            if (!terms.stream().allMatch(FieldPredicate.class::isInstance)) {
+                break;
+            }
+            operations.remove();
+        }
+
+        final Stream<E> matches = snapshot.stream(predicates, acceleration);
+        return Pipelines.renderResult(pipeline, pipeline.isParallel() ? matches.parallel() : matches);
+    }
+
+}
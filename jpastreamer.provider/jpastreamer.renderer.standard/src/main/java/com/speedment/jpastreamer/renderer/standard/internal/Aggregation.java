@@ -0,0 +1,198 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.MAP_TO;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.AVERAGE;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.MAX;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.MIN;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.SUMMARY_STATISTICS;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.SUM_DOUBLE;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.SUM_INT;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.SUM_LONG;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.renderer.RenderResult;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.EnumSet;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Support for pipelines that map entities to a numeric field and then reduce
+ * the field values using {@code sum()}, {@code min()}, {@code max()},
+ * {@code average()} or {@code summaryStatistics()}. Such pipelines can be
+ * rendered as a single query selecting the count of non-null values, sum, min
+ * and max of the column.
+ */
+final class Aggregation {
+
+    private static final Set<TerminalOperationType> AGGREGATE_TYPES =
+        EnumSet.of(SUM_INT, SUM_LONG, SUM_DOUBLE, MIN, MAX, AVERAGE, SUMMARY_STATISTICS);
+
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MINIMUM = 2;
+    private static final int MAXIMUM = 3;
+
+    private Aggregation() {}
+
+    /**
+     * Returns the field that is aggregated by the provided {@code pipeline}, or
+     * {@link Optional#empty()} if the remaining operations of the pipeline cannot
+     * be expressed as an aggregate selection.
+     *
+     * @param pipeline to examine
+     * @param <E> the entity type
+     * @return the field that is aggregated by the provided {@code pipeline}
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Optional<Field<E>> aggregatedField(final Pipeline<E> pipeline) {
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+        if (!AGGREGATE_TYPES.contains(terminalOperation.type()) || terminalOperation.arguments().length != 0) {
+            return Optional.empty();
+        }
+
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        if (intermediateOperations.size() != 1) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> operation = intermediateOperations.get(0);
+        if (operation.type() != MAP_TO || operation.arguments().length != 1) {
+            return Optional.empty();
+        }
+
+        final Object mapper = operation.arguments()[0];
+        final Class<?> returnType = operation.returnType();
+        if ((returnType == IntStream.class && mapper instanceof IntField)
+            || (returnType == LongStream.class && mapper instanceof LongField)
+            || (returnType == DoubleStream.class && mapper instanceof DoubleField)) {
+            return Optional.of((Field<E>) mapper);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Creates a {@link RenderResult} that produces the result of the terminal
+     * operation of the provided {@code pipeline} given the aggregates selected
+     * for the aggregated field.
+     *
+     * @param pipeline that was rendered
+     * @param row of aggregates in the order count, sum, min and max
+     * @param terminalOperationFactory used to create terminal operations returning a constant
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} that produces the result of the terminal operation
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderResult(
+        final Pipeline<E> pipeline,
+        final Object[] row,
+        final TerminalOperationFactory terminalOperationFactory
+    ) {
+        final Class<?> streamType = pipeline.intermediateOperations().get(0).returnType();
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+
+        final long count = row[COUNT] == null ? 0 : ((Number) row[COUNT]).longValue();
+        final Number sum = count == 0 ? 0 : (Number) row[SUM];
+        final Number min = (Number) row[MINIMUM];
+        final Number max = (Number) row[MAXIMUM];
+
+        switch (terminalOperation.type()) {
+            case SUM_INT:
+                return new StandardRenderResult(pipeline.root(), IntStream.of(sum.intValue()), terminalOperation);
+            case SUM_LONG:
+                return new StandardRenderResult(pipeline.root(), LongStream.of(sum.longValue()), terminalOperation);
+            case SUM_DOUBLE:
+                return new StandardRenderResult(pipeline.root(), DoubleStream.of(sum.doubleValue()), terminalOperation);
+            case MIN:
+                return new StandardRenderResult(pipeline.root(), streamOf(streamType, count == 0 ? null : min), terminalOperation);
+            case MAX:
+                return new StandardRenderResult(pipeline.root(), streamOf(streamType, count == 0 ? null : max), terminalOperation);
+            case AVERAGE:
+                return constant(pipeline, count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum.doubleValue() / count), terminalOperationFactory);
+            case SUMMARY_STATISTICS:
+                return constant(pipeline, summaryStatistics(streamType, count, sum, min, max), terminalOperationFactory);
+            default:
+                throw new IllegalStateException("Terminal operation " + terminalOperation.type() + " is not an aggregate");
+        }
+    }
+
+    private static BaseStream<?, ?> streamOf(final Class<?> streamType, final Number value) {
+        if (streamType == IntStream.class) {
+            return value == null ? IntStream.empty() : IntStream.of(value.intValue());
+        }
+        if (streamType == LongStream.class) {
+            return value == null ? LongStream.empty() : LongStream.of(value.longValue());
+        }
+        return value == null ? DoubleStream.empty() : DoubleStream.of(value.doubleValue());
+    }
+
+    private static Object summaryStatistics(
+        final Class<?> streamType,
+        final long count,
+        final Number sum,
+        final Number min,
+        final Number max
+    ) {
+        if (count == 0) {
+            if (streamType == IntStream.class) {
+                return new IntSummaryStatistics();
+            }
+            return streamType == LongStream.class ? new LongSummaryStatistics() : new DoubleSummaryStatistics();
+        }
+        if (streamType == IntStream.class) {
+            return new IntSummaryStatistics(count, min.intValue(), max.intValue(), sum.longValue());
+        }
+        if (streamType == LongStream.class) {
+            return new LongSummaryStatistics(count, min.longValue(), max.longValue(), sum.longValue());
+        }
+        return new DoubleSummaryStatistics(count, min.doubleValue(), max.doubleValue(), sum.doubleValue());
+    }
+
+    /*
+     * The builder applies the terminal operation of the RenderResult to its stream. Collecting an
+     * empty stream with a supplier of the precomputed result yields that result.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> constant(
+        final Pipeline<E> pipeline,
+        final Object result,
+        final TerminalOperationFactory terminalOperationFactory
+    ) {
+        final TerminalOperation<Stream<Object>, Object> terminalOperation =
+            terminalOperationFactory.createCollect(() -> result, (r, t) -> { }, (r1, r2) -> { });
+        return new StandardRenderResult(pipeline.root(), Stream.empty(), terminalOperation);
+    }
+}
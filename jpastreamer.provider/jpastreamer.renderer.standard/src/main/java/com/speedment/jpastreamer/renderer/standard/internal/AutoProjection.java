@@ -0,0 +1,251 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.expression.FieldMapper;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.projection.Projection;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Metamodel;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Derives a {@link Projection} from the fields that are read by the operations
+ * that remain in a {@link Pipeline} after merging. A projection is only derived
+ * if it can be proven that no other attributes of the entities are read, and if
+ * the entity declares a public constructor accepting exactly the read attributes.
+ * As the parameters of the constructor are matched by name, the entity must be
+ * compiled with {@code -parameters}.
+ * <p>
+ * The derivation is opt-in and enabled by setting the system property
+ * {@value #ENABLED_PROPERTY} to {@code true}.
+ */
+final class AutoProjection {
+
+    static final String ENABLED_PROPERTY = "jpastreamer.renderer.projection.auto";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private AutoProjection() {}
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns a {@link Projection} selecting the fields read by the provided
+     * {@code pipeline}, or {@link Optional#empty()} if no such projection can
+     * be derived.
+     *
+     * @param pipeline to examine
+     * @param metamodel used to look up the types of the attributes
+     * @param <E> the entity type
+     * @return a {@link Projection} selecting the fields read by the provided {@code pipeline}
+     */
+    static <E> Optional<Projection<E>> of(final Pipeline<E> pipeline, final Metamodel metamodel) {
+        final Map<String, Field<E>> fields = new LinkedHashMap<>();
+        if (!collectFields(pipeline, fields) || fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Map<String, Class<?>> types = new LinkedHashMap<>();
+        for (String attributeName : fields.keySet()) {
+            final Attribute<?, ?> attribute;
+            try {
+                attribute = metamodel.entity(pipeline.root()).getAttribute(attributeName);
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            if (attribute.isCollection() || attribute.isAssociation()) {
+                return Optional.empty();
+            }
+            types.put(attributeName, attribute.getJavaType());
+        }
+
+        return Arrays.stream(pipeline.root().getConstructors())
+            .filter(constructor -> constructor.getParameterCount() == fields.size())
+            .map(constructor -> parameterOrder(constructor, types))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .findFirst()
+            .map(order -> select(order, fields));
+    }
+
+    /*
+     * Returns false if the pipeline may read attributes other than those of the collected fields.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> boolean collectFields(final Pipeline<E> pipeline, final Map<String, Field<E>> fields) {
+        for (IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            final Object[] arguments = operation.arguments();
+            switch (operation.type()) {
+                case SKIP:
+                case LIMIT:
+                    break;
+                case FILTER:
+                case SORTED:
+                    if (arguments.length != 1 || !collectFields(arguments[0], fields)) {
+                        return false;
+                    }
+                    break;
+                case MAP:
+                case MAP_TO:
+                    if (arguments.length != 1) {
+                        return false;
+                    }
+                    if (arguments[0] instanceof Field) {
+                        addField(fields, (Field<E>) arguments[0]);
+                    } else if (arguments[0] instanceof FieldMapper) {
+                        addField(fields, ((FieldMapper<E, ?, ?, ?, ?>) arguments[0]).getField());
+                    } else {
+                        return false;
+                    }
+                    // The following operations are applied to the mapped values rather than the entities
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+        final Object[] arguments = terminalOperation.arguments();
+        switch (terminalOperation.type()) {
+            case COUNT:
+                return true;
+            case ANY_MATCH:
+            case ALL_MATCH:
+            case NONE_MATCH:
+                return arguments.length == 1 && collectFields(arguments[0], fields);
+            case COLLECT:
+                if (arguments.length != 1 || !(arguments[0] instanceof GroupingCollector)) {
+                    return false;
+                }
+                final GroupingCollector<E, ?, ?> groupingCollector = (GroupingCollector<E, ?, ?>) arguments[0];
+                if (!(groupingCollector.getDownstream() instanceof AggregateCollector)) {
+                    return false;
+                }
+                addField(fields, groupingCollector.getField());
+                ((AggregateCollector<E, ?, ?>) groupingCollector.getDownstream()).getField()
+                    .ifPresent(field -> addField(fields, field));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> boolean collectFields(final Object argument, final Map<String, Field<E>> fields) {
+        if (argument instanceof FieldPredicate) {
+            addField(fields, ((FieldPredicate<E>) argument).getField());
+            return true;
+        }
+        if (argument instanceof CombinedPredicate) {
+            return ((CombinedPredicate<E>) argument).stream()
+                .allMatch(predicate -> collectFields(predicate, fields));
+        }
+        if (argument instanceof FieldComparator) {
+            addField(fields, ((FieldComparator<E>) argument).getField());
+            return true;
+        }
+        if (argument instanceof CombinedComparator) {
+            return ((CombinedComparator<E>) argument).stream()
+                .allMatch(comparator -> collectFields(comparator, fields));
+        }
+        return false;
+    }
+
+    private static <E> void addField(final Map<String, Field<E>> fields, final Field<E> field) {
+        fields.putIfAbsent(field.columnName(), field);
+    }
+
+    /*
+     * Returns the attribute names in the order of the parameters of the provided constructor. Parameters are
+     * matched by the names retained by the compiler, and a parameter named after no read attribute rules out the
+     * constructor. Constructors compiled without parameter names are never used as a matching type does not prove
+     * that a parameter holds the attribute.
+     */
+    private static Optional<List<String>> parameterOrder(final Constructor<?> constructor, final Map<String, Class<?>> types) {
+        if (!Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+            return Optional.empty();
+        }
+
+        final List<String> order = new ArrayList<>();
+        for (Parameter parameter : constructor.getParameters()) {
+            if (!parameter.isNamePresent()) {
+                return Optional.empty();
+            }
+            final Class<?> type = types.get(parameter.getName());
+            if (type == null || wrap(type) != wrap(parameter.getType()) || order.contains(parameter.getName())) {
+                return Optional.empty();
+            }
+            order.add(parameter.getName());
+        }
+        return Optional.of(order);
+    }
+
+    private static <E> Projection<E> select(final List<String> order, final Map<String, Field<E>> fields) {
+        @SuppressWarnings("unchecked")
+        final Field<E>[] other = order.stream().skip(1).map(fields::get).toArray(Field[]::new);
+        return Projection.select(fields.get(order.get(0)), other);
+    }
+
+    private static Class<?> wrap(final Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        return type;
+    }
+}
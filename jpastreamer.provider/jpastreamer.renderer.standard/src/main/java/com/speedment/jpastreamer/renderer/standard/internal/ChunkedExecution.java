@@ -0,0 +1,136 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.merger.QueryMerger;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.BaseStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Serves a pipeline of a chunked {@link StreamConfiguration} by reading its
+ * elements in chunks (see {@link Chunks}), either by key ranges or, if the
+ * elements are ordered by other columns than the key, by offsets.
+ */
+final class ChunkedExecution {
+
+    private ChunkedExecution() {}
+
+    /**
+     * Reads the elements of the provided {@code criteria} in chunks.
+     *
+     * @param criteriaFactory to create the criteria of the key range queries with
+     * @param predicateFactory to render the merged filter of the key range queries with
+     * @param queryMerger to merge skip and limit into the first query with
+     * @param entityManager to execute the queries with
+     * @param pipeline to render
+     * @param streamConfiguration holding the chunk configuration, the joins and the hints to apply
+     * @param criteria into which the pipeline was merged
+     * @param mergedFilters the filters that were merged into the {@code criteria}
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final CriteriaFactory criteriaFactory,
+        final PredicateFactory predicateFactory,
+        final QueryMerger queryMerger,
+        final EntityManager entityManager,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Criteria<E, Object> criteria,
+        final List<IntermediateOperation<?, ?>> mergedFilters
+    ) {
+        final StreamConfiguration.ChunkConfiguration<E> chunking = streamConfiguration.chunking().orElseThrow();
+
+        // Neither key ranges nor offsets are stable if several elements share a key
+        if (!chunking.key().isUnique() && !isId(entityManager, pipeline.root(), chunking.key())) {
+            throw new IllegalStateException("The chunk key " + chunking.key().columnName() + " of " + pipeline.root().getSimpleName() + " is neither unique nor the id");
+        }
+
+        final CriteriaQuery<Object> query = criteria.getQuery();
+        final boolean entities = query.getSelection() == criteria.getRoot();
+
+        // Key ranges can only be used if the elements are ordered by the key alone and the key can be read from the elements
+        final boolean keyRanges = query.getOrderList().isEmpty() && entities;
+
+        // The key makes the order total so that offsets are stable between chunks
+        final List<Order> orders = new ArrayList<>(query.getOrderList());
+        orders.add(criteria.getBuilder().asc(criteria.getRoot().get(chunking.key().columnName())));
+        query.orderBy(orders);
+
+        final TypedQuery<Object> first = Queries.create(entityManager, query, criteria.getQueryParameters(), streamConfiguration);
+
+        // Skip and limit are rendered into the first query and observed by Chunks
+        queryMerger.merge(pipeline, first);
+
+        final Chunks<Object> chunks;
+        if (keyRanges) {
+            final Criteria<E, Object> seekCriteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Object.class);
+            seekCriteria.getRoot().alias(criteria.getRoot().getAlias());
+
+            streamConfiguration.joins()
+                    .forEach(joinConfiguration -> seekCriteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType()));
+
+            Queries.applyFilter(predicateFactory, seekCriteria, mergedFilters);
+
+            final CriteriaBuilder builder = seekCriteria.getBuilder();
+            final Expression<Comparable> key = seekCriteria.getRoot().get(chunking.key().columnName());
+            final ParameterExpression<Comparable> seekParameter = builder.parameter((Class<Comparable>) MethodType.methodType(key.getJavaType()).wrap().returnType());
+            final Predicate seek = builder.greaterThan(key, seekParameter);
+            final Predicate restriction = seekCriteria.getQuery().getRestriction();
+
+            seekCriteria.getQuery()
+                    .select(seekCriteria.getRoot())
+                    .distinct(query.isDistinct())
+                    .where(restriction == null ? seek : builder.and(restriction, seek))
+                    .orderBy(builder.asc(key));
+
+            final TypedQuery<Object> seekQuery = Queries.create(entityManager, seekCriteria.getQuery(), seekCriteria.getQueryParameters(), streamConfiguration);
+
+            chunks = new Chunks<>(entityManager, first, seekQuery, (ParameterExpression) seekParameter, element -> chunking.key().getter().apply((E) element), chunking.chunkSize(), true);
+        } else {
+            chunks = new Chunks<>(entityManager, first, null, null, null, chunking.chunkSize(), entities);
+        }
+
+        return Pipelines.renderResult(pipeline, StreamSupport.stream(chunks, false));
+    }
+
+    private static boolean isId(final EntityManager entityManager, final Class<?> entityClass, final Field<?> field) {
+        return entityManager.getMetamodel().entity(entityClass).getSingularAttributes().stream()
+            .anyMatch(attribute -> attribute.isId() && attribute.getName().equals(field.columnName()));
+    }
+
+}
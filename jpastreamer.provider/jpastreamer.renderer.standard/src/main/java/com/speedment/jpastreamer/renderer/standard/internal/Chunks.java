@@ -0,0 +1,131 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads the result of a query in chunks of at most {@code chunkSize} elements.
+ * If the elements are entities, those of the previous chunk are detached before
+ * each subsequent chunk is read. Other entities of the persistence context are
+ * left managed.
+ * <p>
+ * The first chunk is read using the {@code first} query, observing its first
+ * result and max results. If a {@code seek} query is provided, the following
+ * chunks are read using that query with its parameter bound to the key of the
+ * last element read, i.e. {@code WHERE key > :last ORDER BY key}. Otherwise,
+ * the following chunks are read using the {@code first} query with an offset.
+ *
+ * @param <T> the type of the elements
+ */
+final class Chunks<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final EntityManager entityManager;
+    private final TypedQuery<T> first;
+    private final TypedQuery<T> seek;
+    private final ParameterExpression<Object> seekParameter;
+    private final Function<T, ?> key;
+    private final int chunkSize;
+    private final boolean detach;
+
+    private final long offset;
+    private final long limit;
+
+    private List<T> elements = Collections.emptyList();
+    private Iterator<T> chunk = Collections.emptyIterator();
+    private T last;
+    private long read;
+    private boolean exhausted;
+
+    Chunks(
+        final EntityManager entityManager,
+        final TypedQuery<T> first,
+        final TypedQuery<T> seek,
+        final ParameterExpression<Object> seekParameter,
+        final Function<T, ?> key,
+        final int chunkSize,
+        final boolean detach
+    ) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.entityManager = requireNonNull(entityManager);
+        this.first = requireNonNull(first);
+        this.seek = seek;
+        this.seekParameter = seekParameter;
+        this.key = key;
+        this.chunkSize = chunkSize;
+        this.detach = detach;
+        this.offset = first.getFirstResult();
+        this.limit = first.getMaxResults();
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        if (!chunk.hasNext()) {
+            if (exhausted) {
+                return false;
+            }
+            readChunk();
+            if (!chunk.hasNext()) {
+                return false;
+            }
+        }
+        last = chunk.next();
+        action.accept(last);
+        return true;
+    }
+
+    private void readChunk() {
+        final long remaining = limit - read;
+        if (remaining <= 0) {
+            exhausted = true;
+            return;
+        }
+        final int maxResults = (int) Math.min(chunkSize, remaining);
+
+        final TypedQuery<T> query;
+        if (read == 0) {
+            query = first;
+        } else {
+            // All elements of the previous chunk have been passed downstream
+            if (detach) {
+                elements.forEach(entityManager::detach);
+            }
+            if (seek == null) {
+                query = first;
+                query.setFirstResult((int) Math.min(Integer.MAX_VALUE, offset + read));
+            } else {
+                query = seek;
+                query.setParameter(seekParameter, requireNonNull(key.apply(last), "The key of a chunked element is null"));
+            }
+        }
+        query.setMaxResults(maxResults);
+
+        elements = query.getResultList();
+        read += elements.size();
+        exhausted = elements.size() < maxResults;
+        chunk = elements.iterator();
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.EnumField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Inclusion;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * The values of a single field for all rows of a {@link ColumnStore}.
+ * <p>
+ * Int, long and double fields are held in primitive arrays, all other fields
+ * are dictionary encoded so that a predicate is evaluated once per distinct
+ * value rather than once per row. Just like in the database, a {@code null}
+ * value only satisfies {@code IS_NULL}.
+ *
+ * @param <E> the type of the entities
+ */
+abstract class Column<E> {
+
+    /**
+     * Clears the rows of the provided {@code matches} whose value does not
+     * satisfy the provided {@code predicate}.
+     *
+     * @param predicate over the field of this column
+     * @param rows      the entities of the store
+     * @param matches   the rows that satisfied all preceding predicates
+     */
+    abstract void retain(FieldPredicate<E> predicate, List<E> rows, BitSet matches);
+
+    @SuppressWarnings("unchecked")
+    static <E> Column<E> of(final Field<E> field, final List<E> rows) {
+        if (field instanceof IntField) {
+            return new IntColumn<>((IntField<E>) field, rows);
+        }
+        if (field instanceof LongField) {
+            return new LongColumn<>((LongField<E>) field, rows);
+        }
+        if (field instanceof DoubleField) {
+            return new DoubleColumn<>((DoubleField<E>) field, rows);
+        }
+        if (field instanceof EnumField) {
+            // Seeding the dictionary with the constants makes the codes equal to the ordinals
+            return new DictionaryColumn<>(field, rows, ((EnumField<E, ?>) field).enumClass().getEnumConstants());
+        }
+        return new DictionaryColumn<>(field, rows, new Object[0]);
+    }
+
+    private abstract static class PrimitiveColumn<E> extends Column<E> {
+
+        final BitSet nulls;
+
+        PrimitiveColumn(final int size) {
+            this.nulls = new BitSet(size);
+        }
+
+        abstract int compare(int row, Number operand);
+
+        abstract Object value(int row);
+
+        @Override
+        void retain(final FieldPredicate<E> predicate, final List<E> rows, final BitSet matches) {
+            switch (predicate.getPredicateType()) {
+                case ALWAYS_TRUE:
+                    return;
+                case ALWAYS_FALSE:
+                    matches.clear();
+                    return;
+                case IS_NULL:
+                    matches.and(nulls);
+                    return;
+                case IS_NOT_NULL:
+                    matches.andNot(nulls);
+                    return;
+                default:
+                    matches.andNot(nulls);
+            }
+
+            final IntPredicate test = test(predicate, rows);
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                if (!test.test(row)) {
+                    matches.clear(row);
+                }
+            }
+        }
+
+        private IntPredicate test(final FieldPredicate<E> predicate, final List<E> rows) {
+            switch (predicate.getPredicateType()) {
+                case EQUAL: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) == 0;
+                }
+                case NOT_EQUAL: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) != 0;
+                }
+                case GREATER_THAN: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) > 0;
+                }
+                case GREATER_OR_EQUAL: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) >= 0;
+                }
+                case LESS_THAN: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) < 0;
+                }
+                case LESS_OR_EQUAL: {
+                    final Number operand = arg0(predicate);
+                    return row -> compare(row, operand) <= 0;
+                }
+                case BETWEEN:
+                    return between(predicate);
+                case NOT_BETWEEN:
+                    return between(predicate).negate();
+                case IN: {
+                    final Set<?> set = (Set<?>) ((HasArg0<?>) predicate).get0();
+                    return row -> set.contains(value(row));
+                }
+                case NOT_IN: {
+                    final Set<?> set = (Set<?>) ((HasArg0<?>) predicate).get0();
+                    return row -> !set.contains(value(row));
+                }
+                default:
+                    return row -> predicate.test(rows.get(row));
+            }
+        }
+
+        private IntPredicate between(final FieldPredicate<E> predicate) {
+            final Number start = arg0(predicate);
+            final Number end = (Number) ((HasArg1<?>) predicate).get1();
+            final Inclusion inclusion = ((HasInclusion) predicate).getInclusion();
+            final int lowest = inclusion.isStartInclusive() ? 0 : 1;
+            final int highest = inclusion.isEndInclusive() ? 0 : -1;
+            return row -> compare(row, start) >= lowest && compare(row, end) <= highest;
+        }
+
+        private Number arg0(final FieldPredicate<E> predicate) {
+            return (Number) ((HasArg0<?>) predicate).get0();
+        }
+    }
+
+    private static final class IntColumn<E> extends PrimitiveColumn<E> {
+
+        private final int[] values;
+
+        private IntColumn(final IntField<E> field, final List<E> rows) {
+            super(rows.size());
+            this.values = new int[rows.size()];
+            for (int row = 0; row < values.length; row++) {
+                final Object value = field.getter().apply(rows.get(row));
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    values[row] = ((Number) value).intValue();
+                }
+            }
+        }
+
+        @Override
+        int compare(final int row, final Number operand) {
+            return Integer.compare(values[row], operand.intValue());
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+    }
+
+    private static final class LongColumn<E> extends PrimitiveColumn<E> {
+
+        private final long[] values;
+
+        private LongColumn(final LongField<E> field, final List<E> rows) {
+            super(rows.size());
+            this.values = new long[rows.size()];
+            for (int row = 0; row < values.length; row++) {
+                final Object value = field.getter().apply(rows.get(row));
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    values[row] = ((Number) value).longValue();
+                }
+            }
+        }
+
+        @Override
+        int compare(final int row, final Number operand) {
+            return Long.compare(values[row], operand.longValue());
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+    }
+
+    private static final class DoubleColumn<E> extends PrimitiveColumn<E> {
+
+        private final double[] values;
+
+        private DoubleColumn(final DoubleField<E> field, final List<E> rows) {
+            super(rows.size());
+            this.values = new double[rows.size()];
+            for (int row = 0; row < values.length; row++) {
+                final Object value = field.getter().apply(rows.get(row));
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    values[row] = ((Number) value).doubleValue();
+                }
+            }
+        }
+
+        @Override
+        int compare(final int row, final Number operand) {
+            return Double.compare(values[row], operand.doubleValue());
+        }
+
+        @Override
+        Object value(final int row) {
+            return values[row];
+        }
+    }
+
+    private static final class DictionaryColumn<E> extends Column<E> {
+
+        private static final int NULL = -1;
+
+        private final int[] codes;
+        // A row holding each distinct value, or -1 for seeded values that no row holds
+        private final int[] representatives;
+
+        private DictionaryColumn(final Field<E> field, final List<E> rows, final Object[] seed) {
+            final Map<Object, Integer> dictionary = new HashMap<>();
+            for (Object value : seed) {
+                dictionary.put(value, dictionary.size());
+            }
+            this.codes = new int[rows.size()];
+            int[] representatives = new int[Math.max(16, dictionary.size())];
+            Arrays.fill(representatives, -1);
+            for (int row = 0; row < codes.length; row++) {
+                final Object value = field.getter().apply(rows.get(row));
+                if (value == null) {
+                    codes[row] = NULL;
+                    continue;
+                }
+                final int code = dictionary.computeIfAbsent(value, v -> dictionary.size());
+                if (code >= representatives.length) {
+                    final int length = representatives.length;
+                    representatives = Arrays.copyOf(representatives, length * 2);
+                    Arrays.fill(representatives, length, representatives.length, -1);
+                }
+                if (representatives[code] < 0) {
+                    representatives[code] = row;
+                }
+                codes[row] = code;
+            }
+            this.representatives = Arrays.copyOf(representatives, dictionary.size());
+        }
+
+        @Override
+        void retain(final FieldPredicate<E> predicate, final List<E> rows, final BitSet matches) {
+            switch (predicate.getPredicateType()) {
+                case ALWAYS_TRUE:
+                    return;
+                case ALWAYS_FALSE:
+                    matches.clear();
+                    return;
+                default:
+            }
+
+            final boolean isNull = predicate.getPredicateType() == PredicateType.IS_NULL;
+            final boolean isNotNull = predicate.getPredicateType() == PredicateType.IS_NOT_NULL;
+
+            // The predicate only depends on the value of the field, hence it is evaluated once per distinct value
+            final boolean[] accepted = new boolean[representatives.length];
+            for (int code = 0; code < accepted.length; code++) {
+                accepted[code] = isNotNull || (!isNull && representatives[code] >= 0 && predicate.test(rows.get(representatives[code])));
+            }
+
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                final int code = codes[row];
+                if (code == NULL ? !isNull : !accepted[code]) {
+                    matches.clear(row);
+                }
+            }
+        }
+    }
+
+}
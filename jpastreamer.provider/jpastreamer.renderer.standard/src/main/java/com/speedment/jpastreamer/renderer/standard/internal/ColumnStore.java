@@ -0,0 +1,190 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.renderer.Acceleration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory copy of all entities of an accelerated entity class.
+ * <p>
+ * The entities are held by row, in the order they were read. Upon the first
+ * predicate over a field, the values of the field are copied into a
+ * {@link Column} so that subsequent predicates over the field are evaluated
+ * column-wise. {@code EQUAL} and {@code IN} predicates over a field that the
+ * {@link Acceleration} indexes are instead answered by a {@link HashIndex}.
+ * <p>
+ * Stores are shared by all renderers of the same JPAStreamer, which is
+ * represented by its {@link Acceleration}, and are released together with it.
+ * They are not keyed by the {@code EntityManagerFactory} since the lazy
+ * proxies and collections of the detached entities they hold reference the
+ * factory, which would thereby never be released.
+ *
+ * @param <E> the type of the entities
+ */
+final class ColumnStore<E> {
+
+    private static final Map<Acceleration, Map<Class<?>, ColumnStore<?>>> STORES = new WeakHashMap<>();
+
+    private final Class<E> entityClass;
+    private volatile Snapshot<E> snapshot;
+
+    private ColumnStore(final Class<E> entityClass) {
+        this.entityClass = requireNonNull(entityClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> ColumnStore<E> of(final Acceleration acceleration, final Class<E> entityClass) {
+        synchronized (STORES) {
+            return (ColumnStore<E>) STORES
+                .computeIfAbsent(acceleration, a -> new HashMap<>())
+                .computeIfAbsent(entityClass, ColumnStore::new);
+        }
+    }
+
+    /**
+     * Returns the current snapshot of the entities, (re)loading them using an
+     * entity manager obtained from the provided {@code entityManagerSupplier}
+     * if they were not loaded yet or the provided {@code acceleration}
+     * considers them stale.
+     *
+     * @param entityManagerSupplier to obtain an entity manager to load the entities with
+     * @param concurrencyLimit of which a permit is held while loading or {@code null}
+     * @param acceleration determining when entities are stale
+     * @return the current snapshot of the entities
+     */
+    Snapshot<E> snapshot(final Supplier<EntityManager> entityManagerSupplier, final Semaphore concurrencyLimit, final Acceleration acceleration) {
+        Snapshot<E> current = snapshot;
+        if (current == null || current.isStale(acceleration)) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.isStale(acceleration)) {
+                    current = load(entityManagerSupplier, concurrencyLimit, acceleration);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot<E> load(final Supplier<EntityManager> entityManagerSupplier, final Semaphore concurrencyLimit, final Acceleration acceleration) {
+        // The version is obtained first so that changes made while loading cause another load
+        final long version = acceleration.version(entityClass);
+        final long loaded = System.nanoTime();
+        Permits.acquire(concurrencyLimit);
+        try {
+            return load(entityManagerSupplier.get(), version, loaded);
+        } finally {
+            Permits.release(concurrencyLimit, 1);
+        }
+    }
+
+    private Snapshot<E> load(final EntityManager entityManager, final long version, final long loaded) {
+        try {
+            final CriteriaQuery<E> query = entityManager.getCriteriaBuilder().createQuery(entityClass);
+            query.select(query.from(entityClass));
+            final TypedQuery<E> typedQuery = entityManager.createQuery(query);
+            // The entities are detached and shared by all streams, so they are never flushed and need no snapshots for dirty checking
+            typedQuery.setHint(CursorHints.HIBERNATE_READ_ONLY, true);
+            typedQuery.setHint(CursorHints.ECLIPSELINK_READ_ONLY, true);
+            final List<E> rows = new ArrayList<>(typedQuery.getResultList());
+            return new Snapshot<>(entityClass, Collections.unmodifiableList(rows), version, loaded);
+        } finally {
+            // Closing the entity manager detaches the loaded entities
+            entityManager.close();
+        }
+    }
+
+    static final class Snapshot<E> {
+
+        private final Class<E> entityClass;
+        private final List<E> rows;
+        private final long version;
+        private final long loaded;
+        private final Map<String, Column<E>> columns = new ConcurrentHashMap<>();
+        private final Map<String, HashIndex<E>> indexes = new ConcurrentHashMap<>();
+
+        private Snapshot(final Class<E> entityClass, final List<E> rows, final long version, final long loaded) {
+            this.entityClass = entityClass;
+            this.rows = rows;
+            this.version = version;
+            this.loaded = loaded;
+        }
+
+        private boolean isStale(final Acceleration acceleration) {
+            return version != acceleration.version(entityClass)
+                || System.nanoTime() - loaded > acceleration.refreshInterval().toNanos();
+        }
+
+        /**
+         * Returns a stream of the entities satisfying all of the provided
+         * {@code predicates}, in the order they were loaded.
+         *
+         * @param predicates over fields of the entities
+         * @param acceleration determining the indexed fields
+         * @return a stream of the entities satisfying all of the provided
+         *         {@code predicates}
+         */
+        Stream<E> stream(final List<FieldPredicate<E>> predicates, final Acceleration acceleration) {
+            if (predicates.isEmpty()) {
+                return rows.stream();
+            }
+
+            // Index lookups are cheaper than scanning a column and are typically the most selective
+            final List<FieldPredicate<E>> ordered = new ArrayList<>(predicates);
+            ordered.sort(Comparator.comparing(predicate -> !isIndexed(predicate, acceleration)));
+
+            final BitSet matches = new BitSet(rows.size());
+            matches.set(0, rows.size());
+            for (FieldPredicate<E> predicate : ordered) {
+                if (matches.isEmpty()) {
+                    break;
+                }
+                final Field<E> field = predicate.getField();
+                if (isIndexed(predicate, acceleration)) {
+                    indexes.computeIfAbsent(field.columnName(), columnName -> new HashIndex<>(field, rows))
+                        .retain(predicate, matches);
+                } else {
+                    columns.computeIfAbsent(field.columnName(), columnName -> Column.of(field, rows))
+                        .retain(predicate, rows, matches);
+                }
+            }
+            return matches.stream().mapToObj(rows::get);
+        }
+
+        private boolean isIndexed(final FieldPredicate<E> predicate, final Acceleration acceleration) {
+            return HashIndex.supports(predicate) && acceleration.isIndexed(predicate.getField());
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.Query;
+
+/**
+ * Translates the cursor settings of a {@link StreamConfiguration} (fetch size,
+ * forward-only cursor and read-only mode) into query hints. As persistence
+ * providers silently ignore hints they do not recognize, the hints of all
+ * supported providers are set.
+ */
+final class CursorHints {
+
+    static final String HIBERNATE_FETCH_SIZE = "org.hibernate.fetchSize";
+    static final String HIBERNATE_READ_ONLY = "org.hibernate.readOnly";
+
+    static final String ECLIPSELINK_FETCH_SIZE = "eclipselink.jdbc.fetch-size";
+    static final String ECLIPSELINK_READ_ONLY = "eclipselink.read-only";
+    static final String ECLIPSELINK_RESULT_SET_TYPE = "eclipselink.cursor.scrollable.result-set-type";
+    static final String ECLIPSELINK_FORWARD_ONLY = "ForwardOnly";
+
+    private CursorHints() {}
+
+    /**
+     * Sets the hints corresponding to the cursor settings of the provided
+     * {@code streamConfiguration} on the provided {@code query}. Hints are
+     * set before the hints of the {@code streamConfiguration} itself so that
+     * explicit hints take precedence.
+     *
+     * @param query to set the hints on
+     * @param streamConfiguration holding the cursor settings
+     */
+    static void apply(final Query query, final StreamConfiguration<?> streamConfiguration) {
+        streamConfiguration.fetchSize().ifPresent(fetchSize -> {
+            query.setHint(HIBERNATE_FETCH_SIZE, fetchSize);
+            query.setHint(ECLIPSELINK_FETCH_SIZE, fetchSize);
+        });
+
+        // Hibernate always reads the result of getResultStream() using a forward-only cursor
+        if (streamConfiguration.isForwardOnly()) {
+            query.setHint(ECLIPSELINK_RESULT_SET_TYPE, ECLIPSELINK_FORWARD_ONLY);
+        }
+
+        if (streamConfiguration.isReadOnly()) {
+            query.setHint(HIBERNATE_READ_ONLY, true);
+            query.setHint(ECLIPSELINK_READ_ONLY, true);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.DoubleField;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.LongField;
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+import com.speedment.jpastreamer.renderer.RenderResult;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Support for pipelines that are terminated by {@code collect()} using a
+ * {@link GroupingCollector} with an {@link AggregateCollector} as the downstream
+ * collector, e.g. {@code collect(FieldCollectors.groupingBy(Film$.rating, FieldCollectors.counting()))}.
+ * Such pipelines can be rendered as a single query selecting the grouped column
+ * and the aggregate, yielding one row per group.
+ */
+final class Grouping {
+
+    private static final int KEY = 0;
+    private static final int VALUE = 1;
+    private static final int COUNT = 2;
+
+    private Grouping() {}
+
+    /**
+     * Returns the grouping collector of the provided {@code pipeline}, or
+     * {@link Optional#empty()} if the pipeline cannot be expressed as a
+     * grouped selection.
+     *
+     * @param pipeline to examine
+     * @param <E> the entity type
+     * @return the grouping collector of the provided {@code pipeline}
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Optional<GroupingCollector<E, ?, ?>> groupingCollector(final Pipeline<E> pipeline) {
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+        if (terminalOperation.type() != TerminalOperationType.COLLECT
+            || terminalOperation.arguments().length != 1
+            || !pipeline.intermediateOperations().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Object collector = terminalOperation.arguments()[0];
+        if (!(collector instanceof GroupingCollector)) {
+            return Optional.empty();
+        }
+
+        final GroupingCollector<E, ?, ?> groupingCollector = (GroupingCollector<E, ?, ?>) collector;
+        if (!(groupingCollector.getDownstream() instanceof AggregateCollector)) {
+            return Optional.empty();
+        }
+
+        final AggregateCollector<E, ?, ?> downstream = (AggregateCollector<E, ?, ?>) groupingCollector.getDownstream();
+        if (downstream.getAggregate() != AggregateCollector.Aggregate.COUNT && !downstream.getField().isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(groupingCollector);
+    }
+
+    /**
+     * Creates the expressions computing the aggregate of the downstream
+     * collector of the provided {@code groupingCollector}. An average is
+     * selected as its sum followed by its count, so that it can be computed
+     * exactly as the collector would also for integer columns, whose average
+     * is truncated by some databases.
+     *
+     * @param builder used to create the expressions
+     * @param root of the query
+     * @param groupingCollector whose downstream aggregate to compute
+     * @param <E> the entity type
+     * @return the expressions computing the aggregate
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<Expression<?>> aggregate(
+        final CriteriaBuilder builder,
+        final Root<E> root,
+        final GroupingCollector<E, ?, ?> groupingCollector
+    ) {
+        final AggregateCollector<E, ?, ?> downstream = (AggregateCollector<E, ?, ?>) groupingCollector.getDownstream();
+        if (downstream.getAggregate() == AggregateCollector.Aggregate.COUNT) {
+            return List.of(builder.count(root));
+        }
+
+        final Expression<Number> column = root.get(downstream.getField().orElseThrow().columnName());
+        return downstream.getAggregate() == AggregateCollector.Aggregate.SUM
+            ? List.of(builder.sum(column))
+            : List.of(builder.sum(column), builder.count(column));
+    }
+
+    /**
+     * Creates a {@link RenderResult} that produces the map collected by the
+     * terminal operation of the provided {@code pipeline} given the selected
+     * groups.
+     *
+     * @param pipeline that was rendered
+     * @param rows of groups, each holding the key followed by the aggregate
+     * @param terminalOperationFactory used to create terminal operations returning a constant
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} that produces the collected map
+     */
+    @SuppressWarnings("unchecked")
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderResult(
+        final Pipeline<E> pipeline,
+        final List<Object[]> rows,
+        final TerminalOperationFactory terminalOperationFactory
+    ) {
+        final GroupingCollector<E, ?, ?> groupingCollector = (GroupingCollector<E, ?, ?>) pipeline.terminatingOperation().arguments()[0];
+        final AggregateCollector<E, ?, ?> downstream = (AggregateCollector<E, ?, ?>) groupingCollector.getDownstream();
+
+        final Map<Object, Object> result = (Map<Object, Object>) groupingCollector.getMapFactory().get();
+        for (Object[] row : rows) {
+            if (row[KEY] == null) {
+                // Mirrors the behavior of the collector when applied in memory
+                throw new NullPointerException("element cannot be mapped to a null key");
+            }
+            result.put(row[KEY], value(downstream, row));
+        }
+
+        return Aggregation.constant(pipeline, result, terminalOperationFactory);
+    }
+
+    private static Object value(final AggregateCollector<?, ?, ?> downstream, final Object[] row) {
+        final Number value = (Number) row[VALUE];
+        switch (downstream.getAggregate()) {
+            case COUNT:
+                return value.longValue();
+            case AVERAGE:
+                final long count = row[COUNT] == null ? 0 : ((Number) row[COUNT]).longValue();
+                return count == 0 ? 0d : value.doubleValue() / count;
+            default:
+                final Field<?> field = downstream.getField().orElseThrow();
+                if (field instanceof IntField) {
+                    return value == null ? 0 : value.intValue();
+                }
+                if (field instanceof LongField) {
+                    return value == null ? 0L : value.longValue();
+                }
+                if (field instanceof DoubleField) {
+                    return value == null ? 0d : value.doubleValue();
+                }
+                throw new IllegalStateException("Unable to sum values of " + field.columnName());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hash index over a single field of all rows of a {@link ColumnStore},
+ * answering {@code EQUAL} and {@code IN} predicates by lookup rather than by
+ * scanning the rows.
+ *
+ * @param <E> the type of the entities
+ */
+final class HashIndex<E> {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final Map<Object, int[]> rowsByValue;
+
+    HashIndex(final Field<E> field, final List<E> rows) {
+        final Map<Object, RowList> rowLists = new HashMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            final Object value = field.getter().apply(rows.get(row));
+            // Null values never satisfy EQUAL nor IN
+            if (value != null) {
+                rowLists.computeIfAbsent(value, v -> new RowList()).add(row);
+            }
+        }
+
+        final Map<Object, int[]> rowsByValue = new HashMap<>(rowLists.size() * 4 / 3 + 1);
+        rowLists.forEach((value, rowList) -> rowsByValue.put(value, rowList.toArray()));
+        this.rowsByValue = Collections.unmodifiableMap(rowsByValue);
+    }
+
+    /**
+     * Returns if the provided {@code predicate} can be answered by this index.
+     *
+     * @param predicate over the field of this index
+     * @return if the provided {@code predicate} can be answered by this index
+     */
+    static boolean supports(final FieldPredicate<?> predicate) {
+        final PredicateType predicateType = predicate.getPredicateType();
+        return (predicateType == PredicateType.EQUAL || predicateType == PredicateType.IN) && predicate instanceof HasArg0;
+    }
+
+    /**
+     * Clears the rows of the provided {@code matches} whose value does not
+     * satisfy the provided {@code predicate}.
+     *
+     * @param predicate supported by this index
+     * @param matches the rows that satisfied all preceding predicates
+     */
+    void retain(final FieldPredicate<E> predicate, final BitSet matches) {
+        final Object operand = ((HasArg0<?>) predicate).get0();
+        final BitSet rows = new BitSet();
+        if (predicate.getPredicateType() == PredicateType.IN) {
+            for (Object value : (Collection<?>) operand) {
+                set(rows, value);
+            }
+        } else {
+            set(rows, operand);
+        }
+        matches.and(rows);
+    }
+
+    private void set(final BitSet rows, final Object value) {
+        for (int row : rowsByValue.getOrDefault(value, NO_ROWS)) {
+            rows.set(row);
+        }
+    }
+
+    /*
+     * The rows holding a value, grown by doubling while the index is built so that adding a row takes
+     * amortized constant time.
+     */
+    private static final class RowList {
+
+        private int[] rows = new int[1];
+        private int size;
+
+        void add(final int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return size == rows.length ? rows : Arrays.copyOf(rows, size);
+        }
+    }
+
+}
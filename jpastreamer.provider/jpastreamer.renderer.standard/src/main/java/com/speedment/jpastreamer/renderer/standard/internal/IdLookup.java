@@ -0,0 +1,171 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.COLLECT;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.FIND_ANY;
+import static com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType.FIND_FIRST;
+
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Support for pipelines that solely look up entities by their identifier, i.e.
+ * {@code filter(id.equal(x))} or {@code filter(id.in(...))} followed by
+ * {@code findFirst()}, {@code findAny()} or {@code collect()}. Such pipelines
+ * are served by {@link EntityManager#find(Class, Object, Map)} so that the
+ * persistence context and the second-level cache are consulted before the
+ * database. Read-only streams are not looked up, as the found entities may be
+ * managed by the persistence context.
+ */
+final class IdLookup {
+
+    private static final Set<TerminalOperationType> LOOKUP_TYPES = EnumSet.of(FIND_FIRST, FIND_ANY, COLLECT);
+
+    private IdLookup() {}
+
+    /**
+     * Returns the predicate over the identifier of the root entity that is the
+     * sole operation of the provided {@code pipeline}, or {@link Optional#empty()}
+     * if the pipeline is not a lookup by identifier.
+     *
+     * @param entityManager to obtain the metamodel from
+     * @param pipeline to examine
+     * @param <E> the entity type
+     * @return the predicate over the identifier of the root entity
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Optional<FieldPredicate<E>> idPredicate(final EntityManager entityManager, final Pipeline<E> pipeline) {
+        if (!LOOKUP_TYPES.contains(pipeline.terminatingOperation().type())) {
+            return Optional.empty();
+        }
+
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        if (intermediateOperations.size() != 1) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> operation = intermediateOperations.get(0);
+        if (operation.type() != FILTER || operation.arguments().length != 1 || !(operation.arguments()[0] instanceof FieldPredicate)) {
+            return Optional.empty();
+        }
+
+        final FieldPredicate<E> predicate = (FieldPredicate<E>) operation.arguments()[0];
+        final PredicateType predicateType = predicate.getPredicateType();
+        if ((predicateType != PredicateType.EQUAL && predicateType != PredicateType.IN) || !(predicate instanceof HasArg0)) {
+            return Optional.empty();
+        }
+
+        final Optional<SingularAttribute<? super E, ?>> id = idAttribute(entityManager, pipeline.root());
+        if (!id.isPresent() || !id.get().getName().equals(predicate.getField().columnName())) {
+            return Optional.empty();
+        }
+
+        // EntityManager::find requires an identifier of the exact type of the attribute
+        final Class<?> idType = MethodType.methodType(id.get().getJavaType()).wrap().returnType();
+        final Object operand = ((HasArg0<?>) predicate).get0();
+        final boolean typed = predicateType == PredicateType.EQUAL
+            ? idType.isInstance(operand)
+            : operand instanceof Collection && ((Collection<?>) operand).stream().allMatch(idType::isInstance);
+
+        return typed ? Optional.of(predicate) : Optional.empty();
+    }
+
+    /**
+     * Returns the entities whose identifiers satisfy the provided {@code predicate}.
+     * <p>
+     * Entities held by the second-level cache are found one by one, the
+     * remaining entities are read using a query per chunk of identifiers
+     * (see {@link InLists}).
+     *
+     * @param entityManager to find the entities with
+     * @param entityClass the type of the entities
+     * @param predicate over the identifier as returned by {@link #idPredicate(EntityManager, Pipeline)}
+     * @param hints to apply
+     * @param <E> the entity type
+     * @return the entities whose identifiers satisfy the provided {@code predicate}
+     */
+    static <E> List<E> find(final EntityManager entityManager, final Class<E> entityClass, final FieldPredicate<E> predicate, final Map<String, Object> hints) {
+        final Object operand = ((HasArg0<?>) predicate).get0();
+
+        if (predicate.getPredicateType() == PredicateType.EQUAL) {
+            final E entity = entityManager.find(entityClass, operand, hints);
+            return entity == null ? Collections.emptyList() : Collections.singletonList(entity);
+        }
+
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        final List<E> entities = new ArrayList<>();
+        final List<Object> uncached = new ArrayList<>();
+        for (Object id : (Collection<?>) operand) {
+            if (cache != null && cache.contains(entityClass, id)) {
+                final E entity = entityManager.find(entityClass, id, hints);
+                if (entity != null) {
+                    entities.add(entity);
+                }
+            } else {
+                uncached.add(id);
+            }
+        }
+
+        for (List<Object> chunk : InLists.chunks(uncached)) {
+            final CriteriaQuery<E> query = entityManager.getCriteriaBuilder().createQuery(entityClass);
+            final Root<E> root = query.from(entityClass);
+            query.select(root).where(root.get(predicate.getField().columnName()).in(chunk));
+            final TypedQuery<E> typedQuery = entityManager.createQuery(query);
+            hints.forEach(typedQuery::setHint);
+            entities.addAll(typedQuery.getResultList());
+        }
+
+        return entities;
+    }
+
+    private static <E> Optional<SingularAttribute<? super E, ?>> idAttribute(final EntityManager entityManager, final Class<E> entityClass) {
+        final EntityType<E> entityType;
+        try {
+            entityType = entityManager.getMetamodel().entity(entityClass);
+        } catch (IllegalArgumentException e) {
+            // Not a managed entity
+            return Optional.empty();
+        }
+        if (!entityType.hasSingleIdAttribute()) {
+            return Optional.empty();
+        }
+        return entityType.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .findFirst();
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.CriteriaFactory;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Serves a pipeline whose leading filter holds an IN-list that is too large
+ * for a single query using a query per chunk of the IN-list (see
+ * {@link InLists}).
+ */
+final class InListExecution {
+
+    private InListExecution() {}
+
+    /**
+     * Counts the entities of each chunk, the chunks hold distinct values so
+     * that the counts add up to the total count.
+     *
+     * @param criteriaFactory to create the criteria of each chunk with
+     * @param predicateFactory to render the predicate of each chunk with
+     * @param entityManager to execute the queries with
+     * @param pipeline consisting of the chunked filter and a count
+     * @param chunkedPredicates replacing the leading filter, one per chunk
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> executeCounts(
+        final CriteriaFactory criteriaFactory,
+        final PredicateFactory predicateFactory,
+        final EntityManager entityManager,
+        final Pipeline<E> pipeline,
+        final List<SpeedmentPredicate<E>> chunkedPredicates
+    ) {
+        pipeline.intermediateOperations().removeFirst();
+
+        final Stream<Long> counts = chunkedPredicates.stream().map(chunkedPredicate -> {
+            final Criteria<E, Long> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root(), Long.class);
+            criteria.getQuery().select(criteria.getBuilder().count(criteria.getRoot())).where(predicateFactory.createPredicate(criteria, chunkedPredicate));
+
+            final TypedQuery<Long> typedQuery = entityManager.createQuery(criteria.getQuery());
+            Queries.bind(typedQuery, criteria.getQueryParameters());
+
+            return typedQuery.getSingleResult();
+        });
+
+        // The counts of the chunks are summed as the pipeline has no intermediate operations left
+        return Pipelines.renderResult(pipeline, counts);
+    }
+
+    /**
+     * Reads the elements restricted by the leading filter using a query per
+     * chunk of its IN-list and applies all remaining operations to the
+     * concatenated results.
+     *
+     * @param criteriaFactory to create the criteria of each chunk with
+     * @param predicateFactory to render the predicate of each chunk with
+     * @param entityManager to execute the queries with
+     * @param pipeline whose leading filter was chunked
+     * @param streamConfiguration holding the joins and the hints to apply
+     * @param chunkedPredicates replacing the leading filter, one per chunk
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final CriteriaFactory criteriaFactory,
+        final PredicateFactory predicateFactory,
+        final EntityManager entityManager,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final List<SpeedmentPredicate<E>> chunkedPredicates
+    ) {
+        pipeline.intermediateOperations().removeFirst();
+
+        final Stream<E> baseStream = chunkedPredicates.stream().flatMap(chunkedPredicate -> {
+            final Criteria<E, E> criteria = criteriaFactory.createCriteria(entityManager, pipeline.root());
+            streamConfiguration.joins()
+                    .forEach(joinConfiguration -> criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType()));
+            criteria.getQuery().select(criteria.getRoot()).where(predicateFactory.createPredicate(criteria, chunkedPredicate));
+
+            return Queries.create(entityManager, criteria.getQuery(), criteria.getQueryParameters(), streamConfiguration).getResultStream();
+        });
+
+        return Pipelines.renderResult(pipeline, baseStream);
+    }
+
+    /**
+     * Returns if the terminal operation of the provided pipeline may be
+     * computed by the database, such as an aggregate or a grouping, rather
+     * than consuming the entities.
+     *
+     * @param pipeline to examine
+     * @param <E> the entity type
+     * @return if the terminal operation may be computed by the database
+     */
+    static <E> boolean isComputedByDatabase(final Pipeline<E> pipeline) {
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+        switch (terminalOperation.type()) {
+            case COUNT:
+            case SUM_INT:
+            case SUM_LONG:
+            case SUM_DOUBLE:
+            case AVERAGE:
+            case SUMMARY_STATISTICS:
+                return true;
+            case MIN:
+            case MAX:
+                // Without a comparator, the minimum or maximum of a primitive stream
+                return terminalOperation.arguments().length == 0;
+            case COLLECT:
+                return terminalOperation.arguments().length == 1 && terminalOperation.arguments()[0] instanceof GroupingCollector;
+            default:
+                return false;
+        }
+    }
+
+}
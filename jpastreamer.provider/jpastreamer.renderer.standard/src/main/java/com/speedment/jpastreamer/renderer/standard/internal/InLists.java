@@ -0,0 +1,151 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.PredicateType;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Support for pipelines whose leading filter restricts a field to a large set
+ * of values. Rather than rendering a single IN-list with a parameter per value,
+ * which may exceed the parameter limits of the database or the driver, the
+ * values are split into chunks and a query is executed per chunk. A count is
+ * computed per chunk, whereas pipelines whose result is otherwise computed by
+ * the database, such as aggregates and groupings, are not split. The chunk
+ * size is controlled by the system property {@value #CHUNK_SIZE_PROPERTY}
+ * (default {@value #DEFAULT_CHUNK_SIZE}), a chunk size of zero disables
+ * chunking.
+ */
+final class InLists {
+
+    static final String CHUNK_SIZE_PROPERTY = "jpastreamer.renderer.inlist.chunksize";
+    static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private InLists() {}
+
+    static int chunkSize() {
+        return Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the provided {@code values} split into lists of at most
+     * {@link #chunkSize()} values.
+     *
+     * @param values to split
+     * @param <T> the type of the values
+     * @return the provided {@code values} split into chunks
+     */
+    static <T> List<List<T>> chunks(final Collection<T> values) {
+        final int chunkSize = chunkSize() > 0 ? chunkSize() : Integer.MAX_VALUE;
+        final List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>();
+        for (T value : values) {
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.add(value);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns a predicate per chunk of values that together are equivalent to
+     * the predicate of the leading filter of the provided {@code pipeline}, or
+     * {@link Optional#empty()} if the predicate has no IN-list exceeding the
+     * chunk size.
+     * <p>
+     * The predicate is split if it is an IN predicate or a conjunction of
+     * predicates including an IN predicate. Since the values of an IN predicate
+     * are distinct, no element satisfies more than one of the returned predicates.
+     *
+     * @param pipeline to examine
+     * @param <E> the entity type
+     * @return a predicate per chunk of values
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Optional<List<SpeedmentPredicate<E>>> chunkedPredicates(final Pipeline<E> pipeline) {
+        final int chunkSize = chunkSize();
+        if (chunkSize <= 0 || pipeline.intermediateOperations().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final IntermediateOperation<?, ?> operation = pipeline.intermediateOperations().getFirst();
+        if (operation.type() != FILTER || operation.arguments().length != 1) {
+            return Optional.empty();
+        }
+
+        final Object predicate = operation.arguments()[0];
+        if (isLargeIn(predicate, chunkSize)) {
+            return Optional.of(inChunks((FieldPredicate<E>) predicate));
+        }
+
+        if (predicate instanceof CombinedPredicate && ((CombinedPredicate<E>) predicate).getType() == CombinedPredicate.Type.AND) {
+            final List<Predicate<? super E>> terms = ((CombinedPredicate<E>) predicate).stream().collect(Collectors.toList());
+            for (int i = 0; i < terms.size(); i++) {
+                if (isLargeIn(terms.get(i), chunkSize)) {
+                    final int index = i;
+                    return Optional.of(inChunks((FieldPredicate<E>) terms.get(i)).stream()
+                        .map(chunk -> {
+                            final List<Predicate<? super E>> chunkTerms = new ArrayList<>(terms);
+                            chunkTerms.set(index, chunk);
+                            return (SpeedmentPredicate<E>) CombinedPredicate.and(chunkTerms);
+                        })
+                        .collect(Collectors.toList()));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean isLargeIn(final Object predicate, final int chunkSize) {
+        if (!(predicate instanceof FieldPredicate) || !(predicate instanceof HasArg0)) {
+            return false;
+        }
+        final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) predicate;
+        final Object values = ((HasArg0<?>) predicate).get0();
+        return fieldPredicate.getPredicateType() == PredicateType.IN
+            && fieldPredicate.getField() instanceof HasComparableOperators
+            && values instanceof Collection
+            && ((Collection<?>) values).size() > chunkSize;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> List<SpeedmentPredicate<E>> inChunks(final FieldPredicate<E> predicate) {
+        final HasComparableOperators field = (HasComparableOperators) predicate.getField();
+        final Collection<?> values = (Collection<?>) ((HasArg0<?>) predicate).get0();
+        return chunks(values).stream()
+            .map(chunk -> (SpeedmentPredicate<E>) field.in(chunk))
+            .collect(Collectors.toList());
+    }
+
+}
@@ -14,6 +14,7 @@ package com.speedment.jpastreamer.renderer.standard.internal;
 
 import com.speedment.jpastreamer.renderer.Renderer;
 import com.speedment.jpastreamer.renderer.RendererFactory;
+import com.speedment.jpastreamer.renderer.RendererOptions;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 
@@ -30,6 +31,11 @@ public final class InternalRendererFactory implements RendererFactory {
         return new StandardRenderer(entityManagerSupplier); 
     }
 
+    @Override
+    public Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererOptions options) {
+        return new StandardRenderer(entityManagerSupplier, options);
+    }
+
     @Override
     public Renderer createRenderer(EntityManager entityManager) {
         return new StandardRenderer(entityManager);
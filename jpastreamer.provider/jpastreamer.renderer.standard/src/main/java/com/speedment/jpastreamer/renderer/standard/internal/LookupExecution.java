@@ -0,0 +1,57 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.stream.BaseStream;
+
+/**
+ * Serves a pipeline that solely looks up entities by identifier using
+ * {@code EntityManager::find} so that the persistence context and the
+ * second-level cache are consulted first (see {@link IdLookup}).
+ */
+final class LookupExecution {
+
+    private LookupExecution() {}
+
+    /**
+     * Looks up the entities satisfying the provided {@code idPredicate}, which
+     * is the sole operation of the provided {@code pipeline}.
+     *
+     * @param entityManager to find the entities with
+     * @param pipeline to render
+     * @param streamConfiguration holding the hints to apply
+     * @param idPredicate over the identifier as returned by {@link IdLookup#idPredicate}
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final EntityManager entityManager,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final FieldPredicate<E> idPredicate
+    ) {
+        pipeline.intermediateOperations().clear();
+
+        return Pipelines.renderResult(pipeline, IdLookup.find(entityManager, pipeline.root(), idPredicate, streamConfiguration.hints()).stream());
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.renderer.RenderResult;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.invoke.MethodType;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Serves a parallel pipeline by reading its elements in key ranges using an
+ * entity manager per range (see {@link Partitions}). The number of ranges is
+ * given by {@link StreamConfiguration#partitions()}.
+ */
+final class PartitionedExecution {
+
+    private static final Set<Class<?>> INTEGRAL_TYPES = Set.of(Integer.class, int.class, Long.class, long.class, Short.class, short.class);
+
+    private PartitionedExecution() {}
+
+    /**
+     * Returns the integral identifier that the query of a parallel pipeline
+     * can be partitioned by or {@link Optional#empty()} if the pipeline is not
+     * to be partitioned or its query cannot be partitioned without affecting
+     * the elements or their order.
+     *
+     * @param pipeline to render
+     * @param streamConfiguration holding the number of partitions
+     * @param criteria into which the pipeline was merged
+     * @param <E> the entity type
+     * @return the identifier to partition by
+     */
+    static <E> Optional<SingularAttribute<? super E, ?>> partitionKey(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration, final Criteria<E, Object> criteria) {
+        final CriteriaQuery<Object> query = criteria.getQuery();
+        if (!pipeline.isParallel() || streamConfiguration.partitions().isEmpty() || !query.getOrderList().isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Distinct projections may occur in several partitions
+        if (query.isDistinct() && query.getSelection() != criteria.getRoot()) {
+            return Optional.empty();
+        }
+
+        // Skip and limit are rendered into the query rather than applied to each partition
+        final List<IntermediateOperation<?, ?>> remaining = pipeline.intermediateOperations();
+        if (!remaining.isEmpty() && (remaining.get(0).type() == IntermediateOperationType.SKIP || remaining.get(0).type() == IntermediateOperationType.LIMIT)) {
+            return Optional.empty();
+        }
+
+        return criteria.getRoot().getModel().getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .filter(attribute -> INTEGRAL_TYPES.contains(attribute.getJavaType()))
+                .findFirst();
+    }
+
+    /**
+     * Reads the elements in partitions of the form
+     * {@code key >= :lower AND key <= :upper} using an entity manager per
+     * partition. The lowest and the highest key are read up front and the
+     * keys in between are split into ranges of equal width.
+     *
+     * @param entityManager to read the lowest and the highest key with
+     * @param entityManagerSupplier to obtain the entity manager of each partition from
+     * @param executor to read the partitions ahead of time with or {@code null}
+     * @param concurrencyLimit of which {@code permits} permits were acquired for the partitions or {@code null}
+     * @param permits the number of partitions that may be read concurrently, which are released when the stream is closed
+     * @param pipeline to render
+     * @param streamConfiguration holding the number of partitions and the hints to apply
+     * @param criteria into which the pipeline was merged
+     * @param partitionKey as returned by {@link #partitionKey(Pipeline, StreamConfiguration, Criteria)}
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    @SuppressWarnings("unchecked")
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final EntityManager entityManager,
+        final Supplier<EntityManager> entityManagerSupplier,
+        final Executor executor,
+        final Semaphore concurrencyLimit,
+        final int permits,
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Criteria<E, Object> criteria,
+        final SingularAttribute<? super E, ?> partitionKey
+    ) {
+        final CriteriaQuery<Object> query = criteria.getQuery();
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final Class<Number> keyType = (Class<Number>) MethodType.methodType(partitionKey.getJavaType()).wrap().returnType();
+
+        final CriteriaQuery<Object[]> boundsQuery = builder.createQuery(Object[].class);
+        final Expression<Number> boundsKey = boundsQuery.from(pipeline.root()).get(partitionKey.getName());
+        boundsQuery.multiselect(builder.min(boundsKey), builder.max(boundsKey));
+        final Object[] bounds;
+        try {
+            bounds = entityManager.createQuery(boundsQuery).getSingleResult();
+        } catch (RuntimeException e) {
+            Permits.release(concurrencyLimit, permits);
+            throw e;
+        }
+        final long[] lowerBounds = bounds[0] == null
+                ? new long[] {0}
+                : lowerBounds(((Number) bounds[0]).longValue(), ((Number) bounds[1]).longValue(), streamConfiguration.partitions().getAsInt());
+        // Permits are not held for more partitions than there are
+        final int partitionPermits = Math.min(permits, lowerBounds.length);
+        Permits.release(concurrencyLimit, permits - partitionPermits);
+
+        final ParameterExpression<Number> lower = builder.parameter(keyType);
+        final ParameterExpression<Number> upper = builder.parameter(keyType);
+        final Expression<Number> key = criteria.getRoot().get(partitionKey.getName());
+        final Predicate partition = builder.and(builder.ge(key, lower), builder.le(key, upper));
+        final Predicate restriction = query.getRestriction();
+        query.where(restriction == null ? partition : builder.and(restriction, partition));
+
+        final List<QueryParameter> queryParameters = criteria.getQueryParameters();
+
+        final Partitions<Object> partitions = new Partitions<>(entityManagerSupplier, (partitionEntityManager, index) -> {
+            final TypedQuery<Object> typedQuery = Queries.create(partitionEntityManager, query, queryParameters, streamConfiguration);
+            // The first and the last range are open-ended so that keys added after the bounds were read are not missed
+            typedQuery.setParameter(lower, index == 0 ? minimum(keyType) : key(keyType, lowerBounds[index]));
+            typedQuery.setParameter(upper, index == lowerBounds.length - 1 ? maximum(keyType) : key(keyType, lowerBounds[index + 1] - 1));
+            return typedQuery;
+        }, lowerBounds.length, executor, concurrencyLimit, partitionPermits);
+
+        return Pipelines.renderResult(pipeline, StreamSupport.stream(partitions, true).onClose(partitions::close));
+    }
+
+    /**
+     * Returns the lowest key of each of at most {@code partitions} ranges of
+     * equal width that together hold the keys from {@code min} to {@code max}.
+     *
+     * @param min the lowest key
+     * @param max the highest key
+     * @param partitions the maximum number of ranges
+     * @return the lowest key of each range, starting with {@code min}
+     */
+    static long[] lowerBounds(final long min, final long max, final int partitions) {
+        // The width of the keys may exceed the range of a long
+        final BigInteger width = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        final int count = width.compareTo(BigInteger.valueOf(partitions)) < 0 ? width.intValue() : partitions;
+        final long[] lowerBounds = new long[count];
+        for (int i = 0; i < count; i++) {
+            lowerBounds[i] = width.multiply(BigInteger.valueOf(i))
+                    .divide(BigInteger.valueOf(count))
+                    .add(BigInteger.valueOf(min))
+                    .longValueExact();
+        }
+        return lowerBounds;
+    }
+
+    private static Number key(final Class<?> keyType, final long value) {
+        if (keyType == Integer.class) {
+            return (int) value;
+        }
+        if (keyType == Short.class) {
+            return (short) value;
+        }
+        return value;
+    }
+
+    private static Number minimum(final Class<?> keyType) {
+        return key(keyType, keyType == Integer.class ? Integer.MIN_VALUE : keyType == Short.class ? Short.MIN_VALUE : Long.MIN_VALUE);
+    }
+
+    private static Number maximum(final Class<?> keyType) {
+        return key(keyType, keyType == Integer.class ? Integer.MAX_VALUE : keyType == Short.class ? Short.MAX_VALUE : Long.MAX_VALUE);
+    }
+
+}
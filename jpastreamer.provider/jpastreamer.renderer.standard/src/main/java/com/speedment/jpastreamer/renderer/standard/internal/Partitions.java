@@ -0,0 +1,260 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Reads the result of a query that is split into a number of disjoint
+ * partitions, each of which is read using its own {@link EntityManager}.
+ * <p>
+ * Splitting yields a prefix of the partitions that have not yet been read so
+ * that partitions can be read concurrently by a parallel stream. The elements
+ * are encountered in the order of the partitions.
+ * <p>
+ * If an {@link Executor} is provided, the query of the next partition is
+ * executed by the executor while the current partition is being read. If a
+ * {@link Semaphore} is provided, the partitions hold a number of its permits
+ * that were acquired up front, which limits the number of open partitions.
+ * The permits are released when {@link #close()} is invoked.
+ * <p>
+ * The {@link EntityManager} of a partition is closed when the partition has
+ * been read, which means that its entities are detached. Entity managers of
+ * partitions that have not been read to the end (e.g. due to a short-circuiting
+ * operation) are closed when {@link #close()} is invoked.
+ *
+ * @param <T> the type of the elements
+ */
+final class Partitions<T> implements Spliterator<T>, AutoCloseable {
+
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final BiFunction<EntityManager, Integer, TypedQuery<T>> queryFactory;
+    private final Executor executor;
+    private final Resources resources;
+    private final int fence;
+    private int partition;
+
+    private Partition<T> current;
+    private CompletableFuture<Partition<T>> prefetched;
+
+    /**
+     * Creates a new Partitions.
+     *
+     * @param entityManagerSupplier supplying a new EntityManager for each partition
+     * @param queryFactory creating the query of a partition (given by its index) using the provided EntityManager
+     * @param partitions the number of partitions
+     * @param executor to execute the query of the next partition or {@code null}
+     * @param concurrencyLimit of which {@code permits} permits were acquired for the partitions or {@code null}
+     * @param permits the number of partitions that may be open concurrently if a {@code concurrencyLimit} is provided
+     */
+    Partitions(
+        final Supplier<EntityManager> entityManagerSupplier,
+        final BiFunction<EntityManager, Integer, TypedQuery<T>> queryFactory,
+        final int partitions,
+        final Executor executor,
+        final Semaphore concurrencyLimit,
+        final int permits
+    ) {
+        this(entityManagerSupplier, queryFactory, executor, new Resources(concurrencyLimit, permits), 0, partitions);
+    }
+
+    private Partitions(
+        final Supplier<EntityManager> entityManagerSupplier,
+        final BiFunction<EntityManager, Integer, TypedQuery<T>> queryFactory,
+        final Executor executor,
+        final Resources resources,
+        final int partition,
+        final int fence
+    ) {
+        this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
+        this.queryFactory = requireNonNull(queryFactory);
+        this.executor = executor;
+        this.resources = resources;
+        this.partition = partition;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        while (true) {
+            if (current == null) {
+                if (partition >= fence) {
+                    return false;
+                }
+                current = nextPartition();
+            }
+            if (current.iterator.hasNext()) {
+                action.accept(current.iterator.next());
+                return true;
+            }
+            closePartition(current);
+            current = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        // A partition that is being read (or prefetched) cannot be split
+        if (current != null || prefetched != null || fence - partition < 2) {
+            return null;
+        }
+        final int middle = (partition + fence) >>> 1;
+        final Partitions<T> prefix = new Partitions<>(entityManagerSupplier, queryFactory, executor, resources, partition, middle);
+        partition = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    @Override
+    public void close() {
+        resources.close();
+    }
+
+    private Partition<T> nextPartition() {
+        final Partition<T> next;
+        if (prefetched == null) {
+            next = openPartition(partition);
+        } else {
+            try {
+                next = prefetched.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            } finally {
+                prefetched = null;
+            }
+        }
+        partition++;
+
+        if (executor != null && partition < fence) {
+            final int index = partition;
+            prefetched = CompletableFuture.supplyAsync(() -> openPartition(index), executor);
+        }
+        return next;
+    }
+
+    private Partition<T> openPartition(final int index) {
+        final EntityManager entityManager = resources.open(entityManagerSupplier);
+        try {
+            final Stream<T> stream = queryFactory.apply(entityManager, index).getResultStream();
+            final Iterator<T> iterator = stream.iterator();
+            // Executes the query
+            iterator.hasNext();
+            return new Partition<>(entityManager, stream, iterator);
+        } catch (RuntimeException e) {
+            resources.close(entityManager);
+            throw e;
+        }
+    }
+
+    private void closePartition(final Partition<T> partition) {
+        partition.stream.close();
+        resources.close(partition.entityManager);
+    }
+
+    private static final class Partition<T> {
+
+        private final EntityManager entityManager;
+        private final Stream<T> stream;
+        private final Iterator<T> iterator;
+
+        private Partition(final EntityManager entityManager, final Stream<T> stream, final Iterator<T> iterator) {
+            this.entityManager = entityManager;
+            this.stream = stream;
+            this.iterator = iterator;
+        }
+    }
+
+    /*
+     * The entity managers and permits held by all splits of a Partitions.
+     */
+    private static final class Resources {
+
+        private final Semaphore concurrencyLimit;
+        private final int permits;
+        // Waiting for a permit of the partitions rather than of the concurrency limit cannot deadlock, as the
+        // permits are released by the partitions of the same stream
+        private final Semaphore openLimit;
+        private final Set<EntityManager> open = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Resources(final Semaphore concurrencyLimit, final int permits) {
+            this.concurrencyLimit = concurrencyLimit;
+            this.permits = permits;
+            this.openLimit = concurrencyLimit == null ? null : new Semaphore(permits);
+        }
+
+        private EntityManager open(final Supplier<EntityManager> entityManagerSupplier) {
+            Permits.acquire(openLimit);
+            final EntityManager entityManager;
+            try {
+                entityManager = entityManagerSupplier.get();
+            } catch (RuntimeException e) {
+                Permits.release(openLimit, 1);
+                throw e;
+            }
+            open.add(entityManager);
+            if (closed.get()) {
+                close(entityManager);
+                throw new IllegalStateException("The stream is closed");
+            }
+            return entityManager;
+        }
+
+        private void close(final EntityManager entityManager) {
+            if (open.remove(entityManager)) {
+                try {
+                    entityManager.close();
+                } finally {
+                    Permits.release(openLimit, 1);
+                }
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    open.forEach(this::close);
+                } finally {
+                    Permits.release(concurrencyLimit, permits);
+                }
+            }
+        }
+    }
+
+}
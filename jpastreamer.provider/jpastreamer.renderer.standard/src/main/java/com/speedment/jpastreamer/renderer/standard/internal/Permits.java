@@ -0,0 +1,95 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Acquires and releases the permits of the concurrency limit of a
+ * JPAStreamer, of which a permit is held for each open entity manager. A
+ * {@code null} limit has an unlimited number of permits.
+ */
+final class Permits {
+
+    private Permits() {}
+
+    /**
+     * Acquires a permit of the provided {@code concurrencyLimit}, waiting
+     * until one is available.
+     *
+     * @param concurrencyLimit to acquire a permit of or {@code null}
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    static void acquire(final Semaphore concurrencyLimit) {
+        if (concurrencyLimit == null) {
+            return;
+        }
+        try {
+            // Allows the common pool to compensate for a worker waiting for a permit
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean acquired;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    if (!acquired) {
+                        concurrencyLimit.acquire();
+                        acquired = true;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return acquired || (acquired = concurrencyLimit.tryAcquire());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a permit", e);
+        }
+    }
+
+    /**
+     * Acquires up to {@code permits} permits of the provided
+     * {@code concurrencyLimit} without waiting.
+     *
+     * @param concurrencyLimit to acquire permits of or {@code null}
+     * @param permits the maximum number of permits to acquire
+     * @return the number of acquired permits
+     */
+    static int tryAcquire(final Semaphore concurrencyLimit, final int permits) {
+        if (concurrencyLimit == null) {
+            return permits;
+        }
+        int acquired = 0;
+        while (acquired < permits && concurrencyLimit.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    /**
+     * Releases the provided number of {@code permits} of the provided
+     * {@code concurrencyLimit}.
+     *
+     * @param concurrencyLimit to release permits of or {@code null}
+     * @param permits the number of permits to release
+     */
+    static void release(final Semaphore concurrencyLimit, final int permits) {
+        if (concurrencyLimit != null && permits > 0) {
+            concurrencyLimit.release(permits);
+        }
+    }
+
+}
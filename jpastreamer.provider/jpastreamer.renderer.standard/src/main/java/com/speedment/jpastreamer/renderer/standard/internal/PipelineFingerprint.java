@@ -0,0 +1,228 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.field.expression.FieldMapper;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.predicate.trait.HasInclusion;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A canonical description of the shape of a {@link Pipeline}. Two pipelines
+ * with equal fingerprints render to the same {@code CriteriaQuery}, differing
+ * only in the values bound to its parameters, as long as the arguments
+ * described by their class hold no state (see {@link QueryPlan#isReproducible()}).
+ * Fingerprints are taken before pipelines are modified and optimized, so that
+ * a pipeline whose plan is cached is neither modified nor optimized.
+ * <p>
+ * Predicate and comparator arguments are described by their structure
+ * (predicate type, column, inclusion and value classes) whereas all other
+ * arguments are described by their class. Values that are inlined into the
+ * query rather than bound as parameters (such as the elements of an IN set)
+ * are part of the fingerprint, but a query plan containing such values is
+ * specific to them and is therefore not worth caching, see
+ * {@link #hasInlinedValues()}.
+ */
+final class PipelineFingerprint {
+
+    private static final String NULL = "null";
+
+    private final List<Object> parts;
+    private final List<Object> inlinedValues;
+    private final int hashCode;
+
+    private PipelineFingerprint(final List<Object> parts, final List<Object> inlinedValues) {
+        this.parts = Collections.unmodifiableList(parts);
+        this.inlinedValues = Collections.unmodifiableList(inlinedValues);
+        this.hashCode = 31 * parts.hashCode() + inlinedValues.hashCode();
+    }
+
+    static <E> PipelineFingerprint of(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+
+        final List<Object> parts = new ArrayList<>();
+        final List<Object> inlinedValues = new ArrayList<>();
+        parts.add(pipeline.root());
+        // Operations affecting the order only are removed from unordered pipelines
+        parts.add(pipeline.isUnordered());
+        parts.add(pipeline.terminatingOperation().type());
+        parts.add(Arrays.stream(pipeline.terminatingOperation().arguments())
+            .map(argument -> describe(argument, inlinedValues))
+            .collect(Collectors.toList()));
+
+        for (IntermediateOperation<?, ?> operation : pipeline.intermediateOperations()) {
+            parts.add(operation.type());
+            parts.add(Arrays.stream(operation.arguments())
+                .map(argument -> describe(argument, inlinedValues))
+                .collect(Collectors.toList()));
+        }
+
+        parts.add(streamConfiguration.joins().stream()
+            .map(joinConfiguration -> Arrays.asList(joinConfiguration.field().columnName(), joinConfiguration.joinType()))
+            .collect(Collectors.toList()));
+
+        parts.add(streamConfiguration.selections()
+            .map(projection -> Arrays.<Object>asList(
+                projection.entityClass(),
+                projection.fields().stream().map(field -> field.columnName()).collect(Collectors.toList())
+            ))
+            .orElse(Collections.emptyList()));
+
+        return new PipelineFingerprint(parts, inlinedValues);
+    }
+
+    /**
+     * Returns if the pipeline contains values that are inlined into the query
+     * rather than bound as parameters. Such fingerprints differ for every set
+     * of values and their query plans should not be cached.
+     *
+     * @return if the pipeline contains values that are inlined into the query
+     */
+    boolean hasInlinedValues() {
+        return !inlinedValues.isEmpty();
+    }
+
+    private static Object describe(final Object argument, final List<Object> inlinedValues) {
+        if (argument == null) {
+            return NULL;
+        }
+
+        if (argument instanceof FieldPredicate) {
+            final FieldPredicate<?> fieldPredicate = (FieldPredicate<?>) argument;
+            final List<Object> description = new ArrayList<>();
+            description.add(fieldPredicate.getPredicateType());
+            description.add(fieldPredicate.getField().columnName());
+            if (fieldPredicate instanceof HasArg0) {
+                description.add(describeValue(((HasArg0<?>) fieldPredicate).get0(), inlinedValues));
+            }
+            if (fieldPredicate instanceof HasArg1) {
+                description.add(describeValue(((HasArg1<?>) fieldPredicate).get1(), inlinedValues));
+            }
+            if (fieldPredicate instanceof HasInclusion) {
+                description.add(((HasInclusion) fieldPredicate).getInclusion());
+            }
+            return description;
+        }
+
+        if (argument instanceof CombinedPredicate) {
+            final CombinedPredicate<?> combinedPredicate = (CombinedPredicate<?>) argument;
+            final List<Object> description = new ArrayList<>();
+            description.add(combinedPredicate.getType());
+            combinedPredicate.stream()
+                .map(term -> describe(term, inlinedValues))
+                .forEachOrdered(description::add);
+            return description;
+        }
+
+        if (argument instanceof Field) {
+            // Fields are used as functions (e.g. mapToInt(Film$.length)) and may be rendered as selections
+            return Arrays.asList(argument.getClass(), ((Field<?>) argument).columnName());
+        }
+
+        if (argument instanceof FieldMapper) {
+            // Mapped fields may be rendered as selections
+            return Arrays.asList(argument.getClass(), ((FieldMapper<?, ?, ?, ?, ?>) argument).getField().columnName());
+        }
+
+        if (argument instanceof GroupingCollector) {
+            // Grouping collectors may be rendered as a GROUP BY query
+            final GroupingCollector<?, ?, ?> groupingCollector = (GroupingCollector<?, ?, ?>) argument;
+            return Arrays.asList(
+                argument.getClass(),
+                groupingCollector.getField().columnName(),
+                describe(groupingCollector.getDownstream(), inlinedValues)
+            );
+        }
+
+        if (argument instanceof AggregateCollector) {
+            final AggregateCollector<?, ?, ?> aggregateCollector = (AggregateCollector<?, ?, ?>) argument;
+            return Arrays.asList(
+                aggregateCollector.getAggregate(),
+                aggregateCollector.getField().map(field -> describe(field, inlinedValues)).orElse(NULL)
+            );
+        }
+
+        if (argument instanceof FieldComparator) {
+            final FieldComparator<?> fieldComparator = (FieldComparator<?>) argument;
+            return Arrays.asList(fieldComparator.getField().columnName(), fieldComparator.isReversed(), fieldComparator.getNullOrder());
+        }
+
+        if (argument instanceof CombinedComparator) {
+            final CombinedComparator<?> combinedComparator = (CombinedComparator<?>) argument;
+            return combinedComparator.stream()
+                .map(comparator -> describe(comparator, inlinedValues))
+                .collect(Collectors.toList());
+        }
+
+        return argument.getClass();
+    }
+
+    private static Object describeValue(final Object value, final List<Object> inlinedValues) {
+        if (value == null) {
+            return NULL;
+        }
+
+        // Parameters are bound by their names, which the query depends on
+        if (value instanceof Parameter) {
+            return value;
+        }
+
+        if (value instanceof Set) {
+            // IN sets are inlined into the query and must therefore be part of the fingerprint
+            inlinedValues.add(new HashSet<>((Set<?>) value));
+            return Set.class;
+        }
+
+        return value.getClass();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PipelineFingerprint)) return false;
+        final PipelineFingerprint that = (PipelineFingerprint) o;
+        return hashCode == that.hashCode && parts.equals(that.parts) && inlinedValues.equals(that.inlinedValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineFingerprint" + parts + inlinedValues;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.renderer.RenderResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+/**
+ * Support for examining the operations of a {@link Pipeline} and for applying
+ * the operations that were not rendered into a query to the stream of its
+ * results.
+ */
+final class Pipelines {
+
+    private Pipelines() {}
+
+    /**
+     * Returns the {@link SpeedmentPredicate} that is the sole argument of the
+     * provided {@code operation}, or {@link Optional#empty()} if there is none.
+     *
+     * @param operation to examine
+     * @param <T> the entity type
+     * @return the {@link SpeedmentPredicate} that is the sole argument of the
+     *         provided {@code operation}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Optional<SpeedmentPredicate<T>> predicate(final IntermediateOperation<?, ?> operation) {
+        final Object[] arguments = operation.arguments();
+
+        if (arguments.length == 1 && arguments[0] instanceof SpeedmentPredicate) {
+            return Optional.of((SpeedmentPredicate<T>) arguments[0]);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the terms of the provided {@code predicate} if it is a
+     * conjunction, recursively, or else the {@code predicate} itself.
+     *
+     * @param predicate to split
+     * @return the terms of the provided {@code predicate}
+     */
+    static List<Object> conjuncts(final Object predicate) {
+        if (predicate instanceof CombinedPredicate && ((CombinedPredicate<?>) predicate).getType() == CombinedPredicate.Type.AND) {
+            final List<Object> conjuncts = new ArrayList<>();
+            ((CombinedPredicate<?>) predicate).stream().forEach(term -> conjuncts.addAll(conjuncts(term)));
+            return conjuncts;
+        }
+        return List.of(predicate);
+    }
+
+    /**
+     * Creates a {@link RenderResult} whose stream applies the remaining
+     * intermediate operations of the provided {@code pipeline} to the
+     * provided {@code baseStream}.
+     *
+     * @param pipeline holding the operations that were not rendered into a query
+     * @param baseStream of the elements read
+     * @param <E> the entity type
+     * @param <T> the type of the stream elements
+     * @param <S> the type of the stream
+     * @return a {@link RenderResult} of the provided {@code pipeline}
+     */
+    static <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderResult(final Pipeline<E> pipeline, final Stream<?> baseStream) {
+        final S replayed = replay(baseStream, pipeline);
+        return new StandardRenderResult<>(
+            pipeline.root(),
+            replayed,
+            pipeline.terminatingOperation()
+        );
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static <E, T, S extends BaseStream<T, S>> S replay(final Stream<?> stream, final Pipeline<E> pipeline) {
+        S decorated = (S) stream;
+        for (IntermediateOperation intermediateOperation : pipeline.intermediateOperations()) {
+            decorated = (S) intermediateOperation.function().apply(decorated);
+        }
+        return decorated;
+    }
+
+}
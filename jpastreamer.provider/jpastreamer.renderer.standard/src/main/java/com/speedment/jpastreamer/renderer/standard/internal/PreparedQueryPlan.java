@@ -0,0 +1,56 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.renderer.PreparedPipeline;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A {@link PreparedPipeline} holding the reproducible {@link QueryPlan}
+ * rendered for a pipeline and the fingerprint of that pipeline, which any
+ * pipeline the plan is applied to must have.
+ */
+final class PreparedQueryPlan implements PreparedPipeline {
+
+    private final PipelineFingerprint fingerprint;
+    private final QueryPlan queryPlan;
+    private final Set<String> parameterNames;
+
+    PreparedQueryPlan(final PipelineFingerprint fingerprint, final QueryPlan queryPlan) {
+        this.fingerprint = requireNonNull(fingerprint);
+        this.queryPlan = requireNonNull(queryPlan);
+        this.parameterNames = Collections.unmodifiableSet(queryPlan.parameterNames());
+    }
+
+    PipelineFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    QueryPlan queryPlan() {
+        return queryPlan;
+    }
+
+    @Override
+    public Set<String> parameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedQueryPlan{fingerprint=" + fingerprint + ", parameterNames=" + parameterNames + "}";
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.criteria.Criteria;
+import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.util.List;
+
+/**
+ * Support for creating the queries of rendered criteria: restricting the
+ * criteria by a merged filter, binding the values of their parameters and
+ * applying the hints of a {@link StreamConfiguration}.
+ */
+final class Queries {
+
+    private Queries() {}
+
+    /**
+     * Creates a query of the provided {@code query} using the provided
+     * {@code entityManager}, binds the provided {@code queryParameters} and
+     * applies the hints of the provided {@code streamConfiguration}.
+     *
+     * @param entityManager to create the query with
+     * @param query to create a query of
+     * @param queryParameters holding the values of the parameters of the {@code query}
+     * @param streamConfiguration holding the hints to apply
+     * @param <T> the result type of the query
+     * @return a query of the provided {@code query} ready to be executed
+     */
+    static <T> TypedQuery<T> create(
+        final EntityManager entityManager,
+        final CriteriaQuery<T> query,
+        final List<QueryParameter> queryParameters,
+        final StreamConfiguration<?> streamConfiguration
+    ) {
+        final TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        bind(typedQuery, queryParameters);
+        applyHints(typedQuery, streamConfiguration);
+        return typedQuery;
+    }
+
+    /**
+     * Binds the values of the provided {@code queryParameters} to the
+     * parameters they were created for.
+     *
+     * @param query to bind the values to
+     * @param queryParameters holding the parameters and their values
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static void bind(final Query query, final List<QueryParameter> queryParameters) {
+        queryParameters.forEach(queryParameter -> query.setParameter((ParameterExpression) queryParameter.getParameterExpression(), queryParameter.getValue()));
+    }
+
+    /**
+     * Binds the provided {@code values} by position to the provided
+     * {@code parameters}.
+     * <p>
+     * Values are bound by position as the values of a cached plan are
+     * obtained from another pipeline than the one the plan was rendered from.
+     *
+     * @param query to bind the values to
+     * @param parameters of the query in the order they were created
+     * @param values in the order of the {@code parameters}
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static void bind(final Query query, final List<ParameterExpression<?>> parameters, final List<Object> values) {
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter((ParameterExpression) parameters.get(i), values.get(i));
+        }
+    }
+
+    /**
+     * Applies the cursor settings and then the hints of the provided
+     * {@code streamConfiguration} so that explicit hints take precedence.
+     *
+     * @param query to apply the hints to
+     * @param streamConfiguration holding the cursor settings and the hints
+     */
+    static void applyHints(final Query query, final StreamConfiguration<?> streamConfiguration) {
+        CursorHints.apply(query, streamConfiguration);
+        streamConfiguration.hints().forEach(query::setHint);
+    }
+
+    /**
+     * Restricts the provided {@code criteria} by the predicate of the first of
+     * the provided {@code filters}, if any.
+     *
+     * @param predicateFactory to render the predicate with
+     * @param criteria to restrict
+     * @param filters that were merged into another criteria
+     * @param <T> the entity type
+     */
+    static <T> void applyFilter(final PredicateFactory predicateFactory, final Criteria<T, ?> criteria, final List<IntermediateOperation<?, ?>> filters) {
+        if (!filters.isEmpty()) {
+            // There can only be one JPAStreamer filter after the filter merge (see FilterCriteriaModifier).
+            Pipelines.<T>predicate(filters.get(0))
+                .ifPresent(speedmentPredicate -> criteria.getQuery().where(predicateFactory.createPredicate(criteria, speedmentPredicate)));
+        }
+    }
+
+}
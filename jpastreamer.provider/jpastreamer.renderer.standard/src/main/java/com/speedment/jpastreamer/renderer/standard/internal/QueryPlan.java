@@ -0,0 +1,475 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.AggregateCollector;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.expression.FieldMapper;
+import com.speedment.jpastreamer.field.predicate.CombinedPredicate;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.field.trait.HasArg1;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of rendering a {@link Pipeline}: the {@code CriteriaQuery} that
+ * was built and the parameters it expects in the order they were created.
+ * <p>
+ * A plan is reproducible if it can be applied to any pipeline having the
+ * same {@link PipelineFingerprint} as the pipeline it was rendered from, as
+ * it was before it was modified and optimized. Such a plan knows which of the
+ * original operations remain to be applied to the results of the query and
+ * which operands of the original predicates supply the values of its
+ * parameters, so that applying it to another pipeline only requires binding
+ * the values of that pipeline.
+ * <p>
+ * The parameters of a plan may hold the values of {@link Parameter Parameters}
+ * rather than the values of operands, in which case the values bound to those
+ * parameters are supplied when the plan is applied.
+ */
+final class QueryPlan {
+
+    enum Kind {
+        /** The query selects entities (or projections) that are fed to the remaining operations. */
+        ENTITIES,
+        /** The query selects a single count. */
+        COUNT,
+        /** The query selects the count, sum, min and max of a single column. */
+        AGGREGATE,
+        /** The query selects the value of a column and an aggregate for each group of that value. */
+        GROUPS
+    }
+
+    private final CriteriaQuery<?> query;
+    private final List<ParameterExpression<?>> parameters;
+    // The values of the pipeline the plan was rendered from, or null if they are bound to parameters
+    private final List<Object> values;
+    private final Set<String> parameterNames;
+    private final Kind kind;
+    // The added operations that remain, at their positions among the remaining operations
+    private final List<IntermediateOperation<?, ?>> addedResidue;
+    private final boolean residualParameters;
+    // The positions of the original operations that remain, -1 for added operations, or null if the plan is not reproducible
+    private final List<Integer> residualIndices;
+    private final List<ValueSource> valueSources;
+
+    private QueryPlan(
+        final CriteriaQuery<?> query,
+        final List<ParameterExpression<?>> parameters,
+        final List<Object> values,
+        final Set<String> parameterNames,
+        final Kind kind,
+        final List<IntermediateOperation<?, ?>> addedResidue,
+        final boolean residualParameters,
+        final List<Integer> residualIndices,
+        final List<ValueSource> valueSources
+    ) {
+        this.query = requireNonNull(query);
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.values = values == null ? null : Collections.unmodifiableList(values);
+        this.parameterNames = Collections.unmodifiableSet(parameterNames);
+        this.kind = requireNonNull(kind);
+        this.addedResidue = addedResidue == null ? null : Collections.unmodifiableList(addedResidue);
+        this.residualParameters = residualParameters;
+        this.residualIndices = residualIndices == null ? null : Collections.unmodifiableList(residualIndices);
+        this.valueSources = valueSources == null ? null : Collections.unmodifiableList(valueSources);
+    }
+
+    /**
+     * Creates the plan of the provided {@code query}.
+     *
+     * @param query that was rendered
+     * @param queryParameters of the query in the order they were created
+     * @param kind of the query
+     * @param operations of the pipeline before it was modified and optimized
+     * @param added operations that were added to the pipeline by modifying its terminal operation, and that
+     *              thus are the same for any pipeline with the same fingerprint
+     * @param remaining operations of the pipeline that were not rendered into the query
+     * @param residueRendered if the query depends on the behaviour of the remaining operations,
+     *                        for example if their selection was derived from them
+     * @return the plan of the provided {@code query}
+     */
+    static QueryPlan of(
+        final CriteriaQuery<?> query,
+        final List<QueryParameter> queryParameters,
+        final Kind kind,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<IntermediateOperation<?, ?>> added,
+        final List<IntermediateOperation<?, ?>> remaining,
+        final boolean residueRendered
+    ) {
+        final List<ParameterExpression<?>> parameters = new ArrayList<>(queryParameters.size());
+        final Set<String> parameterNames = new LinkedHashSet<>();
+        for (QueryParameter<?> queryParameter : queryParameters) {
+            parameters.add(queryParameter.getParameterExpression());
+            queryParameter.getPlaceholder().ifPresent(parameter -> parameterNames.add(parameter.name()));
+        }
+        // The values of parameters holding the values of Parameters are only known when they are bound
+        final List<Object> values = parameterNames.isEmpty()
+            ? queryParameters.stream().map(QueryParameter::getValue).collect(Collectors.toList())
+            : null;
+
+        final List<Integer> residualIndices = residualIndices(operations, added, remaining, residueRendered);
+        final List<ValueSource> valueSources = residualIndices == null ? null : valueSources(operations, residualIndices, queryParameters);
+
+        final boolean residualParameters = remaining.stream()
+            .flatMap(operation -> leaves(operation).stream())
+            .anyMatch(predicate -> operand(predicate, 0) instanceof Parameter || operand(predicate, 1) instanceof Parameter);
+
+        if (valueSources == null) {
+            return new QueryPlan(query, parameters, values, parameterNames, kind, null, residualParameters, null, null);
+        }
+
+        // Only added operations are kept, the others are taken from the pipeline the plan is applied to
+        final List<IntermediateOperation<?, ?>> addedResidue = new ArrayList<>(remaining.size());
+        for (int i = 0; i < remaining.size(); i++) {
+            addedResidue.add(residualIndices.get(i) < 0 ? remaining.get(i) : null);
+        }
+        return new QueryPlan(query, parameters, values, parameterNames, kind, addedResidue, residualParameters, residualIndices, valueSources);
+    }
+
+    /**
+     * Creates a query of the plan using the provided {@code entityManager}.
+     * <p>
+     * A cached plan is shared by all renderers of its cache, possibly running
+     * in different threads. As providers may traverse (or copy) the
+     * {@code CriteriaQuery} when creating a query from it, queries are created
+     * one at a time.
+     *
+     * @param entityManager to create the query with
+     * @param <R> the result type of the query
+     * @return a query of the plan
+     */
+    @SuppressWarnings("unchecked")
+    <R> TypedQuery<R> createQuery(final EntityManager entityManager) {
+        synchronized (query) {
+            return entityManager.createQuery((CriteriaQuery<R>) query);
+        }
+    }
+
+    List<ParameterExpression<?>> parameters() {
+        return parameters;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    boolean isReproducible() {
+        return residualIndices != null;
+    }
+
+    /**
+     * Returns the names of the {@link Parameter Parameters} whose values the
+     * parameters of the query hold.
+     *
+     * @return the names of the parameters of the plan
+     */
+    Set<String> parameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Returns if any of the operations that remain to be applied to the
+     * results of the query compares to a {@link Parameter}, which only has
+     * a value in the query.
+     *
+     * @return if any of the remaining operations compares to a parameter
+     */
+    boolean hasResidualParameters() {
+        return residualParameters;
+    }
+
+    /**
+     * Returns the values of the parameters of the query, in the order of
+     * {@link #parameters()}, as supplied by the pipeline the plan was
+     * rendered from.
+     *
+     * @return the values of the parameters of the query
+     * @throws IllegalStateException if a parameter holds the value of a
+     *         {@link Parameter}, which only prepared pipelines bind
+     */
+    List<Object> values() {
+        if (values == null) {
+            throw new IllegalStateException("The parameters " + parameterNames + " have no values as they are only bound by prepared streams");
+        }
+        return values;
+    }
+
+    /**
+     * Returns the values of the parameters of the query, in the order of
+     * {@link #parameters()}, as supplied by the provided {@code operations} of
+     * a pipeline that has the same fingerprint as the pipeline the plan was
+     * rendered from.
+     *
+     * @param operations of a pipeline that is neither modified nor optimized
+     * @return the values of the parameters of the query
+     */
+    List<Object> values(final List<IntermediateOperation<?, ?>> operations) {
+        return values(operations, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the values of the parameters of the query, in the order of
+     * {@link #parameters()}, as supplied by the provided {@code operations} of
+     * a pipeline that has the same fingerprint as the pipeline the plan was
+     * rendered from and by the provided values bound to its {@link Parameter Parameters}.
+     *
+     * @param operations of a pipeline that is neither modified nor optimized
+     * @param bindings values of the parameters of the pipeline, by name
+     * @return the values of the parameters of the query
+     * @throws IllegalArgumentException if a parameter has no value
+     */
+    List<Object> values(final List<IntermediateOperation<?, ?>> operations, final Map<String, ?> bindings) {
+        final List<Object> values = new ArrayList<>(valueSources.size());
+        for (ValueSource valueSource : valueSources) {
+            final Optional<Parameter<?>> placeholder = valueSource.queryParameter.getPlaceholder();
+            if (placeholder.isPresent()) {
+                if (!bindings.containsKey(placeholder.get().name())) {
+                    throw new IllegalArgumentException("No value is bound to the parameter " + placeholder.get());
+                }
+                values.add(valueSource.queryParameter.bind(bindings.get(placeholder.get().name())));
+            } else {
+                final FieldPredicate<?> predicate = leaves(operations.get(valueSource.operationIndex)).get(valueSource.leafIndex);
+                values.add(valueSource.queryParameter.getValue(predicate));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Replaces the operations of the provided {@code pipeline} by the
+     * operations that remain to be applied to the results of the query, just
+     * like modifying, optimizing and merging the pipeline would.
+     *
+     * @param pipeline that is neither modified nor optimized
+     */
+    void restore(final Pipeline<?> pipeline) {
+        final List<IntermediateOperation<?, ?>> intermediateOperations = pipeline.intermediateOperations();
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(intermediateOperations);
+        intermediateOperations.clear();
+        for (int i = 0; i < residualIndices.size(); i++) {
+            final int index = residualIndices.get(i);
+            intermediateOperations.add(index < 0 ? addedResidue.get(i) : operations.get(index));
+        }
+    }
+
+    /*
+     * Returns the positions of the remaining operations among the original operations, or -1 for an added
+     * operation having nothing but numbers as arguments, or null if an operation was replaced or if an original
+     * operation that is no longer part of the pipeline is not described by the fingerprint alone.
+     */
+    private static List<Integer> residualIndices(
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<IntermediateOperation<?, ?>> added,
+        final List<IntermediateOperation<?, ?>> remaining,
+        final boolean residueRendered
+    ) {
+        final List<Integer> residualIndices = new ArrayList<>(remaining.size());
+        for (IntermediateOperation<?, ?> operation : remaining) {
+            final int index = indexOf(operations, operation);
+            if (index < 0 && (indexOf(added, operation) < 0 || !isConstant(operation))) {
+                return null;
+            }
+            if (residueRendered && !isDescribedResidue(operation)) {
+                return null;
+            }
+            residualIndices.add(index);
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            if (!residualIndices.contains(i) && !isDescribed(operations.get(i))) {
+                return null;
+            }
+        }
+        return residualIndices;
+    }
+
+    /*
+     * Returns where the value of each parameter is found among the original operations, or null if the value of a
+     * parameter can not be located or if an operand of a merged predicate is not bound as a parameter.
+     */
+    private static List<ValueSource> valueSources(
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<Integer> residualIndices,
+        final List<QueryParameter> queryParameters
+    ) {
+        final Map<FieldPredicate<?>, ValueSource> locations = new IdentityHashMap<>();
+        final Map<FieldPredicate<?>, Integer> operands = new IdentityHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            final List<FieldPredicate<?>> leaves = leaves(operations.get(i));
+            for (int j = 0; j < leaves.size(); j++) {
+                // A predicate used twice may be merged once, leaving it open which of its uses supplies the values
+                if (locations.put(leaves.get(j), new ValueSource(null, i, j)) != null) {
+                    return null;
+                }
+                if (!residualIndices.contains(i)) {
+                    operands.put(leaves.get(j), boundOperands(leaves.get(j)));
+                }
+            }
+        }
+
+        final List<ValueSource> valueSources = new ArrayList<>(queryParameters.size());
+        for (QueryParameter queryParameter : queryParameters) {
+            final FieldPredicate<?> predicate = (FieldPredicate<?>) queryParameter.getPredicate().orElse(null);
+            final ValueSource location = predicate == null ? null : locations.get(predicate);
+            if (location == null) {
+                return null;
+            }
+            valueSources.add(new ValueSource(queryParameter, location.operationIndex, location.leafIndex));
+            operands.computeIfPresent(predicate, (p, count) -> count - 1);
+        }
+
+        // Operands that are not bound, but for example compared to by an optimizer, would be taken from the original pipeline
+        return operands.values().stream().allMatch(count -> count == 0) ? valueSources : null;
+    }
+
+    private static int indexOf(final List<IntermediateOperation<?, ?>> operations, final IntermediateOperation<?, ?> operation) {
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) == operation) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the number of operands of the provided predicate that must be bound as parameters. Null values and
+     * sets of values are rendered into the query and are part of the fingerprint.
+     */
+    private static int boundOperands(final FieldPredicate<?> predicate) {
+        int count = 0;
+        if (isBound(operand(predicate, 0))) {
+            count++;
+        }
+        if (isBound(operand(predicate, 1))) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Object operand(final FieldPredicate<?> predicate, final int operand) {
+        if (operand == 0) {
+            return predicate instanceof HasArg0 ? ((HasArg0<?>) predicate).get0() : null;
+        }
+        return predicate instanceof HasArg1 ? ((HasArg1<?>) predicate).get1() : null;
+    }
+
+    private static boolean isBound(final Object operand) {
+        return operand != null && !(operand instanceof Set);
+    }
+
+    private static List<FieldPredicate<?>> leaves(final IntermediateOperation<?, ?> operation) {
+        final List<FieldPredicate<?>> leaves = new ArrayList<>();
+        Arrays.stream(operation.arguments()).forEach(argument -> addLeaves(argument, leaves));
+        return leaves;
+    }
+
+    private static void addLeaves(final Object predicate, final List<FieldPredicate<?>> leaves) {
+        if (predicate instanceof FieldPredicate) {
+            leaves.add((FieldPredicate<?>) predicate);
+        } else if (predicate instanceof CombinedPredicate) {
+            ((CombinedPredicate<?>) predicate).stream().forEachOrdered(term -> addLeaves(term, leaves));
+        }
+    }
+
+    /*
+     * Returns if the arguments of the provided operation behave the same as the arguments of any other operation
+     * with the same fingerprint, apart from the operands of their predicates.
+     */
+    private static boolean isDescribed(final IntermediateOperation<?, ?> operation) {
+        return Arrays.stream(operation.arguments()).allMatch(QueryPlan::isDescribed);
+    }
+
+    /*
+     * Returns if the provided remaining operation derives the same query as any other operation with the same
+     * fingerprint. Numbers, such as the sizes of limits and skips, are applied to the query rather than rendered.
+     */
+    private static boolean isDescribedResidue(final IntermediateOperation<?, ?> operation) {
+        return Arrays.stream(operation.arguments()).allMatch(argument -> argument instanceof Number || isDescribed(argument));
+    }
+
+    /*
+     * Returns if the provided operation, such as a limit added for a terminal operation, behaves the same as any
+     * other operation of its type having the same arguments.
+     */
+    private static boolean isConstant(final IntermediateOperation<?, ?> operation) {
+        return Arrays.stream(operation.arguments()).allMatch(argument -> argument instanceof Number);
+    }
+
+    private static boolean isDescribed(final Object argument) {
+        if (argument == null || argument instanceof FieldPredicate || argument instanceof Field || argument instanceof FieldComparator || argument instanceof AggregateCollector) {
+            return true;
+        }
+        if (argument instanceof CombinedPredicate) {
+            return ((CombinedPredicate<?>) argument).stream().allMatch(QueryPlan::isDescribed);
+        }
+        if (argument instanceof CombinedComparator) {
+            return ((CombinedComparator<?>) argument).stream().allMatch(QueryPlan::isDescribed);
+        }
+        if (argument instanceof FieldMapper) {
+            return isStateless(((FieldMapper<?, ?, ?, ?, ?>) argument).getMapper().getClass());
+        }
+        if (argument instanceof GroupingCollector) {
+            return isDescribed(((GroupingCollector<?, ?, ?>) argument).getDownstream());
+        }
+        // Other arguments are described by their class, which determines their behaviour only if they hold no state
+        return isStateless(argument.getClass());
+    }
+
+    private static boolean isStateless(final Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (Arrays.stream(c.getDeclaredFields()).anyMatch(field -> !Modifier.isStatic(field.getModifiers()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class ValueSource {
+
+        private final QueryParameter queryParameter;
+        private final int operationIndex;
+        private final int leafIndex;
+
+        private ValueSource(final QueryParameter queryParameter, final int operationIndex, final int leafIndex) {
+            this.queryParameter = queryParameter;
+            this.operationIndex = operationIndex;
+            this.leafIndex = leafIndex;
+        }
+    }
+}
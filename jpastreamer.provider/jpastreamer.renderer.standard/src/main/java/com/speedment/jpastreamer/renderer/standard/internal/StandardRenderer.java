@@ -12,12 +12,15 @@
  */
 package com.speedment.jpastreamer.renderer.standard.internal;
 
-import static com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType.FILTER;
 import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.criteria.Criteria;
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
 import com.speedment.jpastreamer.criteria.PredicateFactory;
+import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.collector.GroupingCollector;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
 import com.speedment.jpastreamer.field.predicate.SpeedmentPredicate;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
 import com.speedment.jpastreamer.merger.CriteriaMerger;
@@ -26,10 +29,17 @@ import com.speedment.jpastreamer.merger.QueryMerger;
 import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
 import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationType;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
 import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationType;
 import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.renderer.Acceleration;
+import com.speedment.jpastreamer.renderer.PreparedPipeline;
+import com.speedment.jpastreamer.renderer.QueryPlanCache;
 import com.speedment.jpastreamer.renderer.RenderResult;
 import com.speedment.jpastreamer.renderer.Renderer;
+import com.speedment.jpastreamer.renderer.RendererOptions;
+import com.speedment.jpastreamer.renderer.ResultCache;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
@@ -39,11 +49,18 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
@@ -51,7 +68,15 @@ import java.util.stream.Stream;
 
 final class StandardRenderer implements Renderer {
 
-    private final EntityManager entityManager;
+    // Obtained upon the first query, holding a permit of the concurrency limit until closed
+    private EntityManager entityManager;
+    private boolean closed;
+    private final Supplier<EntityManager> entityManagerSupplier;
+    private final Executor executor;
+    private final Semaphore concurrencyLimit;
+    private final ResultCache resultCache;
+    private final QueryPlanCache queryPlanCache;
+    private final Acceleration acceleration;
     private final CriteriaFactory criteriaFactory;
     private final PredicateFactory predicateFactory;
 
@@ -60,107 +85,448 @@ final class StandardRenderer implements Renderer {
     private final TerminalOperationOptimizerFactory terminalOperationOptimizerFactory;
 
     private final MergerFactory mergerFactory;
+    private final TerminalOperationFactory terminalOperationFactory;
 
     StandardRenderer(final EntityManagerFactory entityManagerFactory) {
         this(entityManagerFactory::createEntityManager); 
     }
 
     StandardRenderer(final Supplier<EntityManager> entityManagerSupplier) {
-        this.entityManager = requireNonNull(entityManagerSupplier).get();
+        this(entityManagerSupplier, RendererOptions.defaults());
+    }
+
+    StandardRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererOptions options) {
+        this.entityManagerSupplier = requireNonNull(entityManagerSupplier);
+        this.executor = options.executor().orElse(null);
+        this.concurrencyLimit = options.concurrencyLimit().orElse(null);
+        this.resultCache = options.resultCache().orElse(null);
+        this.queryPlanCache = options.queryPlanCache().orElse(null);
+        this.acceleration = options.acceleration().orElse(null);
         this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
         this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load); 
         this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
         this.terminalOperationModifierFactory = RootFactory.getOrThrow(TerminalOperationModifierFactory.class, ServiceLoader::load);
         this.terminalOperationOptimizerFactory = RootFactory.getOrThrow(TerminalOperationOptimizerFactory.class, ServiceLoader::load);
         this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+        this.terminalOperationFactory = RootFactory.getOrThrow(TerminalOperationFactory.class, ServiceLoader::load);
     }
     
     StandardRenderer(final EntityManager entityManager) {
         this.entityManager = entityManager; 
+        this.entityManagerSupplier = null;
+        this.executor = null;
+        this.concurrencyLimit = null;
+        this.resultCache = null;
+        this.queryPlanCache = null;
+        this.acceleration = null;
         this.criteriaFactory = RootFactory.getOrThrow(CriteriaFactory.class, ServiceLoader::load);
         this.predicateFactory = RootFactory.getOrThrow(PredicateFactory.class, ServiceLoader::load);
         this.intermediateOperationOptimizerFactory = RootFactory.getOrThrow(IntermediateOperationOptimizerFactory.class, ServiceLoader::load);
         this.terminalOperationModifierFactory = RootFactory.getOrThrow(TerminalOperationModifierFactory.class, ServiceLoader::load);
         this.terminalOperationOptimizerFactory = RootFactory.getOrThrow(TerminalOperationOptimizerFactory.class, ServiceLoader::load);
         this.mergerFactory = RootFactory.getOrThrow(MergerFactory.class, ServiceLoader::load);
+        this.terminalOperationFactory = RootFactory.getOrThrow(TerminalOperationFactory.class, ServiceLoader::load);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        if (isAccelerated(pipeline, streamConfiguration)) {
+            modifyPipeline(pipeline);
+            optimizePipeline(pipeline);
+            return AcceleratedExecution.execute(acceleration, entityManagerSupplier, concurrencyLimit, pipeline);
+        }
+
+        // Keyset values are rendered into the query rather than bound as parameters and chunks and partitions are read using several queries
+        final PipelineFingerprint fingerprint = (queryPlanCache != null || isCachingResults(pipeline.root()))
+                && streamConfiguration.keyset().isEmpty() && streamConfiguration.chunking().isEmpty() && !pipeline.isParallel()
+                ? PipelineFingerprint.of(pipeline, streamConfiguration)
+                : null;
+
+        // The fingerprint describes the pipeline as it is before it is modified and optimized, so a cached plan only needs its values
+        if (fingerprint != null && queryPlanCache != null && !fingerprint.hasInlinedValues()) {
+            final QueryPlan queryPlan = (QueryPlan) queryPlanCache.get(fingerprint);
+            if (queryPlan != null) {
+                final List<Object> values = queryPlan.values(pipeline.intermediateOperations());
+                queryPlan.restore(pipeline);
+                return execute(pipeline, streamConfiguration, queryPlan, values, fingerprint);
+            }
+        }
+
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline.intermediateOperations());
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+
         modifyPipeline(pipeline);
+        final List<IntermediateOperation<?, ?>> added = added(operations, pipeline);
         optimizePipeline(pipeline);
 
-        final Class<E> entityClass = pipeline.root();
+        // EntityManager::find returns the managed entities of the persistence context, which a read-only stream must not be served
+        final Optional<FieldPredicate<E>> idPredicate = isPlain(streamConfiguration) && !streamConfiguration.isReadOnly()
+                ? IdLookup.idPredicate(entityManager(), pipeline)
+                : Optional.empty();
+        if (idPredicate.isPresent()) {
+            return LookupExecution.execute(entityManager(), pipeline, streamConfiguration, idPredicate.get());
+        }
 
-        final CriteriaMerger criteriaMerger = mergerFactory.createCriteriaMerger();
-        final QueryMerger queryMerger = mergerFactory.createQueryMerger();
+        if (streamConfiguration.selections().isEmpty() && streamConfiguration.keyset().isEmpty() && streamConfiguration.chunking().isEmpty()) {
+            final Optional<List<SpeedmentPredicate<E>>> chunkedPredicates = InLists.chunkedPredicates(pipeline);
+            if (chunkedPredicates.isPresent()) {
+                if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().size() == 1) {
+                    return InListExecution.executeCounts(criteriaFactory, predicateFactory, entityManager(), pipeline, chunkedPredicates.get());
+                }
+                // Reading the entities of every chunk to compute a result that the database can compute from a single query would hold them all in memory
+                if (!InListExecution.isComputedByDatabase(pipeline)) {
+                    return InListExecution.execute(criteriaFactory, predicateFactory, entityManager(), pipeline, streamConfiguration, chunkedPredicates.get());
+                }
+            }
+        }
 
-        final Criteria<E, E> criteria = criteriaFactory.createCriteria(entityManager, entityClass);
-        criteria.getRoot().alias(pipeline.root().getSimpleName());
+        // The original operations and terminal operation are only needed to reproduce the plan of a fingerprinted pipeline
+        return fingerprint == null || pipeline.terminatingOperation() != terminalOperation
+                ? renderAndExecute(pipeline, streamConfiguration, null, operations, added)
+                : renderAndExecute(pipeline, streamConfiguration, fingerprint, operations, added);
+    }
 
-        // Makes SonarType happy:
-        final Optional<Projection<E>> oSelections = streamConfiguration.selections();
-        if (oSelections.isPresent()) {
-            final Projection<E> projection = oSelections.get();
-            final Path<?>[] columns = projection.fields().stream().map(field -> criteria.getRoot().get(field.columnName())).toArray(Path[]::new);
-            final CompoundSelection<E> selection = criteria.getBuilder().construct(projection.entityClass(), columns);
+    @Override
+    public <E> PreparedPipeline prepare(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+        // Keyset values are rendered into the query and chunks and partitions are read using several queries
+        if (streamConfiguration.keyset().isPresent() || streamConfiguration.chunking().isPresent() || pipeline.isParallel()) {
+            throw new IllegalArgumentException("A pipeline that is paginated by a keyset, chunked or parallel can not be prepared");
+        }
 
-            criteria.getQuery().select(selection);
-        } else {
-            criteria.getQuery().select(criteria.getRoot());
+        final PipelineFingerprint fingerprint = PipelineFingerprint.of(pipeline, streamConfiguration);
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline.intermediateOperations());
+        final TerminalOperation<?, ?> terminalOperation = pipeline.terminatingOperation();
+
+        modifyPipeline(pipeline);
+        final List<IntermediateOperation<?, ?>> added = added(operations, pipeline);
+        optimizePipeline(pipeline);
+
+        if (pipeline.terminatingOperation() != terminalOperation) {
+            throw new IllegalArgumentException("A pipeline terminated by " + terminalOperation.type() + " can not be prepared");
         }
 
+        final List<IntermediateOperation<?, ?>> filters = filters(pipeline);
+        final Criteria<E, Object> criteria = merge(pipeline, streamConfiguration);
+        final boolean autoProjected = criteria.getQuery().getSelection() == null && select(criteria, pipeline, streamConfiguration);
+        final QueryPlan queryPlan = createQueryPlan(pipeline, streamConfiguration, criteria, filters, kind(pipeline), autoProjected, operations, added);
+
+        if (!queryPlan.isReproducible()) {
+            throw new IllegalArgumentException("The pipeline can not be prepared as its query depends on more than the values of its predicates");
+        }
+        if (queryPlan.hasResidualParameters()) {
+            throw new IllegalArgumentException("The pipeline can not be prepared as a predicate comparing to a parameter can not be rendered into its query");
+        }
+        return new PreparedQueryPlan(fingerprint, queryPlan);
+    }
+
+    @Override
+    public <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> render(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final PreparedPipeline prepared,
+        final Map<String, ?> values
+    ) {
+        requireNonNull(pipeline);
+        requireNonNull(streamConfiguration);
+        requireNonNull(values);
+        if (!(prepared instanceof PreparedQueryPlan)) {
+            throw new IllegalArgumentException("The pipeline " + prepared + " was not prepared by this renderer");
+        }
+
+        // Neither modifies nor optimizes the pipeline, its shape is only compared to the prepared pipeline
+        final PreparedQueryPlan preparedQueryPlan = (PreparedQueryPlan) prepared;
+        final PipelineFingerprint fingerprint = PipelineFingerprint.of(pipeline, streamConfiguration);
+        if (!fingerprint.equals(preparedQueryPlan.fingerprint())) {
+            throw new IllegalArgumentException("The pipeline is not of the same shape as the prepared pipeline");
+        }
+
+        final QueryPlan queryPlan = preparedQueryPlan.queryPlan();
+        final List<Object> parameterValues = queryPlan.values(pipeline.intermediateOperations(), values);
+        queryPlan.restore(pipeline);
+        return execute(pipeline, streamConfiguration, queryPlan, parameterValues, fingerprint);
+    }
+
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> renderAndExecute(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final PipelineFingerprint fingerprint,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<IntermediateOperation<?, ?>> added
+    ) {
+        final List<IntermediateOperation<?, ?>> filters = filters(pipeline);
+        final Criteria<E, Object> criteria = merge(pipeline, streamConfiguration);
+        final boolean autoProjected = criteria.getQuery().getSelection() == null && select(criteria, pipeline, streamConfiguration);
+        final QueryPlan.Kind kind = kind(pipeline);
+
+        if (kind == QueryPlan.Kind.ENTITIES && streamConfiguration.chunking().isPresent()) {
+            final List<IntermediateOperation<?, ?>> mergedFilters = filters.stream()
+                    .filter(operation -> pipeline.intermediateOperations().stream().noneMatch(remaining -> remaining == operation))
+                    .collect(Collectors.toList());
+            return ChunkedExecution.execute(criteriaFactory, predicateFactory, mergerFactory.createQueryMerger(), entityManager(), pipeline, streamConfiguration, criteria, mergedFilters);
+        }
+        if (kind == QueryPlan.Kind.ENTITIES && entityManagerSupplier != null) {
+            final Optional<SingularAttribute<? super E, ?>> partitionKey = PartitionedExecution.partitionKey(pipeline, streamConfiguration, criteria);
+            // Only the permits that are available right away are used, as the permits held by the caller might never be released
+            final int permits = partitionKey.isPresent() ? Permits.tryAcquire(concurrencyLimit, streamConfiguration.partitions().getAsInt()) : 0;
+            if (permits > 0) {
+                return PartitionedExecution.execute(entityManager(), entityManagerSupplier, executor, concurrencyLimit, permits, pipeline, streamConfiguration, criteria, partitionKey.get());
+            }
+        }
+
+        final QueryPlan queryPlan = createQueryPlan(pipeline, streamConfiguration, criteria, filters, kind, autoProjected, operations, added);
+        final List<Object> values = queryPlan.values();
+
+        // A plan that cannot be reproduced from its fingerprint must neither be reused nor have its results reused
+        if (fingerprint != null && queryPlan.isReproducible()) {
+            if (queryPlanCache != null && !fingerprint.hasInlinedValues()) {
+                queryPlanCache.put(fingerprint, queryPlan);
+            }
+            return execute(pipeline, streamConfiguration, queryPlan, values, fingerprint);
+        }
+
+        return execute(pipeline, streamConfiguration, queryPlan, values, null);
+    }
+
+    /*
+     * Returns the filters of the provided pipeline, which are merged into the criteria of every kind of query.
+     */
+    private <E> List<IntermediateOperation<?, ?>> filters(final Pipeline<E> pipeline) {
+        return pipeline.intermediateOperations()
+                .stream().filter(io -> io.type() == IntermediateOperationType.FILTER)
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Merges the operations of the provided pipeline into new criteria selecting its root, removing them from the pipeline.
+     */
+    private <E> Criteria<E, Object> merge(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        final CriteriaMerger criteriaMerger = mergerFactory.createCriteriaMerger();
+
+        // The result type is left open as the criteria merger may select a single column rather than the entity
+        final Criteria<E, Object> criteria = criteriaFactory.createCriteria(entityManager(), pipeline.root(), Object.class);
+        criteria.getRoot().alias(pipeline.root().getSimpleName());
+
         streamConfiguration.joins()
                 .forEach(joinConfiguration -> criteria.getRoot().fetch(joinConfiguration.field().columnName(), joinConfiguration.joinType()));
 
-        List<IntermediateOperation<?, ?>> filters = pipeline.intermediateOperations()
-                .stream().filter(io -> io.type() == IntermediateOperationType.FILTER)
-                .collect(Collectors.toList()); 
         criteriaMerger.merge(pipeline, criteria);
 
+        streamConfiguration.keyset().ifPresent(keyset -> {
+            // The seek condition only holds if the elements are ordered by nothing but the keys
+            if (!isKeyOrder(criteria.getQuery().getOrderList(), keyset.keys())) {
+                throw new IllegalStateException("A stream " + keyset + " can only be sorted by a prefix of its keys before it is limited");
+            }
+            applyKeyset(criteria, keyset);
+            criteria.getQuery().orderBy(keyset.keys().stream().map(key -> order(criteria, key)).collect(Collectors.toList()));
+        });
+
+        return criteria;
+    }
+
+    private <E> QueryPlan.Kind kind(final Pipeline<E> pipeline) {
         if (pipeline.terminatingOperation().type() == TerminalOperationType.COUNT && pipeline.intermediateOperations().isEmpty()) {
-            final Criteria<E, Long> countCriteria = createCountCriteria(criteria, filters);
+            return QueryPlan.Kind.COUNT;
+        }
+        if (Aggregation.aggregatedField(pipeline).isPresent()) {
+            return QueryPlan.Kind.AGGREGATE;
+        }
+        if (Grouping.groupingCollector(pipeline).isPresent()) {
+            return QueryPlan.Kind.GROUPS;
+        }
+        return QueryPlan.Kind.ENTITIES;
+    }
+
+    private <E> QueryPlan createQueryPlan(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final Criteria<E, Object> criteria,
+        final List<IntermediateOperation<?, ?>> filters,
+        final QueryPlan.Kind kind,
+        final boolean autoProjected,
+        final List<IntermediateOperation<?, ?>> operations,
+        final List<IntermediateOperation<?, ?>> added
+    ) {
+        final Criteria<E, ?> queryCriteria;
+        switch (kind) {
+            case COUNT:
+                queryCriteria = createCountCriteria(criteria, filters, streamConfiguration);
+                break;
+            case AGGREGATE:
+                queryCriteria = createAggregateCriteria(criteria, filters, streamConfiguration, Aggregation.aggregatedField(pipeline).orElseThrow());
+                break;
+            case GROUPS:
+                queryCriteria = createGroupingCriteria(criteria, filters, streamConfiguration, Grouping.groupingCollector(pipeline).orElseThrow());
+                break;
+            default:
+                queryCriteria = criteria;
+        }
+        return QueryPlan.of(queryCriteria.getQuery(), queryCriteria.getQueryParameters(), kind, operations, added, pipeline.intermediateOperations(), autoProjected);
+    }
 
-            final TypedQuery<Long> typedQuery = entityManager.createQuery(countCriteria.getQuery());
+    /*
+     * Returns the operations that modifying the terminal operation of the provided pipeline added to the provided
+     * original operations.
+     */
+    private static List<IntermediateOperation<?, ?>> added(final List<IntermediateOperation<?, ?>> operations, final Pipeline<?> pipeline) {
+        return pipeline.intermediateOperations().stream()
+                .filter(operation -> operations.stream().noneMatch(original -> original == operation))
+                .collect(Collectors.toList());
+    }
 
-            countCriteria.getQueryParameters().forEach(
-                queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
-            );
+    @SuppressWarnings("unchecked")
+    private <E, T, S extends BaseStream<T, S>> RenderResult<E, T, S> execute(
+        final Pipeline<E> pipeline,
+        final StreamConfiguration<E> streamConfiguration,
+        final QueryPlan queryPlan,
+        final List<Object> values,
+        final PipelineFingerprint fingerprint
+    ) {
+        final Class<E> entityClass = pipeline.root();
+
+        final List<Object> resultKey = fingerprint != null && isCachingResults(entityClass)
+                ? resultKey(fingerprint, streamConfiguration, values)
+                : null;
+
+        if (queryPlan.kind() == QueryPlan.Kind.COUNT) {
+            final TypedQuery<Long> typedQuery = queryPlan.createQuery(entityManager());
+
+            Queries.bind(typedQuery, queryPlan.parameters(), values);
 
             return (RenderResult<E, T, S>) new StandardRenderResult<>(
                     entityClass,
-                    typedQuery.getResultStream(),
+                    resultKey == null
+                        ? typedQuery.getResultStream()
+                        : cachedResultList(entityClass, resultKey, typedQuery::getResultList).stream(),
                     pipeline.terminatingOperation()
             );
         }
 
-        final TypedQuery<E> typedQuery = entityManager.createQuery(criteria.getQuery());
+        if (queryPlan.kind() == QueryPlan.Kind.AGGREGATE) {
+            final TypedQuery<Object[]> typedQuery = queryPlan.createQuery(entityManager());
 
-        criteria.getQueryParameters().forEach(
-            queryParameter -> typedQuery.setParameter(queryParameter.getParameterExpression(), queryParameter.getValue())
-        );
+            Queries.bind(typedQuery, queryPlan.parameters(), values);
+            Queries.applyHints(typedQuery, streamConfiguration);
+
+            final Object[] aggregates = resultKey == null
+                    ? typedQuery.getSingleResult()
+                    : cachedResultList(entityClass, resultKey, () -> List.<Object[]>of(typedQuery.getSingleResult())).get(0);
+
+            return Aggregation.renderResult(pipeline, aggregates, terminalOperationFactory);
+        }
+
+        if (queryPlan.kind() == QueryPlan.Kind.GROUPS) {
+            final TypedQuery<Object[]> typedQuery = queryPlan.createQuery(entityManager());
 
-        streamConfiguration.hints().forEach((hintName, value) -> typedQuery.setHint(hintName, value));
+            Queries.bind(typedQuery, queryPlan.parameters(), values);
+            Queries.applyHints(typedQuery, streamConfiguration);
+
+            final List<Object[]> groups = resultKey == null
+                    ? typedQuery.getResultList()
+                    : cachedResultList(entityClass, resultKey, typedQuery::getResultList);
+
+            return Grouping.renderResult(pipeline, groups, terminalOperationFactory);
+        }
+
+        final QueryMerger queryMerger = mergerFactory.createQueryMerger();
+
+        final TypedQuery<E> typedQuery = queryPlan.createQuery(entityManager());
+
+        Queries.bind(typedQuery, queryPlan.parameters(), values);
+        Queries.applyHints(typedQuery, streamConfiguration);
 
         queryMerger.merge(pipeline, typedQuery);
 
-        final Stream<E> baseStream = typedQuery.getResultStream();
-        final S replayed = replay(baseStream, pipeline);
+        final Stream<E> baseStream;
+        if (resultKey == null) {
+            baseStream = typedQuery.getResultStream();
+        } else {
+            // Skip and limit are merged into the query and their values are not part of the fingerprint
+            resultKey.add(typedQuery.getFirstResult());
+            resultKey.add(typedQuery.getMaxResults());
+            baseStream = cachedResultList(entityClass, resultKey, typedQuery::getResultList).stream();
+        }
+        return Pipelines.renderResult(pipeline, baseStream);
+    }
 
-        return new StandardRenderResult<>(
-                entityClass,
-                replayed,
-                pipeline.terminatingOperation()
-        );
+    private <E> boolean isAccelerated(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        return acceleration != null
+            && entityManagerSupplier != null
+            && acceleration.isAccelerating(pipeline.root())
+            && isPlain(streamConfiguration);
+    }
+
+    /*
+     * Returns if the provided configuration streams entities as they are, i.e. without joins, projections, keysets or chunks.
+     */
+    private boolean isPlain(final StreamConfiguration<?> streamConfiguration) {
+        return streamConfiguration.joins().isEmpty()
+            && streamConfiguration.selections().isEmpty()
+            && streamConfiguration.keyset().isEmpty()
+            && streamConfiguration.chunking().isEmpty();
+    }
+
+    private boolean isCachingResults(final Class<?> entityClass) {
+        return resultCache != null && resultCache.isCaching(entityClass);
+    }
+
+    private List<Object> resultKey(final PipelineFingerprint fingerprint, final StreamConfiguration<?> streamConfiguration, final List<Object> values) {
+        final List<Object> resultKey = new ArrayList<>();
+        resultKey.add(fingerprint);
+        resultKey.add(streamConfiguration.hints());
+        // Read-only entities are not managed and must not be served to streams expecting managed entities
+        resultKey.add(streamConfiguration.isReadOnly());
+        resultKey.addAll(values);
+        return resultKey;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> List<R> cachedResultList(final Class<?> entityClass, final List<Object> resultKey, final Supplier<List<R>> query) {
+        final List<R> cached = (List<R>) resultCache.get(resultKey);
+        if (cached != null) {
+            return cached;
+        }
+        final long version = resultCache.version(entityClass);
+        final List<R> result = Collections.unmodifiableList(new ArrayList<>(query.get()));
+        resultCache.put(entityClass, version, resultKey, result);
+        return result;
     }
 
-    private <T> Criteria<T, Long> createCountCriteria(final Criteria<T, T> criteria, final List<IntermediateOperation<?, ?>> filters) {
-        final CriteriaQuery<T> criteriaQuery = criteria.getQuery();
+    /*
+     * Selects the projection of the provided configuration, or else a projection derived from the remaining
+     * operations, or else the entity. Returns true if the projection was derived from the remaining operations.
+     */
+    private <E> boolean select(final Criteria<E, Object> criteria, final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        // Makes SonarType happy:
+        Optional<Projection<E>> oSelections = streamConfiguration.selections();
+        boolean autoProjected = false;
+        if (!oSelections.isPresent() && AutoProjection.isEnabled() && streamConfiguration.joins().isEmpty()) {
+            oSelections = AutoProjection.of(pipeline, entityManager().getMetamodel());
+            autoProjected = oSelections.isPresent();
+        }
+        if (oSelections.isPresent()) {
+            final Projection<E> projection = oSelections.get();
+            final Path<?>[] columns = projection.fields().stream().map(field -> criteria.getRoot().get(field.columnName())).toArray(Path[]::new);
+            final CompoundSelection<E> selection = criteria.getBuilder().construct(projection.entityClass(), columns);
+
+            criteria.getQuery().select(selection);
+        } else {
+            criteria.getQuery().select(criteria.getRoot());
+        }
+        return autoProjected;
+    }
+
+    private <T> Criteria<T, Long> createCountCriteria(
+        final Criteria<T, ?> criteria,
+        final List<IntermediateOperation<?, ?>> filters,
+        final StreamConfiguration<T> streamConfiguration
+    ) {
+        final CriteriaQuery<?> criteriaQuery = criteria.getQuery();
 
         final Criteria<T, Long> countCriteria = criteriaFactory.createCriteria(
-            entityManager,
-            criteriaQuery.getResultType(),
+            entityManager(),
+            criteria.getRoot().getModel().getJavaType(),
             Long.class
         );
         
@@ -170,14 +536,8 @@ final class StandardRenderer implements Renderer {
 
         countQuery.select(countCriteria.getBuilder().count(countCriteria.getRoot()));
         
-        if (!filters.isEmpty()) {
-            // There can only be one JPAStreamer filter after the filter merge (see FilterCriteriaModifier). 
-            IntermediateOperation<?, ?> filter = filters.stream().findFirst().get();
-            this.<T>getPredicate(filter).ifPresent(speedmentPredicate -> {
-                final Predicate predicate = predicateFactory.createPredicate(countCriteria, speedmentPredicate);
-                countQuery.where(predicate);
-            });
-        }
+        Queries.applyFilter(predicateFactory, countCriteria, filters);
+        streamConfiguration.keyset().ifPresent(keyset -> applyKeyset(countCriteria, keyset));
 
         countQuery.distinct(criteriaQuery.isDistinct());
         countQuery.orderBy(criteria.getQuery().getOrderList());
@@ -185,25 +545,122 @@ final class StandardRenderer implements Renderer {
         return countCriteria;
     }
 
+    private <T> Criteria<T, Object[]> createAggregateCriteria(
+        final Criteria<T, ?> criteria,
+        final List<IntermediateOperation<?, ?>> filters,
+        final StreamConfiguration<T> streamConfiguration,
+        final Field<T> field
+    ) {
+        final Criteria<T, Object[]> aggregateCriteria = criteriaFactory.createCriteria(
+            entityManager(),
+            criteria.getRoot().getModel().getJavaType(),
+            Object[].class
+        );
+
+        aggregateCriteria.getRoot().alias(criteria.getRoot().getAlias());
+
+        final CriteriaBuilder builder = aggregateCriteria.getBuilder();
+        final Path<Number> column = aggregateCriteria.getRoot().get(field.columnName());
+
+        // The order of the selections is expected by Aggregation::renderResult. The column rather than
+        // the root is counted as SUM, MIN and MAX ignore null values, which would otherwise skew the average
+        aggregateCriteria.getQuery().multiselect(
+            builder.count(column),
+            builder.sum(column),
+            builder.min(column),
+            builder.max(column)
+        );
+
+        Queries.applyFilter(predicateFactory, aggregateCriteria, filters);
+        streamConfiguration.keyset().ifPresent(keyset -> applyKeyset(aggregateCriteria, keyset));
+
+        return aggregateCriteria;
+    }
+
+    private <T> Criteria<T, Object[]> createGroupingCriteria(
+        final Criteria<T, ?> criteria,
+        final List<IntermediateOperation<?, ?>> filters,
+        final StreamConfiguration<T> streamConfiguration,
+        final GroupingCollector<T, ?, ?> groupingCollector
+    ) {
+        final Criteria<T, Object[]> groupingCriteria = criteriaFactory.createCriteria(
+            entityManager(),
+            criteria.getRoot().getModel().getJavaType(),
+            Object[].class
+        );
+
+        groupingCriteria.getRoot().alias(criteria.getRoot().getAlias());
+
+        final Path<?> key = groupingCriteria.getRoot().get(groupingCollector.getField().columnName());
+
+        // The order of the selections is expected by Grouping::renderResult
+        final List<Selection<?>> selections = new ArrayList<>();
+        selections.add(key);
+        selections.addAll(Grouping.aggregate(groupingCriteria.getBuilder(), groupingCriteria.getRoot(), groupingCollector));
+        groupingCriteria.getQuery().multiselect(selections);
+        groupingCriteria.getQuery().groupBy(key);
+
+        Queries.applyFilter(predicateFactory, groupingCriteria, filters);
+        streamConfiguration.keyset().ifPresent(keyset -> applyKeyset(groupingCriteria, keyset));
+
+        return groupingCriteria;
+    }
+
+    /*
+     * Restricts the query to the rows following the last key, i.e. for the keys (k1, k2) and the last
+     * key (v1, v2): k1 > v1 OR (k1 = v1 AND k2 > v2)
+     */
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private <E, T, S extends BaseStream<T, S>> S replay(final Stream<E> stream, final Pipeline<E> pipeline) {
-        return pipeline.intermediateOperations().stream()
-                .sequential()
-                .reduce(
-                        (S) stream,
-                        (S s, IntermediateOperation io) -> (S) io.function().apply(s),
-                        (a, b) -> a
-                );
+    private <T> void applyKeyset(final Criteria<T, ?> criteria, final StreamConfiguration.KeysetConfiguration<T> keyset) {
+        if (!keyset.after().isPresent()) {
+            return;
+        }
 
-        /*
-        S decorated = (S) stream;
-        for (IntermediateOperation intermediateOperation : pipeline.intermediateOperations()) {
-            decorated = (S) intermediateOperation.function().apply(decorated);
+        final CriteriaBuilder builder = criteria.getBuilder();
+        final List<FieldComparator<T>> keys = keyset.keys();
+        final List<Object> after = keyset.after().get();
+
+        final List<Predicate> alternatives = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            final List<Predicate> conjunction = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conjunction.add(builder.equal(criteria.getRoot().get(keys.get(j).getField().columnName()), after.get(j)));
+            }
+            final Expression<Comparable> key = criteria.getRoot().get(keys.get(i).getField().columnName());
+            final Comparable value = (Comparable) after.get(i);
+            conjunction.add(keys.get(i).isReversed() ? builder.lessThan(key, value) : builder.greaterThan(key, value));
+            alternatives.add(builder.and(conjunction.toArray(new Predicate[0])));
         }
-        return decorated;
-        */
+
+        final Predicate seek = builder.or(alternatives.toArray(new Predicate[0]));
+        final Predicate restriction = criteria.getQuery().getRestriction();
+        criteria.getQuery().where(restriction == null ? seek : builder.and(restriction, seek));
     }
-    
+
+    /*
+     * Returns true if the provided merged orders are a prefix of the provided keys, which then determine the order alone.
+     */
+    private <T> boolean isKeyOrder(final List<Order> orders, final List<FieldComparator<T>> keys) {
+        if (orders.size() > keys.size()) {
+            return false;
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            final Expression<?> expression = orders.get(i).getExpression();
+            if (orders.get(i).isAscending() == keys.get(i).isReversed()
+                || !(expression instanceof Path)
+                || !(((Path<?>) expression).getModel() instanceof Attribute)
+                || !((Attribute<?, ?>) ((Path<?>) expression).getModel()).getName().equals(keys.get(i).getField().columnName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> Order order(final Criteria<T, ?> criteria, final FieldComparator<T> key) {
+        final Path<?> path = criteria.getRoot().get(key.getField().columnName());
+        return key.isReversed() ? criteria.getBuilder().desc(path) : criteria.getBuilder().asc(path);
+    }
+
     private <T> void modifyPipeline(final Pipeline<T> pipeline) {
         terminalOperationModifierFactory.get().modify(pipeline);
     }
@@ -213,22 +670,34 @@ final class StandardRenderer implements Renderer {
         terminalOperationOptimizerFactory.get().optimize(pipeline);
     }
 
-    @Override
-    public void close() {
-        entityManager.close();
+    private synchronized EntityManager entityManager() {
+        if (closed) {
+            throw new IllegalStateException("The renderer is closed");
+        }
+        if (entityManager == null) {
+            Permits.acquire(concurrencyLimit);
+            try {
+                entityManager = entityManagerSupplier.get();
+            } catch (RuntimeException e) {
+                Permits.release(concurrencyLimit, 1);
+                throw e;
+            }
+        }
+        return entityManager;
     }
 
-    private <T> Optional<SpeedmentPredicate<T>> getPredicate(final IntermediateOperation<?, ?> operation) {
-        final Object[] arguments = operation.arguments();
-
-        if (arguments.length != 1) {
-            return Optional.empty();
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
         }
-
-        if (arguments[0] instanceof SpeedmentPredicate) {
-            return Optional.of((SpeedmentPredicate<T>) arguments[0]);
+        closed = true;
+        if (entityManager != null) {
+            try {
+                entityManager.close();
+            } finally {
+                Permits.release(concurrencyLimit, 1);
+            }
         }
-
-        return Optional.empty();
     }
 }
@@ -1,6 +1,7 @@
 import com.speedment.jpastreamer.criteria.CriteriaFactory;
 import com.speedment.jpastreamer.interopoptimizer.IntermediateOperationOptimizerFactory;
 import com.speedment.jpastreamer.merger.MergerFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
 import com.speedment.jpastreamer.renderer.RendererFactory;
 import com.speedment.jpastreamer.renderer.standard.StandardRendererFactory;
 import com.speedment.jpastreamer.termopoptimizer.TerminalOperationOptimizerFactory;
@@ -33,6 +34,9 @@ module jpastreamer.renderer.standard {
     uses MergerFactory;
     uses IntermediateOperationOptimizerFactory; 
     uses TerminalOperationOptimizerFactory; 
+    uses TerminalOperationFactory;
+
+    exports com.speedment.jpastreamer.renderer.standard;
 
     provides RendererFactory with StandardRendererFactory;
 }
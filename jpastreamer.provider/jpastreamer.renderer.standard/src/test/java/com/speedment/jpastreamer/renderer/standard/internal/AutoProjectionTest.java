@@ -0,0 +1,110 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.projection.Projection;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Language;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Language$;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+final class AutoProjectionTest {
+
+    private final PipelineFactory pipelineFactory = TestServices.get(PipelineFactory.class);
+    private final IntermediateOperationFactory operationFactory = TestServices.get(IntermediateOperationFactory.class);
+    private final TerminalOperationFactory terminalOperationFactory = TestServices.get(TerminalOperationFactory.class);
+
+    private final Metamodel metamodel = mock(Metamodel.class);
+
+    @BeforeEach
+    void setup() {
+        final EntityType<?> entityType = mock(EntityType.class);
+        doReturn(entityType).when(metamodel).entity(Film.class);
+        doReturn(attribute(int.class)).when(entityType).getAttribute("filmId");
+        doReturn(attribute(String.class)).when(entityType).getAttribute("title");
+        doReturn(attribute(int.class)).when(entityType).getAttribute("length");
+
+        final EntityType<?> languageType = mock(EntityType.class);
+        doReturn(languageType).when(metamodel).entity(Language.class);
+        doReturn(attribute(int.class)).when(languageType).getAttribute("languageId");
+        doReturn(attribute(String.class)).when(languageType).getAttribute("name");
+    }
+
+    @Test
+    void matchingConstructor() {
+        // Film(int length, int filmId) can only be told apart from its parameter names
+        final Optional<Projection<Film>> projection = AutoProjection.of(pipeline(
+            operationFactory.createFilter(Film$.filmId.greaterThan(10)),
+            operationFactory.createMapToInt(Film$.length)
+        ), metamodel);
+
+        assertEquals(List.of(Film$.length, Film$.filmId), projection.map(Projection::fields).map(List::copyOf).orElseThrow());
+    }
+
+    @Test
+    void mismatchedConstructor() {
+        // Film(String description) must not be fed the title although it is the only String attribute read
+        final Optional<Projection<Film>> projection = AutoProjection.of(pipeline(
+            operationFactory.createMap(Film$.title)
+        ), metamodel);
+
+        assertFalse(projection.isPresent());
+    }
+
+    @Test
+    void unnamedParameters() throws NoSuchMethodException {
+        // Language(String name, int languageId) is compiled without parameter names, so its parameters
+        // can only be told apart by type, which does not prove that they hold the attributes
+        assertFalse(Language.class.getConstructor(String.class, int.class).getParameters()[0].isNamePresent());
+
+        final Pipeline<Language> pipeline = pipelineFactory.createPipeline(Language.class);
+        pipeline.intermediateOperations().add(operationFactory.createFilter(Language$.languageId.greaterThan(1)));
+        pipeline.intermediateOperations().add(operationFactory.createMap(Language$.name));
+        pipeline.terminatingOperation(terminalOperationFactory.createCollect(Collectors.toList()));
+
+        assertFalse(AutoProjection.of(pipeline, metamodel).isPresent());
+    }
+
+    private Pipeline<Film> pipeline(final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().addAll(List.of(operations));
+        pipeline.terminatingOperation(terminalOperationFactory.createCollect(Collectors.toList()));
+        return pipeline;
+    }
+
+    private static Attribute<?, ?> attribute(final Class<?> javaType) {
+        final Attribute<?, ?> attribute = mock(Attribute.class);
+        doReturn(javaType).when(attribute).getJavaType();
+        return attribute;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+final class CursorHintsTest {
+
+    private final Query query = mock(Query.class);
+
+    @Test
+    void none() {
+        CursorHints.apply(query, StreamConfiguration.of(Film.class));
+
+        verify(query, never()).setHint(anyString(), any());
+    }
+
+    @Test
+    void fetchSize() {
+        CursorHints.apply(query, StreamConfiguration.of(Film.class).withFetchSize(100));
+
+        verify(query).setHint("org.hibernate.fetchSize", 100);
+        verify(query).setHint("eclipselink.jdbc.fetch-size", 100);
+    }
+
+    @Test
+    void forwardOnly() {
+        CursorHints.apply(query, StreamConfiguration.of(Film.class).withForwardOnly());
+
+        // Hibernate streams using a forward-only cursor regardless, so only EclipseLink is told
+        verify(query).setHint("eclipselink.cursor.scrollable.result-set-type", "ForwardOnly");
+        verify(query, never()).setHint(startsWith("org.hibernate."), any());
+    }
+
+    @Test
+    void readOnly() {
+        CursorHints.apply(query, StreamConfiguration.of(Film.class).withReadOnly());
+
+        verify(query).setHint("org.hibernate.readOnly", true);
+        verify(query).setHint("eclipselink.read-only", true);
+    }
+
+    @Test
+    void explicitHintsTakePrecedence() {
+        Queries.applyHints(query, StreamConfiguration.of(Film.class)
+            .withFetchSize(100)
+            .withHint("org.hibernate.fetchSize", 10));
+
+        final InOrder inOrder = inOrder(query);
+        inOrder.verify(query).setHint("org.hibernate.fetchSize", 100);
+        inOrder.verify(query).setHint("org.hibernate.fetchSize", 10);
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+final class PartitionedExecutionTest {
+
+    @Test
+    void lowerBounds() {
+        assertArrayEquals(new long[] {1, 251, 501, 751}, PartitionedExecution.lowerBounds(1, 1000, 4));
+        assertArrayEquals(new long[] {1, 4, 7}, PartitionedExecution.lowerBounds(1, 10, 3));
+        assertArrayEquals(new long[] {-5, 0}, PartitionedExecution.lowerBounds(-5, 4, 2));
+    }
+
+    @Test
+    void fewerKeysThanPartitions() {
+        assertArrayEquals(new long[] {7, 8, 9}, PartitionedExecution.lowerBounds(7, 9, 8));
+        assertArrayEquals(new long[] {7}, PartitionedExecution.lowerBounds(7, 7, 8));
+    }
+
+    @Test
+    void widestRange() {
+        assertArrayEquals(new long[] {Long.MIN_VALUE, 0}, PartitionedExecution.lowerBounds(Long.MIN_VALUE, Long.MAX_VALUE, 2));
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperation;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class PipelineFingerprintTest {
+
+    private final PipelineFactory pipelineFactory = TestServices.get(PipelineFactory.class);
+    private final IntermediateOperationFactory operationFactory = TestServices.get(IntermediateOperationFactory.class);
+    private final TerminalOperationFactory terminalOperationFactory = TestServices.get(TerminalOperationFactory.class);
+
+    @Test
+    void parameterValues() {
+        final PipelineFingerprint a = fingerprint(operationFactory.createFilter(Film$.title.equal("A")));
+        final PipelineFingerprint b = fingerprint(operationFactory.createFilter(Film$.title.equal("B")));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertFalse(a.hasInlinedValues());
+    }
+
+    @Test
+    void predicates() {
+        final PipelineFingerprint equal = fingerprint(operationFactory.createFilter(Film$.length.equal(60)));
+
+        assertNotEquals(equal, fingerprint(operationFactory.createFilter(Film$.filmId.equal(60))));
+        assertNotEquals(equal, fingerprint(operationFactory.createFilter(Film$.length.notEqual(60))));
+        assertNotEquals(equal, fingerprint(operationFactory.createFilter(Film$.length.equal(60).or(Film$.length.equal(90)))));
+        assertEquals(
+            fingerprint(operationFactory.createFilter(Film$.length.between(60, 90))),
+            fingerprint(operationFactory.createFilter(Film$.length.between(30, 120)))
+        );
+    }
+
+    @Test
+    void operations() {
+        final IntermediateOperation<?, ?> filter = operationFactory.createFilter(Film$.title.equal("A"));
+        final PipelineFingerprint filtered = fingerprint(filter);
+
+        assertNotEquals(filtered, fingerprint());
+        assertNotEquals(filtered, fingerprint(filter, operationFactory.createLimit(10)));
+        assertEquals(
+            fingerprint(filter, operationFactory.createSorted(Film$.title.comparator()), operationFactory.createLimit(10)),
+            fingerprint(filter, operationFactory.createSorted(Film$.title.comparator()), operationFactory.createLimit(20))
+        );
+        assertNotEquals(
+            fingerprint(filter, operationFactory.createSorted(Film$.title.comparator())),
+            fingerprint(filter, operationFactory.createSorted(Film$.title.comparator().reversed()))
+        );
+        assertNotEquals(filtered, fingerprint(terminalOperationFactory.acquireCount(), filter));
+    }
+
+    @Test
+    void inlinedValues() {
+        final PipelineFingerprint a = fingerprint(operationFactory.createFilter(Film$.filmId.in(Set.of(1, 2, 3))));
+        final PipelineFingerprint b = fingerprint(operationFactory.createFilter(Film$.filmId.in(Set.of(3, 2, 1))));
+        final PipelineFingerprint c = fingerprint(operationFactory.createFilter(Film$.filmId.in(Set.of(1, 2, 4))));
+
+        assertTrue(a.hasInlinedValues());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+    }
+
+    private PipelineFingerprint fingerprint(final IntermediateOperation<?, ?>... operations) {
+        return fingerprint(terminalOperationFactory.createCollect(Collectors.toList()), operations);
+    }
+
+    private PipelineFingerprint fingerprint(final TerminalOperation<?, ?> terminalOperation, final IntermediateOperation<?, ?>... operations) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().addAll(List.of(operations));
+        pipeline.terminatingOperation(terminalOperation);
+        return PipelineFingerprint.of(pipeline, StreamConfiguration.of(Film.class));
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import static com.speedment.jpastreamer.field.predicate.Parameter.param;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.speedment.jpastreamer.criteria.QueryParameter;
+import com.speedment.jpastreamer.field.predicate.FieldPredicate;
+import com.speedment.jpastreamer.field.predicate.Parameter;
+import com.speedment.jpastreamer.field.trait.HasArg0;
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.pipeline.PipelineFactory;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperation;
+import com.speedment.jpastreamer.pipeline.intermediate.IntermediateOperationFactory;
+import com.speedment.jpastreamer.pipeline.terminal.TerminalOperationFactory;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film;
+import com.speedment.jpastreamer.renderer.standard.internal.model.Film$;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+final class QueryPlanTest {
+
+    private final PipelineFactory pipelineFactory = TestServices.get(PipelineFactory.class);
+    private final IntermediateOperationFactory operationFactory = TestServices.get(IntermediateOperationFactory.class);
+    private final TerminalOperationFactory terminalOperationFactory = TestServices.get(TerminalOperationFactory.class);
+
+    @Test
+    void reproducible() {
+        final FieldPredicate<Film> predicate = (FieldPredicate<Film>) Film$.length.greaterThan(60);
+        final Pipeline<Film> rendered = pipeline(predicate);
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(rendered.intermediateOperations());
+        // The filter and the sort were merged into the query, the limit remains
+        final QueryPlan plan = plan(operations, List.of(operations.get(2)), parameter(predicate));
+
+        assertTrue(plan.isReproducible());
+
+        final Pipeline<Film> other = pipeline(Film$.length.greaterThan(90));
+        final IntermediateOperation<?, ?> limit = other.intermediateOperations().get(2);
+        assertEquals(List.of(90), plan.values(other.intermediateOperations()));
+
+        plan.restore(other);
+        assertEquals(1, other.intermediateOperations().size());
+        assertSame(limit, other.intermediateOperations().get(0));
+    }
+
+    @Test
+    void combinedPredicate() {
+        final FieldPredicate<Film> first = (FieldPredicate<Film>) Film$.length.greaterThan(60);
+        final FieldPredicate<Film> second = (FieldPredicate<Film>) Film$.title.equal("A");
+        final Pipeline<Film> rendered = pipeline(first.and(second));
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(rendered.intermediateOperations());
+        final QueryPlan plan = plan(operations, List.of(operations.get(2)), parameter(second), parameter(first));
+
+        assertTrue(plan.isReproducible());
+        assertEquals(List.of("B", 90), plan.values(pipeline(Film$.length.greaterThan(90).and(Film$.title.equal("B"))).intermediateOperations()));
+    }
+
+    @Test
+    void replacedOperation() {
+        final FieldPredicate<Film> predicate = (FieldPredicate<Film>) Film$.length.greaterThan(60);
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline(predicate).intermediateOperations());
+
+        assertFalse(plan(operations, List.of(operationFactory.createLimit(10)), parameter(predicate)).isReproducible());
+    }
+
+    @Test
+    void unboundOperand() {
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline(Film$.length.greaterThan(60)).intermediateOperations());
+
+        assertFalse(plan(operations, List.of(operations.get(2))).isReproducible());
+    }
+
+    @Test
+    void unknownParameter() {
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline(Film$.length.greaterThan(60)).intermediateOperations());
+
+        assertFalse(plan(operations, List.of(operations.get(2)), parameter((FieldPredicate<Film>) Film$.length.greaterThan(60))).isReproducible());
+    }
+
+    @Test
+    void statefulArgument() {
+        final int length = Integer.parseInt("60");
+        final Predicate<Film> stateless = film -> film.getLength() > 60;
+        final Predicate<Film> stateful = film -> film.getLength() > length;
+
+        assertTrue(plan(filterOperations(stateless), List.of()).isReproducible());
+        assertFalse(plan(filterOperations(stateful), List.of()).isReproducible());
+        // Remaining operations are taken from the pipeline the plan is applied to unless the query was derived from them
+        final List<IntermediateOperation<?, ?>> operations = filterOperations(stateful);
+        assertTrue(QueryPlan.of(mock(CriteriaQuery.class), List.of(), QueryPlan.Kind.ENTITIES, operations, List.of(), operations, false).isReproducible());
+        assertFalse(QueryPlan.of(mock(CriteriaQuery.class), List.of(), QueryPlan.Kind.ENTITIES, operations, List.of(), operations, true).isReproducible());
+    }
+
+    @Test
+    void addedOperation() {
+        final FieldPredicate<Film> predicate = (FieldPredicate<Film>) Film$.length.greaterThan(60);
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline(predicate).intermediateOperations());
+        // A limit added for a terminal operation such as findFirst remains
+        final IntermediateOperation<?, ?> limit = operationFactory.createLimit(1);
+        final QueryPlan plan = QueryPlan.of(mock(CriteriaQuery.class), List.of(parameter(predicate)), QueryPlan.Kind.ENTITIES, operations, List.of(limit), List.of(operations.get(2), limit), true);
+
+        assertTrue(plan.isReproducible());
+
+        final Pipeline<Film> other = pipeline(Film$.length.greaterThan(90));
+        plan.restore(other);
+        assertEquals(2, other.intermediateOperations().size());
+        assertSame(limit, other.intermediateOperations().get(1));
+
+        final IntermediateOperation<?, ?> filter = operationFactory.createFilter(Film$.title.equal("A"));
+        assertFalse(QueryPlan.of(mock(CriteriaQuery.class), List.of(parameter(predicate)), QueryPlan.Kind.ENTITIES, operations, List.of(filter), List.of(filter), true).isReproducible());
+    }
+
+    @Test
+    void parameters() {
+        final FieldPredicate<Film> predicate = (FieldPredicate<Film>) Film$.length.greaterThan(param("min"));
+        final List<IntermediateOperation<?, ?>> operations = new ArrayList<>(pipeline(predicate).intermediateOperations());
+        final QueryPlan plan = plan(operations, List.of(operations.get(2)), parameter(predicate));
+
+        assertTrue(plan.isReproducible());
+        assertFalse(plan.hasResidualParameters());
+        assertEquals(Set.of("min"), plan.parameterNames());
+        assertEquals(List.of(90), plan.values(pipeline(Film$.length.greaterThan(param("min"))).intermediateOperations(), Map.of("min", 90)));
+        assertThrows(IllegalArgumentException.class, () -> plan.values(operations, Map.of("max", 90)));
+        assertThrows(IllegalStateException.class, plan::values);
+
+        // A predicate comparing to a parameter that is not rendered into the query can not be evaluated
+        assertTrue(plan(operations, List.of(operations.get(0), operations.get(2))).hasResidualParameters());
+    }
+
+    @Test
+    void fingerprint() {
+        final PipelineFingerprint fingerprint = PipelineFingerprint.of(pipeline(Film$.length.greaterThan(60)), StreamConfiguration.of(Film.class));
+
+        assertEquals(fingerprint, PipelineFingerprint.of(pipeline(Film$.length.greaterThan(90)), StreamConfiguration.of(Film.class)));
+        assertFalse(fingerprint.equals(PipelineFingerprint.of(pipeline(Film$.length.lessThan(90)), StreamConfiguration.of(Film.class))));
+        // The names of parameters are bound by and thus part of the fingerprint
+        assertEquals(
+            PipelineFingerprint.of(pipeline(Film$.length.greaterThan(param("min"))), StreamConfiguration.of(Film.class)),
+            PipelineFingerprint.of(pipeline(Film$.length.greaterThan(param("min"))), StreamConfiguration.of(Film.class))
+        );
+        assertFalse(PipelineFingerprint.of(pipeline(Film$.length.greaterThan(param("min"))), StreamConfiguration.of(Film.class))
+            .equals(PipelineFingerprint.of(pipeline(Film$.length.greaterThan(param("max"))), StreamConfiguration.of(Film.class))));
+    }
+
+    private Pipeline<Film> pipeline(final Predicate<Film> predicate) {
+        final Pipeline<Film> pipeline = pipelineFactory.createPipeline(Film.class);
+        pipeline.intermediateOperations().add(operationFactory.createFilter(predicate));
+        pipeline.intermediateOperations().add(operationFactory.createSorted(Film$.title.comparator()));
+        pipeline.intermediateOperations().add(operationFactory.createLimit(10));
+        pipeline.terminatingOperation(terminalOperationFactory.createCollect(Collectors.toList()));
+        return pipeline;
+    }
+
+    private List<IntermediateOperation<?, ?>> filterOperations(final Predicate<Film> predicate) {
+        return List.of(operationFactory.createFilter(predicate));
+    }
+
+    private QueryPlan plan(final List<IntermediateOperation<?, ?>> operations, final List<IntermediateOperation<?, ?>> remaining, final QueryParameter<?>... queryParameters) {
+        final List<QueryParameter> parameters = new ArrayList<>();
+        Collections.addAll(parameters, queryParameters);
+        return QueryPlan.of(mock(CriteriaQuery.class), parameters, QueryPlan.Kind.ENTITIES, operations, List.of(), remaining, true);
+    }
+
+    private QueryParameter<Object> parameter(final FieldPredicate<Film> predicate) {
+        return new TestQueryParameter(predicate);
+    }
+
+    // Holds the first operand of a predicate, or the value bound to it if it is a parameter, like the parameters rendered by the criteria module
+    private static final class TestQueryParameter implements QueryParameter<Object> {
+
+        private final FieldPredicate<?> predicate;
+        @SuppressWarnings("unchecked")
+        private final ParameterExpression<Object> parameterExpression = mock(ParameterExpression.class);
+
+        private TestQueryParameter(final FieldPredicate<?> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public ParameterExpression<Object> getParameterExpression() {
+            return parameterExpression;
+        }
+
+        @Override
+        public Object getValue() {
+            if (getPlaceholder().isPresent()) {
+                throw new IllegalStateException();
+            }
+            return getValue(predicate);
+        }
+
+        @Override
+        public Optional<FieldPredicate<?>> getPredicate() {
+            return Optional.of(predicate);
+        }
+
+        @Override
+        public Object getValue(final FieldPredicate<?> predicate) {
+            return ((HasArg0<?>) predicate).get0();
+        }
+
+        @Override
+        public Optional<Parameter<?>> getPlaceholder() {
+            final Object operand = ((HasArg0<?>) predicate).get0();
+            return operand instanceof Parameter ? Optional.of((Parameter<?>) operand) : Optional.empty();
+        }
+
+        @Override
+        public Object bind(final Object value) {
+            return value;
+        }
+    }
+
+}
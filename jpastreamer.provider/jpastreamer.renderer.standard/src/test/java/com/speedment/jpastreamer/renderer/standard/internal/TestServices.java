@@ -0,0 +1,34 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal;
+
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+
+import java.util.ServiceLoader;
+
+/**
+ * Obtains services that only the tests use. Tests are run within the module
+ * under test, which only declares the services that its main code uses, so
+ * the service dependence is added at runtime as the launcher offers no
+ * option to add it.
+ */
+final class TestServices {
+
+    private TestServices() {}
+
+    static <S> S get(final Class<S> service) {
+        TestServices.class.getModule().addUses(service);
+        return RootFactory.getOrThrow(service, ServiceLoader::load);
+    }
+
+}
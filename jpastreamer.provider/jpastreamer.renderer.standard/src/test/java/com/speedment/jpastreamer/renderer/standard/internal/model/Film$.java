@@ -0,0 +1,48 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+
+public final class Film$ {
+
+    /**
+     * This Field corresponds to the {@link Film} field "filmId".
+     */
+    public static final IntField<Film> filmId = IntField.create(
+            Film.class,
+            "filmId",
+            Film::getFilmId,
+            true
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "title".
+     */
+    public static final StringField<Film> title = StringField.create(
+            Film.class,
+            "title",
+            Film::getTitle,
+            false
+    );
+    /**
+     * This Field corresponds to the {@link Film} field "length".
+     */
+    public static final IntField<Film> length = IntField.create(
+            Film.class,
+            "length",
+            Film::getLength,
+            false
+    );
+
+}
@@ -0,0 +1,75 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "film", schema = "sakila")
+public class Film {
+
+    public Film() {
+    }
+
+    public Film(int length, int filmId) {
+        this.length = length;
+        this.filmId = filmId;
+    }
+
+    public Film(String description) {
+        // Names no attribute, so it must never be used to project the title
+    }
+
+    public Film(int filmId, String title, int length) {
+        this.filmId = filmId;
+        this.title = title;
+        this.length = length;
+    }
+
+    @Id
+    @Column(name = "film_id", columnDefinition = "SMALLINT UNSIGNED")
+    private int filmId;
+
+    @Basic
+    @Column(name = "title", columnDefinition = "VARCHAR(255)")
+    private String title;
+
+    @Basic
+    @Column(name = "length", columnDefinition = "SMALL UNSIGNED")
+    private int length;
+
+    public int getFilmId() {
+        return filmId;
+    }
+
+    public void setFilmId(int filmId) {
+        this.filmId = filmId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import com.speedment.jpastreamer.field.IntField;
+import com.speedment.jpastreamer.field.StringField;
+
+public final class Language$ {
+
+    /**
+     * This Field corresponds to the {@link Language} field "languageId".
+     */
+    public static final IntField<Language> languageId = IntField.create(
+            Language.class,
+            "languageId",
+            Language::getLanguageId,
+            true
+    );
+    /**
+     * This Field corresponds to the {@link Language} field "name".
+     */
+    public static final StringField<Language> name = StringField.create(
+            Language.class,
+            "name",
+            Language::getName,
+            false
+    );
+
+}
@@ -0,0 +1,56 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer.standard.internal.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Compiled without retaining parameter names, see the pom.
+ */
+@Entity
+@Table(name = "language", schema = "sakila")
+public class Language {
+
+    public Language() {
+    }
+
+    public Language(String name, int languageId) {
+        this.name = name;
+        this.languageId = languageId;
+    }
+
+    @Id
+    @Column(name = "language_id", columnDefinition = "TINYINT UNSIGNED")
+    private int languageId;
+
+    @Basic
+    @Column(name = "name", columnDefinition = "CHAR(20)")
+    private String name;
+
+    public int getLanguageId() {
+        return languageId;
+    }
+
+    public void setLanguageId(int languageId) {
+        this.languageId = languageId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.standard.internal;
+
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import static java.util.Objects.requireNonNull;
+
+final class StandardChunkConfiguration<T> implements StreamConfiguration.ChunkConfiguration<T> {
+
+    private final HasComparableOperators<T, ?> key;
+    private final int chunkSize;
+
+    StandardChunkConfiguration(final HasComparableOperators<T, ?> key, final int chunkSize) {
+        this.key = requireNonNull(key);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public HasComparableOperators<T, ?> key() {
+        return key;
+    }
+
+    @Override
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return "chunked by " + key.columnName() + " in chunks of " + chunkSize;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.streamconfiguration.standard.internal;
+
+import com.speedment.jpastreamer.field.comparator.CombinedComparator;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+final class StandardKeysetConfiguration<T> implements StreamConfiguration.KeysetConfiguration<T> {
+
+    private final List<FieldComparator<T>> keys;
+    private final List<Object> after;
+
+    StandardKeysetConfiguration(final Class<T> entityClass, final Comparator<T> keyOrder, final T last) {
+        this.keys = Collections.unmodifiableList(keys(requireNonNull(entityClass), requireNonNull(keyOrder)));
+        if (last == null) {
+            this.after = null;
+        } else {
+            final List<Object> values = new ArrayList<>(keys.size());
+            for (FieldComparator<T> key : keys) {
+                values.add(requireNonNull(key.getField().getter().apply(last), () -> "The key " + key.getField().columnName() + " of the last entity is null"));
+            }
+            this.after = Collections.unmodifiableList(values);
+        }
+    }
+
+    @Override
+    public List<FieldComparator<T>> keys() {
+        return keys;
+    }
+
+    @Override
+    public Optional<List<Object>> after() {
+        return Optional.ofNullable(after);
+    }
+
+    @Override
+    public String toString() {
+        return "paged by " + keys.stream()
+                .map(key -> key.getField().columnName() + (key.isReversed() ? " desc" : ""))
+                .collect(Collectors.joining(", ")) +
+                (after == null ? "" : " after " + after);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<FieldComparator<T>> keys(final Class<T> entityClass, final Comparator<T> keyOrder) {
+        final List<Object> comparators = new ArrayList<>();
+        if (keyOrder instanceof FieldComparator) {
+            comparators.add(keyOrder);
+        } else if (keyOrder instanceof HasComparableOperators) {
+            comparators.add(((HasComparableOperators<T, ?>) keyOrder).comparator());
+        } else if (keyOrder instanceof CombinedComparator) {
+            ((CombinedComparator<T>) keyOrder).stream().forEach(comparators::add);
+        }
+
+        final List<FieldComparator<T>> keys = new ArrayList<>(comparators.size());
+        for (Object comparator : comparators) {
+            // A comparator of a field of the entity or one of its supertypes can be applied to the entities
+            if (!(comparator instanceof FieldComparator)
+                || !((FieldComparator<?>) comparator).getField().table().isAssignableFrom(entityClass)) {
+                throw new IllegalArgumentException("The key order " + keyOrder + " is not composed of field comparators of " + entityClass.getSimpleName());
+            }
+            keys.add((FieldComparator<T>) comparator);
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("The key order " + keyOrder + " is not composed of field comparators of " + entityClass.getSimpleName());
+        }
+        return keys;
+    }
+
+}
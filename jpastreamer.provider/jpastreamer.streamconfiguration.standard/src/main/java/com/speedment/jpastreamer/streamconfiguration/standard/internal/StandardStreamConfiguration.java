@@ -15,15 +15,18 @@ package com.speedment.jpastreamer.streamconfiguration.standard.internal;
 import static java.util.Objects.requireNonNull;
 
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 import jakarta.persistence.criteria.JoinType;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,19 +36,37 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     private final Projection<T> projection;
     private final Set<JoinConfiguration<T>> joinConfigurations;
     private final Map<String, Object> queryHints;
+    private final KeysetConfiguration<T> keyset;
+    private final ChunkConfiguration<T> chunking;
+    private final Integer fetchSize;
+    private final boolean forwardOnly;
+    private final boolean readOnly;
+    private final Integer partitions;
 
     public StandardStreamConfiguration(final Class<T> entityClass) {
         this.entityClass = requireNonNull(entityClass);
         this.projection = null;
         this.joinConfigurations = Collections.emptySet();
         this.queryHints = Collections.emptyMap();
+        this.keyset = null;
+        this.chunking = null;
+        this.fetchSize = null;
+        this.forwardOnly = false;
+        this.readOnly = false;
+        this.partitions = null;
     }
 
-    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints) {
+    private StandardStreamConfiguration(final Class<T> entityClass, Projection<T> projection, final Set<JoinConfiguration<T>> joinConfigurations, final Map<String, Object> queryHints, final KeysetConfiguration<T> keyset, final ChunkConfiguration<T> chunking, final Integer fetchSize, final boolean forwardOnly, final boolean readOnly, final Integer partitions) {
         this.entityClass = entityClass;
         this.projection = projection;
         this.joinConfigurations = new HashSet<>(joinConfigurations);
         this.queryHints = new HashMap<>(queryHints);
+        this.keyset = keyset;
+        this.chunking = chunking;
+        this.fetchSize = fetchSize;
+        this.forwardOnly = forwardOnly;
+        this.readOnly = readOnly;
+        this.partitions = partitions;
     }
 
     @Override
@@ -64,7 +85,7 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(joinType);
         final Set<JoinConfiguration<T>> newJoins = new HashSet<>(joinConfigurations);
         newJoins.add(new StandardJoinConfiguration<>(field, joinType));
-        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, newJoins, queryHints, keyset, chunking, fetchSize, forwardOnly, readOnly, partitions);
     }
 
     @Override
@@ -75,7 +96,7 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
     @Override
     public StreamConfiguration<T> selecting(Projection<T> projection) {
         requireNonNull(projection);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunking, fetchSize, forwardOnly, readOnly, partitions);
     }
 
     @Override
@@ -89,7 +110,85 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
         requireNonNull(value);
         final HashMap<String, Object> newHints = new HashMap<>(queryHints);
         newHints.put(hintName, value);
-        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, newHints, keyset, chunking, fetchSize, forwardOnly, readOnly, partitions);
+    }
+
+    @Override
+    public Optional<KeysetConfiguration<T>> keyset() {
+        return Optional.ofNullable(keyset);
+    }
+
+    @Override
+    public StreamConfiguration<T> pagedBy(final Comparator<T> keyOrder) {
+        requireNonNull(keyOrder);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, new StandardKeysetConfiguration<>(entityClass, keyOrder, null), chunking, fetchSize, forwardOnly, readOnly, partitions);
+    }
+
+    @Override
+    public StreamConfiguration<T> pagedBy(final Comparator<T> keyOrder, final T last) {
+        requireNonNull(keyOrder);
+        requireNonNull(last);
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, new StandardKeysetConfiguration<>(entityClass, keyOrder, last), chunking, fetchSize, forwardOnly, readOnly, partitions);
+    }
+
+    @Override
+    public Optional<ChunkConfiguration<T>> chunking() {
+        return Optional.ofNullable(chunking);
+    }
+
+    @Override
+    public StreamConfiguration<T> chunked(final HasComparableOperators<T, ?> key, final int chunkSize) {
+        requireNonNull(key);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, new StandardChunkConfiguration<>(key, chunkSize), fetchSize, forwardOnly, readOnly, partitions);
+    }
+
+    @Override
+    public OptionalInt fetchSize() {
+        return fetchSize == null ? OptionalInt.empty() : OptionalInt.of(fetchSize);
+    }
+
+    @Override
+    public StreamConfiguration<T> withFetchSize(final int fetchSize) {
+        if (fetchSize == 0) {
+            throw new IllegalArgumentException("The fetch size must not be zero");
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunking, fetchSize, forwardOnly, readOnly, partitions);
+    }
+
+    @Override
+    public boolean isForwardOnly() {
+        return forwardOnly;
+    }
+
+    @Override
+    public StreamConfiguration<T> withForwardOnly() {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunking, fetchSize, true, readOnly, partitions);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public StreamConfiguration<T> withReadOnly() {
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunking, fetchSize, forwardOnly, true, partitions);
+    }
+
+    @Override
+    public OptionalInt partitions() {
+        return partitions == null ? OptionalInt.empty() : OptionalInt.of(partitions);
+    }
+
+    @Override
+    public StreamConfiguration<T> withPartitions(final int partitions) {
+        if (partitions < 2) {
+            throw new IllegalArgumentException("At least two partitions are required");
+        }
+        return new StandardStreamConfiguration<>(entityClass, projection, joinConfigurations, queryHints, keyset, chunking, fetchSize, forwardOnly, readOnly, partitions);
     }
 
     @Override
@@ -120,9 +219,19 @@ public final class StandardStreamConfiguration<T> implements StreamConfiguration
                 .sorted()
                 .collect(Collectors.joining(", "));
 
+        final String keysetText = keyset == null
+                ? ""
+                : " " + keyset;
+
+        final String chunkingText = chunking == null
+                ? ""
+                : " " + chunking;
+
         return "StandardStreamConfiguration{" +
                 "of " + entityClass.getSimpleName() +
                 joinText +
+                keysetText +
+                chunkingText +
                 '}';
     }
 }
@@ -18,7 +18,10 @@ import jakarta.persistence.criteria.JoinType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -59,6 +62,99 @@ final class StandardStreamConfigurationTest {
         assertEquals(second, first);
     }
 
+    @Test
+    void keyset() {
+        assertFalse(initial.keyset().isPresent());
+
+        final StreamConfiguration<Film> firstPage = initial.pagedBy(Film$.length);
+        final StreamConfiguration.KeysetConfiguration<Film> first = firstPage.keyset().orElseThrow();
+        assertEquals(Collections.singletonList(Film$.length.columnName()), columnNames(first));
+        assertFalse(first.after().isPresent());
+
+        final Film last = new Film();
+        last.title = "ACADEMY DINOSAUR";
+        last.length = 86;
+
+        final StreamConfiguration<Film> nextPage = initial.pagedBy(Film$.title.reversed().thenComparing(Film$.length), last);
+        final StreamConfiguration.KeysetConfiguration<Film> next = nextPage.keyset().orElseThrow();
+        assertEquals(Arrays.asList(Film$.title.columnName(), Film$.length.columnName()), columnNames(next));
+        assertTrue(next.keys().get(0).isReversed());
+        assertFalse(next.keys().get(1).isReversed());
+        assertEquals(Arrays.asList("ACADEMY DINOSAUR", 86), next.after().orElseThrow());
+        assertNotSame(firstPage, nextPage);
+    }
+
+    @Test
+    void keysetIllegalKeyOrder() {
+        assertThrows(IllegalArgumentException.class, () -> initial.pagedBy(Comparator.comparing(Film::getTitle)));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void keysetForeignKeyOrder() {
+        final StreamConfiguration<String> other = new StandardStreamConfiguration<>(String.class);
+        assertThrows(IllegalArgumentException.class, () -> other.pagedBy((Comparator) Film$.length.comparator()));
+        assertThrows(IllegalArgumentException.class, () -> other.pagedBy((Comparator) Film$.title.comparator().thenComparing(Film$.length)));
+    }
+
+    @Test
+    void keysetNullKey() {
+        assertThrows(NullPointerException.class, () -> initial.pagedBy(Film$.title, new Film()));
+    }
+
+    @Test
+    void chunked() {
+        assertFalse(initial.chunking().isPresent());
+
+        final StreamConfiguration<Film> chunked = initial.chunked(Film$.length, 10_000);
+        final StreamConfiguration.ChunkConfiguration<Film> chunking = chunked.chunking().orElseThrow();
+        assertEquals(Film$.length, chunking.key());
+        assertEquals(10_000, chunking.chunkSize());
+        assertTrue(chunked.toString().contains(Film$.length.columnName()));
+        assertEquals(chunking, chunked.joining(Film$.title).chunking().orElseThrow());
+    }
+
+    @Test
+    void chunkedIllegalChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> initial.chunked(Film$.length, 0));
+    }
+
+    @Test
+    void cursor() {
+        assertFalse(initial.fetchSize().isPresent());
+        assertFalse(initial.isForwardOnly());
+        assertFalse(initial.isReadOnly());
+
+        final StreamConfiguration<Film> cursor = initial.withFetchSize(1_000).withForwardOnly().withReadOnly();
+        assertEquals(1_000, cursor.fetchSize().orElseThrow());
+        assertTrue(cursor.isForwardOnly());
+        assertTrue(cursor.isReadOnly());
+
+        final StreamConfiguration<Film> joined = cursor.joining(Film$.title);
+        assertEquals(1_000, joined.fetchSize().orElseThrow());
+        assertTrue(joined.isForwardOnly());
+        assertTrue(joined.isReadOnly());
+    }
+
+    @Test
+    void cursorIllegalFetchSize() {
+        assertThrows(IllegalArgumentException.class, () -> initial.withFetchSize(0));
+    }
+
+    @Test
+    void partitions() {
+        assertFalse(initial.partitions().isPresent());
+
+        final StreamConfiguration<Film> partitioned = initial.withPartitions(8);
+        assertEquals(8, partitioned.partitions().orElseThrow());
+        assertEquals(8, partitioned.joining(Film$.title).withReadOnly().partitions().orElseThrow());
+    }
+
+    @Test
+    void partitionsTooFew() {
+        assertThrows(IllegalArgumentException.class, () -> initial.withPartitions(1));
+    }
+
     @Test
     void testHashCode() {
         final StreamConfiguration<Film> first = initial.joining(Film$.title).joining(Film$.length);
@@ -75,4 +171,10 @@ final class StandardStreamConfigurationTest {
         assertTrue(toString.contains(Film$.length.columnName()));
         System.out.println(toString);
     }
+
+    private static List<String> columnNames(final StreamConfiguration.KeysetConfiguration<Film> keyset) {
+        return keyset.keys().stream()
+                .map(key -> key.getField().columnName())
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+import com.speedment.jpastreamer.field.Field;
+
+import java.time.Duration;
+
+/**
+ * The entity classes whose streams are served from an in-memory store
+ * rather than by querying the database.
+ * <p>
+ * The store of an entity class is loaded upon the first stream over the
+ * class and reloaded once its {@link #refreshInterval()} has passed or the
+ * {@link #version(Class) version} of the class has changed. The stores are
+ * shared by all renderers created with the same instance and are released
+ * once the instance is no longer referenced. Implementations must be thread
+ * safe and must not override {@code equals}.
+ *
+ * @since 3.0.3
+ */
+public interface Acceleration {
+
+    /**
+     * Returns if streams over the provided {@code entityClass} shall be served
+     * from memory.
+     *
+     * @param entityClass the root entity class of a stream
+     * @return if streams over the provided {@code entityClass} shall be served
+     *         from memory
+     */
+    boolean isAccelerating(Class<?> entityClass);
+
+    /**
+     * Returns the current version of the provided {@code entityClass}.
+     * <p>
+     * The in-memory store of the class is reloaded whenever its version
+     * changes.
+     *
+     * @param entityClass the root entity class of a stream
+     * @return the current version of the provided {@code entityClass}
+     */
+    long version(Class<?> entityClass);
+
+    /**
+     * Returns if the provided {@code field} of an accelerated entity class
+     * shall be indexed so that predicates testing its value for equality are
+     * answered by a hash lookup.
+     *
+     * @param field of an accelerated entity class
+     * @return if the provided {@code field} shall be indexed
+     */
+    boolean isIndexed(Field<?> field);
+
+    /**
+     * Returns the duration after which an in-memory store is reloaded.
+     *
+     * @return the duration after which an in-memory store is reloaded
+     */
+    Duration refreshInterval();
+
+}
@@ -0,0 +1,40 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+import com.speedment.jpastreamer.pipeline.Pipeline;
+import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
+
+import java.util.Set;
+
+/**
+ * A {@link Pipeline} that has been rendered and optimized once by
+ * {@link Renderer#prepare(Pipeline, StreamConfiguration)} and that is
+ * executed by binding values to the parameters its predicates compare to.
+ * <p>
+ * The rendered query is opaque to everyone but the renderer that prepared it.
+ * Implementations must be thread safe.
+ *
+ * @since 3.0.3
+ */
+public interface PreparedPipeline {
+
+    /**
+     * Returns the names of the parameters that values must be bound to when
+     * executing this pipeline.
+     *
+     * @return the names of the parameters of this pipeline
+     */
+    Set<String> parameterNames();
+
+}
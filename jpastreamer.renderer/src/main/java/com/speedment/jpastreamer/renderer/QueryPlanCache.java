@@ -0,0 +1,47 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+/**
+ * A cache of the query plans rendered for pipelines that is shared by the
+ * renderers of a JPAStreamer.
+ * <p>
+ * A query plan holds a rendered query together with what is needed to bind
+ * the values of another pipeline of the same shape to it. Plans are opaque to
+ * the cache and are keyed by a description of the shape of a pipeline.
+ * Implementations must be thread safe.
+ *
+ * @since 3.0.3
+ */
+public interface QueryPlanCache {
+
+    /**
+     * Returns the plan cached for the provided {@code key} or {@code null} if
+     * no plan is cached.
+     *
+     * @param key describing the shape of a pipeline
+     * @return the plan cached for the provided {@code key} or {@code null} if
+     *         no plan is cached
+     */
+    Object get(Object key);
+
+    /**
+     * Caches the provided {@code plan} rendered for pipelines described by the
+     * provided {@code key}.
+     *
+     * @param key describing the shape of a pipeline
+     * @param plan rendered for pipelines of that shape
+     */
+    void put(Object key, Object plan);
+
+}
@@ -15,6 +15,7 @@ package com.speedment.jpastreamer.renderer;
 import com.speedment.jpastreamer.pipeline.Pipeline;
 import com.speedment.jpastreamer.streamconfiguration.StreamConfiguration;
 
+import java.util.Map;
 import java.util.stream.BaseStream;
 
 public interface Renderer {
@@ -32,6 +33,49 @@ public interface Renderer {
      */
     <E, T,  S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration);
 
+    /**
+     * Renders and optimizes the provided {@code Pipeline}, whose predicates may
+     * compare fields to parameters rather than to values, once so that it can be
+     * executed repeatedly using {@link #render(Pipeline, StreamConfiguration, PreparedPipeline, Map)}
+     * without rendering or optimizing it again.
+     * <p>
+     * The provided {@code Pipeline} is not executed.
+     *
+     * @param pipeline describing the intended Stream
+     * @param streamConfiguration containing additional information, such as joins
+     * @param <E> type of the root elements in the Stream's source
+     * @return the prepared pipeline
+     * @throws IllegalArgumentException if the pipeline can not be rendered into a
+     *         single query that only needs its parameter values to be bound
+     * @throws UnsupportedOperationException if this renderer can not prepare pipelines
+     * @since 3.0.3
+     */
+    default <E> PreparedPipeline prepare(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates and returns a new RenderResult whereby the provided {@code Pipeline},
+     * which must be of the same shape as the pipeline that was prepared, is
+     * rendered to a stream using the query of the provided {@code prepared} pipeline
+     * and the provided parameter {@code values}.
+     *
+     * @param pipeline describing the intended Stream
+     * @param streamConfiguration containing additional information, such as joins
+     * @param prepared pipeline that was prepared by this kind of renderer
+     * @param values of the parameters of the prepared pipeline, by name
+     * @param <E> type of the root elements in the returned Stream's source
+     * @return a new RenderResult whereby the provided {@code Pipeline}
+     *         is rendered to a stream using the prepared query
+     * @throws IllegalArgumentException if the pipeline is not of the same shape as the
+     *         prepared pipeline or if a parameter has no value
+     * @throws UnsupportedOperationException if this renderer can not prepare pipelines
+     * @since 3.0.3
+     */
+    default <E, T,  S extends BaseStream<T, S>> RenderResult<E, T, S> render(final Pipeline<E> pipeline, final StreamConfiguration<E> streamConfiguration, final PreparedPipeline prepared, final Map<String, ?> values) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Used to release any dangling resources after the expiration period of the
      * Renderer instance.
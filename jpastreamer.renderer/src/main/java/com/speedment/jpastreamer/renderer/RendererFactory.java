@@ -38,6 +38,21 @@ public interface RendererFactory {
      *         is used for creating streams
      */
     Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier);
+
+    /**
+     * Creates and returns a new {@code Renderer} whereby the provided {@code entityManagerSupplier}
+     * is used to create streams using the provided {@code options}.
+     *
+     * @param entityManagerSupplier to be used for creating streams
+     * @param options of the renderer
+     * @return a new {@code Renderer} where the provided {@code entityManagerSupplier}
+     *         is used for creating streams
+     * @since 3.0.3
+     */
+    default Renderer createRenderer(final Supplier<EntityManager> entityManagerSupplier, final RendererOptions options) {
+        return createRenderer(entityManagerSupplier);
+    }
+
     
     Renderer createRenderer(final EntityManager entityManager);
 }
@@ -0,0 +1,172 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The options of the renderers of a JPAStreamer.
+ * <p>
+ * Options are immutable, each {@code with} method returns a new instance
+ * where the given option is set. The limit, the caches and the acceleration
+ * are typically shared by all renderers using the same persistence unit.
+ *
+ * @since 3.0.3
+ */
+public final class RendererOptions {
+
+    private static final RendererOptions DEFAULTS = new RendererOptions(null, null, null, null, null);
+
+    private final Executor executor;
+    private final Semaphore concurrencyLimit;
+    private final ResultCache resultCache;
+    private final QueryPlanCache queryPlanCache;
+    private final Acceleration acceleration;
+
+    private RendererOptions(
+        final Executor executor,
+        final Semaphore concurrencyLimit,
+        final ResultCache resultCache,
+        final QueryPlanCache queryPlanCache,
+        final Acceleration acceleration
+    ) {
+        this.executor = executor;
+        this.concurrencyLimit = concurrencyLimit;
+        this.resultCache = resultCache;
+        this.queryPlanCache = queryPlanCache;
+        this.acceleration = acceleration;
+    }
+
+    /**
+     * Returns the default options whereby queries are executed by the thread
+     * consuming the stream, the number of entity managers is not limited, no
+     * results or query plans are cached and all entities are queried.
+     *
+     * @return the default options
+     */
+    public static RendererOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns the executor used to execute queries ahead of time, if any.
+     *
+     * @return the executor used to execute queries ahead of time, if any
+     */
+    public Optional<Executor> executor() {
+        return Optional.ofNullable(executor);
+    }
+
+    /**
+     * Returns the semaphore holding a permit for each entity manager that may
+     * be used concurrently, if any.
+     *
+     * @return the semaphore holding a permit for each entity manager that may
+     *         be used concurrently, if any
+     */
+    public Optional<Semaphore> concurrencyLimit() {
+        return Optional.ofNullable(concurrencyLimit);
+    }
+
+    /**
+     * Returns the cache that query results are cached in, if any.
+     *
+     * @return the cache that query results are cached in, if any
+     */
+    public Optional<ResultCache> resultCache() {
+        return Optional.ofNullable(resultCache);
+    }
+
+    /**
+     * Returns the cache that query plans are cached in, if any.
+     *
+     * @return the cache that query plans are cached in, if any
+     */
+    public Optional<QueryPlanCache> queryPlanCache() {
+        return Optional.ofNullable(queryPlanCache);
+    }
+
+    /**
+     * Returns the acceleration of the entities served from memory, if any.
+     *
+     * @return the acceleration of the entities served from memory, if any
+     */
+    public Optional<Acceleration> acceleration() {
+        return Optional.ofNullable(acceleration);
+    }
+
+    /**
+     * Returns new options where queries are executed ahead of time using the
+     * provided {@code executor}.
+     *
+     * @param executor to execute queries ahead of time
+     * @return new options where queries are executed ahead of time using the
+     *         provided {@code executor}
+     */
+    public RendererOptions withExecutor(final Executor executor) {
+        return new RendererOptions(requireNonNull(executor), concurrencyLimit, resultCache, queryPlanCache, acceleration);
+    }
+
+    /**
+     * Returns new options where an entity manager is only used while holding
+     * a permit of the provided {@code concurrencyLimit}.
+     *
+     * @param concurrencyLimit holding a permit for each entity manager that may be used concurrently
+     * @return new options where an entity manager is only used while holding
+     *         a permit of the provided {@code concurrencyLimit}
+     */
+    public RendererOptions withConcurrencyLimit(final Semaphore concurrencyLimit) {
+        return new RendererOptions(executor, requireNonNull(concurrencyLimit), resultCache, queryPlanCache, acceleration);
+    }
+
+    /**
+     * Returns new options where query results are cached in the provided
+     * {@code resultCache}.
+     *
+     * @param resultCache to cache query results in
+     * @return new options where query results are cached in the provided
+     *         {@code resultCache}
+     */
+    public RendererOptions withResultCache(final ResultCache resultCache) {
+        return new RendererOptions(executor, concurrencyLimit, requireNonNull(resultCache), queryPlanCache, acceleration);
+    }
+
+    /**
+     * Returns new options where rendered query plans are cached in the
+     * provided {@code queryPlanCache}.
+     *
+     * @param queryPlanCache to cache query plans in
+     * @return new options where rendered query plans are cached in the
+     *         provided {@code queryPlanCache}
+     */
+    public RendererOptions withQueryPlanCache(final QueryPlanCache queryPlanCache) {
+        return new RendererOptions(executor, concurrencyLimit, resultCache, requireNonNull(queryPlanCache), acceleration);
+    }
+
+    /**
+     * Returns new options where the entities selected by the provided
+     * {@code acceleration} are served from memory.
+     *
+     * @param acceleration of entities served from memory
+     * @return new options where the entities selected by the provided
+     *         {@code acceleration} are served from memory
+     */
+    public RendererOptions withAcceleration(final Acceleration acceleration) {
+        return new RendererOptions(executor, concurrencyLimit, resultCache, queryPlanCache, requireNonNull(acceleration));
+    }
+
+}
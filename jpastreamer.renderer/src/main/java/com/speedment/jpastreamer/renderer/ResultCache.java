@@ -0,0 +1,72 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.renderer;
+
+import java.util.List;
+
+/**
+ * A cache of query results that is shared by the renderers of a JPAStreamer.
+ * <p>
+ * Results are cached per entity class so that all results of an entity class
+ * can be invalidated at once. Each entity class has a version that changes
+ * whenever its entities change, a result is only served as long as the version
+ * it was read at is current. Implementations must be thread safe.
+ *
+ * @since 3.0.3
+ */
+public interface ResultCache {
+
+    /**
+     * Returns if results of queries over the provided {@code entityClass}
+     * shall be cached.
+     *
+     * @param entityClass the root entity class of a query
+     * @return if results of queries over the provided {@code entityClass}
+     *         shall be cached
+     */
+    boolean isCaching(Class<?> entityClass);
+
+    /**
+     * Returns the current version of the provided {@code entityClass}.
+     * <p>
+     * The version shall be obtained before a query is executed so that changes
+     * made while the query executes invalidate its result.
+     *
+     * @param entityClass the root entity class of a query
+     * @return the current version of the provided {@code entityClass}
+     */
+    long version(Class<?> entityClass);
+
+    /**
+     * Returns the unmodifiable result cached for the provided {@code key} or
+     * {@code null} if no result is cached.
+     *
+     * @param key describing the query and the values bound to it
+     * @return the unmodifiable result cached for the provided {@code key} or
+     *         {@code null} if no result is cached
+     */
+    List<?> get(Object key);
+
+    /**
+     * Caches the provided unmodifiable {@code result} of a query over the
+     * provided {@code entityClass}, unless the provided {@code version} is no
+     * longer current.
+     *
+     * @param entityClass the root entity class of the query
+     * @param version of the entity class obtained before the query was executed
+     * @param key describing the query and the values bound to it
+     * @param result of the query
+     */
+    void put(Class<?> entityClass, long version, Object key, List<?> result);
+
+}
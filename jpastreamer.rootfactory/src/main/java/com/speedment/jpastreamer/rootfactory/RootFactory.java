@@ -19,6 +19,25 @@ import java.util.ServiceLoader;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+/**
+ * Utility methods for locating services.
+ * <p>
+ * The service selected by {@link #get(Class, Function)} and
+ * {@link #getOrThrow(Class, Function)} is resolved once per service class and
+ * then returned by every subsequent lookup of that class until it is
+ * {@linkplain #reset(Class) reset}. Hence:
+ * <ul>
+ *     <li>The {@code loader} is only consulted by the lookup that resolves the
+ *     service. Subsequent lookups return the resolved service regardless of
+ *     the {@code loader} they provide, even if that {@code loader} would
+ *     locate another service.</li>
+ *     <li>A resolved service is shared by all callers and threads.
+ *     Implementations of services located using this class must therefore be
+ *     thread safe and must not hold state that is specific to a caller.</li>
+ * </ul>
+ * Services located by {@link #stream(Class, Function)} are neither resolved
+ * ahead of time nor shared.
+ */
 public final class RootFactory {
     private RootFactory() {}
 
@@ -30,6 +49,39 @@ public final class RootFactory {
         return InternalRootFactory.getOrThrow(classToken, loader);
     }
 
+    /**
+     * Resolves and registers the service of the provided type so that subsequent
+     * lookups of that service are served without consulting their {@code loader}.
+     * <p>
+     * This method can be used to resolve services during application bootstrap.
+     *
+     * @param classToken of the service to resolve
+     * @param loader used to locate the service
+     * @param <S> service type
+     * @throws java.util.NoSuchElementException if no service could be resolved
+     */
+    public static <S> void preload(final Class<S> classToken, final Function<Class<S>, ServiceLoader<S>> loader) {
+        InternalRootFactory.preload(classToken, loader);
+    }
+
+    /**
+     * Forgets all previously resolved services so that they are resolved anew
+     * upon their next lookup. Intended for tests.
+     */
+    public static void reset() {
+        InternalRootFactory.reset();
+    }
+
+    /**
+     * Forgets the previously resolved service of the provided type so that it is
+     * resolved anew upon its next lookup. Intended for tests.
+     *
+     * @param classToken of the service to forget
+     */
+    public static void reset(final Class<?> classToken) {
+        InternalRootFactory.reset(classToken);
+    }
+
     public static <S> Stream<S> stream(final Class<S> service, final Function<Class<S>, ServiceLoader<S>> loader) {
         return InternalRootFactory.stream(service, loader);
     }
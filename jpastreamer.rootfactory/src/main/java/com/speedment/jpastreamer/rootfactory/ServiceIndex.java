@@ -0,0 +1,52 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.rootfactory;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A static index of service implementations that {@link RootFactory} consults
+ * before resorting to a {@link java.util.ServiceLoader}.
+ * <p>
+ * An index instantiates its services directly rather than reflectively which
+ * saves the cost of scanning for providers and allows for ahead-of-time
+ * compilation (e.g. GraalVM native image) without additional reflection configuration.
+ * <p>
+ * As an index bypasses the {@link Priority} based selection of providers,
+ * it is only used if the system property {@code jpastreamer.rootfactory.serviceindex}
+ * is set to {@code true}.
+ *
+ * @since 3.0.3
+ */
+public interface ServiceIndex {
+
+    /**
+     * Creates and returns a new instance of the indexed implementation of
+     * the provided {@code service}, or {@link Optional#empty()} if this index
+     * does not hold an implementation of the provided {@code service}.
+     *
+     * @param service to create an implementation of
+     * @param <S> service type
+     * @return a new instance of the indexed implementation of the provided {@code service}
+     */
+    <S> Optional<S> get(Class<S> service);
+
+    /**
+     * Returns the services held by this index.
+     *
+     * @return the services held by this index
+     */
+    Set<Class<?>> services();
+
+}
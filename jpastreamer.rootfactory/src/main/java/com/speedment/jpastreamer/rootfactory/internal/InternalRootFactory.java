@@ -13,10 +13,13 @@
 package com.speedment.jpastreamer.rootfactory.internal;
 
 import com.speedment.jpastreamer.rootfactory.Priority;
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -27,6 +30,9 @@ public final class InternalRootFactory {
 
     public static final String PROVIDER = "Provider ";
 
+    // Selected service per service class, shared by all lookups as specified by RootFactory
+    private static final ConcurrentMap<Class<?>, Object> RESOLVED = new ConcurrentHashMap<>();
+
     private InternalRootFactory() {
     }
 
@@ -65,7 +71,40 @@ public final class InternalRootFactory {
 
     }
 
+    public static <S> void preload(final Class<S> service, final Function<Class<S>, ServiceLoader<S>> loader) {
+        getOrThrow(service, loader);
+    }
+
+    public static void reset() {
+        RESOLVED.clear();
+    }
+
+    public static void reset(final Class<?> service) {
+        requireNonNull(service);
+        RESOLVED.remove(service);
+    }
+
     private static <S> S getHelper(final Class<S> service, Function<Class<S>, ServiceLoader<S>> loader) {
+        final Object resolved = RESOLVED.get(service);
+        if (resolved != null) {
+            return service.cast(resolved);
+        }
+        // Resolution is deliberately not done within computeIfAbsent() as providers may
+        // resolve other services while being instantiated. Should two threads race, the
+        // first service to be registered is used by both.
+        final S selectedService = resolve(service, loader);
+        if (selectedService == null) {
+            return null;
+        }
+        final Object previous = RESOLVED.putIfAbsent(service, selectedService);
+        return previous == null ? selectedService : service.cast(previous);
+    }
+
+    private static <S> S resolve(final Class<S> service, Function<Class<S>, ServiceLoader<S>> loader) {
+        final Optional<S> indexed = ServiceIndexHolder.INDEX.flatMap(index -> index.get(service));
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
         Optional<ServiceLoader.Provider<S>> provider = loader.apply(service)
                 .stream()
                 .min(Comparator.comparingInt(p -> {
@@ -112,4 +151,16 @@ public final class InternalRootFactory {
         throw new ServiceConfigurationError(service.getName() + ": " + msg);
     }
 
+    private static final class ServiceIndexHolder {
+
+        private static final String SERVICE_INDEX_PROPERTY = "jpastreamer.rootfactory.serviceindex";
+
+        private static final Optional<ServiceIndex> INDEX = Boolean.getBoolean(SERVICE_INDEX_PROPERTY)
+            ? ServiceLoader.load(ServiceIndex.class, InternalRootFactory.class.getClassLoader()).findFirst()
+            : Optional.empty();
+
+        private ServiceIndexHolder() {
+        }
+    }
+
 }
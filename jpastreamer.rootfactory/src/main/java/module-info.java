@@ -10,6 +10,10 @@
  *
  * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
  */
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+
 module jpastreamer.rootfactory {
     exports com.speedment.jpastreamer.rootfactory;
+
+    uses ServiceIndex;
 }
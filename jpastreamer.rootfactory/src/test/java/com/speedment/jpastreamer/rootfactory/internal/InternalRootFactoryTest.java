@@ -0,0 +1,120 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.rootfactory.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.speedment.jpastreamer.rootfactory.RootFactory;
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+final class InternalRootFactoryTest {
+
+    // No ServiceIndex is provided, so the standard implementation in the test sources is guessed
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Class<ServiceIndex>, ServiceLoader<ServiceIndex>> loader = service -> {
+        loads.incrementAndGet();
+        return ServiceLoader.load(service);
+    };
+
+    @AfterEach
+    void resetServices() {
+        RootFactory.reset();
+    }
+
+    @Test
+    void memoized() {
+        final ServiceIndex first = RootFactory.getOrThrow(ServiceIndex.class, loader);
+        final ServiceIndex second = RootFactory.getOrThrow(ServiceIndex.class, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void otherLoader() {
+        final ServiceIndex first = RootFactory.getOrThrow(ServiceIndex.class, loader);
+
+        // The loader of subsequent lookups is not consulted
+        assertSame(first, RootFactory.getOrThrow(ServiceIndex.class, service -> {
+            throw new AssertionError("Resolved services are shared by all lookups");
+        }));
+    }
+
+    @Test
+    void preload() {
+        RootFactory.preload(ServiceIndex.class, loader);
+        assertEquals(1, loads.get());
+
+        assertTrue(RootFactory.get(ServiceIndex.class, loader).isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reset() {
+        final ServiceIndex first = RootFactory.getOrThrow(ServiceIndex.class, loader);
+
+        RootFactory.reset(ServiceIndex.class);
+        final ServiceIndex second = RootFactory.getOrThrow(ServiceIndex.class, loader);
+        assertNotSame(first, second);
+        assertEquals(2, loads.get());
+
+        RootFactory.reset();
+        assertNotSame(second, RootFactory.getOrThrow(ServiceIndex.class, loader));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void concurrent() {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<CompletableFuture<ServiceIndex>> lookups = IntStream.range(0, threads)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    return RootFactory.getOrThrow(ServiceIndex.class, loader);
+                }, executor))
+                .collect(Collectors.toList());
+
+            start.countDown();
+
+            // Racing lookups may resolve the service several times, but all of them obtain the same instance
+            final ServiceIndex registered = RootFactory.getOrThrow(ServiceIndex.class, loader);
+            lookups.forEach(lookup -> assertSame(registered, lookup.join()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * JPAstreamer - Express JPA queries with Java Streams
+ * Copyright (c) 2020-2022, Speedment, Inc. All Rights Reserved.
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * See: https://github.com/speedment/jpa-streamer/blob/master/LICENSE
+ */
+package com.speedment.jpastreamer.rootfactory.standard;
+
+import com.speedment.jpastreamer.rootfactory.ServiceIndex;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The standard implementation guessed by the RootFactory when no
+ * {@link ServiceIndex} is provided, used as a service under test.
+ */
+public final class StandardServiceIndex implements ServiceIndex {
+
+    @Override
+    public <S> Optional<S> get(final Class<S> service) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Set<Class<?>> services() {
+        return Collections.emptySet();
+    }
+
+}
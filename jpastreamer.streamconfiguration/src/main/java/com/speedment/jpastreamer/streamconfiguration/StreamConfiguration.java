@@ -13,13 +13,18 @@
 package com.speedment.jpastreamer.streamconfiguration;
 
 import com.speedment.jpastreamer.field.Field;
+import com.speedment.jpastreamer.field.comparator.FieldComparator;
+import com.speedment.jpastreamer.field.trait.HasComparableOperators;
 import com.speedment.jpastreamer.projection.Projection;
 import com.speedment.jpastreamer.rootfactory.RootFactory;
 
 import jakarta.persistence.criteria.JoinType;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 import java.util.Set;
 
@@ -158,6 +163,227 @@ public interface StreamConfiguration<T> {
      */
     StreamConfiguration<T> withHint(final String hintName, final Object value);
 
+    /**
+     * Returns the number of rows to fetch from the database in each round
+     * trip when consuming a future Stream or {@link OptionalInt#empty()} if
+     * the default of the persistence provider and JDBC driver shall be used.
+     *
+     * @return the number of rows to fetch in each round trip
+     * @since 3.0.3
+     */
+    OptionalInt fetchSize();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured to fetch
+     * the provided number of rows from the database in each round trip.
+     * <p>
+     * Many JDBC drivers buffer the entire result by default, which means
+     * that the memory required to consume a Stream grows with the number
+     * of elements. Setting a fetch size allows rows to be streamed from
+     * the database. Note that some drivers require additional settings,
+     * for example the MySQL driver only streams rows with a fetch size of
+     * {@link Integer#MIN_VALUE} or with the connection property
+     * {@code useCursorFetch=true}.
+     *
+     * @param fetchSize the number of rows to fetch in each round trip
+     * @return a new StreamConfiguration configured with the provided {@code fetchSize}
+     * @throws IllegalArgumentException if the provided {@code fetchSize} is zero
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> withFetchSize(final int fetchSize);
+
+    /**
+     * Returns if the rows of a future Stream shall be read using a
+     * forward-only cursor.
+     *
+     * @return if the rows shall be read using a forward-only cursor
+     * @since 3.0.3
+     */
+    boolean isForwardOnly();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured to read
+     * the rows of a future Stream using a forward-only cursor, allowing
+     * the JDBC driver to discard rows once they have been consumed.
+     *
+     * @return a new StreamConfiguration configured to read the rows using
+     * a forward-only cursor
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> withForwardOnly();
+
+    /**
+     * Returns if the entities of a future Stream shall be loaded in
+     * read-only mode.
+     *
+     * @return if the entities shall be loaded in read-only mode
+     * @since 3.0.3
+     */
+    boolean isReadOnly();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured to load the
+     * entities of a future Stream in read-only mode.
+     * <p>
+     * Read-only entities are not checked for modifications when the
+     * persistence context is flushed which saves both memory and time,
+     * but modifications of the entities will not be persisted.
+     *
+     * @return a new StreamConfiguration configured to load the entities in
+     * read-only mode
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> withReadOnly();
+
+    /**
+     * Returns the number of partitions that a future parallel Stream is read
+     * in or {@link OptionalInt#empty()} if a parallel Stream is read using a
+     * single query.
+     *
+     * @return the number of partitions that a future parallel Stream is read in
+     * @since 3.0.3
+     */
+    OptionalInt partitions();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured to read the
+     * elements of a future parallel Stream in the provided number of
+     * partitions, so that the partitions are read concurrently.
+     * <p>
+     * The range between the lowest and the highest value of the integral
+     * identifier of the entity is split into {@code partitions} key ranges,
+     * each of which is read using a query and an {@code EntityManager} of
+     * its own. The {@code EntityManager} of a partition is closed once the
+     * partition has been read, which means that the streamed entities are
+     * detached.
+     * <p>
+     * Sequential Streams, Streams over entities without an integral
+     * identifier and Streams whose order or limits are rendered into the
+     * query are read using a single query.
+     *
+     * @param partitions the number of partitions, typically the number of
+     *                   threads consuming the Stream
+     * @return a new StreamConfiguration configured to read the elements of a
+     * parallel Stream in the provided number of partitions
+     * @throws IllegalArgumentException if the provided {@code partitions} is less than two
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> withPartitions(final int partitions);
+
+    /**
+     * Returns the keyset used to paginate a future stream or
+     * {@link Optional#empty()} if the stream is not paginated by keyset.
+     *
+     * @return the keyset used to paginate a future stream or
+     * {@link Optional#empty()} if the stream is not paginated by keyset
+     * @since 3.0.3
+     */
+    Optional<KeysetConfiguration<T>> keyset();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured so that the
+     * elements of a future stream are ordered by the provided {@code keyOrder}.
+     * <p>
+     * This is the first page of a keyset (seek) pagination. Subsequent pages
+     * are obtained using {@link #pagedBy(Comparator, Object)} which, unlike
+     * {@code skip()}, does not require the database to scan all preceding
+     * rows.
+     * <p>
+     * The {@code keyOrder} must be a field comparator (e.g. {@code Film$.filmId})
+     * or a combination of field comparators (e.g.
+     * {@code Film$.rating.comparator().thenComparing(Film$.filmId)}) that
+     * uniquely orders the entities. Key columns must not contain null values.
+     * <p>
+     * The elements are ordered by the keys alone. A {@code sorted()} operation
+     * that is rendered into the query must therefore sort by a prefix of the
+     * keys, otherwise an {@link IllegalStateException} is thrown when the
+     * stream is consumed.
+     *
+     * @param keyOrder the order of the keys
+     * @return a new StreamConfiguration configured so that the elements of
+     * a future stream are ordered by the provided {@code keyOrder}
+     * @throws IllegalArgumentException if the provided {@code keyOrder} is not
+     * composed of field comparators
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> pagedBy(final Comparator<T> keyOrder);
+
+    /**
+     * Creates and returns a new StreamConfiguration configured so that the
+     * elements of a future stream are ordered by the provided {@code keyOrder}
+     * and start after the provided {@code last} entity, e.g. the last entity
+     * of the previous page.
+     * <p>
+     * The page is rendered as a query of the form
+     * {@code WHERE key > :lastKey ORDER BY key}. Limit the size of the page
+     * using {@code Stream::limit}:
+     * <pre>{@code
+     *     final StreamConfiguration<Film> next = StreamConfiguration.of(Film.class)
+     *         .pagedBy(Film$.filmId, lastFilm);
+     *     final List<Film> page = jpaStreamer.stream(next)
+     *         .limit(100)
+     *         .collect(Collectors.toList());
+     * }</pre>
+     *
+     * @param keyOrder the order of the keys
+     * @param last entity preceding the first element of the future stream
+     * @return a new StreamConfiguration configured so that the elements of
+     * a future stream are ordered by the provided {@code keyOrder} and start
+     * after the provided {@code last} entity
+     * @throws IllegalArgumentException if the provided {@code keyOrder} is not
+     * composed of field comparators
+     * @throws NullPointerException if a key of the provided {@code last} entity is null
+     * @since 3.0.3
+     * @see #pagedBy(Comparator)
+     */
+    StreamConfiguration<T> pagedBy(final Comparator<T> keyOrder, final T last);
+
+    /**
+     * Returns the chunking used to read the elements of a future stream or
+     * {@link Optional#empty()} if the elements are read using a single query.
+     * @return the chunking used to read the elements of a future stream or
+     * {@link Optional#empty()} if the elements are read using a single query
+     * @since 3.0.3
+     */
+    Optional<ChunkConfiguration<T>> chunking();
+
+    /**
+     * Creates and returns a new StreamConfiguration configured so that the
+     * elements of a future stream are read in chunks of at most
+     * {@code chunkSize} elements using successive range queries over the
+     * provided unique {@code key}, typically the primary key.
+     * <p>
+     * The entities of each chunk are detached before the subsequent chunk is
+     * read so that they can be garbage collected. This allows streaming over
+     * tables of any size in constant memory but also means that the entities
+     * of the stream are detached as the stream is consumed. Other entities of
+     * the persistence context, such as those obtained from other streams of
+     * the same JPAStreamer instance, remain managed.
+     * <p>
+     * The {@code key} must be the id of the entity or a field declared unique,
+     * otherwise an {@link IllegalStateException} is thrown when the stream is
+     * consumed.
+     * <p>
+     * Filters, sorting, {@code skip()} and {@code limit()} that are rendered
+     * into the query are preserved. If the elements of the stream are
+     * ordered by other fields than the {@code key}, the chunks are read
+     * using offsets rather than key ranges.
+     * <pre>{@code
+     *     final StreamConfiguration<Film> chunked = StreamConfiguration.of(Film.class)
+     *         .chunked(Film$.filmId, 10_000);
+     *     jpaStreamer.stream(chunked)
+     *         .filter(Film$.rating.equal("G"))
+     *         .forEach(this::export);
+     * }</pre>
+     * @param key the id or a unique field that is not null for any entity
+     * @param chunkSize the maximum number of elements in each chunk
+     * @return a new StreamConfiguration configured so that the elements of
+     * a future stream are read in chunks
+     * @throws IllegalArgumentException if the provided {@code chunkSize} is not positive
+     * @since 3.0.3
+     */
+    StreamConfiguration<T> chunked(final HasComparableOperators<T, ?> key, final int chunkSize);
+
     /**
      * Creates and returns a new StreamConfiguration that can be used
      * to configure streams.
@@ -203,4 +429,52 @@ public interface StreamConfiguration<T> {
         JoinType joinType();
     }
 
+    /**
+     * KeysetConfiguration instances are used to configure
+     * keyset (seek) pagination of Streams.
+     *
+     * @param <T> the entity type
+     * @since 3.0.3
+     */
+    interface KeysetConfiguration<T> {
+        /**
+         * Returns the comparators of the keys in order of significance.
+         *
+         * @return the comparators of the keys in order of significance
+         */
+        List<FieldComparator<T>> keys();
+
+        /**
+         * Returns the values of the keys (in the same order as {@link #keys()})
+         * that the elements of the stream shall follow or {@link Optional#empty()}
+         * if the stream shall start with the first element.
+         *
+         * @return the values of the keys that the elements of the stream shall follow
+         */
+        Optional<List<Object>> after();
+    }
+
+    /**
+     * ChunkConfiguration instances are used to configure
+     * chunked reading of Streams.
+     *
+     * @param <T> the entity type
+     * @since 3.0.3
+     */
+    interface ChunkConfiguration<T> {
+        /**
+         * Returns the unique field that the elements are read in ranges of.
+         *
+         * @return the unique field that the elements are read in ranges of
+         */
+        HasComparableOperators<T, ?> key();
+
+        /**
+         * Returns the maximum number of elements read in each chunk.
+         *
+         * @return the maximum number of elements read in each chunk
+         */
+        int chunkSize();
+    }
+
 }